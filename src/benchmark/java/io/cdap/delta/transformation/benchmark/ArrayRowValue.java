@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.transformation.api.MutableRowValue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Array backed {@link MutableRowValue} whose rows share one {@link Layout} per set of column names.
+ */
+public class ArrayRowValue implements MutableRowValue {
+
+  private Layout layout;
+  private final Object[] values;
+
+  public ArrayRowValue(Layout layout, Object[] values) {
+    this.layout = layout;
+    this.values = values;
+  }
+
+  @Override
+  public Object getColumnValue(String columnName) {
+    int index = layout.indexOf(columnName);
+    return index < 0 ? null : values[index];
+  }
+
+  @Override
+  public void setColumnValue(String columnName, Object value) {
+    values[layout.indexOf(columnName)] = value;
+  }
+
+  @Override
+  public void renameColumn(String originalName, String newName) {
+    layout = layout.rename(layout.indexOf(originalName), newName);
+  }
+
+  /**
+   * Column names and positions shared by rows. Renaming a column yields another shared layout.
+   */
+  public static final class Layout {
+    private final String[] names;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final Map<String, Layout> renamed = new HashMap<>();
+
+    public Layout(List<String> names) {
+      this.names = names.toArray(new String[0]);
+      for (int i = 0; i < this.names.length; i++) {
+        indexes.put(this.names[i], i);
+      }
+    }
+
+    int indexOf(String name) {
+      Integer index = indexes.get(name);
+      return index == null ? -1 : index;
+    }
+
+    Layout rename(int index, String newName) {
+      return renamed.computeIfAbsent(index + ":" + newName, key -> {
+        String[] newNames = names.clone();
+        newNames[index] = newName;
+        return new Layout(Arrays.asList(newNames));
+      });
+    }
+  }
+}
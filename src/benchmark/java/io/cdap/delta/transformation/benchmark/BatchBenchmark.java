@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.BatchTransformation;
+import io.cdap.delta.transformation.plugins.MaskTransformation;
+import io.cdap.delta.transformation.plugins.RenameTransformation;
+import io.cdap.delta.transformation.sample.plugins.ToStringTransformation;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.Transformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares transforming a batch of rows one {@link Transformation#transformValue} call at a time with a single
+ * {@link BatchTransformation#transformValues} call. Scores are per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BatchBenchmark {
+
+  private static final int BATCH_SIZE = 1024;
+
+  @Param({"mask", "rename", "to-string"})
+  public String directive;
+
+  private List<MutableRowValue> rows;
+  private BatchTransformation transformation;
+  private BatchTransformation reverse;
+
+  @Setup
+  public void setup() throws Exception {
+    Random random = new Random(42);
+    rows = new ArrayList<>();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      Map<String, Object> values = new HashMap<>();
+      values.put("column", "mask".equals(directive) ? TransformationBenchmark.randomString(random, 16) : "value");
+      rows.add(new InMemoryRowValue(values));
+    }
+    switch (directive) {
+      case "mask":
+        transformation = initialize(new MaskTransformation(), "mask column right * 4");
+        break;
+      case "rename":
+        transformation = initialize(new RenameTransformation(), "rename column other");
+        reverse = initialize(new RenameTransformation(), "rename other column");
+        break;
+      default:
+        // converting strings keeps every invocation identical
+        transformation = initialize(new ToStringTransformation(), "to-string column");
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public List<MutableRowValue> perRow() throws Exception {
+    for (MutableRowValue row : rows) {
+      transformation.transformValue(row);
+    }
+    if (reverse != null) {
+      for (MutableRowValue row : rows) {
+        reverse.transformValue(row);
+      }
+    }
+    return rows;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public List<MutableRowValue> batch() throws Exception {
+    transformation.transformValues(rows);
+    if (reverse != null) {
+      reverse.transformValues(rows);
+    }
+    return rows;
+  }
+
+  private static BatchTransformation initialize(BatchTransformation transformation,
+                                                String commandLine) throws Exception {
+    TransformationBenchmark.initialize(transformation, commandLine);
+    return transformation;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.plugins.ProjectTransformation;
+import io.cdap.delta.transformation.plugins.RenameTransformation;
+import io.cdap.transformation.api.Transformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renames every column of a wide row from camel case to snake case, with one rename directive per column against
+ * a single project directive.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BulkRenameBenchmark {
+
+  @Param({"30", "300"})
+  public int columnCount;
+
+  private ArrayRowValue.Layout layout;
+  private Object[] values;
+  private Transformation[] renames;
+  private Transformation project;
+
+  @Setup
+  public void setup() throws Exception {
+    List<String> names = new ArrayList<>();
+    StringJoiner mapping = new StringJoiner(",");
+    renames = new Transformation[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      String name = "column" + i + "Value";
+      String newName = "column" + i + "_value";
+      names.add(name);
+      mapping.add(name + "=" + newName);
+      renames[i] = TransformationBenchmark.initialize(new RenameTransformation(), "rename " + name + " " + newName);
+    }
+    layout = new ArrayRowValue.Layout(names);
+    values = new Object[columnCount];
+    project = TransformationBenchmark.initialize(new ProjectTransformation(), "project " + mapping);
+  }
+
+  @Benchmark
+  public ArrayRowValue renameDirectives() throws Exception {
+    ArrayRowValue row = new ArrayRowValue(layout, values);
+    for (Transformation rename : renames) {
+      rename.transformValue(row);
+    }
+    return row;
+  }
+
+  @Benchmark
+  public ArrayRowValue projectDirective() throws Exception {
+    ArrayRowValue row = new ArrayRowValue(layout, values);
+    project.transformValue(row);
+    return row;
+  }
+}
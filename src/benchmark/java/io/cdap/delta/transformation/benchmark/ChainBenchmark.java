@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.plugins.ChainTransformation;
+import io.cdap.delta.transformation.plugins.CompiledChainTransformation;
+import io.cdap.delta.transformation.plugins.MaskTransformation;
+import io.cdap.delta.transformation.plugins.RenameTransformation;
+import io.cdap.delta.transformation.sample.plugins.ToStringTransformation;
+import io.cdap.transformation.api.Transformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares applying a table's directives as separate transformations with applying them through one
+ * {@link ChainTransformation}, interpreted or compiled into a generated class by a
+ * {@link CompiledChainTransformation}. Every invocation transforms a fresh copy of the same row, in all cases.
+ * The directives cycle through to-string and mask on the same column, a mask on its own, and a rename.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ChainBenchmark {
+
+  private static final int COLUMN_COUNT = 100;
+
+  @Param({"10", "20", "30"})
+  public int directiveCount;
+
+  private Map<String, Object> template;
+  private Transformation[] separate;
+  private Transformation chain;
+  private Transformation compiled;
+
+  @Setup
+  public void setup() throws Exception {
+    Random random = new Random(42);
+    template = new HashMap<>();
+    for (int i = 0; i < COLUMN_COUNT; i++) {
+      template.put("column_" + i, i % 2 == 0 ? TransformationBenchmark.randomString(random, 16) : random.nextLong());
+    }
+
+    List<String> directives = new ArrayList<>();
+    for (int i = 0; directives.size() < directiveCount; i++) {
+      switch (i % 3) {
+        case 0:
+          directives.add("to-string column_" + (2 * i + 1));
+          directives.add("mask column_" + (2 * i + 1) + " left * 4");
+          break;
+        case 1:
+          directives.add("mask column_" + 2 * i + " right * 4");
+          break;
+        default:
+          directives.add("rename column_" + 2 * i + " renamed_" + i);
+      }
+    }
+
+    separate = new Transformation[directiveCount];
+    for (int i = 0; i < directiveCount; i++) {
+      String directive = directives.get(i);
+      Transformation transformation = directive.startsWith(MaskTransformation.NAME) ? new MaskTransformation() :
+        directive.startsWith(RenameTransformation.NAME) ? new RenameTransformation() : new ToStringTransformation();
+      separate[i] = TransformationBenchmark.initialize(transformation, directive);
+    }
+    chain = TransformationBenchmark.initialize(new ChainTransformation(),
+                                               "chain " + String.join(" ; ", directives.subList(0, directiveCount)));
+    compiled = TransformationBenchmark.initialize(new CompiledChainTransformation(), "compiled-chain " +
+      String.join(" ; ", directives.subList(0, directiveCount)));
+  }
+
+  @Benchmark
+  public InMemoryRowValue separate() throws Exception {
+    InMemoryRowValue row = new InMemoryRowValue(template);
+    for (Transformation transformation : separate) {
+      transformation.transformValue(row);
+    }
+    return row;
+  }
+
+  @Benchmark
+  public InMemoryRowValue chained() throws Exception {
+    InMemoryRowValue row = new InMemoryRowValue(template);
+    chain.transformValue(row);
+    return row;
+  }
+
+  @Benchmark
+  public InMemoryRowValue compiled() throws Exception {
+    InMemoryRowValue row = new InMemoryRowValue(template);
+    compiled.transformValue(row);
+    return row;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.plugins.ChainTransformation;
+import io.cdap.delta.transformation.plugins.CompiledChainTransformation;
+import io.cdap.transformation.api.Transformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the interpreted and compiled chains on array backed rows, where the value changes dominate. Every column
+ * is masked, keeping its start or its end with a different mask character, and every other column is converted to
+ * a string first, so the interpreted chain calls several directive types from one call site.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompiledChainBenchmark {
+
+  @Param({"4", "32"})
+  public int columnCount;
+
+  private ArrayRowValue.Layout layout;
+  private Object[] template;
+  private Transformation chain;
+  private Transformation compiled;
+
+  @Setup
+  public void setup() throws Exception {
+    Random random = new Random(42);
+    List<String> names = new ArrayList<>();
+    List<String> directives = new ArrayList<>();
+    template = new Object[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      String name = "column_" + i;
+      names.add(name);
+      if (i % 2 == 0) {
+        template[i] = TransformationBenchmark.randomString(random, 16);
+      } else {
+        template[i] = random.nextLong();
+        directives.add("to-string " + name);
+      }
+      directives.add("mask " + name + (i % 3 == 0 ? " left " : " right ") + "*#x".charAt(i % 3) + " 4");
+    }
+    layout = new ArrayRowValue.Layout(names);
+    chain = TransformationBenchmark.initialize(new ChainTransformation(), "chain " + String.join(" ; ", directives));
+    compiled = TransformationBenchmark.initialize(new CompiledChainTransformation(), "compiled-chain " +
+      String.join(" ; ", directives));
+  }
+
+  @Benchmark
+  public ArrayRowValue chained() throws Exception {
+    ArrayRowValue row = new ArrayRowValue(layout, template.clone());
+    chain.transformValue(row);
+    return row;
+  }
+
+  @Benchmark
+  public ArrayRowValue compiled() throws Exception {
+    ArrayRowValue row = new ArrayRowValue(layout, template.clone());
+    compiled.transformValue(row);
+    return row;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.plugins.MaskTransformation;
+import io.cdap.transformation.api.MutableRowValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Masks a column of rows of which a given percentage matches the {@code when} clause of the directive, against the
+ * same directive without a clause. Rows that do not match only cost the evaluation of the condition.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConditionalMaskBenchmark {
+
+  private static final int ROW_COUNT = 1024;
+
+  @Param({"0", "10", "100"})
+  public int matchingPercent;
+
+  @Param({"none", "simple", "compound"})
+  public String condition;
+
+  private MutableRowValue[] rows;
+  private MaskTransformation mask;
+
+  @Setup
+  public void setup() throws Exception {
+    Random random = new Random(42);
+    rows = new MutableRowValue[ROW_COUNT];
+    for (int i = 0; i < ROW_COUNT; i++) {
+      Map<String, Object> values = new HashMap<>();
+      values.put("ssn", TransformationBenchmark.randomString(random, 9));
+      values.put("country", random.nextInt(100) < matchingPercent ? "DE" : "FR");
+      values.put("op", "update");
+      rows[i] = new InMemoryRowValue(values);
+    }
+    String clause;
+    switch (condition) {
+      case "simple":
+        clause = " when country = 'DE'";
+        break;
+      case "compound":
+        clause = " when country = 'DE' and op in ('insert', 'update')";
+        break;
+      default:
+        clause = "";
+    }
+    mask = new MaskTransformation();
+    TransformationBenchmark.initialize(mask, "mask ssn right * 4" + clause);
+  }
+
+  @Benchmark
+  public MutableRowValue[] mask() throws Exception {
+    for (MutableRowValue row : rows) {
+      mask.transformValue(row);
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.TestSecrets;
+import io.cdap.delta.transformation.plugins.FpeTransformation;
+import io.cdap.delta.transformation.plugins.MaskTransformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+/**
+ * Compares format-preserving encryption with plain masking of the same values, for digit strings of the given
+ * length. Lengths up to 32 digits run FF1 on longs, longer ones on big integers.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FpeBenchmark {
+
+  private static final int VALUE_COUNT = 1024;
+  private static final String KEY = TestSecrets.reference("2b7e151628aed2a6abf7158809cf4f3c");
+
+  @Param({"9", "16", "64"})
+  public int valueLength;
+
+  private String[] values;
+  private int cursor;
+  private FpeTransformation fpe;
+  private MaskTransformation mask;
+
+  @Setup
+  public void setup() throws Exception {
+    Random random = new Random(42);
+    values = new String[VALUE_COUNT];
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      values[i] = TransformationBenchmark.randomString(random, valueLength);
+    }
+    fpe = new FpeTransformation();
+    TransformationBenchmark.initialize(fpe, "fpe column encrypt digits " + KEY);
+    mask = new MaskTransformation();
+    TransformationBenchmark.initialize(mask, "mask column right * 4");
+  }
+
+  @Benchmark
+  public Object fpe() {
+    return fpe.transformColumnValue(nextValue());
+  }
+
+  @Benchmark
+  public Object mask() {
+    return mask.transformColumnValue(nextValue());
+  }
+
+  private String nextValue() {
+    String value = values[cursor];
+    cursor = (cursor + 1) & (VALUE_COUNT - 1);
+    return value;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.Generalizer;
+import io.cdap.delta.transformation.Masker;
+import io.cdap.delta.transformation.StringConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+/**
+ * Compares the generalize transformation against the workaround it replaces, converting the value to a string and
+ * masking its trailing characters, e.g. to-string salary ; mask salary left 0 2 for six digit salaries:
+ * <ul>
+ *   <li>LONG: salaries rounded to 10000</li>
+ *   <li>TIMESTAMP_MICROS: timestamps floored to the day, masking the time after the date</li>
+ *   <li>STRING: ZIP codes reduced to their first 3 digits</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GeneralizeBenchmark {
+
+  private static final int VALUE_COUNT = 1024;
+
+  @Param({"LONG", "TIMESTAMP_MICROS", "STRING"})
+  public String type;
+
+  private Object[] values;
+  private int cursor;
+  private Generalizer generalizer;
+  private StringConverter converter;
+  private Masker masker;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    values = new Object[VALUE_COUNT];
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      switch (type) {
+        case "TIMESTAMP_MICROS":
+          // a month of change events
+          values[i] = 1625000000000000L + (random.nextLong() & 0x1ffffffffffL);
+          break;
+        case "STRING":
+          values[i] = String.valueOf(10000 + random.nextInt(90000));
+          break;
+        default:
+          values[i] = 100000L + random.nextInt(900000);
+      }
+    }
+    Schema schema;
+    switch (type) {
+      case "TIMESTAMP_MICROS":
+        schema = Schema.of(Schema.LogicalType.TIMESTAMP_MICROS);
+        generalizer = Generalizer.forSchema(schema, Generalizer.Spec.parse("floor", "day"));
+        masker = new Masker('0', 10, false);
+        break;
+      case "STRING":
+        schema = Schema.of(Schema.Type.STRING);
+        generalizer = Generalizer.forSchema(schema, Generalizer.Spec.parse("prefix", "3"));
+        masker = new Masker('*', 3, false);
+        break;
+      default:
+        schema = Schema.of(Schema.Type.LONG);
+        generalizer = Generalizer.forSchema(schema, Generalizer.Spec.parse("round", "10000"));
+        masker = new Masker('0', 2, false);
+    }
+    converter = StringConverter.forSchema(schema);
+  }
+
+  @Benchmark
+  public Object generalize() {
+    return generalizer.generalize(nextValue());
+  }
+
+  @Benchmark
+  public Object toStringAndMask() {
+    return masker.mask(converter.convert(nextValue()));
+  }
+
+  private Object nextValue() {
+    Object value = values[cursor];
+    cursor = (cursor + 1) & (VALUE_COUNT - 1);
+    return value;
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.TestSecrets;
+import io.cdap.delta.transformation.plugins.HashTransformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+/**
+ * Measures the hash transformation with and without its token memo, over a stream of keys drawn from a pool of
+ * {@code distinctKeys} values, the way a change stream keeps updating the same rows.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HashBenchmark {
+
+  private static final int STREAM_LENGTH = 1 << 16;
+
+  @Param({HashTransformation.HMAC_SHA256, HashTransformation.SIPHASH})
+  public String algorithm;
+
+  @Param({"0", "10000"})
+  public int cacheSize;
+
+  @Param({"1000", "1000000"})
+  public int distinctKeys;
+
+  private String[] keys;
+  private int cursor;
+  private HashTransformation hash;
+
+  @Setup
+  public void setup() throws Exception {
+    Random random = new Random(42);
+    keys = new String[STREAM_LENGTH];
+    for (int i = 0; i < STREAM_LENGTH; i++) {
+      keys[i] = "customer-" + random.nextInt(distinctKeys);
+    }
+    hash = new HashTransformation();
+    TransformationBenchmark.initialize(hash, String.format("hash customer_id %s %s %d", algorithm,
+                                                           TestSecrets.reference("secret"), cacheSize));
+  }
+
+  @Benchmark
+  public Object hash() {
+    String key = keys[cursor];
+    cursor = (cursor + 1) & (STREAM_LENGTH - 1);
+    return hash.transformColumnValue(key);
+  }
+
+  @TearDown(Level.Trial)
+  public void reportHitRate() {
+    if (cacheSize > 0) {
+      System.out.printf("%ncache hit rate: %.3f%n", hash.getCacheHitRate());
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.transformation.api.MutableRowValue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Map backed {@link MutableRowValue} used as a stand-in for the row values the replicator hands to the
+ * transformation plugins.
+ */
+public class InMemoryRowValue implements MutableRowValue {
+
+  private final Map<String, Object> values;
+
+  public InMemoryRowValue(Map<String, Object> values) {
+    this.values = new LinkedHashMap<>(values);
+  }
+
+  @Override
+  public Object getColumnValue(String columnName) {
+    return values.get(columnName);
+  }
+
+  @Override
+  public void setColumnValue(String columnName, Object value) {
+    values.put(columnName, value);
+  }
+
+  @Override
+  public void renameColumn(String originalName, String newName) {
+    values.put(newName, values.remove(originalName));
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.metrics.InMemoryMetricsSink;
+import io.cdap.delta.transformation.metrics.InstrumentedTransformation;
+import io.cdap.delta.transformation.plugins.MaskTransformation;
+import io.cdap.transformation.api.Transformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of {@link InstrumentedTransformation} over a plain mask transformation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class InstrumentationBenchmark {
+
+  private static final int ROW_COUNT = 1024;
+
+  private InMemoryRowValue[] rows;
+  private int cursor;
+  private Transformation plain;
+  private Transformation instrumented;
+
+  @Setup
+  public void setup() throws Exception {
+    Random random = new Random(42);
+    rows = new InMemoryRowValue[ROW_COUNT];
+    for (int i = 0; i < ROW_COUNT; i++) {
+      Map<String, Object> values = new HashMap<>();
+      // one row in four is null
+      values.put("ssn", i % 4 == 0 ? null : TransformationBenchmark.randomString(random, 9));
+      rows[i] = new InMemoryRowValue(values);
+    }
+    plain = TransformationBenchmark.initialize(new MaskTransformation(), "mask ssn right * 4");
+    instrumented = TransformationBenchmark.initialize(
+      new InstrumentedTransformation(new MaskTransformation(), new InMemoryMetricsSink()), "mask ssn right * 4");
+  }
+
+  @Benchmark
+  public InMemoryRowValue plain() throws Exception {
+    InMemoryRowValue row = nextRow();
+    plain.transformValue(row);
+    return row;
+  }
+
+  @Benchmark
+  public InMemoryRowValue instrumented() throws Exception {
+    InMemoryRowValue row = nextRow();
+    instrumented.transformValue(row);
+    return row;
+  }
+
+  private InMemoryRowValue nextRow() {
+    InMemoryRowValue row = rows[cursor];
+    cursor = (cursor + 1) & (ROW_COUNT - 1);
+    return row;
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.FieldPath;
+import io.cdap.delta.transformation.Masker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Masks a member of 10 KB JSON documents, with the member near the start or at the end of the document, through a
+ * {@link FieldPath}, which scans up to the member and splices the masked value in, and through a full parse into a
+ * tree of maps and lists that is serialized again after the change, which is what a JSON library based mask does.
+ * Run with {@code -prof gc} to compare the memory allocated per document ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonPathBenchmark {
+
+  private static final int DOCUMENT_LENGTH = 10 * 1024;
+  private static final String[] PATH = {"customer", "card", "number"};
+
+  @Param({"start", "end"})
+  public String position;
+
+  private String document;
+  private FieldPath fieldPath;
+  private UnaryOperator<Object> mask;
+
+  @Setup
+  public void setup() {
+    document = document(new Random(42), position.equals("start"));
+    fieldPath = FieldPath.parse("doc." + String.join(".", PATH));
+    Masker masker = new Masker('*', 4, true);
+    mask = value -> masker.mask((String) value);
+    String expected = (String) fieldPath.update(document, mask);
+    if (expected.equals(document) || !expected.equals(fullParse())) {
+      throw new IllegalStateException("The two ways of masking do not agree.");
+    }
+  }
+
+  @Benchmark
+  public Object fieldPath() {
+    return fieldPath.update(document, mask);
+  }
+
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public String fullParse() {
+    Object tree = new TreeParser(document).parse();
+    Map<String, Object> object = (Map<String, Object>) tree;
+    for (int i = 0; i < PATH.length - 1; i++) {
+      object = (Map<String, Object>) object.get(PATH[i]);
+    }
+    String last = PATH[PATH.length - 1];
+    object.put(last, mask.apply(object.get(last)));
+    StringBuilder out = new StringBuilder(document.length());
+    write(out, tree);
+    return out.toString();
+  }
+
+  /**
+   * Builds an order document of about 10 KB with the customer member at the start or at the end.
+   */
+  private static String document(Random random, boolean customerFirst) {
+    String customer = "\"customer\": {\"name\": \"" + TransformationBenchmark.randomString(random, 12) +
+      "\", \"email\": \"" + TransformationBenchmark.randomString(random, 10) + "@example.com\", " +
+      "\"card\": {\"type\": \"visa\", \"number\": \"4111111111111111\", \"expiry\": \"12/27\"}}";
+    StringBuilder items = new StringBuilder("\"items\": [");
+    for (int i = 0; items.length() < DOCUMENT_LENGTH - customer.length() - 64; i++) {
+      if (i > 0) {
+        items.append(", ");
+      }
+      items.append("{\"sku\": \"").append(TransformationBenchmark.randomString(random, 8))
+        .append("\", \"quantity\": ").append(random.nextInt(10) + 1)
+        .append(", \"price\": ").append(random.nextInt(10000) / 100.0)
+        .append(", \"gift\": ").append(random.nextBoolean())
+        .append(", \"note\": \"say \\\"").append(TransformationBenchmark.randomString(random, 6))
+        .append("\\\"\\n\", \"tags\": [\"a\", \"b\"], \"discount\": null}");
+    }
+    items.append(']');
+    String id = "\"id\": " + random.nextInt(1000000);
+    return customerFirst ? "{" + id + ", " + customer + ", " + items + "}"
+      : "{" + id + ", " + items + ", " + customer + "}";
+  }
+
+  private static void write(StringBuilder out, Object value) {
+    if (value instanceof Map) {
+      out.append('{');
+      boolean first = true;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        if (!first) {
+          out.append(", ");
+        }
+        first = false;
+        writeString(out, (String) entry.getKey());
+        out.append(": ");
+        write(out, entry.getValue());
+      }
+      out.append('}');
+    } else if (value instanceof List) {
+      out.append('[');
+      boolean first = true;
+      for (Object element : (List<?>) value) {
+        if (!first) {
+          out.append(", ");
+        }
+        first = false;
+        write(out, element);
+      }
+      out.append(']');
+    } else if (value instanceof String) {
+      writeString(out, (String) value);
+    } else {
+      // numbers, booleans and null, kept as their text
+      out.append(value == null ? "null" : value.toString());
+    }
+  }
+
+  private static void writeString(StringBuilder out, String value) {
+    out.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        out.append('\\').append(c);
+      } else if (c == '\n') {
+        out.append("\\n");
+      } else {
+        out.append(c);
+      }
+    }
+    out.append('"');
+  }
+
+  /**
+   * Minimal recursive descent parser into maps, lists and strings, with other scalars kept as their text in a
+   * {@link StringBuilder}, handling what {@link #document} generates.
+   */
+  private static final class TreeParser {
+    private final String json;
+    private int pos;
+
+    TreeParser(String json) {
+      this.json = json;
+    }
+
+    Object parse() {
+      skipWhitespace();
+      char c = json.charAt(pos);
+      if (c == '{') {
+        pos++;
+        Map<String, Object> object = new LinkedHashMap<>();
+        skipWhitespace();
+        if (json.charAt(pos) == '}') {
+          pos++;
+          return object;
+        }
+        while (true) {
+          skipWhitespace();
+          String key = parseString();
+          skipWhitespace();
+          pos++;
+          object.put(key, parse());
+          skipWhitespace();
+          if (json.charAt(pos++) == '}') {
+            return object;
+          }
+        }
+      }
+      if (c == '[') {
+        pos++;
+        List<Object> array = new ArrayList<>();
+        skipWhitespace();
+        if (json.charAt(pos) == ']') {
+          pos++;
+          return array;
+        }
+        while (true) {
+          array.add(parse());
+          skipWhitespace();
+          if (json.charAt(pos++) == ']') {
+            return array;
+          }
+        }
+      }
+      if (c == '"') {
+        return parseString();
+      }
+      int start = pos;
+      while (pos < json.length() && ",}] \n".indexOf(json.charAt(pos)) < 0) {
+        pos++;
+      }
+      String scalar = json.substring(start, pos);
+      return scalar.equals("null") ? null : new StringBuilder(scalar);
+    }
+
+    private String parseString() {
+      StringBuilder value = new StringBuilder();
+      pos++;
+      while (true) {
+        char c = json.charAt(pos++);
+        if (c == '"') {
+          return value.toString();
+        }
+        if (c == '\\') {
+          c = json.charAt(pos++);
+          value.append(c == 'n' ? '\n' : c);
+        } else {
+          value.append(c);
+        }
+      }
+    }
+
+    private void skipWhitespace() {
+      while (pos < json.length() && json.charAt(pos) == ' ') {
+        pos++;
+      }
+    }
+  }
+}
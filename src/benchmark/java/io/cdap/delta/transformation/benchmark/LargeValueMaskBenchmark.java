@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import com.google.common.base.Strings;
+import io.cdap.delta.transformation.Masker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Masks document sized string and bytes values, from 1 KB to 1 MB, with the bulk fill and copy of the
+ * {@link Masker}, against the StringBuilder and Strings.repeat substitution the mask transformation used before
+ * for strings, and against a per byte loop for bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LargeValueMaskBenchmark {
+
+  private static final int UNMASKED_COUNT = 4;
+
+  @Param({"1024", "65536", "1048576"})
+  public int valueLength;
+
+  private String string;
+  private byte[] bytes;
+  private Masker masker;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    string = TransformationBenchmark.randomString(random, valueLength);
+    bytes = new byte[valueLength];
+    random.nextBytes(bytes);
+    masker = new Masker('*', UNMASKED_COUNT, true);
+  }
+
+  @Benchmark
+  public String stringMasker() {
+    return masker.mask(string);
+  }
+
+  @Benchmark
+  public String stringSubstitution() {
+    StringBuilder maskedValue = new StringBuilder(string);
+    int maskedCount = string.length() - UNMASKED_COUNT;
+    maskedValue.replace(0, maskedCount, Strings.repeat("*", maskedCount));
+    return maskedValue.toString();
+  }
+
+  @Benchmark
+  public byte[] bytesMasker() {
+    return masker.mask(bytes);
+  }
+
+  @Benchmark
+  public byte[] bytesLoop() {
+    byte[] masked = new byte[bytes.length];
+    int maskedCount = bytes.length - UNMASKED_COUNT;
+    for (int i = 0; i < bytes.length; i++) {
+      masked[i] = i < maskedCount ? (byte) '*' : bytes[i];
+    }
+    return masked;
+  }
+}
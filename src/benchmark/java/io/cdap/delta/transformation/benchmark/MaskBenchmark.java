@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import com.google.common.base.Strings;
+import io.cdap.delta.transformation.Masker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link Masker} with the StringBuilder and Strings.repeat substitution that the mask
+ * transformation used before. Run with the gc profiler to compare the bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MaskBenchmark {
+
+  private static final int UNMASKED_COUNT = 4;
+
+  @Param({"9", "16", "256", "4096"})
+  public int valueLength;
+
+  @Param({"right", "left"})
+  public String direction;
+
+  private String value;
+  private Masker masker;
+
+  @Setup
+  public void setup() {
+    value = TransformationBenchmark.randomString(new Random(42), valueLength);
+    masker = new Masker('*', UNMASKED_COUNT, "right".equals(direction));
+  }
+
+  @Benchmark
+  public String substitution() {
+    StringBuilder maskedValue = new StringBuilder(value);
+    int maskedCount = value.length() - UNMASKED_COUNT;
+    if ("right".equals(direction)) {
+      maskedValue.replace(0, maskedCount, Strings.repeat("*", maskedCount));
+    } else {
+      maskedValue.replace(UNMASKED_COUNT, value.length(), Strings.repeat("*", maskedCount));
+    }
+    return maskedValue.toString();
+  }
+
+  @Benchmark
+  public String masker() {
+    return masker.mask(value);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.Masker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Masks ASCII, Latin-1 and multilingual values counted in chars, code points and grapheme clusters. ASCII and
+ * Latin-1 values should mask at about the same rate in every unit, since they are recognized in one scan and take
+ * the char path; multilingual values show the cost of the code point and grapheme paths.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MaskUnitBenchmark {
+
+  private static final int UNMASKED_COUNT = 4;
+  private static final String LATIN_1 = "abcdefghijklmnopqrstuvwxyzàéîõüß";
+  // CJK, Devanagari with combining signs, Latin with combining accents and emoji
+  private static final String[] MULTILINGUAL = {"山", "田", "न", "म्", "स्ते",
+    "é", "ö", "😀", "a", "b"};
+
+  @Param({"16", "256"})
+  public int valueLength;
+
+  @Param({"ascii", "latin1", "multilingual"})
+  public String data;
+
+  @Param({"CHAR", "CODE_POINT", "GRAPHEME"})
+  public Masker.Unit unit;
+
+  private String value;
+  private Masker masker;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    if ("ascii".equals(data)) {
+      value = TransformationBenchmark.randomString(random, valueLength);
+    } else {
+      StringBuilder builder = new StringBuilder();
+      while (builder.length() < valueLength) {
+        if ("latin1".equals(data)) {
+          builder.append(LATIN_1.charAt(random.nextInt(LATIN_1.length())));
+        } else {
+          builder.append(MULTILINGUAL[random.nextInt(MULTILINGUAL.length)]);
+        }
+      }
+      value = builder.toString();
+    }
+    masker = new Masker('*', UNMASKED_COUNT, true, unit);
+  }
+
+  @Benchmark
+  public String mask() {
+    return masker.mask(value);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.plugins.MaskTransformation;
+import io.cdap.transformation.api.Transformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares masking the PII columns of a wide row with one mask transformation per column and with a single
+ * mask transformation selecting all of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MultiColumnMaskBenchmark {
+
+  private static final int COLUMN_COUNT = 200;
+
+  @Param({"10", "40"})
+  public int maskedCount;
+
+  private InMemoryRowValue row;
+  private Transformation[] perColumn;
+  private Transformation multiColumn;
+
+  @Setup
+  public void setup() throws Exception {
+    Random random = new Random(42);
+    Map<String, Object> values = new HashMap<>();
+    List<String> masked = new ArrayList<>();
+    for (int i = 0; i < COLUMN_COUNT; i++) {
+      String name = i < maskedCount ? "column_" + i + "_ssn" : "column_" + i;
+      values.put(name, TransformationBenchmark.randomString(random, 9));
+      if (i < maskedCount) {
+        masked.add(name);
+      }
+    }
+    row = new InMemoryRowValue(values);
+
+    perColumn = new Transformation[maskedCount];
+    for (int i = 0; i < maskedCount; i++) {
+      perColumn[i] = TransformationBenchmark.initialize(new MaskTransformation(),
+                                                        "mask " + masked.get(i) + " right * 4");
+    }
+    multiColumn = TransformationBenchmark.initialize(new MaskTransformation(),
+                                                     "mask " + String.join(",", masked) + " right * 4");
+  }
+
+  @Benchmark
+  public InMemoryRowValue perColumn() throws Exception {
+    for (Transformation transformation : perColumn) {
+      transformation.transformValue(row);
+    }
+    return row;
+  }
+
+  @Benchmark
+  public InMemoryRowValue multiColumn() throws Exception {
+    multiColumn.transformValue(row);
+    return row;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.plugins.RegexMaskTransformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the mask-regex transformation with a straightforward implementation that creates a matcher for every
+ * value and always runs the regex, on emails, phone numbers and free text with embedded card numbers, where
+ * {@code matchRatio} of the values contain something to mask.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RegexMaskBenchmark {
+
+  private static final int VALUE_COUNT = 1024;
+  private static final String[] WORDS = {
+    "the", "customer", "called", "about", "order", "delivery", "was", "late", "and", "asked", "for", "refund",
+    "please", "follow", "up", "next", "week", "with", "account", "manager"
+  };
+
+  @Param({"email", "phone", "freetext"})
+  public String dataset;
+
+  @Param({"0.1", "0.9"})
+  public double matchRatio;
+
+  private String[] values;
+  private int cursor;
+  private RegexMaskTransformation transformation;
+  private Pattern pattern;
+
+  @Setup
+  public void setup() throws Exception {
+    Random random = new Random(42);
+    String regex;
+    switch (dataset) {
+      case "email":
+        regex = "([^@\\s]+)@";
+        break;
+      case "phone":
+        regex = "(\\d{3})-(\\d{4})";
+        break;
+      default:
+        regex = "(\\d{4}[\\s-]?\\d{4}[\\s-]?\\d{4})[\\s-]?\\d{4}";
+    }
+    values = new String[VALUE_COUNT];
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      values[i] = value(random, random.nextDouble() < matchRatio);
+    }
+    transformation = new RegexMaskTransformation();
+    TransformationBenchmark.initialize(transformation, "mask-regex column " + regex + " *");
+    pattern = Pattern.compile(regex);
+  }
+
+  private String value(Random random, boolean match) {
+    switch (dataset) {
+      case "email":
+        return match ? "user" + random.nextInt(100000) + "@example.com" : words(random, 2);
+      case "phone":
+        return match ? "+1 (" + TransformationBenchmark.randomString(random, 3) + ") " +
+          TransformationBenchmark.randomString(random, 3) + "-" + TransformationBenchmark.randomString(random, 4) :
+          "ext " + random.nextInt(1000);
+      default:
+        String text = words(random, 20);
+        if (match) {
+          int split = text.indexOf(' ', text.length() / 2);
+          text = text.substring(0, split) + " card 4111-1111-1111-" + TransformationBenchmark.randomString(random, 4) +
+            text.substring(split);
+        }
+        return text;
+    }
+  }
+
+  private static String words(Random random, int count) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        builder.append(' ');
+      }
+      builder.append(WORDS[random.nextInt(WORDS.length)]);
+    }
+    return builder.toString();
+  }
+
+  @Benchmark
+  public Object maskRegex() {
+    return transformation.transformColumnValue(nextValue());
+  }
+
+  @Benchmark
+  public Object naive() {
+    String value = nextValue();
+    Matcher matcher = pattern.matcher(value);
+    if (!matcher.find()) {
+      return value;
+    }
+    char[] chars = value.toCharArray();
+    do {
+      for (int group = 1; group <= matcher.groupCount(); group++) {
+        if (matcher.start(group) >= 0) {
+          Arrays.fill(chars, matcher.start(group), matcher.end(group), '*');
+        }
+      }
+    } while (matcher.find());
+    return new String(chars);
+  }
+
+  private String nextValue() {
+    String value = values[cursor];
+    cursor = (cursor + 1) & (VALUE_COUNT - 1);
+    return value;
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.metrics.InMemoryMetricsSink;
+import io.cdap.delta.transformation.metrics.InstrumentedTransformation;
+import io.cdap.delta.transformation.plugins.MaskTransformation;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.Transformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Masks a sparse optional column, of which a given percentage of the values are null and a few are empty, with a
+ * plain and a metrics instrumented mask directive with a when clause, which the mask skips for those values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SparseColumnBenchmark {
+
+  private static final int ROW_COUNT = 1024;
+  private static final String DIRECTIVE = "mask ssn right * 4 when country = 'DE'";
+
+  @Param({"0", "90"})
+  public int nullPercent;
+
+  @Param({"false", "true"})
+  public boolean instrumented;
+
+  private MutableRowValue[] rows;
+  private Transformation mask;
+
+  @Setup
+  public void setup() throws Exception {
+    Random random = new Random(42);
+    rows = new MutableRowValue[ROW_COUNT];
+    for (int i = 0; i < ROW_COUNT; i++) {
+      Map<String, Object> values = new HashMap<>();
+      int percent = random.nextInt(100);
+      values.put("ssn", percent < nullPercent ? null : percent < nullPercent + 2 ? "" :
+        TransformationBenchmark.randomString(random, 9));
+      values.put("country", "DE");
+      rows[i] = new InMemoryRowValue(values);
+    }
+    mask = TransformationBenchmark.initialize(directive(), DIRECTIVE);
+  }
+
+  private Transformation directive() {
+    return instrumented ? new InstrumentedTransformation(new MaskTransformation(), new InMemoryMetricsSink())
+      : new MaskTransformation();
+  }
+
+  @Benchmark
+  public MutableRowValue[] mask() throws Exception {
+    for (MutableRowValue row : rows) {
+      mask.transformValue(row);
+    }
+    return rows;
+  }
+}
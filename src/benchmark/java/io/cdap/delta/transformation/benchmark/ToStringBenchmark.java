@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.StringConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+/**
+ * Compares the schema specific {@link StringConverter} of each column type against the generic conversion the
+ * to-string transformation used for every type before.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ToStringBenchmark {
+
+  private static final int VALUE_COUNT = 1024;
+
+  @Param({"LONG", "SMALL_LONG", "BYTES", "TIMESTAMP_MICROS"})
+  public String type;
+
+  private Object[] values;
+  private int cursor;
+  private StringConverter typed;
+  private StringConverter generic;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    values = new Object[VALUE_COUNT];
+    Schema schema;
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      switch (type) {
+        case "SMALL_LONG":
+          values[i] = (long) random.nextInt(1000);
+          break;
+        case "BYTES":
+          byte[] bytes = new byte[32];
+          random.nextBytes(bytes);
+          values[i] = bytes;
+          break;
+        case "TIMESTAMP_MICROS":
+          values[i] = 1600000000000000L + (random.nextLong() & 0xffffffffffffL);
+          break;
+        default:
+          values[i] = random.nextLong();
+      }
+    }
+    switch (type) {
+      case "BYTES":
+        schema = Schema.of(Schema.Type.BYTES);
+        break;
+      case "TIMESTAMP_MICROS":
+        schema = Schema.of(Schema.LogicalType.TIMESTAMP_MICROS);
+        break;
+      default:
+        schema = Schema.of(Schema.Type.LONG);
+    }
+    typed = StringConverter.forSchema(schema);
+    generic = StringConverter.forSchema(null);
+  }
+
+  @Benchmark
+  public String typed() {
+    return typed.convert(nextValue());
+  }
+
+  @Benchmark
+  public String generic() {
+    return generic.convert(nextValue());
+  }
+
+  @Benchmark
+  public String objectToString() {
+    return nextValue().toString();
+  }
+
+  private Object nextValue() {
+    Object value = values[cursor];
+    cursor = (cursor + 1) & (VALUE_COUNT - 1);
+    return value;
+  }
+}
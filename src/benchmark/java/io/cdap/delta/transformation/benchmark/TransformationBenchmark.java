@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.benchmark;
+
+import io.cdap.delta.transformation.plugins.MaskTransformation;
+import io.cdap.delta.transformation.plugins.RenameTransformation;
+import io.cdap.delta.transformation.sample.plugins.ToStringTransformation;
+import io.cdap.transformation.api.Directive;
+import io.cdap.transformation.api.Transformation;
+import io.cdap.transformation.api.TransformationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the transformation plugins through {@link Transformation#initialize} once and then through
+ * {@link Transformation#transformValue} for every invocation, over a ring of pre-generated rows.
+ * Concrete subclasses pick the benchmark mode.
+ * <p>
+ * Every invocation of {@link #toStringColumn} also restores the source column, since the transformation replaces it
+ * with a string, and {@link #rename} renames the column back, so both include one extra column write.
+ * </p>
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public abstract class TransformationBenchmark {
+
+  private static final int ROW_COUNT = 1024;
+  private static final String MASK_COLUMN = "card_number";
+  private static final String RENAME_COLUMN = "customer_id";
+  private static final String TO_STRING_COLUMN = "amount";
+
+  @Param({"16", "256", "4096"})
+  public int valueLength;
+
+  @Param({"0.0", "0.5", "0.9"})
+  public double nullRatio;
+
+  @Param({"10", "200"})
+  public int columnCount;
+
+  private InMemoryRowValue[] rows;
+  private Long[] amounts;
+  private int cursor;
+
+  private Transformation mask;
+  private Transformation rename;
+  private Transformation renameBack;
+  private Transformation toStringTransformation;
+
+  @Setup
+  public void setup() throws Exception {
+    Random random = new Random(42);
+    rows = new InMemoryRowValue[ROW_COUNT];
+    amounts = new Long[ROW_COUNT];
+    for (int i = 0; i < ROW_COUNT; i++) {
+      Map<String, Object> values = new HashMap<>();
+      for (int column = 3; column < columnCount; column++) {
+        values.put("column_" + column, randomString(random, 16));
+      }
+      boolean isNull = random.nextDouble() < nullRatio;
+      amounts[i] = isNull ? null : random.nextLong();
+      values.put(MASK_COLUMN, isNull ? null : randomString(random, valueLength));
+      values.put(RENAME_COLUMN, random.nextInt());
+      values.put(TO_STRING_COLUMN, amounts[i]);
+      rows[i] = new InMemoryRowValue(values);
+    }
+
+    mask = initialize(new MaskTransformation(), "mask " + MASK_COLUMN + " right * 4");
+    rename = initialize(new RenameTransformation(), "rename " + RENAME_COLUMN + " id");
+    renameBack = initialize(new RenameTransformation(), "rename id " + RENAME_COLUMN);
+    toStringTransformation = initialize(new ToStringTransformation(), "to-string " + TO_STRING_COLUMN);
+  }
+
+  @Benchmark
+  public InMemoryRowValue mask() throws Exception {
+    InMemoryRowValue row = nextRow();
+    mask.transformValue(row);
+    return row;
+  }
+
+  @Benchmark
+  public InMemoryRowValue rename() throws Exception {
+    InMemoryRowValue row = nextRow();
+    rename.transformValue(row);
+    renameBack.transformValue(row);
+    return row;
+  }
+
+  @Benchmark
+  public InMemoryRowValue toStringColumn() throws Exception {
+    int index = cursor;
+    InMemoryRowValue row = nextRow();
+    row.setColumnValue(TO_STRING_COLUMN, amounts[index]);
+    toStringTransformation.transformValue(row);
+    return row;
+  }
+
+  private InMemoryRowValue nextRow() {
+    InMemoryRowValue row = rows[cursor];
+    cursor = (cursor + 1) & (ROW_COUNT - 1);
+    return row;
+  }
+
+  static Transformation initialize(Transformation transformation, String commandLine) throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn(commandLine);
+    when(context.getDirective()).thenReturn(directive);
+    transformation.initialize(context);
+    return transformation;
+  }
+
+  static String randomString(Random random, int length) {
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = (char) ('0' + random.nextInt(10));
+    }
+    return new String(chars);
+  }
+}
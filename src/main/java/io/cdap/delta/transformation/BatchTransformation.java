@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.Transformation;
+
+import java.util.List;
+
+/**
+ * A {@link Transformation} that can transform a batch of change events in one call, so per call overhead
+ * such as interface dispatch and field reads is paid once per batch rather than once per event.
+ */
+public interface BatchTransformation extends Transformation {
+
+  /**
+   * Transforms every row of the batch, in order, with the same effect as calling
+   * {@link #transformValue(MutableRowValue)} on each of them. The default implementation does exactly that.
+   */
+  default void transformValues(List<? extends MutableRowValue> rowValues) throws Exception {
+    for (MutableRowValue rowValue : rowValues) {
+      transformValue(rowValue);
+    }
+  }
+
+  /**
+   * Transforms a batch of rows with any transformation, using its batch implementation when it has one and
+   * falling back to one {@link Transformation#transformValue(MutableRowValue)} call per row otherwise.
+   */
+  static void transformValues(Transformation transformation,
+                              List<? extends MutableRowValue> rowValues) throws Exception {
+    if (transformation instanceof BatchTransformation) {
+      ((BatchTransformation) transformation).transformValues(rowValues);
+      return;
+    }
+    for (MutableRowValue rowValue : rowValues) {
+      transformation.transformValue(rowValue);
+    }
+  }
+}
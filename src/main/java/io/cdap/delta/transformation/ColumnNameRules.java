@@ -0,0 +1,261 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Rules that compute new column names, given as a comma separated list in which each rule is one of
+ * <ul>
+ *   <li>{@code old=new}, renaming a single column, which then skips the other rules</li>
+ *   <li>a column name, which the naming rules below apply to</li>
+ *   <li>{@code case:snake}, {@code case:camel}, {@code case:lower} or {@code case:upper}, converting the naming
+ *   convention, e.g. {@code orderId} to {@code order_id} with snake case</li>
+ *   <li>{@code strip-prefix:text} or {@code strip-suffix:text}, removing the text from names that have it</li>
+ *   <li>{@code replace:/regex/replacement/}, replacing every match of the regex, where the replacement can refer
+ *   to groups with {@code $1} and slashes are escaped with a backslash</li>
+ * </ul>
+ * Naming rules apply to the listed columns, in the order they are given, e.g.
+ * {@code strip-prefix:src_,case:camel,src_order_id,id=key} turns {@code src_order_id} into {@code orderId} and
+ * {@code id} into {@code key}. They cannot apply to every column, since the schema given to transformations
+ * cannot list its fields, so there must be at least one listed column for naming rules and the other way round.
+ * The rule list {@code none} keeps all names.
+ */
+public final class ColumnNameRules {
+
+  public static final String NONE = "none";
+
+  private final String rules;
+  private final Map<String, String> renames;
+
+  private ColumnNameRules(String rules, Map<String, String> renames) {
+    this.rules = rules;
+    this.renames = renames;
+  }
+
+  /**
+   * Parses a rule list.
+   *
+   * @throws IllegalArgumentException if a rule is not valid, or if there are naming rules without listed columns
+   *   or listed columns without naming rules
+   */
+  public static ColumnNameRules parse(String rules) {
+    Map<String, String> renames = new LinkedHashMap<>();
+    List<UnaryOperator<String>> conversions = new ArrayList<>();
+    List<String> columns = new ArrayList<>();
+    if (!NONE.equals(rules)) {
+      int position = 0;
+      while (position <= rules.length()) {
+        int end = ruleEnd(rules, position);
+        String rule = rules.substring(position, end);
+        if (rule.startsWith("replace:")) {
+          conversions.add(replace(rule));
+        } else if (rule.startsWith("case:")) {
+          conversions.add(caseConversion(rule.substring("case:".length())));
+        } else if (rule.startsWith("strip-prefix:") && rule.length() > "strip-prefix:".length()) {
+          String prefix = rule.substring("strip-prefix:".length());
+          conversions.add(name -> name.startsWith(prefix) && name.length() > prefix.length() ?
+            name.substring(prefix.length()) : name);
+        } else if (rule.startsWith("strip-suffix:") && rule.length() > "strip-suffix:".length()) {
+          String suffix = rule.substring("strip-suffix:".length());
+          conversions.add(name -> name.endsWith(suffix) && name.length() > suffix.length() ?
+            name.substring(0, name.length() - suffix.length()) : name);
+        } else if (!rule.isEmpty() && rule.indexOf('=') < 0 && rule.indexOf(':') < 0) {
+          columns.add(rule);
+        } else {
+          int separator = rule.indexOf('=');
+          if (separator <= 0 || separator == rule.length() - 1 || rule.indexOf('=', separator + 1) >= 0) {
+            throw new IllegalArgumentException(String.format("Column name rule %s is not valid.", rule));
+          }
+          if (renames.put(rule.substring(0, separator), rule.substring(separator + 1)) != null) {
+            throw new IllegalArgumentException(
+              String.format("Column %s is renamed more than once.", rule.substring(0, separator)));
+          }
+        }
+        position = end + 1;
+      }
+    }
+    if (!conversions.isEmpty() && columns.isEmpty()) {
+      throw new IllegalArgumentException(
+        String.format("Column name rules %s do not list the columns they apply to. The schema cannot list its " +
+                        "fields, so name the columns in the rules, e.g. case:snake,orderId,customerName.", rules));
+    }
+    if (conversions.isEmpty() && !columns.isEmpty()) {
+      throw new IllegalArgumentException(
+        String.format("Column name rules %s list columns %s without a naming rule.", rules, columns));
+    }
+    for (String column : columns) {
+      String name = column;
+      for (UnaryOperator<String> conversion : conversions) {
+        name = conversion.apply(name);
+      }
+      if (renames.put(column, name) != null) {
+        throw new IllegalArgumentException(String.format("Column %s is renamed more than once.", column));
+      }
+    }
+    return new ColumnNameRules(rules, Collections.unmodifiableMap(renames));
+  }
+
+  /**
+   * Returns the end of the rule starting at the given position, which is the next comma that is not within the
+   * regex or replacement of a replace rule.
+   */
+  private static int ruleEnd(String rules, int position) {
+    int i = position;
+    if (rules.startsWith("replace:/", position)) {
+      i += "replace:/".length();
+      int slashes = 1;
+      while (i < rules.length() && slashes < 3) {
+        char c = rules.charAt(i++);
+        if (c == '\\') {
+          i++;
+        } else if (c == '/') {
+          slashes++;
+        }
+      }
+    }
+    int comma = rules.indexOf(',', i);
+    return comma < 0 ? rules.length() : comma;
+  }
+
+  private static UnaryOperator<String> replace(String rule) {
+    // replace:/regex/replacement/
+    List<String> parts = new ArrayList<>();
+    StringBuilder part = new StringBuilder();
+    String body = rule.substring("replace:".length());
+    if (!body.startsWith("/")) {
+      throw new IllegalArgumentException(String.format("Column name rule %s is not valid.", rule));
+    }
+    for (int i = 1; i < body.length(); i++) {
+      char c = body.charAt(i);
+      if (c == '\\' && i + 1 < body.length() && body.charAt(i + 1) == '/') {
+        part.append('/');
+        i++;
+      } else if (c == '/') {
+        parts.add(part.toString());
+        part.setLength(0);
+      } else {
+        part.append(c);
+      }
+    }
+    if (parts.size() != 2 || part.length() > 0 || parts.get(0).isEmpty()) {
+      throw new IllegalArgumentException(String.format("Column name rule %s is not valid.", rule));
+    }
+    Pattern pattern;
+    try {
+      pattern = Pattern.compile(parts.get(0));
+    } catch (PatternSyntaxException e) {
+      throw new IllegalArgumentException(String.format("Column name rule %s is not a valid regex.", rule), e);
+    }
+    String replacement = parts.get(1);
+    return name -> {
+      Matcher matcher = pattern.matcher(name);
+      return matcher.find() ? matcher.replaceAll(replacement) : name;
+    };
+  }
+
+  private static UnaryOperator<String> caseConversion(String convention) {
+    switch (convention) {
+      case "snake":
+        return name -> String.join("_", words(name)).toLowerCase(Locale.ROOT);
+      case "camel":
+        return ColumnNameRules::toCamelCase;
+      case "lower":
+        return name -> name.toLowerCase(Locale.ROOT);
+      case "upper":
+        return name -> name.toUpperCase(Locale.ROOT);
+      default:
+        throw new IllegalArgumentException(
+          String.format("Case should be one of snake, camel, lower, upper, given: %s", convention));
+    }
+  }
+
+  private static String toCamelCase(String name) {
+    StringBuilder camel = new StringBuilder(name.length());
+    for (String word : words(name)) {
+      String lower = word.toLowerCase(Locale.ROOT);
+      if (camel.length() == 0) {
+        camel.append(lower);
+      } else {
+        camel.append(Character.toUpperCase(lower.charAt(0))).append(lower, 1, lower.length());
+      }
+    }
+    return camel.length() == 0 ? name : camel.toString();
+  }
+
+  /**
+   * Splits a name into words at underscores, dashes, spaces, and case changes, keeping acronyms together,
+   * e.g. {@code HTTPServer_id} gives {@code HTTP}, {@code Server} and {@code id}.
+   */
+  static List<String> words(String name) {
+    List<String> words = new ArrayList<>();
+    int start = -1;
+    int length = name.length();
+    for (int i = 0; i < length; i++) {
+      char c = name.charAt(i);
+      if (c == '_' || c == '-' || c == ' ') {
+        if (start >= 0) {
+          words.add(name.substring(start, i));
+          start = -1;
+        }
+        continue;
+      }
+      if (start >= 0 && Character.isUpperCase(c)) {
+        char previous = name.charAt(i - 1);
+        boolean nextIsLower = i + 1 < length && Character.isLowerCase(name.charAt(i + 1));
+        if (!Character.isUpperCase(previous) || nextIsLower) {
+          words.add(name.substring(start, i));
+          start = i;
+        }
+      } else if (start < 0) {
+        start = i;
+      }
+    }
+    if (start >= 0) {
+      words.add(name.substring(start));
+    }
+    return words;
+  }
+
+  /**
+   * Returns the new name of the given column.
+   */
+  public String apply(String name) {
+    return renames.getOrDefault(name, name);
+  }
+
+  /**
+   * Returns the renames of the single column renames and the listed columns, from current to new name.
+   */
+  public Map<String, String> getRenames() {
+    return renames;
+  }
+
+  @Override
+  public String toString() {
+    return rules;
+  }
+}
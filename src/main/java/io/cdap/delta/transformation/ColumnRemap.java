@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.transformation.api.MutableRowValue;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renames several columns of a row at once.
+ * <p>
+ * The renames are given as a mapping from the current column names to the new ones, and are turned once into a
+ * sequence of single renames that can be applied one after the other, so a column is never renamed onto a name
+ * that another column still has. Cycles such as swapping two columns go through a temporary name.
+ * </p>
+ */
+public final class ColumnRemap {
+
+  private static final String TEMPORARY_PREFIX = "_remap_";
+
+  private final List<String> fromNames = new ArrayList<>();
+  private final List<String> toNames = new ArrayList<>();
+  private final String[] oldNames;
+  private final String[] newNames;
+
+  /**
+   * @param renames mapping from current column names to new ones, identity mappings are ignored
+   */
+  public ColumnRemap(Map<String, String> renames) {
+    Map<String, String> pending = new LinkedHashMap<>();
+    Set<String> names = new HashSet<>();
+    for (Map.Entry<String, String> rename : renames.entrySet()) {
+      names.add(rename.getKey());
+      names.add(rename.getValue());
+      if (!rename.getKey().equals(rename.getValue())) {
+        pending.put(rename.getKey(), rename.getValue());
+      }
+    }
+
+    int temporaryCount = 0;
+    while (!pending.isEmpty()) {
+      String from = null;
+      for (Map.Entry<String, String> rename : pending.entrySet()) {
+        if (!pending.containsKey(rename.getValue())) {
+          from = rename.getKey();
+          break;
+        }
+      }
+      if (from != null) {
+        add(from, pending.remove(from));
+        continue;
+      }
+      // every remaining rename is part of a cycle, move one column out of the way to break it
+      from = pending.keySet().iterator().next();
+      String temporary;
+      do {
+        temporary = TEMPORARY_PREFIX + temporaryCount++;
+      } while (names.contains(temporary));
+      add(from, temporary);
+      pending.put(temporary, pending.remove(from));
+    }
+
+    oldNames = fromNames.toArray(new String[0]);
+    newNames = toNames.toArray(new String[0]);
+  }
+
+  private void add(String from, String to) {
+    fromNames.add(from);
+    toNames.add(to);
+  }
+
+  /**
+   * Returns the sequence of single renames, as pairs of the current and new column name.
+   */
+  public List<Map.Entry<String, String>> getRenames() {
+    List<Map.Entry<String, String>> renames = new ArrayList<>();
+    for (int i = 0; i < fromNames.size(); i++) {
+      renames.add(new AbstractMap.SimpleImmutableEntry<>(fromNames.get(i), toNames.get(i)));
+    }
+    return renames;
+  }
+
+  public boolean isEmpty() {
+    return oldNames.length == 0;
+  }
+
+  /**
+   * Applies all renames to the given row.
+   */
+  public void apply(MutableRowValue rowValue) {
+    for (int i = 0; i < oldNames.length; i++) {
+      rowValue.renameColumn(oldNames[i], newNames[i]);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Selects the columns a directive applies to: a column name, or a comma separated list of column names, e.g.
+ * {@code ssn,card_number}.
+ * <p>
+ * Columns cannot be selected by regex or glob, since the schema given to transformations can look a field up by
+ * name but cannot list its fields, so there is nothing to match a pattern against.
+ * </p>
+ */
+public final class ColumnSelector {
+
+  private final String selection;
+  private final List<String> names;
+
+  private ColumnSelector(String selection, List<String> names) {
+    this.selection = selection;
+    this.names = names;
+  }
+
+  /**
+   * Parses a column selection.
+   *
+   * @throws IllegalArgumentException if the selection is a regex or glob, or contains an empty column name
+   */
+  public static ColumnSelector parse(String selection) {
+    if ((selection.length() > 2 && selection.startsWith("/") && selection.endsWith("/"))
+      || selection.indexOf('*') >= 0 || selection.indexOf('?') >= 0) {
+      throw new IllegalArgumentException(
+        String.format("Column selection %s is a pattern, but columns can only be selected by name, since the " +
+                        "schema cannot list its fields. List the columns separated by commas instead.", selection));
+    }
+    List<String> names = new ArrayList<>();
+    for (String name : selection.split(",")) {
+      if (name.isEmpty()) {
+        throw new IllegalArgumentException(String.format("Column selection %s contains an empty column name.",
+                                                         selection));
+      }
+      names.add(name);
+    }
+    return new ColumnSelector(selection, Collections.unmodifiableList(names));
+  }
+
+  public String getSelection() {
+    return selection;
+  }
+
+  /**
+   * Returns the selected column names.
+   */
+  public List<String> getNames() {
+    return names;
+  }
+
+  @Override
+  public String toString() {
+    return selection;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.transformation.api.Transformation;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * A {@link Transformation} that only rewrites the values of some columns, each independently of the others, and
+ * leaves null values untouched. This lets the value rewrite be applied outside of a row, e.g. to fuse several
+ * directives on the same column.
+ */
+public interface ColumnValueTransformation extends Transformation {
+
+  /**
+   * Returns the names of the columns whose values are rewritten, as they are named in the rows given to this
+   * transformation.
+   */
+  List<String> getColumns();
+
+  /**
+   * Returns the rewritten value, or the given value itself if it does not need to change.
+   *
+   * @param value the non-null value of one of the columns
+   */
+  Object transformColumnValue(Object value);
+
+  /**
+   * Returns {@code true} if empty string and bytes values are left untouched too, whatever the rest of the row.
+   */
+  default boolean skipsEmptyValues() {
+    return false;
+  }
+
+  /**
+   * Returns whether the value is left untouched without being looked at: a null value, or an empty string or bytes
+   * value if the transformation {@link #skipsEmptyValues() skips empty values}. Plugins check their columns for
+   * this before their when clause, so a row whose columns are all null or empty costs one read per column.
+   */
+  default boolean skipsValue(Object value) {
+    return value == null || skipsEmptyValues() && isEmpty(value);
+  }
+
+  /**
+   * Returns whether the value is an empty string or bytes value.
+   */
+  static boolean isEmpty(Object value) {
+    if (value instanceof String) {
+      return ((String) value).isEmpty();
+    }
+    if (value instanceof byte[]) {
+      return ((byte[]) value).length == 0;
+    }
+    return value instanceof ByteBuffer && !((ByteBuffer) value).hasRemaining();
+  }
+}
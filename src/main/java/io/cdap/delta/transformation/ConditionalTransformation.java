@@ -0,0 +1,34 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.delta.transformation.condition.RowCondition;
+import io.cdap.transformation.api.Transformation;
+
+/**
+ * A {@link Transformation} whose directive can end with a {@code when condition} clause, in which case the rows
+ * that do not match the condition are left unchanged. Whether a row is rewritten then depends on other columns of
+ * the row, so the rewrite of a conditional transformation cannot be applied outside of a row, e.g. through
+ * {@link ColumnValueTransformation#transformColumnValue(Object)}.
+ */
+public interface ConditionalTransformation extends Transformation {
+
+  /**
+   * Returns the condition of the directive, or {@code null} if the transformation applies to every row.
+   */
+  RowCondition getCondition();
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.transformation.api.Directive;
+import io.cdap.transformation.api.TransformationContext;
+
+/**
+ * {@link TransformationContext} for a directive given as a command line, used to initialize transformations that
+ * are created by other transformations rather than by the replicator.
+ */
+public final class DirectiveContext implements TransformationContext {
+
+  private final Directive directive;
+
+  public DirectiveContext(String commandLine) {
+    String name = DirectiveParser.tokenize(commandLine).stream().findFirst().orElse("");
+    this.directive = new Directive() {
+      @Override
+      public String getName() {
+        return name;
+      }
+
+      @Override
+      public String getWholeCommandLine() {
+        return commandLine;
+      }
+    };
+  }
+
+  @Override
+  public Directive getDirective() {
+    return directive;
+  }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Declarative description of a directive: its name followed by a fixed list of typed arguments,
+ * e.g. {@code mask column_name direction mask_char n}. Trailing arguments may be optional, in which case their
+ * default token is used when they are left out. Conditional directives may end with a {@code when condition}
+ * clause, which limits them to the rows matching the condition. See
+ * {@link io.cdap.delta.transformation.condition.ConditionParser}.
+ */
+public final class DirectiveGrammar {
+
+  /**
+   * The keyword that starts the condition of a conditional directive.
+   */
+  public static final String WHEN = "when";
+
+  /**
+   * Type of a directive argument, which decides how the argument token is validated and converted.
+   */
+  public enum ArgumentType {
+    /** Any token, such as a column name. */
+    STRING,
+    /** A token of exactly one character. */
+    CHARACTER,
+    /** An integer that is zero or greater. */
+    NON_NEGATIVE_INT,
+    /** One of a fixed set of tokens. */
+    CHOICE
+  }
+
+  /**
+   * A single argument of a directive.
+   */
+  public static final class Argument {
+    private final String name;
+    private final ArgumentType type;
+    private final List<String> choices;
+    private final String defaultToken;
+
+    private Argument(String name, ArgumentType type, List<String> choices, String defaultToken) {
+      this.name = name;
+      this.type = type;
+      this.choices = choices;
+      this.defaultToken = defaultToken;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public ArgumentType getType() {
+      return type;
+    }
+
+    public List<String> getChoices() {
+      return choices;
+    }
+
+    public boolean isOptional() {
+      return defaultToken != null;
+    }
+
+    /**
+     * Returns the token used when an optional argument is left out, or {@code null} for required arguments.
+     */
+    public String getDefaultToken() {
+      return defaultToken;
+    }
+  }
+
+  private final String name;
+  private final List<Argument> arguments;
+  private final boolean conditional;
+  private final int requiredCount;
+  private final String usage;
+
+  private DirectiveGrammar(String name, List<Argument> arguments, boolean conditional) {
+    this.name = name;
+    this.arguments = Collections.unmodifiableList(arguments);
+    this.conditional = conditional;
+    int requiredCount = 0;
+    StringBuilder usage = new StringBuilder(name);
+    for (Argument argument : arguments) {
+      if (argument.isOptional()) {
+        usage.append(" [").append(argument.getName()).append(']');
+      } else {
+        requiredCount++;
+        usage.append(' ').append(argument.getName());
+      }
+    }
+    if (conditional) {
+      usage.append(" [").append(WHEN).append(" condition]");
+    }
+    this.requiredCount = requiredCount;
+    this.usage = usage.toString();
+  }
+
+  public static Builder builder(String name) {
+    return new Builder(name);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public List<Argument> getArguments() {
+    return arguments;
+  }
+
+  /**
+   * Returns whether the directive may end with a {@code when condition} clause.
+   */
+  public boolean isConditional() {
+    return conditional;
+  }
+
+  /**
+   * Returns the number of arguments that cannot be left out.
+   */
+  public int getRequiredCount() {
+    return requiredCount;
+  }
+
+  /**
+   * Returns the usage of the directive, e.g. {@code rename old_column_name new_column_name}.
+   */
+  public String getUsage() {
+    return usage;
+  }
+
+  int indexOf(String argumentName) {
+    for (int i = 0; i < arguments.size(); i++) {
+      if (arguments.get(i).getName().equals(argumentName)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException(String.format("Directive %s has no argument %s.", name, argumentName));
+  }
+
+  /**
+   * Builder for {@link DirectiveGrammar}. Arguments are expected in the order they are added.
+   */
+  public static final class Builder {
+    private final String name;
+    private final List<Argument> arguments = new ArrayList<>();
+    private boolean conditional;
+
+    private Builder(String name) {
+      this.name = name;
+    }
+
+    public Builder string(String argumentName) {
+      return add(argumentName, ArgumentType.STRING, Collections.emptyList());
+    }
+
+    public Builder character(String argumentName) {
+      return add(argumentName, ArgumentType.CHARACTER, Collections.emptyList());
+    }
+
+    public Builder nonNegativeInt(String argumentName) {
+      return add(argumentName, ArgumentType.NON_NEGATIVE_INT, Collections.emptyList());
+    }
+
+    public Builder choice(String argumentName, String... choices) {
+      return add(argumentName, ArgumentType.CHOICE, Collections.unmodifiableList(Arrays.asList(choices)));
+    }
+
+    /**
+     * Makes the last added argument optional, using the given token when it is left out.
+     *
+     * @throws IllegalStateException if no argument was added yet
+     */
+    public Builder optional(String defaultToken) {
+      if (arguments.isEmpty()) {
+        throw new IllegalStateException("No argument to make optional.");
+      }
+      Argument last = arguments.remove(arguments.size() - 1);
+      arguments.add(new Argument(last.getName(), last.getType(), last.getChoices(), defaultToken));
+      return this;
+    }
+
+    /**
+     * Lets the directive end with a {@code when condition} clause. Only directives that leave the schema of
+     * the rows not matching the condition as it is should be conditional.
+     */
+    public Builder conditional() {
+      conditional = true;
+      return this;
+    }
+
+    private Builder add(String argumentName, ArgumentType type, List<String> choices) {
+      arguments.add(new Argument(argumentName, type, choices, null));
+      return this;
+    }
+
+    /**
+     * Builds the grammar.
+     *
+     * @throws IllegalStateException if a required argument follows an optional one
+     */
+    public DirectiveGrammar build() {
+      for (int i = 1; i < arguments.size(); i++) {
+        if (arguments.get(i - 1).isOptional() && !arguments.get(i).isOptional()) {
+          throw new IllegalStateException(
+            String.format("Required argument %s follows optional argument %s.", arguments.get(i).getName(),
+                          arguments.get(i - 1).getName()));
+        }
+      }
+      return new DirectiveGrammar(name, new ArrayList<>(arguments), conditional);
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.cdap.transformation.api.TransformationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses directive command lines against a {@link DirectiveGrammar}.
+ * <p>
+ * Command lines are split on whitespace without going through a regex, and every argument is validated and
+ * converted according to its type, so all transformations reject malformed directives the same way.
+ * Parsed directives are cached by command line, so the same directive configured on many tables is parsed
+ * only once. Parsers are thread safe and meant to be shared, typically as a constant of the transformation.
+ * </p>
+ */
+public final class DirectiveParser {
+
+  private static final int CACHE_SIZE = 1024;
+
+  private final DirectiveGrammar grammar;
+  private final Cache<String, ParsedDirective> cache;
+
+  public DirectiveParser(DirectiveGrammar grammar) {
+    this.grammar = grammar;
+    this.cache = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+  }
+
+  public DirectiveGrammar getGrammar() {
+    return grammar;
+  }
+
+  /**
+   * Parses the directive of the given context.
+   *
+   * @throws IllegalArgumentException if the directive command line is null or does not match the grammar
+   */
+  public ParsedDirective parse(TransformationContext context) {
+    return parse(context.getDirective().getWholeCommandLine());
+  }
+
+  /**
+   * Parses the given command line.
+   *
+   * @throws IllegalArgumentException if the command line is null or does not match the grammar
+   */
+  public ParsedDirective parse(String commandLine) {
+    if (commandLine == null) {
+      throw new IllegalArgumentException("Directive command line is null.");
+    }
+    ParsedDirective directive = cache.getIfPresent(commandLine);
+    if (directive == null) {
+      directive = doParse(commandLine);
+      cache.put(commandLine, directive);
+    }
+    return directive;
+  }
+
+  private ParsedDirective doParse(String commandLine) {
+    List<String> tokens = tokenize(commandLine);
+    List<DirectiveGrammar.Argument> arguments = grammar.getArguments();
+    String condition = null;
+    // the keyword can only start the clause after the required arguments, so it can still name a column
+    for (int i = grammar.getRequiredCount() + 1; i < tokens.size(); i++) {
+      if (DirectiveGrammar.WHEN.equals(tokens.get(i))) {
+        if (!grammar.isConditional()) {
+          throw new IllegalArgumentException(
+            String.format("Directive %s cannot have a %s clause. Usage: %s", grammar.getName(), DirectiveGrammar.WHEN,
+                          grammar.getUsage()));
+        }
+        condition = commandLine.substring(tokenEnd(commandLine, tokens, i)).trim();
+        if (condition.isEmpty()) {
+          throw new IllegalArgumentException(
+            String.format("The %s clause has no condition, given directive: %s", DirectiveGrammar.WHEN, commandLine));
+        }
+        tokens = tokens.subList(0, i);
+        break;
+      }
+    }
+    int given = tokens.size() - 1;
+    if (given < grammar.getRequiredCount() || given > arguments.size()) {
+      String count = grammar.getRequiredCount() == arguments.size() ? Integer.toString(arguments.size()) :
+        String.format("%d to %d", grammar.getRequiredCount(), arguments.size());
+      throw new IllegalArgumentException(
+        String.format("Directive should have %s arguments. Usage: %s, given directive: %s",
+                      count, grammar.getUsage(), commandLine));
+    }
+    if (!grammar.getName().equals(tokens.get(0))) {
+      throw new IllegalArgumentException(
+        String.format("Directive is not a %s transformation. Usage: %s", grammar.getName(), grammar.getUsage()));
+    }
+
+    Object[] values = new Object[arguments.size()];
+    for (int i = 0; i < values.length; i++) {
+      DirectiveGrammar.Argument argument = arguments.get(i);
+      values[i] = convert(argument, i < given ? tokens.get(i + 1) : argument.getDefaultToken());
+    }
+    return new ParsedDirective(grammar, commandLine, values, condition);
+  }
+
+  /**
+   * Returns the position in the command line just after the token at the given index.
+   */
+  private static int tokenEnd(String commandLine, List<String> tokens, int index) {
+    int position = 0;
+    for (int i = 0; i <= index; i++) {
+      // tokens contain no whitespace, so the next occurrence is the token itself
+      position = commandLine.indexOf(tokens.get(i), position) + tokens.get(i).length();
+    }
+    return position;
+  }
+
+  private static Object convert(DirectiveGrammar.Argument argument, String token) {
+    switch (argument.getType()) {
+      case CHARACTER:
+        if (token.length() != 1) {
+          throw new IllegalArgumentException(String.format("%s: %s is not a character", argument.getName(), token));
+        }
+        return token.charAt(0);
+      case NON_NEGATIVE_INT:
+        int value;
+        try {
+          value = Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException(String.format("%s is not an integer.", argument.getName()), e);
+        }
+        if (value < 0) {
+          throw new IllegalArgumentException(
+            String.format("%s is not a whole number, given: %s", argument.getName(), value));
+        }
+        return value;
+      case CHOICE:
+        if (!argument.getChoices().contains(token)) {
+          throw new IllegalArgumentException(
+            String.format("%s should be one of %s, given: %s", argument.getName(),
+                          String.join(", ", argument.getChoices()), token));
+        }
+        return token;
+      default:
+        return token;
+    }
+  }
+
+  /**
+   * Splits the command line into whitespace separated tokens.
+   */
+  public static List<String> tokenize(String commandLine) {
+    List<String> tokens = new ArrayList<>();
+    int length = commandLine.length();
+    int start = -1;
+    for (int i = 0; i < length; i++) {
+      if (Character.isWhitespace(commandLine.charAt(i))) {
+        if (start >= 0) {
+          tokens.add(commandLine.substring(start, i));
+          start = -1;
+        }
+      } else if (start < 0) {
+        start = i;
+      }
+    }
+    if (start >= 0) {
+      tokens.add(commandLine.substring(start));
+    }
+    return tokens;
+  }
+}
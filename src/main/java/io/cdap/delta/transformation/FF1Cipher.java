@@ -0,0 +1,336 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * FF1 format-preserving encryption with AES, as specified in NIST SP 800-38G, over numeral strings given as
+ * arrays of digits in {@code [0, radix)}.
+ * <p>
+ * The AES key schedule and everything that only depends on the length of the numeral string, including the
+ * encrypted first block of the round function input, are computed once and reused. When the numbers of a
+ * round fit in a long, rounds run on longs without allocating; longer strings fall back to {@link BigInteger}.
+ * Instances keep working buffers and are not thread safe.
+ * </p>
+ */
+public final class FF1Cipher {
+
+  private static final int ROUNDS = 10;
+  private static final int BLOCK_SIZE = 16;
+  private static final int MIN_DOMAIN_SIZE = 1000000;
+  private static final int MAX_RADIX = 1 << 16;
+  /**
+   * Moduli below this bound keep {@code r * 256 + 255} within a long while reducing round outputs.
+   */
+  private static final long LONG_MODULUS_LIMIT = 1L << 55;
+
+  private final int radix;
+  private final byte[] tweak;
+  private final Cipher aes;
+  private final boolean longArithmetic;
+  private final int minLength;
+  private final int chunkLength;
+  private final long chunkModulus;
+  private final Map<Integer, Layout> layouts = new HashMap<>();
+
+  /**
+   * Creates a cipher.
+   *
+   * @param key AES key of 16, 24 or 32 bytes
+   * @param radix number of distinct numerals, from 2 to 65536
+   * @param tweak public tweak, may be empty
+   * @throws IllegalArgumentException if the key or radix is not valid
+   */
+  public FF1Cipher(byte[] key, int radix, byte[] tweak) {
+    this(key, radix, tweak, true);
+  }
+
+  FF1Cipher(byte[] key, int radix, byte[] tweak, boolean longArithmetic) {
+    if (key.length != 16 && key.length != 24 && key.length != 32) {
+      throw new IllegalArgumentException(
+        String.format("AES key should be 16, 24 or 32 bytes long, given: %d bytes", key.length));
+    }
+    if (radix < 2 || radix > MAX_RADIX) {
+      throw new IllegalArgumentException(String.format("Radix should be from 2 to %d, given: %d", MAX_RADIX, radix));
+    }
+    this.radix = radix;
+    this.tweak = tweak.clone();
+    this.longArithmetic = longArithmetic;
+    try {
+      aes = Cipher.getInstance("AES/ECB/NoPadding");
+      aes.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("AES is not available.", e);
+    }
+    int length = 2;
+    while (BigInteger.valueOf(radix).pow(length).compareTo(BigInteger.valueOf(MIN_DOMAIN_SIZE)) < 0) {
+      length++;
+    }
+    minLength = length;
+    int chunk = 1;
+    long modulus = radix;
+    while (modulus * radix < LONG_MODULUS_LIMIT) {
+      modulus *= radix;
+      chunk++;
+    }
+    chunkLength = chunk;
+    chunkModulus = modulus;
+  }
+
+  public int getRadix() {
+    return radix;
+  }
+
+  /**
+   * Returns the smallest number of numerals that can be encrypted, so that the domain has at least a million
+   * values as SP 800-38G requires.
+   */
+  public int getMinLength() {
+    return minLength;
+  }
+
+  /**
+   * Encrypts the first {@code length} numerals in place.
+   *
+   * @throws IllegalArgumentException if length is below {@link #getMinLength()}
+   */
+  public void encrypt(int[] numerals, int length) {
+    Layout layout = layout(length);
+    int u = layout.u;
+    if (layout.longArithmetic) {
+      long a = toLong(numerals, 0, u);
+      long b = toLong(numerals, u, length);
+      for (int i = 0; i < ROUNDS; i++) {
+        long modulus = i % 2 == 0 ? layout.radixULong : layout.radixVLong;
+        writeLong(layout, b);
+        long y = round(layout, i, modulus);
+        long c = (a + y) % modulus;
+        a = b;
+        b = c;
+      }
+      fromLong(a, numerals, 0, u);
+      fromLong(b, numerals, u, length);
+    } else {
+      BigInteger a = toBig(numerals, 0, u);
+      BigInteger b = toBig(numerals, u, length);
+      for (int i = 0; i < ROUNDS; i++) {
+        writeBig(layout, b);
+        BigInteger c = a.add(round(layout, i)).mod(i % 2 == 0 ? layout.radixU : layout.radixV);
+        a = b;
+        b = c;
+      }
+      fromBig(a, numerals, 0, u);
+      fromBig(b, numerals, u, length);
+    }
+  }
+
+  /**
+   * Decrypts the first {@code length} numerals in place.
+   *
+   * @throws IllegalArgumentException if length is below {@link #getMinLength()}
+   */
+  public void decrypt(int[] numerals, int length) {
+    Layout layout = layout(length);
+    int u = layout.u;
+    if (layout.longArithmetic) {
+      long a = toLong(numerals, 0, u);
+      long b = toLong(numerals, u, length);
+      for (int i = ROUNDS - 1; i >= 0; i--) {
+        long modulus = i % 2 == 0 ? layout.radixULong : layout.radixVLong;
+        writeLong(layout, a);
+        long y = round(layout, i, modulus);
+        long c = Math.floorMod(b - y, modulus);
+        b = a;
+        a = c;
+      }
+      fromLong(a, numerals, 0, u);
+      fromLong(b, numerals, u, length);
+    } else {
+      BigInteger a = toBig(numerals, 0, u);
+      BigInteger b = toBig(numerals, u, length);
+      for (int i = ROUNDS - 1; i >= 0; i--) {
+        writeBig(layout, a);
+        BigInteger c = b.subtract(round(layout, i)).mod(i % 2 == 0 ? layout.radixU : layout.radixV);
+        b = a;
+        a = c;
+      }
+      fromBig(a, numerals, 0, u);
+      fromBig(b, numerals, u, length);
+    }
+  }
+
+  private Layout layout(int length) {
+    if (length < minLength) {
+      throw new IllegalArgumentException(
+        String.format("FF1 with radix %d needs at least %d numerals, given: %d", radix, minLength, length));
+    }
+    Layout layout = layouts.get(length);
+    if (layout == null) {
+      layout = new Layout(length);
+      layouts.put(length, layout);
+    }
+    return layout;
+  }
+
+  /**
+   * Computes the round function output S into the layout buffer, with the round number and the number of the
+   * round already in place in Q.
+   */
+  private void prf(Layout layout, int round) {
+    byte[] q = layout.q;
+    byte[] s = layout.s;
+    q[q.length - layout.b - 1] = (byte) round;
+    System.arraycopy(layout.encryptedP, 0, s, 0, BLOCK_SIZE);
+    for (int offset = 0; offset < q.length; offset += BLOCK_SIZE) {
+      for (int k = 0; k < BLOCK_SIZE; k++) {
+        s[k] ^= q[offset + k];
+      }
+      encryptBlock(s, 0, s, 0);
+    }
+    for (int j = 1; j * BLOCK_SIZE < layout.d; j++) {
+      int offset = j * BLOCK_SIZE;
+      System.arraycopy(s, 0, s, offset, BLOCK_SIZE);
+      for (int k = 0; k < 4; k++) {
+        s[offset + BLOCK_SIZE - 1 - k] ^= (byte) (j >>> (8 * k));
+      }
+      encryptBlock(s, offset, s, offset);
+    }
+  }
+
+  private long round(Layout layout, int round, long modulus) {
+    prf(layout, round);
+    byte[] s = layout.s;
+    long y = 0;
+    for (int k = 0; k < layout.d; k++) {
+      y = ((y << 8) | (s[k] & 0xff)) % modulus;
+    }
+    return y;
+  }
+
+  private BigInteger round(Layout layout, int round) {
+    prf(layout, round);
+    return new BigInteger(1, Arrays.copyOf(layout.s, layout.d));
+  }
+
+  private void encryptBlock(byte[] input, int inputOffset, byte[] output, int outputOffset) {
+    try {
+      aes.update(input, inputOffset, BLOCK_SIZE, output, outputOffset);
+    } catch (ShortBufferException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void writeLong(Layout layout, long number) {
+    byte[] q = layout.q;
+    for (int k = q.length - 1; k >= q.length - layout.b; k--) {
+      q[k] = (byte) number;
+      number >>>= 8;
+    }
+  }
+
+  private static void writeBig(Layout layout, BigInteger number) {
+    byte[] q = layout.q;
+    byte[] bytes = number.toByteArray();
+    int count = Math.min(bytes.length, layout.b);
+    int start = q.length - layout.b;
+    Arrays.fill(q, start, q.length - count, (byte) 0);
+    System.arraycopy(bytes, bytes.length - count, q, q.length - count, count);
+  }
+
+  private long toLong(int[] numerals, int start, int end) {
+    long number = 0;
+    for (int i = start; i < end; i++) {
+      number = number * radix + numerals[i];
+    }
+    return number;
+  }
+
+  private void fromLong(long number, int[] numerals, int start, int end) {
+    for (int i = end - 1; i >= start; i--) {
+      numerals[i] = (int) (number % radix);
+      number /= radix;
+    }
+  }
+
+  private BigInteger toBig(int[] numerals, int start, int end) {
+    BigInteger modulus = BigInteger.valueOf(chunkModulus);
+    int first = start + (end - start) % chunkLength;
+    BigInteger number = BigInteger.valueOf(toLong(numerals, start, first));
+    for (int i = first; i < end; i += chunkLength) {
+      number = number.multiply(modulus).add(BigInteger.valueOf(toLong(numerals, i, i + chunkLength)));
+    }
+    return number;
+  }
+
+  private void fromBig(BigInteger number, int[] numerals, int start, int end) {
+    BigInteger modulus = BigInteger.valueOf(chunkModulus);
+    for (int i = end; i > start; i -= chunkLength) {
+      BigInteger[] quotientAndRemainder = number.divideAndRemainder(modulus);
+      fromLong(quotientAndRemainder[1].longValue(), numerals, Math.max(start, i - chunkLength), i);
+      number = quotientAndRemainder[0];
+    }
+  }
+
+  /**
+   * Everything that only depends on the length of the numeral string, with the buffers of the round function.
+   */
+  private final class Layout {
+    private final int u;
+    private final int b;
+    private final int d;
+    private final boolean longArithmetic;
+    private final BigInteger radixU;
+    private final BigInteger radixV;
+    private final long radixULong;
+    private final long radixVLong;
+    private final byte[] encryptedP = new byte[BLOCK_SIZE];
+    private final byte[] q;
+    private final byte[] s;
+
+    Layout(int length) {
+      u = length / 2;
+      int v = length - u;
+      radixU = BigInteger.valueOf(radix).pow(u);
+      radixV = BigInteger.valueOf(radix).pow(v);
+      b = (radixV.subtract(BigInteger.ONE).bitLength() + 7) / 8;
+      d = 4 * ((b + 3) / 4) + 4;
+      longArithmetic = FF1Cipher.this.longArithmetic && radixV.compareTo(BigInteger.valueOf(LONG_MODULUS_LIMIT)) < 0;
+      radixULong = longArithmetic ? radixU.longValue() : 0;
+      radixVLong = longArithmetic ? radixV.longValue() : 0;
+
+      byte[] p = {
+        1, 2, 1, (byte) (radix >>> 16), (byte) (radix >>> 8), (byte) radix, 10, (byte) u,
+        (byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length,
+        (byte) (tweak.length >>> 24), (byte) (tweak.length >>> 16), (byte) (tweak.length >>> 8), (byte) tweak.length
+      };
+      encryptBlock(p, 0, encryptedP, 0);
+
+      int padding = Math.floorMod(-tweak.length - b - 1, BLOCK_SIZE);
+      q = new byte[tweak.length + padding + 1 + b];
+      System.arraycopy(tweak, 0, q, 0, tweak.length);
+      s = new byte[(d + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE];
+    }
+  }
+}
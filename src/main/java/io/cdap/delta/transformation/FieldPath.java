@@ -0,0 +1,308 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * A field nested in a column, named by a dotted path such as {@code customer.address.zip}: the first segment
+ * names the column and the others the fields down to the target field, optionally renamed to a new name.
+ * <p>
+ * Columns holding records are resolved once in {@code transformSchema}: the record schema of every level of
+ * the path is looked up, and the schemas with the renamed field are built, so updating a value only rebuilds the
+ * records along the path. Records that arrive with another schema than the resolved one are resolved again.
+ * </p>
+ * <p>
+ * Columns holding strings are taken to hold JSON documents, which are not parsed: a {@link JsonScanner} finds the
+ * target member, and only its value, or its key for a rename, is rewritten by splicing new text into the
+ * document, so a small change to a large document costs a scan up to the member and a copy. String values of the
+ * member are decoded before they are updated, numbers are passed as their JSON text, and null members are left
+ * as they are, while objects, arrays and booleans cannot be updated. Documents that do not have the member are
+ * left unchanged, and a rename does not look for another member of the object with the new name. Paths hold
+ * per-transformation state and are not thread safe.
+ * </p>
+ */
+public final class FieldPath {
+
+  private final String path;
+  private final String column;
+  private final String[] fields;
+  private final String newName;
+  private final JsonScanner scanner = new JsonScanner();
+  // the non-nullable record schema of each level, before and after the rename
+  private Schema[] recordSchemas;
+  private Schema[] renamedSchemas;
+  private Schema fieldSchema;
+
+  private FieldPath(String path, String column, String[] fields, String newName) {
+    this.path = path;
+    this.column = column;
+    this.fields = fields;
+    this.newName = newName;
+  }
+
+  /**
+   * Returns {@code true} if the given name is a path to a nested field rather than a column name.
+   */
+  public static boolean isPath(String name) {
+    return name.indexOf('.', 1) > 0;
+  }
+
+  /**
+   * Parses a dotted path.
+   *
+   * @throws IllegalArgumentException if the path has empty segments or names no nested field
+   */
+  public static FieldPath parse(String path) {
+    String[] segments = path.split("\\.", -1);
+    if (segments.length < 2) {
+      throw new IllegalArgumentException(String.format("%s is not a path to a nested field.", path));
+    }
+    for (String segment : segments) {
+      if (segment.isEmpty()) {
+        throw new IllegalArgumentException(String.format("Field path %s has an empty segment.", path));
+      }
+    }
+    return new FieldPath(path, segments[0], Arrays.copyOfRange(segments, 1, segments.length), null);
+  }
+
+  /**
+   * Returns a path to the same field that renames the field to the given name when values are updated.
+   */
+  public FieldPath withNewName(String newName) {
+    if (newName.isEmpty() || newName.indexOf('.') >= 0) {
+      throw new IllegalArgumentException(String.format("%s is not a valid name for field %s.", newName, path));
+    }
+    return new FieldPath(path, column, fields, newName);
+  }
+
+  public String getColumn() {
+    return column;
+  }
+
+  /**
+   * Returns the names of the nested fields from the column down to the target field.
+   */
+  public List<String> getFields() {
+    return Collections.unmodifiableList(Arrays.asList(fields));
+  }
+
+  /**
+   * Returns the name the field is renamed to, or {@code null} if the field keeps its name.
+   */
+  public String getNewName() {
+    return newName;
+  }
+
+  /**
+   * Returns the schema of the target field, or {@code null} if the column holds JSON documents or the path has
+   * not been resolved.
+   */
+  public Schema getFieldSchema() {
+    return fieldSchema;
+  }
+
+  /**
+   * Resolves the path against the schema of its column.
+   *
+   * @return the schema of the column after the field is renamed, which is the given schema if it is not renamed
+   *   or if the column holds JSON documents
+   * @throws IllegalArgumentException if the column is neither a record nor a string, or if a field along the
+   *   path does not exist or is not a record
+   */
+  public Schema resolve(Schema columnSchema) {
+    Schema schema = columnSchema.isNullable() ? columnSchema.getNonNullable() : columnSchema;
+    if (schema.getType() == Schema.Type.STRING) {
+      recordSchemas = null;
+      renamedSchemas = null;
+      fieldSchema = null;
+      return columnSchema;
+    }
+    if (schema.getType() != Schema.Type.RECORD) {
+      throw new IllegalArgumentException(String.format("Column %s of field path %s is supposed to be a record or a " +
+                                                         "JSON string.", column, path));
+    }
+    Schema[] schemas = new Schema[fields.length];
+    for (int level = 0; level < fields.length; level++) {
+      if (schema.getType() != Schema.Type.RECORD) {
+        throw new IllegalArgumentException(String.format("Field %s of field path %s is supposed to be a record.",
+                                                         fields[level - 1], path));
+      }
+      schemas[level] = schema;
+      Schema.Field field = schema.getField(fields[level]);
+      if (field == null) {
+        throw new IllegalArgumentException(String.format("Field %s of field path %s does not exist.",
+                                                         fields[level], path));
+      }
+      schema = field.getSchema().isNullable() ? field.getSchema().getNonNullable() : field.getSchema();
+    }
+    recordSchemas = schemas;
+    fieldSchema = schemas[fields.length - 1].getField(fields[fields.length - 1]).getSchema();
+    if (newName == null) {
+      renamedSchemas = null;
+      return columnSchema;
+    }
+    if (schemas[fields.length - 1].getField(newName) != null) {
+      throw new IllegalArgumentException(String.format("Field %s cannot be renamed to %s, which already exists.",
+                                                       path, newName));
+    }
+    renamedSchemas = new Schema[fields.length];
+    Schema renamed = null;
+    for (int level = fields.length - 1; level >= 0; level--) {
+      List<Schema.Field> renamedFields = new ArrayList<>();
+      for (Schema.Field field : schemas[level].getFields()) {
+        if (!field.getName().equals(fields[level])) {
+          renamedFields.add(field);
+        } else if (renamed == null) {
+          renamedFields.add(Schema.Field.of(newName, field.getSchema()));
+        } else {
+          renamedFields.add(Schema.Field.of(field.getName(), field.getSchema().isNullable()
+            ? Schema.nullableOf(renamed) : renamed));
+        }
+      }
+      renamed = Schema.recordOf(schemas[level].getRecordName(), renamedFields);
+      renamedSchemas[level] = renamed;
+    }
+    return columnSchema.isNullable() ? Schema.nullableOf(renamed) : renamed;
+  }
+
+  /**
+   * Updates the target field of the given column value with the given operator, which is not called for null
+   * fields, and renames the field if this path renames it.
+   *
+   * @return the updated column value, or the given value itself if nothing changed
+   * @throws IllegalArgumentException if the value is neither a record nor a JSON string, or is malformed JSON
+   */
+  public Object update(Object value, UnaryOperator<Object> operator) {
+    return apply(value, operator);
+  }
+
+  /**
+   * Renames the target field of the given column value, which must be a path given a new name.
+   *
+   * @return the updated column value, or the given value itself if it has no such field
+   * @throws IllegalArgumentException if the value is neither a record nor a JSON string, or is malformed JSON
+   */
+  public Object rename(Object value) {
+    return apply(value, null);
+  }
+
+  private Object apply(Object value, UnaryOperator<Object> operator) {
+    if (value instanceof StructuredRecord) {
+      StructuredRecord record = (StructuredRecord) value;
+      Schema schema = record.getSchema();
+      if (recordSchemas == null || (schema != recordSchemas[0] && !schema.equals(recordSchemas[0]))) {
+        resolve(schema);
+      }
+      return updateRecord(record, 0, operator);
+    }
+    if (value instanceof String) {
+      return updateJson((String) value, operator);
+    }
+    throw new IllegalArgumentException(String.format("Column %s of field path %s is supposed to have a record or a " +
+                                                       "JSON string value.", column, path));
+  }
+
+  private StructuredRecord updateRecord(StructuredRecord record, int level, UnaryOperator<Object> operator) {
+    String name = fields[level];
+    Object child = record.get(name);
+    Object updated;
+    if (child == null) {
+      updated = null;
+    } else if (level == fields.length - 1) {
+      updated = operator == null ? child : operator.apply(child);
+    } else if (child instanceof StructuredRecord) {
+      updated = updateRecord((StructuredRecord) child, level + 1, operator);
+    } else {
+      throw new IllegalArgumentException(String.format("Field %s of field path %s is supposed to have a record " +
+                                                         "value.", name, path));
+    }
+    if (updated == child && newName == null) {
+      return record;
+    }
+    boolean target = level == fields.length - 1;
+    StructuredRecord.Builder builder = StructuredRecord.builder(newName == null ? record.getSchema()
+                                                                  : renamedSchemas[level]);
+    for (Schema.Field field : recordSchemas[level].getFields()) {
+      String fieldName = field.getName();
+      if (fieldName.equals(name)) {
+        builder.set(target && newName != null ? newName : fieldName, updated);
+      } else {
+        builder.set(fieldName, record.get(fieldName));
+      }
+    }
+    return builder.build();
+  }
+
+  private String updateJson(String json, UnaryOperator<Object> operator) {
+    if (!scanner.find(json, fields)) {
+      return json;
+    }
+    int valueStart = scanner.getValueStart();
+    int valueEnd = scanner.getValueEnd();
+    Object updated = null;
+    boolean changed = false;
+    char first = json.charAt(valueStart);
+    if (operator != null && first != 'n') {
+      if (first == '{' || first == '[' || first == 't' || first == 'f') {
+        throw new IllegalArgumentException(String.format("Field %s is supposed to have a string or number value.",
+                                                         path));
+      }
+      Object fieldValue = first == '"' ? JsonScanner.decodeString(json, valueStart, valueEnd)
+        : json.substring(valueStart, valueEnd);
+      updated = operator.apply(fieldValue);
+      changed = updated != fieldValue;
+    }
+    if (!changed && newName == null) {
+      return json;
+    }
+    StringBuilder out = new StringBuilder(json.length() + 16);
+    int keyStart = scanner.getKeyStart();
+    int keyEnd = scanner.getKeyEnd();
+    out.append(json, 0, keyStart);
+    if (newName == null) {
+      out.append(json, keyStart, keyEnd);
+    } else {
+      JsonScanner.appendString(out, newName);
+    }
+    out.append(json, keyEnd, valueStart);
+    if (!changed) {
+      out.append(json, valueStart, valueEnd);
+    } else if (updated == null) {
+      out.append("null");
+    } else if (updated instanceof CharSequence) {
+      JsonScanner.appendString(out, (CharSequence) updated);
+    } else {
+      throw new IllegalArgumentException(String.format("Field %s cannot hold a %s value in a JSON document.", path,
+                                                       updated.getClass().getSimpleName()));
+    }
+    out.append(json, valueEnd, json.length());
+    return out.toString();
+  }
+
+  @Override
+  public String toString() {
+    return newName == null ? path : path + " -> " + newName;
+  }
+}
@@ -0,0 +1,576 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.cdap.api.data.schema.Schema;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Generalizes column values to a coarser granularity, e.g. salaries to multiples of 10000, timestamps to the day
+ * or ZIP codes to their first 3 digits, as used for k-anonymity. The generalization is picked once from the
+ * column schema, and each one works on the Java type of its column with primitive arithmetic, keeping the type,
+ * so the schema does not change:
+ * <ul>
+ *   <li>{@code floor} and {@code round} to a multiple of a number, for int, long, float, double and decimal
+ *   values. Ints and longs need a whole number.</li>
+ *   <li>{@code floor} and {@code round} to a unit of time, for timestamps (second, minute, hour, day, week,
+ *   month, year), dates (week, month, year) and times (second, minute, hour). Weeks start on Monday, months and
+ *   years are in UTC, and only fixed length units can be rounded.</li>
+ *   <li>{@code prefix} to a number of characters for strings, or of leading digits for ints and longs, the
+ *   other digits being set to zero, e.g. 94105 with a prefix of 3 gives 94100.</li>
+ * </ul>
+ * Generalizers keep per-value caches and are not thread safe.
+ */
+public abstract class Generalizer {
+
+  /**
+   * How values are generalized.
+   */
+  public enum Mode {
+    FLOOR,
+    ROUND,
+    PREFIX
+  }
+
+  private static final long MICROS_PER_DAY = 86_400_000_000L;
+
+  /**
+   * A mode with its granularity, as given in a directive, which can be checked before the schema is known.
+   */
+  public static final class Spec {
+    private final Mode mode;
+    private final String granularity;
+    private final String timeUnit;
+    private final long unitMicros;
+    private final BigDecimal step;
+    private final int prefixLength;
+
+    private Spec(Mode mode, String granularity, String timeUnit, long unitMicros, BigDecimal step, int prefixLength) {
+      this.mode = mode;
+      this.granularity = granularity;
+      this.timeUnit = timeUnit;
+      this.unitMicros = unitMicros;
+      this.step = step;
+      this.prefixLength = prefixLength;
+    }
+
+    /**
+     * Parses a mode and granularity.
+     *
+     * @throws IllegalArgumentException if the granularity does not suit the mode
+     */
+    public static Spec parse(String mode, String granularity) {
+      Mode parsedMode;
+      try {
+        parsedMode = Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(String.format("Mode should be one of floor, round, prefix, given: %s",
+                                                         mode), e);
+      }
+      if (parsedMode == Mode.PREFIX) {
+        int length;
+        try {
+          length = Integer.parseInt(granularity);
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException(String.format("Prefix length %s is not an integer.", granularity), e);
+        }
+        if (length <= 0) {
+          throw new IllegalArgumentException(String.format("Prefix length should be positive, given: %s", length));
+        }
+        return new Spec(parsedMode, granularity, null, 0L, null, length);
+      }
+      long unitMicros = unitMicros(granularity);
+      if (unitMicros != 0L) {
+        if (unitMicros < 0 && parsedMode == Mode.ROUND) {
+          throw new IllegalArgumentException(String.format("Values cannot be rounded to a %s, which has no fixed " +
+                                                             "length.", granularity));
+        }
+        return new Spec(parsedMode, granularity, granularity, unitMicros, null, 0);
+      }
+      BigDecimal step;
+      try {
+        step = new BigDecimal(granularity);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException(String.format("Granularity %s is neither a number nor a unit of time.",
+                                                         granularity), e);
+      }
+      if (step.signum() <= 0) {
+        throw new IllegalArgumentException(String.format("Granularity should be positive, given: %s", granularity));
+      }
+      return new Spec(parsedMode, granularity, null, 0L, step, 0);
+    }
+
+    /**
+     * Returns the length of a unit of time in microseconds, -1 for calendar units, or 0 if this is not a unit.
+     */
+    private static long unitMicros(String unit) {
+      switch (unit) {
+        case "second":
+          return 1_000_000L;
+        case "minute":
+          return 60_000_000L;
+        case "hour":
+          return 3_600_000_000L;
+        case "day":
+          return MICROS_PER_DAY;
+        case "week":
+          return 7 * MICROS_PER_DAY;
+        case "month":
+        case "year":
+          return -1L;
+        default:
+          return 0L;
+      }
+    }
+
+    public Mode getMode() {
+      return mode;
+    }
+
+    @Override
+    public String toString() {
+      return mode.name().toLowerCase(Locale.ROOT) + " " + granularity;
+    }
+  }
+
+  /**
+   * Returns the generalized form of a non-null value.
+   *
+   * @throws IllegalArgumentException if the value does not have the Java type of its schema
+   */
+  public abstract Object generalize(Object value);
+
+  /**
+   * Returns the generalizer for values of the given schema.
+   *
+   * @throws IllegalArgumentException if values of the schema cannot be generalized as specified
+   */
+  public static Generalizer forSchema(Schema schema, Spec spec) {
+    if (schema.isNullable()) {
+      schema = schema.getNonNullable();
+    }
+    Schema.LogicalType logicalType = schema.getLogicalType();
+    if (logicalType != null) {
+      switch (logicalType) {
+        case TIMESTAMP_MILLIS:
+        case TIMESTAMP_MICROS:
+          if (spec.timeUnit != null) {
+            return new TimestampGeneralizer(spec, logicalType == Schema.LogicalType.TIMESTAMP_MILLIS ? 1000L : 1L);
+          }
+          break;
+        case DATE:
+          if (spec.timeUnit != null && (spec.unitMicros < 0 || spec.unitMicros == 7 * MICROS_PER_DAY)) {
+            return new DateGeneralizer(spec);
+          }
+          break;
+        case TIME_MILLIS:
+        case TIME_MICROS:
+          if (spec.timeUnit != null && spec.unitMicros > 0 && spec.unitMicros < MICROS_PER_DAY) {
+            boolean isMillis = logicalType == Schema.LogicalType.TIME_MILLIS;
+            return new TimeGeneralizer(spec.mode, isMillis ? spec.unitMicros / 1000 : spec.unitMicros, isMillis);
+          }
+          break;
+        case DECIMAL:
+          if (spec.step != null) {
+            if (spec.step.stripTrailingZeros().scale() > schema.getScale()) {
+              throw new IllegalArgumentException(String.format("Decimals of scale %s cannot be generalized to " +
+                                                                 "multiples of %s.", schema.getScale(),
+                                                               spec.step.toPlainString()));
+            }
+            return new DecimalGeneralizer(spec.mode, spec.step, schema.getScale());
+          }
+          break;
+        default:
+          break;
+      }
+      throw unsupported(schema, spec);
+    }
+    switch (schema.getType()) {
+      case INT:
+      case LONG:
+        boolean isInt = schema.getType() == Schema.Type.INT;
+        if (spec.mode == Mode.PREFIX) {
+          return new IntegralPrefixGeneralizer(spec.prefixLength, isInt);
+        }
+        if (spec.step != null) {
+          BigInteger step;
+          try {
+            step = spec.step.toBigIntegerExact();
+          } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("Integer values cannot be generalized to multiples of " +
+                                                               "%s.", spec.step.toPlainString()), e);
+          }
+          if (step.bitLength() < 63) {
+            return new IntegralGeneralizer(spec.mode, step.longValue(), isInt);
+          }
+        }
+        break;
+      case FLOAT:
+      case DOUBLE:
+        if (spec.step != null) {
+          return new FloatingGeneralizer(spec.mode, spec.step.doubleValue(), schema.getType() == Schema.Type.FLOAT);
+        }
+        break;
+      case STRING:
+        if (spec.mode == Mode.PREFIX) {
+          return new StringPrefixGeneralizer(spec.prefixLength);
+        }
+        break;
+      default:
+        break;
+    }
+    throw unsupported(schema, spec);
+  }
+
+  private static IllegalArgumentException unsupported(Schema schema, Spec spec) {
+    String type = schema.getLogicalType() == null ? schema.getType().name() : schema.getLogicalType().name();
+    return new IllegalArgumentException(String.format("Values of type %s cannot be generalized with %s.",
+                                                      type.toLowerCase(Locale.ROOT), spec));
+  }
+
+  static IllegalArgumentException unexpected(Object value) {
+    return new IllegalArgumentException(String.format("Value of type %s does not match the schema.",
+                                                      value.getClass().getSimpleName()));
+  }
+
+  /**
+   * Floors or rounds the given value to a multiple of the positive step, with ties rounded up. Multiples beyond the
+   * given bounds are replaced by the nearest one within them.
+   */
+  static long toMultiple(long value, long step, boolean round, long min, long max) {
+    long remainder = Math.floorMod(value, step);
+    if (value < min + remainder) {
+      return value + (step - remainder);
+    }
+    long result = value - remainder;
+    if (round && remainder >= step - remainder && result <= max - step) {
+      result += step;
+    }
+    return result;
+  }
+
+  /**
+   * Floors or rounds the given decimal to a multiple of the positive step, with ties rounded up, keeping its scale.
+   */
+  static BigDecimal toMultiple(BigDecimal value, BigDecimal step, boolean round) {
+    BigDecimal quotient = value.divide(step, 0, RoundingMode.FLOOR);
+    BigDecimal result = quotient.multiply(step);
+    if (round && value.subtract(result).multiply(BigDecimal.valueOf(2)).compareTo(step) >= 0) {
+      result = result.add(step);
+    }
+    return result.setScale(Math.max(value.scale(), step.scale()), RoundingMode.UNNECESSARY);
+  }
+
+  /**
+   * Generalizes ints and longs to multiples of a whole number.
+   */
+  private static final class IntegralGeneralizer extends Generalizer {
+    private final boolean round;
+    private final long step;
+    private final boolean isInt;
+
+    IntegralGeneralizer(Mode mode, long step, boolean isInt) {
+      this.round = mode == Mode.ROUND;
+      this.step = step;
+      this.isInt = isInt;
+    }
+
+    @Override
+    public Object generalize(Object value) {
+      if (isInt && value instanceof Integer) {
+        int number = (Integer) value;
+        int result = (int) toMultiple(number, step, round, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return result == number ? value : Integer.valueOf(result);
+      }
+      if (!isInt && value instanceof Long) {
+        long number = (Long) value;
+        long result = toMultiple(number, step, round, Long.MIN_VALUE, Long.MAX_VALUE);
+        return result == number ? value : Long.valueOf(result);
+      }
+      throw unexpected(value);
+    }
+  }
+
+  /**
+   * Keeps the leading decimal digits of ints and longs, setting the others to zero.
+   */
+  private static final class IntegralPrefixGeneralizer extends Generalizer {
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+      POWERS_OF_TEN[0] = 1L;
+      for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+        POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+      }
+    }
+
+    private final int prefixLength;
+    private final boolean isInt;
+
+    IntegralPrefixGeneralizer(int prefixLength, boolean isInt) {
+      this.prefixLength = prefixLength;
+      this.isInt = isInt;
+    }
+
+    @Override
+    public Object generalize(Object value) {
+      long number;
+      if (isInt && value instanceof Integer) {
+        number = (Integer) value;
+      } else if (!isInt && value instanceof Long) {
+        number = (Long) value;
+      } else {
+        throw unexpected(value);
+      }
+      int digits = 1;
+      // compare negated magnitudes, which cannot overflow
+      long negative = number < 0 ? number : -number;
+      while (digits < POWERS_OF_TEN.length && negative <= -POWERS_OF_TEN[digits]) {
+        digits++;
+      }
+      if (digits <= prefixLength) {
+        return value;
+      }
+      long power = POWERS_OF_TEN[digits - prefixLength];
+      long result = number / power * power;
+      return isInt ? (Object) (int) result : (Object) result;
+    }
+  }
+
+  /**
+   * Generalizes floats and doubles to multiples of a number, leaving NaN and infinities as they are.
+   */
+  private static final class FloatingGeneralizer extends Generalizer {
+    private final boolean round;
+    private final double step;
+    private final boolean isFloat;
+
+    FloatingGeneralizer(Mode mode, double step, boolean isFloat) {
+      this.round = mode == Mode.ROUND;
+      this.step = step;
+      this.isFloat = isFloat;
+    }
+
+    @Override
+    public Object generalize(Object value) {
+      if (isFloat ? !(value instanceof Float) : !(value instanceof Double)) {
+        throw unexpected(value);
+      }
+      double number = ((Number) value).doubleValue();
+      if (Double.isNaN(number) || Double.isInfinite(number)) {
+        return value;
+      }
+      double result = (round ? Math.floor(number / step + 0.5) : Math.floor(number / step)) * step;
+      return isFloat ? (Object) (float) result : (Object) result;
+    }
+  }
+
+  /**
+   * Generalizes decimals, given as {@link BigDecimal}s or as unscaled two's complement bytes, to multiples of a
+   * number. Bytes of unscaled values that fit a long are generalized with long arithmetic.
+   */
+  private static final class DecimalGeneralizer extends Generalizer {
+    private final boolean round;
+    private final BigDecimal step;
+    private final int scale;
+    private final long unscaledStep;
+
+    DecimalGeneralizer(Mode mode, BigDecimal step, int scale) {
+      this.round = mode == Mode.ROUND;
+      this.step = step;
+      this.scale = scale;
+      BigInteger unscaled = step.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue();
+      this.unscaledStep = unscaled.bitLength() < 63 ? unscaled.longValue() : 0L;
+    }
+
+    @Override
+    public Object generalize(Object value) {
+      if (value instanceof BigDecimal) {
+        return toMultiple((BigDecimal) value, step, round);
+      }
+      if (!(value instanceof byte[] || value instanceof ByteBuffer)) {
+        throw unexpected(value);
+      }
+      byte[] bytes = StringConverter.bytes(value);
+      byte[] result;
+      if (unscaledStep > 0 && bytes.length > 0 && bytes.length <= 8) {
+        long unscaled = bytes[0];
+        for (int i = 1; i < bytes.length; i++) {
+          unscaled = (unscaled << 8) | (bytes[i] & 0xff);
+        }
+        long generalized = toMultiple(unscaled, unscaledStep, round, Long.MIN_VALUE, Long.MAX_VALUE);
+        if (generalized == unscaled) {
+          return value;
+        }
+        result = BigInteger.valueOf(generalized).toByteArray();
+      } else {
+        BigDecimal number = new BigDecimal(new BigInteger(bytes), scale);
+        result = toMultiple(number, step, round).setScale(scale, RoundingMode.UNNECESSARY).unscaledValue()
+          .toByteArray();
+      }
+      return value instanceof ByteBuffer ? ByteBuffer.wrap(result) : result;
+    }
+  }
+
+  /**
+   * Generalizes timestamps in milliseconds or microseconds since the epoch, remembering the last calendar
+   * generalization since change events tend to carry the same days.
+   */
+  private static final class TimestampGeneralizer extends Generalizer {
+    private final boolean round;
+    private final String unit;
+    private final long unitLength;
+    private final long perDay;
+    private long lastDay = Long.MIN_VALUE;
+    private long lastDayResult;
+
+    TimestampGeneralizer(Spec spec, long microsPerUnit) {
+      this.round = spec.mode == Mode.ROUND;
+      this.unit = spec.timeUnit;
+      this.unitLength = spec.unitMicros > 0 ? spec.unitMicros / microsPerUnit : 0L;
+      this.perDay = MICROS_PER_DAY / microsPerUnit;
+    }
+
+    @Override
+    public Object generalize(Object value) {
+      if (!(value instanceof Long)) {
+        throw unexpected(value);
+      }
+      long timestamp = (Long) value;
+      long result;
+      if (unitLength > 0 && !"week".equals(unit)) {
+        result = toMultiple(timestamp, unitLength, round, Long.MIN_VALUE, Long.MAX_VALUE);
+      } else {
+        long day = Math.floorDiv(timestamp, perDay);
+        if (day != lastDay) {
+          lastDay = day;
+          lastDayResult = floorDay(day, unit);
+        }
+        result = lastDayResult * perDay;
+        if (round && timestamp - result >= result + unitLength - timestamp) {
+          result += unitLength;
+        }
+      }
+      return result == timestamp ? value : Long.valueOf(result);
+    }
+  }
+
+  /**
+   * Generalizes dates, in days since the epoch, to the first day of their week, month or year.
+   */
+  private static final class DateGeneralizer extends Generalizer {
+    private final boolean round;
+    private final String unit;
+
+    DateGeneralizer(Spec spec) {
+      this.round = spec.mode == Mode.ROUND;
+      this.unit = spec.timeUnit;
+    }
+
+    @Override
+    public Object generalize(Object value) {
+      if (!(value instanceof Integer)) {
+        throw unexpected(value);
+      }
+      int day = (Integer) value;
+      long result = floorDay(day, unit);
+      if (round && day - result >= 4) {
+        // weeks are the only dates that can be rounded, to the nearest Monday
+        result += 7;
+      }
+      return result == day ? value : Integer.valueOf((int) result);
+    }
+  }
+
+  /**
+   * Returns the first day of the week, month or year of the given day, in days since the epoch.
+   */
+  static long floorDay(long day, String unit) {
+    switch (unit) {
+      case "week":
+        return LocalDate.ofEpochDay(day).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toEpochDay();
+      case "month":
+        return LocalDate.ofEpochDay(day).withDayOfMonth(1).toEpochDay();
+      case "year":
+        return LocalDate.ofEpochDay(day).withDayOfYear(1).toEpochDay();
+      default:
+        return day;
+    }
+  }
+
+  /**
+   * Generalizes times of day in milliseconds (int) or microseconds (long). Rounding never goes past the end of the
+   * day.
+   */
+  private static final class TimeGeneralizer extends Generalizer {
+    private final boolean round;
+    private final long unitLength;
+    private final boolean isMillis;
+
+    TimeGeneralizer(Mode mode, long unitLength, boolean isMillis) {
+      this.round = mode == Mode.ROUND;
+      this.unitLength = unitLength;
+      this.isMillis = isMillis;
+    }
+
+    @Override
+    public Object generalize(Object value) {
+      long time;
+      if (isMillis && value instanceof Integer) {
+        time = (Integer) value;
+      } else if (!isMillis && value instanceof Long) {
+        time = (Long) value;
+      } else {
+        throw unexpected(value);
+      }
+      long dayLength = isMillis ? MICROS_PER_DAY / 1000 : MICROS_PER_DAY;
+      long result = toMultiple(time, unitLength, round, 0L, dayLength - 1);
+      if (result == time) {
+        return value;
+      }
+      return isMillis ? (Object) (int) result : (Object) result;
+    }
+  }
+
+  /**
+   * Keeps the first characters of strings.
+   */
+  private static final class StringPrefixGeneralizer extends Generalizer {
+    private final int prefixLength;
+
+    StringPrefixGeneralizer(int prefixLength) {
+      this.prefixLength = prefixLength;
+    }
+
+    @Override
+    public Object generalize(Object value) {
+      if (!(value instanceof String)) {
+        throw unexpected(value);
+      }
+      String string = (String) value;
+      return string.length() <= prefixLength ? string : string.substring(0, prefixLength);
+    }
+  }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+/**
+ * Locates a member of a JSON document by its path of object keys without parsing the document: the scan stops
+ * at the member, and the values of the members it passes on the way are skipped over without being decoded,
+ * so no tree, key or value object is built and only the part of the document before the member is read.
+ * <p>
+ * A scan records where the key and the value of the member start and end, so the member can be rewritten by
+ * splicing new text into the document. Only the parts of the document that are read are checked to be well
+ * formed. Scanners keep the positions of the last scan and are not thread safe.
+ * </p>
+ */
+final class JsonScanner {
+
+  private int keyStart;
+  private int keyEnd;
+  private int valueStart;
+  private int valueEnd;
+
+  /**
+   * Scans the given document for the member at the given path of object keys.
+   *
+   * @return {@code true} if the member was found, {@code false} if the document has no member at the path,
+   *   which includes the case of a value along the path not being an object
+   * @throws IllegalArgumentException if the document is not well formed up to the member
+   */
+  boolean find(String json, String[] path) {
+    int pos = skipWhitespace(json, 0);
+    for (int level = 0; level < path.length; level++) {
+      if (pos >= json.length() || json.charAt(pos) != '{') {
+        return false;
+      }
+      pos = findMember(json, pos + 1, path[level]);
+      if (pos < 0) {
+        return false;
+      }
+    }
+    valueStart = pos;
+    valueEnd = skipValue(json, pos);
+    return true;
+  }
+
+  /**
+   * Scans the members of an object from the given position, just after its opening brace, for the given key.
+   *
+   * @return the position of the value of the member, or -1 if the object has no member with the key
+   */
+  private int findMember(String json, int pos, String key) {
+    pos = skipWhitespace(json, pos);
+    if (pos < json.length() && json.charAt(pos) == '}') {
+      return -1;
+    }
+    while (true) {
+      if (pos >= json.length() || json.charAt(pos) != '"') {
+        throw malformed(json, pos, "a member name");
+      }
+      int nameStart = pos;
+      int nameEnd = skipString(json, pos);
+      pos = skipWhitespace(json, nameEnd);
+      if (pos >= json.length() || json.charAt(pos) != ':') {
+        throw malformed(json, pos, "':'");
+      }
+      pos = skipWhitespace(json, pos + 1);
+      if (keyEquals(json, nameStart, nameEnd, key)) {
+        keyStart = nameStart;
+        keyEnd = nameEnd;
+        return pos;
+      }
+      pos = skipWhitespace(json, skipValue(json, pos));
+      if (pos < json.length() && json.charAt(pos) == ',') {
+        pos = skipWhitespace(json, pos + 1);
+      } else if (pos < json.length() && json.charAt(pos) == '}') {
+        return -1;
+      } else {
+        throw malformed(json, pos, "',' or '}'");
+      }
+    }
+  }
+
+  /**
+   * Returns the position of the key of the last member found, at its opening quote.
+   */
+  int getKeyStart() {
+    return keyStart;
+  }
+
+  /**
+   * Returns the position just after the key of the last member found.
+   */
+  int getKeyEnd() {
+    return keyEnd;
+  }
+
+  int getValueStart() {
+    return valueStart;
+  }
+
+  /**
+   * Returns the position just after the value of the last member found.
+   */
+  int getValueEnd() {
+    return valueEnd;
+  }
+
+  /**
+   * Compares the string literal between the given positions, quotes included, with the given key. Literals
+   * without escapes are compared in place.
+   */
+  private static boolean keyEquals(String json, int start, int end, String key) {
+    int length = end - start - 2;
+    if (indexOfEscape(json, start + 1, end - 1) < 0) {
+      return length == key.length() && json.regionMatches(start + 1, key, 0, length);
+    }
+    return decodeString(json, start, end).equals(key);
+  }
+
+  private static int indexOfEscape(String json, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (json.charAt(i) == '\\') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int skipWhitespace(String json, int pos) {
+    while (pos < json.length()) {
+      char c = json.charAt(pos);
+      if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+        break;
+      }
+      pos++;
+    }
+    return pos;
+  }
+
+  private static int skipValue(String json, int pos) {
+    if (pos >= json.length()) {
+      throw malformed(json, pos, "a value");
+    }
+    char c = json.charAt(pos);
+    if (c == '"') {
+      return skipString(json, pos);
+    }
+    if (c == '{' || c == '[') {
+      return skipContainer(json, pos);
+    }
+    int end = pos;
+    while (end < json.length()) {
+      c = json.charAt(end);
+      if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+        break;
+      }
+      end++;
+    }
+    if (end == pos) {
+      throw malformed(json, pos, "a value");
+    }
+    return end;
+  }
+
+  /**
+   * Skips the string literal at the given position, finding its closing quote with {@link String#indexOf}.
+   *
+   * @return the position just after the closing quote
+   */
+  private static int skipString(String json, int pos) {
+    int from = pos + 1;
+    while (true) {
+      int quote = json.indexOf('"', from);
+      if (quote < 0) {
+        throw malformed(json, pos, "a closing quote");
+      }
+      // a quote is escaped if an odd number of backslashes precedes it
+      int backslashes = 0;
+      while (json.charAt(quote - 1 - backslashes) == '\\') {
+        backslashes++;
+      }
+      if ((backslashes & 1) == 0) {
+        return quote + 1;
+      }
+      from = quote + 1;
+    }
+  }
+
+  /**
+   * Skips the object or array at the given position by counting brackets, skipping over string literals.
+   *
+   * @return the position just after the closing bracket
+   */
+  private static int skipContainer(String json, int pos) {
+    int depth = 0;
+    int i = pos;
+    while (i < json.length()) {
+      char c = json.charAt(i);
+      if (c == '"') {
+        i = skipString(json, i);
+        continue;
+      }
+      if (c == '{' || c == '[') {
+        depth++;
+      } else if (c == '}' || c == ']') {
+        depth--;
+        if (depth == 0) {
+          return i + 1;
+        }
+      }
+      i++;
+    }
+    throw malformed(json, pos, "a closing bracket");
+  }
+
+  /**
+   * Decodes the string literal between the given positions, quotes included.
+   */
+  static String decodeString(String json, int start, int end) {
+    int escape = indexOfEscape(json, start + 1, end - 1);
+    if (escape < 0) {
+      return json.substring(start + 1, end - 1);
+    }
+    StringBuilder decoded = new StringBuilder(end - start);
+    decoded.append(json, start + 1, escape);
+    int i = escape;
+    while (i < end - 1) {
+      char c = json.charAt(i++);
+      if (c != '\\') {
+        decoded.append(c);
+        continue;
+      }
+      char escaped = json.charAt(i++);
+      switch (escaped) {
+        case 'b':
+          decoded.append('\b');
+          break;
+        case 'f':
+          decoded.append('\f');
+          break;
+        case 'n':
+          decoded.append('\n');
+          break;
+        case 'r':
+          decoded.append('\r');
+          break;
+        case 't':
+          decoded.append('\t');
+          break;
+        case 'u':
+          if (i + 4 > end - 1) {
+            throw malformed(json, i - 2, "four hex digits");
+          }
+          try {
+            decoded.append((char) Integer.parseInt(json.substring(i, i + 4), 16));
+          } catch (NumberFormatException e) {
+            throw malformed(json, i - 2, "four hex digits");
+          }
+          i += 4;
+          break;
+        case '"':
+        case '\\':
+        case '/':
+          decoded.append(escaped);
+          break;
+        default:
+          throw malformed(json, i - 2, "an escape sequence");
+      }
+    }
+    return decoded.toString();
+  }
+
+  /**
+   * Appends the given value to the given builder as a JSON string literal.
+   */
+  static void appendString(StringBuilder out, CharSequence value) {
+    out.append('"');
+    int length = value.length();
+    int start = 0;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c != '"' && c != '\\' && c >= 0x20) {
+        continue;
+      }
+      out.append(value, start, i);
+      start = i + 1;
+      switch (c) {
+        case '"':
+          out.append("\\\"");
+          break;
+        case '\\':
+          out.append("\\\\");
+          break;
+        case '\n':
+          out.append("\\n");
+          break;
+        case '\r':
+          out.append("\\r");
+          break;
+        case '\t':
+          out.append("\\t");
+          break;
+        default:
+          out.append(String.format("\\u%04x", (int) c));
+      }
+    }
+    out.append(value, start, length);
+    out.append('"');
+  }
+
+  private static IllegalArgumentException malformed(String json, int pos, String expected) {
+    return new IllegalArgumentException(String.format("Malformed JSON document, expected %s at position %d.",
+                                                      expected, pos));
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.text.BreakIterator;
+import java.util.Arrays;
+
+/**
+ * Masks string and bytes values by character substitution, keeping a fixed number of characters, or bytes, at the
+ * start or at the end of the value.
+ * <p>
+ * The masked value is built in a single pass into a buffer owned by this instance, so masking a value costs one
+ * allocation for the resulting string. Instances are therefore not thread safe.
+ * </p>
+ * <p>
+ * The masked range is filled and the kept range copied with bulk operations ({@link Arrays#fill},
+ * {@link String#getChars} and {@link System#arraycopy}) rather than per character, which the JIT compiles to
+ * wide vector instructions, so long document or payload values are masked at memory speed.
+ * </p>
+ * <p>
+ * Strings are counted in UTF-16 chars by default. They can instead be counted in code points, so characters outside
+ * the Basic Multilingual Plane such as emoji are neither counted twice nor split into invalid halves, or in
+ * grapheme clusters as found by {@link BreakIterator#getCharacterInstance()}, so a base letter and its combining
+ * marks are kept or masked together. Each masked code point or cluster is replaced by one mask character. ASCII and
+ * Latin-1 values, and for code points any value without surrogates, are recognized in a single scan and masked as
+ * chars, since every char is a code point and, but for CR LF, a cluster there.
+ * </p>
+ */
+public final class Masker {
+
+  /**
+   * The unit in which string values are counted.
+   */
+  public enum Unit {
+    CHAR,
+    CODE_POINT,
+    GRAPHEME
+  }
+
+  private static final int LATIN_1_LIMIT = 0x100;
+
+  // Values longer than this are masked into a temporary buffer, so one huge value does not pin memory forever.
+  private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+  private final char maskCharacter;
+  private final int unmaskedCount;
+  private final boolean keepEnd;
+  private final byte maskByte;
+  private final Unit unit;
+  private char[] buffer = new char[0];
+  private BreakIterator graphemes;
+
+  /**
+   * @param maskCharacter the character that replaces masked characters
+   * @param unmaskedCount the number of characters left unmasked
+   * @param keepEnd {@code true} to leave the last characters unmasked, {@code false} to leave the first ones
+   */
+  public Masker(char maskCharacter, int unmaskedCount, boolean keepEnd) {
+    this(maskCharacter, unmaskedCount, keepEnd, Unit.CHAR);
+  }
+
+  /**
+   * @param maskCharacter the character that replaces masked characters
+   * @param unmaskedCount the number of characters left unmasked
+   * @param keepEnd {@code true} to leave the last characters unmasked, {@code false} to leave the first ones
+   * @param unit the unit in which string values are counted
+   */
+  public Masker(char maskCharacter, int unmaskedCount, boolean keepEnd, Unit unit) {
+    if (unmaskedCount < 0) {
+      throw new IllegalArgumentException(String.format("n is not a whole number, given: %s", unmaskedCount));
+    }
+    this.maskCharacter = maskCharacter;
+    this.unmaskedCount = unmaskedCount;
+    this.keepEnd = keepEnd;
+    this.maskByte = maskCharacter < 0x80 ? (byte) maskCharacter : 0;
+    this.unit = unit;
+  }
+
+  public char getMaskCharacter() {
+    return maskCharacter;
+  }
+
+  public int getUnmaskedCount() {
+    return unmaskedCount;
+  }
+
+  /**
+   * Returns {@code true} if the last characters are left unmasked, {@code false} if the first ones are.
+   */
+  public boolean isKeepEnd() {
+    return keepEnd;
+  }
+
+  public Unit getUnit() {
+    return unit;
+  }
+
+  /**
+   * Masks the given value.
+   *
+   * @return the masked value, or the given value itself if it is not longer than the unmasked count
+   */
+  public String mask(String value) {
+    int length = value.length();
+    // a value has at least as many chars as code points or clusters
+    if (length <= unmaskedCount) {
+      return value;
+    }
+    if (unit == Unit.CHAR || isCharPerUnit(value)) {
+      int maskedCount = length - unmaskedCount;
+      return keepEnd ? assemble(value, maskedCount, length, maskedCount)
+        : assemble(value, 0, unmaskedCount, maskedCount);
+    }
+    return unit == Unit.CODE_POINT ? maskCodePoints(value) : maskGraphemes(value);
+  }
+
+  private boolean isCharPerUnit(String value) {
+    int length = value.length();
+    int i = 0;
+    // with compact strings the JIT can tell that no char of a Latin-1 string reaches the limit, so this loop is
+    // all but free for the common case
+    while (i < length && value.charAt(i) < LATIN_1_LIMIT) {
+      i++;
+    }
+    if (i == length) {
+      // CR LF is the only Latin-1 sequence that is a single grapheme cluster
+      return unit == Unit.CODE_POINT || value.indexOf('\r') < 0;
+    }
+    if (unit == Unit.GRAPHEME) {
+      return false;
+    }
+    for (; i < length; i++) {
+      if (Character.isSurrogate(value.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String maskCodePoints(String value) {
+    int length = value.length();
+    int count = value.codePointCount(0, length);
+    if (count <= unmaskedCount) {
+      return value;
+    }
+    return keepEnd ? assemble(value, value.offsetByCodePoints(length, -unmaskedCount), length, count - unmaskedCount)
+      : assemble(value, 0, value.offsetByCodePoints(0, unmaskedCount), count - unmaskedCount);
+  }
+
+  private String maskGraphemes(String value) {
+    if (graphemes == null) {
+      graphemes = BreakIterator.getCharacterInstance();
+    }
+    graphemes.setText(value);
+    int count = 0;
+    graphemes.first();
+    while (graphemes.next() != BreakIterator.DONE) {
+      count++;
+    }
+    if (count <= unmaskedCount) {
+      return value;
+    }
+    if (keepEnd) {
+      graphemes.last();
+      int start = unmaskedCount == 0 ? graphemes.current() : graphemes.next(-unmaskedCount);
+      return assemble(value, start, value.length(), count - unmaskedCount);
+    }
+    graphemes.first();
+    int end = unmaskedCount == 0 ? 0 : graphemes.next(unmaskedCount);
+    return assemble(value, 0, end, count - unmaskedCount);
+  }
+
+  /**
+   * Builds the masked value from the kept chars of the value, between the given indexes, and the given number of
+   * mask characters, which go before the kept chars when keeping the end and after them otherwise.
+   */
+  private String assemble(String value, int keptStart, int keptEnd, int maskedCount) {
+    int keptCount = keptEnd - keptStart;
+    int length = keptCount + maskedCount;
+    char[] chars = buffer(length);
+    if (keepEnd) {
+      Arrays.fill(chars, 0, maskedCount, maskCharacter);
+      value.getChars(keptStart, keptEnd, chars, maskedCount);
+    } else {
+      value.getChars(keptStart, keptEnd, chars, 0);
+      Arrays.fill(chars, keptCount, length, maskCharacter);
+    }
+    return new String(chars, 0, length);
+  }
+
+  /**
+   * Masks the given bytes, substituting masked bytes with the ASCII code of the mask character.
+   *
+   * @return the masked bytes in a new array, or the given array itself if it is not longer than the unmasked count
+   * @throws IllegalArgumentException if the mask character is not an ASCII character
+   */
+  public byte[] mask(byte[] value) {
+    int length = value.length;
+    if (length <= unmaskedCount) {
+      return value;
+    }
+    byte[] bytes = new byte[length];
+    mask(ByteBuffer.wrap(value), bytes);
+    return bytes;
+  }
+
+  /**
+   * Masks the remaining bytes of the given buffer, without changing its position, substituting masked bytes
+   * with the ASCII code of the mask character.
+   *
+   * @return the masked bytes in a new buffer, or the given buffer itself if it has no more remaining bytes than the
+   *   unmasked count
+   * @throws IllegalArgumentException if the mask character is not an ASCII character
+   */
+  public ByteBuffer mask(ByteBuffer value) {
+    int length = value.remaining();
+    if (length <= unmaskedCount) {
+      return value;
+    }
+    byte[] bytes = new byte[length];
+    mask(value, bytes);
+    return ByteBuffer.wrap(bytes);
+  }
+
+  private void mask(ByteBuffer value, byte[] bytes) {
+    if (maskCharacter >= 0x80) {
+      throw new IllegalArgumentException(
+        String.format("Mask character %s is not an ASCII character and cannot mask bytes.", maskCharacter));
+    }
+    int length = bytes.length;
+    int maskedCount = length - unmaskedCount;
+    ByteBuffer source = value.duplicate();
+    if (keepEnd) {
+      Arrays.fill(bytes, 0, maskedCount, maskByte);
+      // through Buffer, whose position method also exists on Java 8 when compiled on a later JDK
+      ((Buffer) source).position(source.position() + maskedCount);
+      source.get(bytes, maskedCount, unmaskedCount);
+    } else {
+      source.get(bytes, 0, unmaskedCount);
+      Arrays.fill(bytes, unmaskedCount, length, maskByte);
+    }
+  }
+
+  private char[] buffer(int length) {
+    if (buffer.length >= length) {
+      return buffer;
+    }
+    if (length > MAX_RETAINED_BUFFER) {
+      return new char[length];
+    }
+    buffer = new char[Math.max(length, Math.min(buffer.length * 2, MAX_RETAINED_BUFFER))];
+    return buffer;
+  }
+}
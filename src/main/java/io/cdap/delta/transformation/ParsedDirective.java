@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.delta.transformation.condition.ConditionParser;
+import io.cdap.delta.transformation.condition.RowCondition;
+
+/**
+ * Result of parsing a directive command line against a {@link DirectiveGrammar}, holding the argument values
+ * already converted to their types. Instances are immutable and shared by every transformation that is
+ * configured with the same command line.
+ */
+public final class ParsedDirective {
+
+  private final DirectiveGrammar grammar;
+  private final String commandLine;
+  private final Object[] values;
+  private final String condition;
+
+  ParsedDirective(DirectiveGrammar grammar, String commandLine, Object[] values, String condition) {
+    this.grammar = grammar;
+    this.commandLine = commandLine;
+    this.values = values;
+    this.condition = condition;
+  }
+
+  public String getName() {
+    return grammar.getName();
+  }
+
+  public String getCommandLine() {
+    return commandLine;
+  }
+
+  public String getString(String argumentName) {
+    return (String) values[grammar.indexOf(argumentName)];
+  }
+
+  public char getChar(String argumentName) {
+    return (Character) values[grammar.indexOf(argumentName)];
+  }
+
+  public int getInt(String argumentName) {
+    return (Integer) values[grammar.indexOf(argumentName)];
+  }
+
+  /**
+   * Returns the condition of the {@code when} clause, or {@code null} if the directive has none.
+   */
+  public String getCondition() {
+    return condition;
+  }
+
+  /**
+   * Compiles the condition of the {@code when} clause into a new {@link RowCondition}, or returns {@code null} if
+   * the directive has none. A condition is resolved against the schema of the transformation using it, so each
+   * transformation compiles its own.
+   *
+   * @throws IllegalArgumentException if the condition is not valid
+   */
+  public RowCondition compileCondition() {
+    return condition == null ? null : ConditionParser.parse(condition);
+  }
+}
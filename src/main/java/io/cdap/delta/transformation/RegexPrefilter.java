@@ -0,0 +1,268 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+/**
+ * Cheap test that rules out values a regex cannot match, so they skip the regex engine.
+ * <p>
+ * The regex is analyzed conservatively, and any construct that is not understood makes the prefilter accept
+ * everything. Two facts are derived: the longest run of literal characters every match contains, looking only
+ * at the top level of the pattern, and a lower bound of the match length. A value passes if it is long enough
+ * and contains the literal. Patterns with top level alternation, quoting or inline flags are not analyzed.
+ * </p>
+ */
+public final class RegexPrefilter {
+
+  private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+  private final String requiredLiteral;
+  private final int minLength;
+
+  private RegexPrefilter(String requiredLiteral, int minLength) {
+    this.requiredLiteral = requiredLiteral;
+    this.minLength = minLength;
+  }
+
+  /**
+   * Returns the literal every match contains, which is empty if there is none.
+   */
+  public String getRequiredLiteral() {
+    return requiredLiteral;
+  }
+
+  /**
+   * Returns a lower bound of the length of matches.
+   */
+  public int getMinLength() {
+    return minLength;
+  }
+
+  /**
+   * Returns whether the regex may find a match in the given value.
+   */
+  public boolean mayMatch(String value) {
+    return value.length() >= minLength && (requiredLiteral.isEmpty() || value.contains(requiredLiteral));
+  }
+
+  /**
+   * Analyzes a regex compiled with default flags.
+   */
+  public static RegexPrefilter of(String regex) {
+    if (regex.contains("\\Q") || regex.contains("(?") && hasInlineFlags(regex) || hasSurrogates(regex)) {
+      return new RegexPrefilter("", 0);
+    }
+    String longest = "";
+    StringBuilder run = new StringBuilder();
+    int minLength = 0;
+    int i = 0;
+    int length = regex.length();
+    while (i < length) {
+      char c = regex.charAt(i);
+      // the atom starting at i: its end, its minimum length and the literal character it matches, if any
+      int end;
+      int atomLength = 1;
+      int literal = -1;
+      if (c == '|') {
+        return new RegexPrefilter("", 0);
+      } else if (c == '(') {
+        end = skipGroup(regex, i);
+        atomLength = end < 0 ? 0 : groupMinLength(regex, i, end);
+      } else if (c == '[') {
+        end = skipClass(regex, i);
+      } else if (c == '^' || c == '$') {
+        end = i + 1;
+        atomLength = 0;
+      } else if (c == '.') {
+        end = i + 1;
+      } else if (c == '\\') {
+        if (i + 1 >= length) {
+          return new RegexPrefilter("", 0);
+        }
+        char escaped = regex.charAt(i + 1);
+        end = i + 2;
+        if (!Character.isLetterOrDigit(escaped)) {
+          literal = escaped;
+        } else if (Character.isDigit(escaped)) {
+          // numbered back references and octal escapes have ambiguous lengths
+          return new RegexPrefilter("", 0);
+        } else if ("bBAzZGk".indexOf(escaped) >= 0) {
+          // anchors and named back references
+          atomLength = 0;
+          if (escaped == 'k') {
+            end = regex.indexOf('>', i) + 1;
+          }
+        } else if ("pPxN".indexOf(escaped) >= 0 && end < length && regex.charAt(end) == '{') {
+          end = regex.indexOf('}', end) + 1;
+        } else if (escaped == 'x') {
+          end = i + 4;
+        } else if (escaped == 'u') {
+          end = i + 6;
+        } else if (escaped == 'p' || escaped == 'P' || escaped == 'c') {
+          end = i + 3;
+        }
+      } else if (METACHARACTERS.indexOf(c) >= 0) {
+        return new RegexPrefilter("", 0);
+      } else {
+        end = i + 1;
+        literal = c;
+      }
+      if (end <= i || end > length) {
+        return new RegexPrefilter("", 0);
+      }
+
+      // the quantifier following the atom, if any
+      int minRepeat = 1;
+      boolean quantified = false;
+      if (end < length) {
+        char quantifier = regex.charAt(end);
+        if (quantifier == '?' || quantifier == '*') {
+          minRepeat = 0;
+          quantified = true;
+          end++;
+        } else if (quantifier == '+') {
+          quantified = true;
+          end++;
+        } else if (quantifier == '{') {
+          int close = regex.indexOf('}', end);
+          if (close < 0) {
+            return new RegexPrefilter("", 0);
+          }
+          String bounds = regex.substring(end + 1, close);
+          int comma = bounds.indexOf(',');
+          try {
+            minRepeat = Integer.parseInt(comma < 0 ? bounds : bounds.substring(0, comma));
+          } catch (NumberFormatException e) {
+            return new RegexPrefilter("", 0);
+          }
+          quantified = true;
+          end = close + 1;
+        }
+        // lazy and possessive quantifiers
+        if (quantified && end < length && (regex.charAt(end) == '?' || regex.charAt(end) == '+')) {
+          end++;
+        }
+      }
+
+      minLength += atomLength * minRepeat;
+      if (literal >= 0 && minRepeat > 0) {
+        run.append((char) literal);
+      }
+      if (literal < 0 || quantified) {
+        // anchors do not break a run, anything else that matches characters does
+        if (atomLength > 0 || c == '(' || quantified) {
+          if (run.length() > longest.length()) {
+            longest = run.toString();
+          }
+          run.setLength(0);
+        }
+      }
+      i = end;
+    }
+    if (run.length() > longest.length()) {
+      longest = run.toString();
+    }
+    return new RegexPrefilter(longest, minLength);
+  }
+
+  /**
+   * Returns a lower bound of the length of what the group between the given indexes matches.
+   */
+  private static int groupMinLength(String regex, int start, int end) {
+    int contentStart = start + 1;
+    if (regex.startsWith("(?:", start) || regex.startsWith("(?>", start)) {
+      contentStart = start + 3;
+    } else if (regex.startsWith("(?<", start) && start + 3 < end && Character.isLetter(regex.charAt(start + 3))) {
+      contentStart = regex.indexOf('>', start) + 1;
+    } else if (regex.startsWith("(?", start)) {
+      // lookarounds do not consume characters
+      return 0;
+    }
+    return of(regex.substring(contentStart, end - 1)).minLength;
+  }
+
+  private static boolean hasSurrogates(String regex) {
+    for (int i = 0; i < regex.length(); i++) {
+      if (Character.isSurrogate(regex.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasInlineFlags(String regex) {
+    int index = regex.indexOf("(?");
+    while (index >= 0) {
+      if (index + 2 < regex.length() && ":=!<>".indexOf(regex.charAt(index + 2)) < 0) {
+        return true;
+      }
+      index = regex.indexOf("(?", index + 2);
+    }
+    return false;
+  }
+
+  /**
+   * Returns the index after the group starting at the given index, or -1 if it is not closed.
+   */
+  private static int skipGroup(String regex, int start) {
+    int depth = 0;
+    for (int i = start; i < regex.length(); i++) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (c == '[') {
+        i = skipClass(regex, i) - 1;
+        if (i < 0) {
+          return -1;
+        }
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')' && --depth == 0) {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index after the character class starting at the given index, or -1 if it is not closed.
+   */
+  private static int skipClass(String regex, int start) {
+    int depth = 0;
+    int i = start;
+    while (i < regex.length()) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        i += 2;
+        continue;
+      }
+      if (c == '[') {
+        depth++;
+        // a closing bracket right after the opening one, or after a negation, is a literal
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+          i++;
+        }
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+          i++;
+        }
+      } else if (c == ']' && --depth == 0) {
+        return i + 1;
+      }
+      i++;
+    }
+    return -1;
+  }
+}
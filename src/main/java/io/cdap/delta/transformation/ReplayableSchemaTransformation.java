@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.Transformation;
+
+/**
+ * A {@link Transformation} whose schema transformation can be replayed from a cache instead of being recomputed.
+ * Such plugins implement {@code transformSchema} by passing themselves to the shared
+ * {@link io.cdap.delta.transformation.schema.SchemaTransformationCache}, which calls {@link #applySchema} on a miss.
+ * <p>
+ * Replaying applies the recorded schema mutations, but transformations also derive state from the schema,
+ * such as the resolved field paths or the conversion picked for a column type. That state is captured
+ * after {@code transformSchema} with {@link #getSchemaState()} and handed to other instances initialized with
+ * the same directive, for an identical input schema, through {@link #restoreSchemaState}.
+ * </p>
+ */
+public interface ReplayableSchemaTransformation extends Transformation {
+
+  /**
+   * Transforms the schema without the cache.
+   */
+  void applySchema(MutableRowSchema rowSchema) throws Exception;
+
+  /**
+   * Returns the state derived by the last {@link #applySchema} call. The state is shared between instances
+   * and threads, so it must be immutable. It may be {@code null}.
+   */
+  Object getSchemaState();
+
+  /**
+   * Restores the state of an {@link #applySchema} call on the given schema, before the recorded mutations of
+   * that call are applied to it.
+   *
+   * @param state state returned by {@link #getSchemaState()} of an instance with the same directive
+   * @param rowSchema input schema, identical to the one the state was derived from
+   */
+  void restoreSchemaState(Object state, MutableRowSchema rowSchema);
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Resolves the secrets of directives, such as keys, from references, so the secrets never appear in directive text,
+ * which is stored in the pipeline config, quoted by error messages and used as the key of the shared parse cache.
+ * <p>
+ * A reference is {@code env:NAME} for an environment variable, {@code property:NAME} for a JVM system property,
+ * or {@code file:PATH} for a file, whose content is read with trailing line breaks removed. Secrets are read once,
+ * when the directive is initialized, and errors name the reference, never the secret. Secure macros such as
+ * {@code ${secure(name)}} must not be used for secrets, since they expand into the directive text.
+ * </p>
+ */
+public final class SecretReference {
+
+  public static final String ENV = "env:";
+  public static final String PROPERTY = "property:";
+  public static final String FILE = "file:";
+
+  private SecretReference() {
+  }
+
+  /**
+   * Returns the secret the given reference points to.
+   *
+   * @param argumentName the name of the directive argument holding the reference, for error messages
+   * @throws IllegalArgumentException if the reference is not a reference, or if the secret is not set
+   */
+  public static String resolve(String argumentName, String reference) {
+    String secret;
+    if (reference.startsWith(ENV)) {
+      secret = System.getenv(reference.substring(ENV.length()));
+    } else if (reference.startsWith(PROPERTY)) {
+      secret = System.getProperty(reference.substring(PROPERTY.length()));
+    } else if (reference.startsWith(FILE)) {
+      secret = readFile(argumentName, reference);
+    } else {
+      // the argument may be the secret itself, so it is not quoted
+      throw new IllegalArgumentException(String.format("%s is supposed to be a secret reference, %sNAME, %sNAME or " +
+                                                         "%sPATH, not the secret itself.", argumentName, ENV,
+                                                       PROPERTY, FILE));
+    }
+    if (secret == null || secret.isEmpty()) {
+      throw new IllegalArgumentException(String.format("Secret %s of %s is not set.", reference, argumentName));
+    }
+    return secret;
+  }
+
+  private static String readFile(String argumentName, String reference) {
+    String content;
+    try {
+      content = new String(Files.readAllBytes(Paths.get(reference.substring(FILE.length()))),
+                           StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new IllegalArgumentException(String.format("Secret %s of %s cannot be read.", reference, argumentName),
+                                         e);
+    }
+    int end = content.length();
+    while (end > 0 && (content.charAt(end - 1) == '\n' || content.charAt(end - 1) == '\r')) {
+      end--;
+    }
+    return content.substring(0, end);
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.cdap.api.data.schema.Schema;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts column values to strings with a conversion picked once from the column schema, so values are not
+ * dispatched through {@link Object#toString()} and logical types come out in their natural form:
+ * <ul>
+ *   <li>dates as ISO-8601 dates, e.g. {@code 2021-06-30}</li>
+ *   <li>times as ISO-8601 local times, e.g. {@code 10:15:30.123}</li>
+ *   <li>timestamps as ISO-8601 UTC instants, e.g. {@code 2021-06-30T10:15:30.123Z}</li>
+ *   <li>decimals as plain decimal numbers, e.g. {@code 1234.50}</li>
+ *   <li>bytes as lower case hex</li>
+ * </ul>
+ * Values that do not have the Java type expected for the schema are converted with the generic conversion,
+ * which is {@link Object#toString()} except for bytes. Converters keep reusable buffers and are not thread safe.
+ */
+public abstract class StringConverter {
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final int SMALL_INT_MIN = -128;
+  private static final int SMALL_INT_MAX = 1023;
+  private static final String[] SMALL_INTS = new String[SMALL_INT_MAX - SMALL_INT_MIN + 1];
+
+  static {
+    for (int i = 0; i < SMALL_INTS.length; i++) {
+      SMALL_INTS[i] = Integer.toString(i + SMALL_INT_MIN);
+    }
+  }
+
+  private char[] buffer = new char[0];
+
+  /**
+   * Returns the string form of a non-null value.
+   */
+  public abstract String convert(Object value);
+
+  /**
+   * Returns the converter for values of the given schema, or the generic converter if the schema is
+   * {@code null}.
+   */
+  public static StringConverter forSchema(Schema schema) {
+    if (schema == null) {
+      return new GenericConverter();
+    }
+    if (schema.isNullable()) {
+      schema = schema.getNonNullable();
+    }
+    Schema.LogicalType logicalType = schema.getLogicalType();
+    if (logicalType != null) {
+      switch (logicalType) {
+        case DATE:
+          return new DateConverter();
+        case TIME_MILLIS:
+          return new TimeConverter(TimeUnit.MILLISECONDS);
+        case TIME_MICROS:
+          return new TimeConverter(TimeUnit.MICROSECONDS);
+        case TIMESTAMP_MILLIS:
+          return new TimestampConverter(TimeUnit.MILLISECONDS);
+        case TIMESTAMP_MICROS:
+          return new TimestampConverter(TimeUnit.MICROSECONDS);
+        case DECIMAL:
+          return new DecimalConverter(schema.getScale());
+        default:
+          return new GenericConverter();
+      }
+    }
+    if (schema.getType() == Schema.Type.INT || schema.getType() == Schema.Type.LONG) {
+      return new IntegralConverter();
+    }
+    return new GenericConverter();
+  }
+
+  String generic(Object value) {
+    if (value instanceof byte[]) {
+      byte[] bytes = (byte[]) value;
+      return hex(bytes, 0, bytes.length);
+    }
+    if (value instanceof ByteBuffer) {
+      ByteBuffer bytes = (ByteBuffer) value;
+      if (bytes.hasArray()) {
+        return hex(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+      }
+      byte[] copy = new byte[bytes.remaining()];
+      bytes.duplicate().get(copy);
+      return hex(copy, 0, copy.length);
+    }
+    return value.toString();
+  }
+
+  private String hex(byte[] bytes, int offset, int length) {
+    char[] chars = buffer(length * 2);
+    for (int i = 0; i < length; i++) {
+      int b = bytes[offset + i];
+      chars[2 * i] = HEX_DIGITS[(b >> 4) & 0xf];
+      chars[2 * i + 1] = HEX_DIGITS[b & 0xf];
+    }
+    return new String(chars, 0, length * 2);
+  }
+
+  char[] buffer(int length) {
+    if (buffer.length < length) {
+      buffer = new char[length];
+    }
+    return buffer;
+  }
+
+  static byte[] bytes(Object value) {
+    if (value instanceof byte[]) {
+      return (byte[]) value;
+    }
+    ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Converts with {@link Object#toString()}, except for bytes which are converted to hex.
+   */
+  private static final class GenericConverter extends StringConverter {
+    @Override
+    public String convert(Object value) {
+      return generic(value);
+    }
+  }
+
+  /**
+   * Converts ints and longs, returning shared strings for small values.
+   */
+  private static final class IntegralConverter extends StringConverter {
+    @Override
+    public String convert(Object value) {
+      long number;
+      if (value instanceof Integer) {
+        number = (Integer) value;
+      } else if (value instanceof Long) {
+        number = (Long) value;
+      } else {
+        return generic(value);
+      }
+      if (number >= SMALL_INT_MIN && number <= SMALL_INT_MAX) {
+        return SMALL_INTS[(int) number - SMALL_INT_MIN];
+      }
+      return Long.toString(number);
+    }
+  }
+
+  /**
+   * Converts days since the epoch, remembering the last converted day since change events tend to carry
+   * the same dates.
+   */
+  private static final class DateConverter extends StringConverter {
+    private int lastDay;
+    private String lastDate;
+
+    @Override
+    public String convert(Object value) {
+      if (!(value instanceof Integer)) {
+        return generic(value);
+      }
+      int day = (Integer) value;
+      if (lastDate == null || day != lastDay) {
+        lastDate = LocalDate.ofEpochDay(day).toString();
+        lastDay = day;
+      }
+      return lastDate;
+    }
+  }
+
+  /**
+   * Converts time of day in milliseconds (int) or microseconds (long).
+   */
+  private static final class TimeConverter extends StringConverter {
+    private final TimeUnit unit;
+
+    TimeConverter(TimeUnit unit) {
+      this.unit = unit;
+    }
+
+    @Override
+    public String convert(Object value) {
+      if (!(value instanceof Integer || value instanceof Long)) {
+        return generic(value);
+      }
+      return LocalTime.ofNanoOfDay(unit.toNanos(((Number) value).longValue())).toString();
+    }
+  }
+
+  /**
+   * Converts timestamps in milliseconds or microseconds since the epoch to the form of
+   * {@link java.time.format.DateTimeFormatter#ISO_INSTANT}. The date part is remembered per day and the time
+   * part is written digit by digit into a reusable buffer.
+   */
+  private static final class TimestampConverter extends StringConverter {
+    private static final long SECONDS_PER_DAY = 86400;
+    private final long perSecond;
+    private final int fractionDigits;
+    private long lastDay;
+    private String lastDate;
+
+    TimestampConverter(TimeUnit unit) {
+      this.perSecond = unit.convert(1, TimeUnit.SECONDS);
+      this.fractionDigits = unit == TimeUnit.MILLISECONDS ? 3 : 6;
+    }
+
+    @Override
+    public String convert(Object value) {
+      if (!(value instanceof Long)) {
+        return generic(value);
+      }
+      long timestamp = (Long) value;
+      long seconds = Math.floorDiv(timestamp, perSecond);
+      long fraction = Math.floorMod(timestamp, perSecond);
+      long day = Math.floorDiv(seconds, SECONDS_PER_DAY);
+      int secondOfDay = (int) Math.floorMod(seconds, SECONDS_PER_DAY);
+      if (lastDate == null || day != lastDay) {
+        lastDate = LocalDate.ofEpochDay(day).toString();
+        lastDay = day;
+      }
+      int dateLength = lastDate.length();
+      char[] chars = buffer(dateLength + 11 + fractionDigits);
+      lastDate.getChars(0, dateLength, chars, 0);
+      int pos = dateLength;
+      chars[pos++] = 'T';
+      pos = writeDigits(chars, pos, secondOfDay / 3600, 2);
+      chars[pos++] = ':';
+      pos = writeDigits(chars, pos, secondOfDay / 60 % 60, 2);
+      chars[pos++] = ':';
+      pos = writeDigits(chars, pos, secondOfDay % 60, 2);
+      if (fraction != 0) {
+        int digits = fractionDigits;
+        // ISO_INSTANT prints the fraction in groups of three digits
+        if (digits == 6 && fraction % 1000 == 0) {
+          fraction /= 1000;
+          digits = 3;
+        }
+        chars[pos++] = '.';
+        pos = writeDigits(chars, pos, (int) fraction, digits);
+      }
+      chars[pos++] = 'Z';
+      return new String(chars, 0, pos);
+    }
+
+    private static int writeDigits(char[] chars, int pos, int value, int digits) {
+      for (int i = pos + digits - 1; i >= pos; i--) {
+        chars[i] = (char) ('0' + value % 10);
+        value /= 10;
+      }
+      return pos + digits;
+    }
+  }
+
+  /**
+   * Converts decimals given as {@link BigDecimal} or as unscaled two's complement bytes.
+   */
+  private static final class DecimalConverter extends StringConverter {
+    private final int scale;
+
+    DecimalConverter(int scale) {
+      this.scale = scale;
+    }
+
+    @Override
+    public String convert(Object value) {
+      if (value instanceof BigDecimal) {
+        return ((BigDecimal) value).toPlainString();
+      }
+      if (value instanceof byte[] || value instanceof ByteBuffer) {
+        return new BigDecimal(new BigInteger(bytes(value)), scale).toPlainString();
+      }
+      return generic(value);
+    }
+  }
+}
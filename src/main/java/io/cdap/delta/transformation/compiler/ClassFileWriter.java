@@ -0,0 +1,361 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a class file with public methods only, which is all {@link PipelineCompiler} needs. Classes are written in
+ * the Java 5 format, whose verifier infers stack frames, so no stack map table has to be computed for branches.
+ */
+final class ClassFileWriter {
+
+  static final int ACC_PUBLIC = 0x0001;
+  static final int ACC_FINAL = 0x0010;
+  static final int ACC_SUPER = 0x0020;
+
+  private static final int JAVA_5_VERSION = 49;
+  private static final int MAX_CODE_LENGTH = 65535;
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_INTEGER = 3;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_STRING = 8;
+  private static final int CONSTANT_FIELDREF = 9;
+  private static final int CONSTANT_METHODREF = 10;
+  private static final int CONSTANT_INTERFACE_METHODREF = 11;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+  private final ByteArrayOutputStream constantBytes = new ByteArrayOutputStream();
+  private final DataOutputStream constants = new DataOutputStream(constantBytes);
+  private final Map<String, Integer> constantIndexes = new HashMap<>();
+  private final List<byte[]> methods = new ArrayList<>();
+  private final String className;
+  private final String superName;
+  private int constantCount = 1;
+
+  /**
+   * @param className the internal name of the class, e.g. {@code java/lang/Object}
+   * @param superName the internal name of its super class
+   */
+  ClassFileWriter(String className, String superName) {
+    this.className = className;
+    this.superName = superName;
+  }
+
+  String getClassName() {
+    return className;
+  }
+
+  private int constant(String key, int tag, ConstantWriter writer) {
+    Integer index = constantIndexes.get(key);
+    if (index != null) {
+      return index;
+    }
+    try {
+      constants.writeByte(tag);
+      writer.write(constants);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    constantIndexes.put(key, constantCount);
+    return constantCount++;
+  }
+
+  int utf8(String value) {
+    return constant("u" + value, CONSTANT_UTF8, out -> out.writeUTF(value));
+  }
+
+  int classRef(String internalName) {
+    int name = utf8(internalName);
+    return constant("c" + internalName, CONSTANT_CLASS, out -> out.writeShort(name));
+  }
+
+  int string(String value) {
+    int utf8 = utf8(value);
+    return constant("s" + value, CONSTANT_STRING, out -> out.writeShort(utf8));
+  }
+
+  int integer(int value) {
+    return constant("i" + value, CONSTANT_INTEGER, out -> out.writeInt(value));
+  }
+
+  private int nameAndType(String name, String descriptor) {
+    int nameIndex = utf8(name);
+    int descriptorIndex = utf8(descriptor);
+    return constant("n" + name + " " + descriptor, CONSTANT_NAME_AND_TYPE, out -> {
+      out.writeShort(nameIndex);
+      out.writeShort(descriptorIndex);
+    });
+  }
+
+  private int member(int tag, String owner, String name, String descriptor) {
+    int ownerIndex = classRef(owner);
+    int nameAndTypeIndex = nameAndType(name, descriptor);
+    return constant(tag + owner + "." + name + descriptor, tag, out -> {
+      out.writeShort(ownerIndex);
+      out.writeShort(nameAndTypeIndex);
+    });
+  }
+
+  int fieldRef(String owner, String name, String descriptor) {
+    return member(CONSTANT_FIELDREF, owner, name, descriptor);
+  }
+
+  int methodRef(String owner, String name, String descriptor) {
+    return member(CONSTANT_METHODREF, owner, name, descriptor);
+  }
+
+  int interfaceMethodRef(String owner, String name, String descriptor) {
+    return member(CONSTANT_INTERFACE_METHODREF, owner, name, descriptor);
+  }
+
+  /**
+   * Adds a public method with the given code.
+   */
+  void addMethod(String name, String descriptor, Code code) {
+    int nameIndex = utf8(name);
+    int descriptorIndex = utf8(descriptor);
+    int codeIndex = utf8("Code");
+    byte[] bytecode = code.toByteArray();
+    if (bytecode.length > MAX_CODE_LENGTH) {
+      throw new MethodTooLargeException();
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeShort(ACC_PUBLIC);
+      out.writeShort(nameIndex);
+      out.writeShort(descriptorIndex);
+      out.writeShort(1);
+      out.writeShort(codeIndex);
+      out.writeInt(12 + bytecode.length);
+      out.writeShort(code.maxStack);
+      out.writeShort(code.maxLocals);
+      out.writeInt(bytecode.length);
+      out.write(bytecode);
+      // no exception table, no attributes
+      out.writeShort(0);
+      out.writeShort(0);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    methods.add(bytes.toByteArray());
+  }
+
+  byte[] toByteArray() {
+    int thisIndex = classRef(className);
+    int superIndex = classRef(superName);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(JAVA_5_VERSION);
+      out.writeShort(constantCount);
+      out.write(constantBytes.toByteArray());
+      out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+      out.writeShort(thisIndex);
+      out.writeShort(superIndex);
+      // no interfaces, no fields
+      out.writeShort(0);
+      out.writeShort(0);
+      out.writeShort(methods.size());
+      for (byte[] method : methods) {
+        out.write(method);
+      }
+      out.writeShort(0);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Writes the content of a constant pool entry.
+   */
+  private interface ConstantWriter {
+    void write(DataOutputStream out) throws IOException;
+  }
+
+  /**
+   * The bytecode of a method, with the few instructions the compiler emits. Branches go forward only.
+   */
+  static final class Code {
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int ALOAD = 0x19;
+    private static final int AALOAD = 0x32;
+    private static final int ASTORE = 0x3a;
+    private static final int IF_ACMPEQ = 0xa5;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKEINTERFACE = 0xb9;
+    private static final int CHECKCAST = 0xc0;
+    private static final int IFNULL = 0xc6;
+
+    private final ClassFileWriter classFile;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final List<int[]> branches = new ArrayList<>();
+    private final int maxStack;
+    private final int maxLocals;
+
+    /**
+     * @param maxStack the maximum depth of the operand stack, which the caller keeps track of
+     * @param maxLocals the number of local variables, including {@code this} and the arguments
+     */
+    Code(ClassFileWriter classFile, int maxStack, int maxLocals) {
+      this.classFile = classFile;
+      this.maxStack = maxStack;
+      this.maxLocals = maxLocals;
+    }
+
+    private Code op(int opcode) {
+      bytes.write(opcode);
+      return this;
+    }
+
+    private Code op(int opcode, int operand) {
+      bytes.write(opcode);
+      bytes.write(operand >> 8);
+      bytes.write(operand);
+      return this;
+    }
+
+    Code aload(int local) {
+      bytes.write(ALOAD);
+      bytes.write(local);
+      return this;
+    }
+
+    Code astore(int local) {
+      bytes.write(ASTORE);
+      bytes.write(local);
+      return this;
+    }
+
+    Code push(int value) {
+      if (value >= -1 && value <= 5) {
+        return op(ICONST_0 + value);
+      }
+      if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+        bytes.write(BIPUSH);
+        bytes.write(value);
+        return this;
+      }
+      if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+        return op(SIPUSH, value);
+      }
+      return op(LDC_W, classFile.integer(value));
+    }
+
+    Code push(String value) {
+      return op(LDC_W, classFile.string(value));
+    }
+
+    Code aaload() {
+      return op(AALOAD);
+    }
+
+    Code getField(String owner, String name, String descriptor) {
+      return op(GETFIELD, classFile.fieldRef(owner, name, descriptor));
+    }
+
+    Code invokeVirtual(String owner, String name, String descriptor) {
+      return op(INVOKEVIRTUAL, classFile.methodRef(owner, name, descriptor));
+    }
+
+    Code invokeSpecial(String owner, String name, String descriptor) {
+      return op(INVOKESPECIAL, classFile.methodRef(owner, name, descriptor));
+    }
+
+    Code invokeInterface(String owner, String name, String descriptor, int argumentSlots) {
+      op(INVOKEINTERFACE, classFile.interfaceMethodRef(owner, name, descriptor));
+      // the receiver counts as an argument
+      bytes.write(argumentSlots + 1);
+      bytes.write(0);
+      return this;
+    }
+
+    Code checkCast(String internalName) {
+      return op(CHECKCAST, classFile.classRef(internalName));
+    }
+
+    Code returnVoid() {
+      return op(RETURN);
+    }
+
+    /**
+     * Emits a branch taken if the top of the stack is null, to be bound to a later position with {@link #bind}.
+     */
+    int ifNull() {
+      return branch(IFNULL);
+    }
+
+    /**
+     * Emits a branch taken if the two references on top of the stack are the same, to be bound to a later position
+     * with {@link #bind}.
+     */
+    int ifSame() {
+      return branch(IF_ACMPEQ);
+    }
+
+    private int branch(int opcode) {
+      int position = bytes.size();
+      op(opcode, 0);
+      return position;
+    }
+
+    /**
+     * Makes the branch emitted at the given position jump to the current position.
+     */
+    void bind(int branch) {
+      int offset = bytes.size() - branch;
+      if (offset > Short.MAX_VALUE) {
+        throw new MethodTooLargeException();
+      }
+      branches.add(new int[] {branch, offset});
+    }
+
+    byte[] toByteArray() {
+      byte[] code = bytes.toByteArray();
+      for (int[] branch : branches) {
+        code[branch[0] + 1] = (byte) (branch[1] >> 8);
+        code[branch[0] + 2] = (byte) branch[1];
+      }
+      return code;
+    }
+  }
+
+  /**
+   * Thrown when the code of a method exceeds what a class file allows.
+   */
+  static final class MethodTooLargeException extends IllegalStateException {
+    MethodTooLargeException() {
+      super("Generated method is too large.");
+    }
+  }
+}
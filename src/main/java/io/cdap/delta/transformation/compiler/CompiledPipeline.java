@@ -0,0 +1,42 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.compiler;
+
+import io.cdap.delta.transformation.ColumnRemap;
+import io.cdap.transformation.api.MutableRowValue;
+
+/**
+ * The value transformation of a directive list, as generated by {@link PipelineCompiler}. Generated classes extend
+ * this class, which holds the objects their code refers to.
+ */
+public abstract class CompiledPipeline {
+
+  protected final String[] columns;
+  protected final Object[] objects;
+  protected final ColumnRemap remap;
+
+  protected CompiledPipeline(String[] columns, Object[] objects, ColumnRemap remap) {
+    this.columns = columns;
+    this.objects = objects;
+    this.remap = remap;
+  }
+
+  /**
+   * Rewrites the values of the row, then renames its columns.
+   */
+  public abstract void transformValue(MutableRowValue rowValue);
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.compiler;
+
+import io.cdap.delta.transformation.Masker;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Value steps called by generated pipelines, with the directive arguments passed as constants, so once inlined the
+ * JIT compiles them for those arguments only. Strings are built in the buffer of the pipeline.
+ */
+public final class CompiledSteps {
+
+  // values longer than this are built in a temporary buffer, so one huge value does not pin memory forever
+  private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+  private char[] buffer = new char[0];
+
+  CompiledSteps() {
+  }
+
+  private char[] buffer(int length) {
+    if (buffer.length >= length) {
+      return buffer;
+    }
+    if (length > MAX_RETAINED_BUFFER) {
+      return new char[length];
+    }
+    buffer = new char[Math.max(length, Math.min(buffer.length * 2, MAX_RETAINED_BUFFER))];
+    return buffer;
+  }
+
+  /**
+   * Masks as {@link Masker#mask(String)} with a masker counting chars and leaving the first {@code n} unmasked.
+   */
+  public Object maskKeepStart(Object value, char maskChar, int n, Masker masker, String column) {
+    if (!(value instanceof String)) {
+      return maskBytes(value, masker, column);
+    }
+    String string = (String) value;
+    int length = string.length();
+    if (length <= n) {
+      return value;
+    }
+    char[] chars = buffer(length);
+    string.getChars(0, n, chars, 0);
+    Arrays.fill(chars, n, length, maskChar);
+    return new String(chars, 0, length);
+  }
+
+  /**
+   * Masks as {@link Masker#mask(String)} with a masker counting chars and leaving the last {@code n} unmasked.
+   */
+  public Object maskKeepEnd(Object value, char maskChar, int n, Masker masker, String column) {
+    if (!(value instanceof String)) {
+      return maskBytes(value, masker, column);
+    }
+    String string = (String) value;
+    int length = string.length();
+    if (length <= n) {
+      return value;
+    }
+    char[] chars = buffer(length);
+    Arrays.fill(chars, 0, length - n, maskChar);
+    string.getChars(length - n, length, chars, length - n);
+    return new String(chars, 0, length);
+  }
+
+  private static Object maskBytes(Object value, Masker masker, String column) {
+    if (value instanceof byte[]) {
+      return masker.mask((byte[]) value);
+    }
+    if (value instanceof ByteBuffer) {
+      return masker.mask((ByteBuffer) value);
+    }
+    throw new IllegalArgumentException(
+      String.format("Column %s is supposed to have string or bytes value.", column));
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.compiler;
+
+import io.cdap.delta.transformation.ColumnRemap;
+import io.cdap.delta.transformation.ColumnValueTransformation;
+import io.cdap.delta.transformation.Masker;
+import io.cdap.delta.transformation.plugins.MaskTransformation;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiles the fused value steps of a directive list into a generated {@link CompiledPipeline} class, with one
+ * straight line block per column instead of a loop over step objects.
+ * <p>
+ * Every step gets its own call site in the generated code, so each call is monomorphic and can be inlined, where
+ * an interpreted loop calls all directive types from a single megamorphic site. Masks counting chars call
+ * {@link CompiledSteps} with their mask character and count as constants and their direction resolved at compile
+ * time, sharing the buffer of the pipeline. Other steps are called on their plugin object through its exact class.
+ * Renames are applied by the {@link ColumnRemap} of the list.
+ * </p>
+ * <p>
+ * Every generated class is defined by its own class loader, a child of the loader of this class, so it can be
+ * unloaded with its pipeline.
+ * </p>
+ */
+public final class PipelineCompiler {
+
+  private static final AtomicInteger CLASS_COUNT = new AtomicInteger();
+
+  private static final String BASE = internalName(CompiledPipeline.class);
+  private static final String OBJECT = "java/lang/Object";
+  private static final String COLUMN_REMAP = internalName(ColumnRemap.class);
+  private static final String MASKER = internalName(Masker.class);
+  private static final String ROW = "io/cdap/transformation/api/MutableRowValue";
+  private static final String STRING = "java/lang/String";
+  private static final String CONSTRUCTOR = "([L" + STRING + ";[L" + OBJECT + ";L" + COLUMN_REMAP + ";)V";
+  private static final String VALUE_STEP = "(L" + OBJECT + ";)L" + OBJECT + ";";
+  private static final String MASK_STEP = "(L" + OBJECT + ";CIL" + MASKER + ";Ljava/lang/String;)L" + OBJECT + ";";
+
+  // locals of the generated transformValue method
+  private static final int THIS = 0;
+  private static final int ROW_VALUE = 1;
+  private static final int VALUE = 2;
+  private static final int NEW_VALUE = 3;
+
+  private PipelineCompiler() {
+  }
+
+  /**
+   * Compiles a pipeline applying the steps of each column, in order, to the non-null values of the column, then
+   * the remap, as {@link io.cdap.delta.transformation.plugins.ChainTransformation} does.
+   *
+   * @param columns the columns whose values are rewritten
+   * @param steps the steps of each column, in the order of the columns
+   * @param remap the renames applied after the value changes
+   * @return the compiled pipeline, or {@code null} if the generated code would be too large for a method
+   * @throws IllegalStateException if the generated class cannot be loaded
+   */
+  public static CompiledPipeline compile(String[] columns, ColumnValueTransformation[][] steps,
+                                         ColumnRemap remap) {
+    try {
+      return generate(columns, steps, remap);
+    } catch (ClassFileWriter.MethodTooLargeException e) {
+      return null;
+    }
+  }
+
+  private static CompiledPipeline generate(String[] columns, ColumnValueTransformation[][] steps,
+                                           ColumnRemap remap) {
+    String className = internalName(PipelineCompiler.class) + "$Generated" + CLASS_COUNT.incrementAndGet();
+    ClassFileWriter classFile = new ClassFileWriter(className, BASE);
+    ClassLoader parent = PipelineCompiler.class.getClassLoader();
+    List<Object> objects = new ArrayList<>();
+    CompiledSteps compiledSteps = new CompiledSteps();
+
+    ClassFileWriter.Code constructor = new ClassFileWriter.Code(classFile, 4, 4);
+    constructor.aload(0).aload(1).aload(2).aload(3).invokeSpecial(BASE, "<init>", CONSTRUCTOR).returnVoid();
+    classFile.addMethod("<init>", CONSTRUCTOR, constructor);
+
+    ClassFileWriter.Code code = new ClassFileWriter.Code(classFile, 6, 4);
+    for (int i = 0; i < columns.length; i++) {
+      code.aload(ROW_VALUE);
+      loadColumn(code, i);
+      code.invokeInterface(ROW, "getColumnValue", "(L" + STRING + ";)L" + OBJECT + ";", 1).astore(VALUE);
+      code.aload(VALUE);
+      int isNull = code.ifNull();
+      code.aload(VALUE).astore(NEW_VALUE);
+      for (ColumnValueTransformation step : steps[i]) {
+        Masker masker = step instanceof MaskTransformation ? ((MaskTransformation) step).getMasker() : null;
+        if (masker != null && masker.getUnit() == Masker.Unit.CHAR) {
+          String stepsClass = internalName(CompiledSteps.class);
+          loadObject(code, objects, compiledSteps, stepsClass);
+          code.aload(NEW_VALUE).push(masker.getMaskCharacter()).push(masker.getUnmaskedCount());
+          loadObject(code, objects, masker, MASKER);
+          code.push(columns[i]);
+          code.invokeVirtual(stepsClass, masker.isKeepEnd() ? "maskKeepEnd" : "maskKeepStart", MASK_STEP);
+        } else if (isVisible(step.getClass(), parent)) {
+          String stepClass = internalName(step.getClass());
+          loadObject(code, objects, step, stepClass);
+          code.aload(NEW_VALUE).invokeVirtual(stepClass, "transformColumnValue", VALUE_STEP);
+        } else {
+          String stepInterface = internalName(ColumnValueTransformation.class);
+          loadObject(code, objects, step, stepInterface);
+          code.aload(NEW_VALUE).invokeInterface(stepInterface, "transformColumnValue", VALUE_STEP, 1);
+        }
+        code.astore(NEW_VALUE);
+      }
+      code.aload(NEW_VALUE).aload(VALUE);
+      int isSame = code.ifSame();
+      code.aload(ROW_VALUE);
+      loadColumn(code, i);
+      code.aload(NEW_VALUE).invokeInterface(ROW, "setColumnValue", "(L" + STRING + ";L" + OBJECT + ";)V", 2);
+      code.bind(isNull);
+      code.bind(isSame);
+    }
+    if (!remap.isEmpty()) {
+      code.aload(THIS).getField(BASE, "remap", "L" + COLUMN_REMAP + ";");
+      code.aload(ROW_VALUE).invokeVirtual(COLUMN_REMAP, "apply", "(L" + ROW + ";)V");
+    }
+    code.returnVoid();
+    classFile.addMethod("transformValue", "(L" + ROW + ";)V", code);
+
+    byte[] bytes = classFile.toByteArray();
+    try {
+      Class<?> pipelineClass = new PipelineClassLoader(parent).define(className.replace('/', '.'), bytes);
+      return (CompiledPipeline) pipelineClass
+        .getConstructor(String[].class, Object[].class, ColumnRemap.class)
+        .newInstance(columns, objects.toArray(), remap);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      throw new IllegalStateException("Failed to load the generated pipeline.", e);
+    }
+  }
+
+  private static void loadColumn(ClassFileWriter.Code code, int index) {
+    code.aload(THIS).getField(BASE, "columns", "[L" + STRING + ";").push(index).aaload();
+  }
+
+  private static void loadObject(ClassFileWriter.Code code, List<Object> objects, Object object, String type) {
+    code.aload(THIS).getField(BASE, "objects", "[L" + OBJECT + ";").push(objects.size()).aaload().checkCast(type);
+    objects.add(object);
+  }
+
+  /**
+   * Returns whether generated code can refer to the given class by name.
+   */
+  private static boolean isVisible(Class<?> type, ClassLoader loader) {
+    if (!Modifier.isPublic(type.getModifiers())) {
+      return false;
+    }
+    try {
+      return Class.forName(type.getName(), false, loader) == type;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  private static String internalName(Class<?> type) {
+    return type.getName().replace('.', '/');
+  }
+
+  /**
+   * Defines a single generated class.
+   */
+  private static final class PipelineClassLoader extends ClassLoader {
+    PipelineClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    Class<?> define(String name, byte[] bytes) {
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+  }
+}
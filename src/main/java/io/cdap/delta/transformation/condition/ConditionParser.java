@@ -0,0 +1,367 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.condition;
+
+import io.cdap.delta.transformation.condition.RowConditions.Operator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Compiles the condition of a {@code when} clause into a {@link RowCondition}, e.g.
+ * {@code mask ssn right * 4 when country = 'DE' and op in ('insert', 'update')}.
+ * <p>
+ * A condition compares columns with literals:
+ * <pre>
+ *   condition  := and ( "or" and )*
+ *   and        := unary ( "and" unary )*
+ *   unary      := "not" unary | "(" condition ")" | predicate
+ *   predicate  := column operator literal
+ *               | column "is" [ "not" ] "null"
+ *               | column [ "not" ] "in" "(" literal ( "," literal )* ")"
+ *   operator   := "=" | "!=" | "&lt;&gt;" | "&lt;" | "&lt;=" | "&gt;" | "&gt;="
+ *   literal    := 'string' | number | "true" | "false"
+ * </pre>
+ * Keywords are case insensitive. Columns are names made of letters, digits and underscores, or any name between
+ * backquotes. Quotes are escaped by doubling them. String literals compare with string values, number literals
+ * with int, long, float, double and decimal values, and boolean literals with boolean values.
+ * </p>
+ * <p>
+ * Null values follow the three-valued logic of SQL. Comparisons and {@code in} with a null value, or a value of
+ * another type, are unknown rather than false, whatever the operator, and so are their negations: for a null
+ * country, {@code country != 'DE'}, {@code not (country = 'DE')} and {@code country not in ('DE')} are all
+ * unknown. {@code and} is false if either side is false, {@code or} is true if either side is true, and a row
+ * only matches a condition that is true. {@code is null} and {@code is not null} are never unknown.
+ * </p>
+ */
+public final class ConditionParser {
+
+  private final String condition;
+  private final List<Token> tokens;
+  private int position;
+
+  private ConditionParser(String condition) {
+    this.condition = condition;
+    this.tokens = new Lexer(condition).tokenize();
+  }
+
+  /**
+   * Compiles the given condition.
+   *
+   * @throws IllegalArgumentException if the condition is not valid
+   */
+  public static RowCondition parse(String condition) {
+    ConditionParser parser = new ConditionParser(condition);
+    RowCondition rowCondition = parser.parseOr();
+    if (parser.position < parser.tokens.size()) {
+      throw parser.error("Unexpected " + parser.tokens.get(parser.position).text);
+    }
+    return rowCondition;
+  }
+
+  private RowCondition parseOr() {
+    RowCondition rowCondition = parseAnd();
+    while (acceptKeyword("or")) {
+      rowCondition = RowConditions.or(rowCondition, parseAnd());
+    }
+    return rowCondition;
+  }
+
+  private RowCondition parseAnd() {
+    RowCondition rowCondition = parseUnary();
+    while (acceptKeyword("and")) {
+      rowCondition = RowConditions.and(rowCondition, parseUnary());
+    }
+    return rowCondition;
+  }
+
+  private RowCondition parseUnary() {
+    if (acceptKeyword("not")) {
+      return RowConditions.not(parseUnary());
+    }
+    if (accept(TokenType.SYMBOL, "(")) {
+      RowCondition rowCondition = parseOr();
+      expect(TokenType.SYMBOL, ")");
+      return rowCondition;
+    }
+    return parsePredicate();
+  }
+
+  private RowCondition parsePredicate() {
+    String column = expectColumn();
+    if (acceptKeyword("is")) {
+      boolean negated = acceptKeyword("not");
+      expectKeyword("null");
+      RowCondition isNull = RowConditions.isNull(column);
+      return negated ? RowConditions.not(isNull) : isNull;
+    }
+    boolean negated = acceptKeyword("not");
+    if (negated || peekKeyword("in")) {
+      expectKeyword("in");
+      RowCondition in = parseIn(column);
+      return negated ? RowConditions.not(in) : in;
+    }
+    Operator operator = expectOperator();
+    Object literal = expectLiteral();
+    if (literal instanceof Boolean && operator != Operator.EQ && operator != Operator.NE) {
+      throw error(String.format("Booleans cannot be compared with %s", operator.getSymbol()));
+    }
+    return RowConditions.compare(column, operator, literal);
+  }
+
+  private RowCondition parseIn(String column) {
+    expect(TokenType.SYMBOL, "(");
+    List<Object> literals = new ArrayList<>();
+    do {
+      literals.add(expectLiteral());
+    } while (accept(TokenType.SYMBOL, ","));
+    expect(TokenType.SYMBOL, ")");
+
+    Set<String> strings = new HashSet<>();
+    for (Object literal : literals) {
+      if (literal instanceof String) {
+        strings.add((String) literal);
+      }
+    }
+    if (strings.size() == literals.size()) {
+      return RowConditions.in(column, strings);
+    }
+    List<RowCondition> equalities = new ArrayList<>();
+    for (Object literal : literals) {
+      equalities.add(RowConditions.compare(column, Operator.EQ, literal));
+    }
+    return RowConditions.anyOf(column, equalities);
+  }
+
+  private String expectColumn() {
+    Token token = next("a column");
+    if (token.type != TokenType.IDENTIFIER && token.type != TokenType.QUOTED_IDENTIFIER) {
+      throw error("Expected a column but found " + token.text);
+    }
+    return token.value;
+  }
+
+  private Operator expectOperator() {
+    Token token = next("an operator");
+    if (token.type == TokenType.SYMBOL) {
+      if ("<>".equals(token.value)) {
+        return Operator.NE;
+      }
+      for (Operator operator : Operator.values()) {
+        if (operator.getSymbol().equals(token.value)) {
+          return operator;
+        }
+      }
+    }
+    throw error("Expected an operator but found " + token.text);
+  }
+
+  private Object expectLiteral() {
+    Token token = next("a literal");
+    switch (token.type) {
+      case STRING:
+        return token.value;
+      case NUMBER:
+        return new BigDecimal(token.value);
+      case IDENTIFIER:
+        String keyword = token.value.toLowerCase(Locale.ROOT);
+        if ("true".equals(keyword) || "false".equals(keyword)) {
+          return Boolean.valueOf(keyword);
+        }
+        break;
+      default:
+        break;
+    }
+    throw error("Expected a literal but found " + token.text);
+  }
+
+  private Token next(String expected) {
+    if (position >= tokens.size()) {
+      throw error(String.format("Expected %s but the condition ended", expected));
+    }
+    return tokens.get(position++);
+  }
+
+  private boolean peekKeyword(String keyword) {
+    if (position >= tokens.size()) {
+      return false;
+    }
+    Token token = tokens.get(position);
+    return token.type == TokenType.IDENTIFIER && keyword.equalsIgnoreCase(token.value);
+  }
+
+  private boolean acceptKeyword(String keyword) {
+    if (peekKeyword(keyword)) {
+      position++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expectKeyword(String keyword) {
+    if (!acceptKeyword(keyword)) {
+      throw error(String.format("Expected %s", keyword));
+    }
+  }
+
+  private boolean accept(TokenType type, String value) {
+    if (position < tokens.size() && tokens.get(position).type == type && tokens.get(position).value.equals(value)) {
+      position++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(TokenType type, String value) {
+    if (!accept(type, value)) {
+      throw error(String.format("Expected %s", value));
+    }
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(String.format("%s in condition: %s", message, condition));
+  }
+
+  private enum TokenType {
+    IDENTIFIER,
+    QUOTED_IDENTIFIER,
+    STRING,
+    NUMBER,
+    SYMBOL
+  }
+
+  private static final class Token {
+    private final TokenType type;
+    private final String value;
+    private final String text;
+
+    Token(TokenType type, String value, String text) {
+      this.type = type;
+      this.value = value;
+      this.text = text;
+    }
+  }
+
+  /**
+   * Splits a condition into tokens.
+   */
+  private static final class Lexer {
+    private final String condition;
+    private final List<Token> tokens = new ArrayList<>();
+    private int position;
+
+    Lexer(String condition) {
+      this.condition = condition;
+    }
+
+    List<Token> tokenize() {
+      int length = condition.length();
+      while (position < length) {
+        char c = condition.charAt(position);
+        int start = position;
+        if (Character.isWhitespace(c)) {
+          position++;
+        } else if (c == '\'' || c == '`') {
+          String value = quoted(c);
+          tokens.add(new Token(c == '\'' ? TokenType.STRING : TokenType.QUOTED_IDENTIFIER, value,
+                               condition.substring(start, position)));
+        } else if (Character.isLetter(c) || c == '_') {
+          while (position < length && (Character.isLetterOrDigit(condition.charAt(position)) ||
+            condition.charAt(position) == '_')) {
+            position++;
+          }
+          String value = condition.substring(start, position);
+          tokens.add(new Token(TokenType.IDENTIFIER, value, value));
+        } else if (Character.isDigit(c) || (c == '-' && position + 1 < length &&
+          Character.isDigit(condition.charAt(position + 1)))) {
+          String value = number();
+          tokens.add(new Token(TokenType.NUMBER, value, value));
+        } else {
+          String value = symbol();
+          tokens.add(new Token(TokenType.SYMBOL, value, value));
+        }
+      }
+      return tokens;
+    }
+
+    private String quoted(char quote) {
+      StringBuilder value = new StringBuilder();
+      position++;
+      while (position < condition.length()) {
+        char c = condition.charAt(position++);
+        if (c != quote) {
+          value.append(c);
+        } else if (position < condition.length() && condition.charAt(position) == quote) {
+          value.append(quote);
+          position++;
+        } else {
+          return value.toString();
+        }
+      }
+      throw new IllegalArgumentException(String.format("Unterminated %s in condition: %s", quote, condition));
+    }
+
+    private String number() {
+      int start = position;
+      position++;
+      skipDigits();
+      if (position < condition.length() && condition.charAt(position) == '.') {
+        position++;
+        skipDigits();
+      }
+      if (position < condition.length() && (condition.charAt(position) == 'e' || condition.charAt(position) == 'E')) {
+        position++;
+        if (position < condition.length() && (condition.charAt(position) == '+' || condition.charAt(position) == '-')) {
+          position++;
+        }
+        skipDigits();
+      }
+      String number = condition.substring(start, position);
+      try {
+        new BigDecimal(number);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException(String.format("Invalid number %s in condition: %s", number, condition), e);
+      }
+      return number;
+    }
+
+    private void skipDigits() {
+      while (position < condition.length() && Character.isDigit(condition.charAt(position))) {
+        position++;
+      }
+    }
+
+    private String symbol() {
+      for (String symbol : new String[] {"<=", ">=", "!=", "<>"}) {
+        if (condition.startsWith(symbol, position)) {
+          position += symbol.length();
+          return symbol;
+        }
+      }
+      char c = condition.charAt(position);
+      if ("=<>(),".indexOf(c) < 0) {
+        throw new IllegalArgumentException(String.format("Unexpected %s in condition: %s", c, condition));
+      }
+      position++;
+      return String.valueOf(c);
+    }
+  }
+}
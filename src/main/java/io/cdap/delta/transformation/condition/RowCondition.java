@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.condition;
+
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+
+/**
+ * A compiled condition on the column values of a row, as given in the {@code when} clause of a directive. See
+ * {@link ConditionParser}. Conditions read the columns by name and only hold what {@link #resolve} derives from the
+ * schema, such as the scale of a decimal column, so they are thread safe once resolved.
+ */
+public interface RowCondition {
+
+  /**
+   * Resolves the columns of the condition against the given schema.
+   *
+   * @throws IllegalArgumentException if a column of the condition is not in the schema
+   */
+  void resolve(MutableRowSchema rowSchema);
+
+  /**
+   * Returns whether the given row matches the condition.
+   */
+  boolean test(MutableRowValue rowValue);
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.condition;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The nodes of a compiled {@link RowCondition}. Each node is a small object that evaluates its children directly,
+ * and comparisons are specialized by the type of their literal, so evaluating a condition costs a few virtual
+ * calls and column reads, with no parsing, boxing of literals or reflection.
+ * <p>
+ * Conditions follow the three-valued logic of SQL: a comparison with a null value or a value of another type is
+ * unknown, and a row only matches a condition that is true. Every node can therefore tell whether it is true with
+ * {@link Node#test} and whether it is false with {@link Node#testNot}, which is what its negation matches.
+ * </p>
+ */
+final class RowConditions {
+
+  /**
+   * A comparison operator.
+   */
+  enum Operator {
+    EQ("="),
+    NE("!="),
+    LT("<"),
+    LE("<="),
+    GT(">"),
+    GE(">=");
+
+    private final String symbol;
+
+    Operator(String symbol) {
+      this.symbol = symbol;
+    }
+
+    String getSymbol() {
+      return symbol;
+    }
+
+    /**
+     * Returns whether the result of a comparison satisfies the operator.
+     */
+    boolean test(int comparison) {
+      switch (this) {
+        case EQ:
+          return comparison == 0;
+        case NE:
+          return comparison != 0;
+        case LT:
+          return comparison < 0;
+        case LE:
+          return comparison <= 0;
+        case GT:
+          return comparison > 0;
+        default:
+          return comparison >= 0;
+      }
+    }
+  }
+
+  private RowConditions() {
+  }
+
+  static RowCondition and(RowCondition left, RowCondition right) {
+    return new And((Node) left, (Node) right);
+  }
+
+  static RowCondition or(RowCondition left, RowCondition right) {
+    return new Or((Node) left, (Node) right);
+  }
+
+  static RowCondition not(RowCondition condition) {
+    return new Not((Node) condition);
+  }
+
+  static RowCondition isNull(String column) {
+    return new IsNull(column);
+  }
+
+  static RowCondition compare(String column, Operator operator, Object literal) {
+    if (literal instanceof String) {
+      return new StringComparison(column, operator, (String) literal);
+    }
+    if (literal instanceof Boolean) {
+      return new BooleanComparison(column, operator, (Boolean) literal);
+    }
+    return new NumberComparison(column, operator, (BigDecimal) literal);
+  }
+
+  /**
+   * Returns a condition matching rows whose column is equal to one of the given string literals.
+   */
+  static RowCondition in(String column, Set<String> literals) {
+    return new StringIn(column, literals);
+  }
+
+  /**
+   * Returns a condition matching rows whose column matches one of the given comparisons of that column, such as
+   * the equalities of an {@code in} with literals of several types. Comparisons with values of another type are
+   * false rather than unknown here, so only a null value makes the condition unknown.
+   */
+  static RowCondition anyOf(String column, List<RowCondition> comparisons) {
+    ColumnCondition[] conditions = new ColumnCondition[comparisons.size()];
+    for (int i = 0; i < conditions.length; i++) {
+      conditions[i] = (ColumnCondition) comparisons.get(i);
+    }
+    return new AnyOf(column, conditions);
+  }
+
+  /**
+   * Base of the nodes, which know when they are false as well as when they are true.
+   */
+  private abstract static class Node implements RowCondition {
+
+    /**
+     * Returns whether the condition is false for the given row, as opposed to true or unknown.
+     */
+    abstract boolean testNot(MutableRowValue rowValue);
+  }
+
+  private static final class And extends Node {
+    private final Node left;
+    private final Node right;
+
+    And(Node left, Node right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public void resolve(MutableRowSchema rowSchema) {
+      left.resolve(rowSchema);
+      right.resolve(rowSchema);
+    }
+
+    @Override
+    public boolean test(MutableRowValue rowValue) {
+      return left.test(rowValue) && right.test(rowValue);
+    }
+
+    @Override
+    boolean testNot(MutableRowValue rowValue) {
+      return left.testNot(rowValue) || right.testNot(rowValue);
+    }
+  }
+
+  private static final class Or extends Node {
+    private final Node left;
+    private final Node right;
+
+    Or(Node left, Node right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public void resolve(MutableRowSchema rowSchema) {
+      left.resolve(rowSchema);
+      right.resolve(rowSchema);
+    }
+
+    @Override
+    public boolean test(MutableRowValue rowValue) {
+      return left.test(rowValue) || right.test(rowValue);
+    }
+
+    @Override
+    boolean testNot(MutableRowValue rowValue) {
+      return left.testNot(rowValue) && right.testNot(rowValue);
+    }
+  }
+
+  private static final class Not extends Node {
+    private final Node condition;
+
+    Not(Node condition) {
+      this.condition = condition;
+    }
+
+    @Override
+    public void resolve(MutableRowSchema rowSchema) {
+      condition.resolve(rowSchema);
+    }
+
+    @Override
+    public boolean test(MutableRowValue rowValue) {
+      return condition.testNot(rowValue);
+    }
+
+    @Override
+    boolean testNot(MutableRowValue rowValue) {
+      return condition.test(rowValue);
+    }
+  }
+
+  /**
+   * Base of the conditions on the value of a single column, which are unknown for the values
+   * {@link #isComparable} rejects and otherwise true or false as {@link #matches} says.
+   */
+  private abstract static class ColumnCondition extends Node {
+    final String column;
+
+    ColumnCondition(String column) {
+      this.column = column;
+    }
+
+    @Override
+    public void resolve(MutableRowSchema rowSchema) {
+      Schema.Field field = rowSchema.getField(column);
+      if (field == null) {
+        throw new IllegalArgumentException(String.format("Column %s of the condition does not exist.", column));
+      }
+      Schema schema = field.getSchema();
+      resolve(schema.isNullable() ? schema.getNonNullable() : schema);
+    }
+
+    /**
+     * Resolves the condition against the schema of its column, which is not nullable.
+     */
+    void resolve(Schema schema) {
+    }
+
+    @Override
+    public boolean test(MutableRowValue rowValue) {
+      Object value = rowValue.getColumnValue(column);
+      return isComparable(value) && matches(value);
+    }
+
+    @Override
+    boolean testNot(MutableRowValue rowValue) {
+      Object value = rowValue.getColumnValue(column);
+      return isComparable(value) && !matches(value);
+    }
+
+    /**
+     * Returns whether the value is not null and of the type of the condition.
+     */
+    abstract boolean isComparable(Object value);
+
+    /**
+     * Returns whether the condition is true for a value it can compare.
+     */
+    abstract boolean matches(Object value);
+  }
+
+  private static final class IsNull extends ColumnCondition {
+    IsNull(String column) {
+      super(column);
+    }
+
+    @Override
+    boolean isComparable(Object value) {
+      return true;
+    }
+
+    @Override
+    boolean matches(Object value) {
+      return value == null;
+    }
+  }
+
+  private static final class StringComparison extends ColumnCondition {
+    private final Operator operator;
+    private final String literal;
+
+    StringComparison(String column, Operator operator, String literal) {
+      super(column);
+      this.operator = operator;
+      this.literal = literal;
+    }
+
+    @Override
+    boolean isComparable(Object value) {
+      return value instanceof CharSequence;
+    }
+
+    @Override
+    boolean matches(Object value) {
+      if (operator == Operator.EQ) {
+        return literal.equals(value.toString());
+      }
+      return operator.test(value.toString().compareTo(literal));
+    }
+  }
+
+  private static final class StringIn extends ColumnCondition {
+    private final Set<String> literals;
+
+    StringIn(String column, Set<String> literals) {
+      super(column);
+      this.literals = new HashSet<>(literals);
+    }
+
+    @Override
+    boolean isComparable(Object value) {
+      return value instanceof CharSequence;
+    }
+
+    @Override
+    boolean matches(Object value) {
+      return literals.contains(value.toString());
+    }
+  }
+
+  private static final class AnyOf extends ColumnCondition {
+    private final ColumnCondition[] conditions;
+
+    AnyOf(String column, ColumnCondition[] conditions) {
+      super(column);
+      this.conditions = conditions;
+    }
+
+    @Override
+    void resolve(Schema schema) {
+      for (ColumnCondition condition : conditions) {
+        condition.resolve(schema);
+      }
+    }
+
+    @Override
+    boolean isComparable(Object value) {
+      return value != null;
+    }
+
+    @Override
+    boolean matches(Object value) {
+      for (ColumnCondition condition : conditions) {
+        if (condition.isComparable(value) && condition.matches(value)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private static final class BooleanComparison extends ColumnCondition {
+    private final Operator operator;
+    private final boolean literal;
+
+    BooleanComparison(String column, Operator operator, boolean literal) {
+      super(column);
+      this.operator = operator;
+      this.literal = literal;
+    }
+
+    @Override
+    boolean isComparable(Object value) {
+      return value instanceof Boolean;
+    }
+
+    @Override
+    boolean matches(Object value) {
+      return operator.test(Boolean.compare((Boolean) value, literal));
+    }
+  }
+
+  private static final class NumberComparison extends ColumnCondition {
+    private final Operator operator;
+    private final BigDecimal literal;
+    private final double doubleLiteral;
+    // the literal as a long when it is a whole number in the range of longs, which covers most comparisons
+    private final boolean longComparable;
+    private final long longLiteral;
+    // the scale of the unscaled bytes of a decimal column, or -1 if the column is not a decimal
+    private int scale = -1;
+
+    NumberComparison(String column, Operator operator, BigDecimal literal) {
+      super(column);
+      this.operator = operator;
+      this.literal = literal;
+      this.doubleLiteral = literal.doubleValue();
+      BigInteger wholeLiteral = literal.signum() == 0 || literal.stripTrailingZeros().scale() <= 0 ?
+        literal.toBigInteger() : null;
+      this.longComparable = wholeLiteral != null && wholeLiteral.bitLength() < 64;
+      this.longLiteral = longComparable ? wholeLiteral.longValue() : 0L;
+    }
+
+    @Override
+    void resolve(Schema schema) {
+      scale = schema.getLogicalType() == Schema.LogicalType.DECIMAL ? schema.getScale() : -1;
+    }
+
+    @Override
+    boolean isComparable(Object value) {
+      if (value instanceof Double || value instanceof Float) {
+        return !Double.isNaN(((Number) value).doubleValue());
+      }
+      return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+        || value instanceof BigDecimal || scale >= 0 && (value instanceof byte[] || value instanceof ByteBuffer);
+    }
+
+    @Override
+    boolean matches(Object value) {
+      if (value instanceof Double || value instanceof Float) {
+        return operator.test(Double.compare(((Number) value).doubleValue(), doubleLiteral));
+      }
+      if (value instanceof BigDecimal) {
+        return operator.test(((BigDecimal) value).compareTo(literal));
+      }
+      if (value instanceof byte[] || value instanceof ByteBuffer) {
+        return operator.test(new BigDecimal(new BigInteger(bytes(value)), scale).compareTo(literal));
+      }
+      long number = ((Number) value).longValue();
+      return operator.test(longComparable ? Long.compare(number, longLiteral) :
+                             BigDecimal.valueOf(number).compareTo(literal));
+    }
+
+    private static byte[] bytes(Object value) {
+      if (value instanceof byte[]) {
+        return (byte[]) value;
+      }
+      ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      return bytes;
+    }
+  }
+}
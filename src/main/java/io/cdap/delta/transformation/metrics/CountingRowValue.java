@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.metrics;
+
+import io.cdap.transformation.api.MutableRowValue;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Row wrapper counting null reads of the transformation's own columns and value writes, reused for every row a
+ * transformation processes.
+ */
+final class CountingRowValue implements MutableRowValue {
+
+  private MutableRowValue delegate;
+  private Set<String> columns = Collections.emptySet();
+  private long nullReads;
+  private long writes;
+
+  /**
+   * Sets the columns whose null reads are counted, leaving out e.g. the columns of a when clause.
+   */
+  CountingRowValue countNullsOf(Set<String> columns) {
+    this.columns = columns;
+    return this;
+  }
+
+  CountingRowValue wrap(MutableRowValue rowValue) {
+    delegate = rowValue;
+    return this;
+  }
+
+  long takeNullReads() {
+    long count = nullReads;
+    nullReads = 0;
+    return count;
+  }
+
+  long takeWrites() {
+    long count = writes;
+    writes = 0;
+    return count;
+  }
+
+  @Override
+  public Object getColumnValue(String columnName) {
+    Object value = delegate.getColumnValue(columnName);
+    if (value == null && columns.contains(columnName)) {
+      nullReads++;
+    }
+    return value;
+  }
+
+  @Override
+  public void setColumnValue(String columnName, Object value) {
+    writes++;
+    delegate.setColumnValue(columnName, value);
+  }
+
+  @Override
+  public void renameColumn(String originalName, String newName) {
+    delegate.renameColumn(originalName, newName);
+  }
+}
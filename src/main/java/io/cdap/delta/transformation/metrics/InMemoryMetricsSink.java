@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link MetricsSink} that keeps the counters in memory.
+ */
+public class InMemoryMetricsSink implements MetricsSink {
+
+  private final Map<String, Map<String, LongAdder>> counters = new ConcurrentHashMap<>();
+
+  @Override
+  public void count(String directive, String metric, long delta) {
+    counters.computeIfAbsent(directive, key -> new ConcurrentHashMap<>())
+      .computeIfAbsent(metric, key -> new LongAdder())
+      .add(delta);
+  }
+
+  /**
+   * Returns the value of a counter, or 0 if nothing was counted for it.
+   */
+  public long get(String directive, String metric) {
+    Map<String, LongAdder> directiveCounters = counters.get(directive);
+    LongAdder counter = directiveCounters == null ? null : directiveCounters.get(metric);
+    return counter == null ? 0L : counter.sum();
+  }
+}
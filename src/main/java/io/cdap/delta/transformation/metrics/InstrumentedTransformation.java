@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.metrics;
+
+import io.cdap.delta.transformation.BatchTransformation;
+import io.cdap.delta.transformation.ColumnValueTransformation;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.Transformation;
+import io.cdap.transformation.api.TransformationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Wraps a {@link Transformation} to record {@link TransformationMetrics} for its directive: events processed,
+ * null values skipped, values rewritten, errors, and time spent transforming values and schemas.
+ * <p>
+ * Counters are updated for every event, but only one event out of {@link #SAMPLE_INTERVAL} is timed and the
+ * value time is extrapolated from those samples, which keeps the overhead low enough to leave on in production.
+ * Metrics are flushed to the sink every {@link #FLUSH_INTERVAL} events, on every schema change, and on
+ * {@link #flush()}.
+ * </p>
+ * <p>
+ * Null values skipped are the null reads of the columns a {@link ColumnValueTransformation} names as its own, so
+ * reads of e.g. the columns of a when clause are left out. Other transformations do not count them.
+ * </p>
+ * <p>
+ * The replicator instantiates plugins itself, so directives it runs directly are not instrumented. Only code that
+ * creates the plugins, such as tests and benchmarks, can wrap them. Batches are passed on as batches to a delegate
+ * that is a {@link BatchTransformation}, with every row wrapped in its own counting row.
+ * </p>
+ */
+public final class InstrumentedTransformation implements BatchTransformation {
+
+  public static final int SAMPLE_INTERVAL = 64;
+  public static final int FLUSH_INTERVAL = 16 * 1024;
+
+  private final Transformation delegate;
+  private final MetricsSink sink;
+  private final CountingRowValue countingRow = new CountingRowValue();
+  private final List<CountingRowValue> countingRows = new ArrayList<>();
+  private Set<String> columns = Collections.emptySet();
+  private TransformationMetrics metrics;
+  private long eventCount;
+
+  public InstrumentedTransformation(Transformation delegate, MetricsSink sink) {
+    this.delegate = delegate;
+    this.sink = sink;
+  }
+
+  public Transformation getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * Returns the metrics of the directive, or {@code null} before the transformation is initialized.
+   */
+  public TransformationMetrics getMetrics() {
+    return metrics;
+  }
+
+  @Override
+  public void initialize(TransformationContext context) throws Exception {
+    metrics = new TransformationMetrics(context.getDirective().getWholeCommandLine());
+    try {
+      delegate.initialize(context);
+      if (delegate instanceof ColumnValueTransformation) {
+        columns = new HashSet<>(((ColumnValueTransformation) delegate).getColumns());
+        countingRow.countNullsOf(columns);
+      }
+    } catch (Exception e) {
+      metrics.addError();
+      flush();
+      throw e;
+    }
+  }
+
+  @Override
+  public void transformValue(MutableRowValue rowValue) throws Exception {
+    boolean sampled = (++eventCount & (SAMPLE_INTERVAL - 1)) == 0;
+    long start = sampled ? System.nanoTime() : 0L;
+    try {
+      delegate.transformValue(countingRow.wrap(rowValue));
+    } catch (Exception e) {
+      metrics.addError();
+      throw e;
+    } finally {
+      record(1, countingRow.takeNullReads(), countingRow.takeWrites(),
+             sampled ? (System.nanoTime() - start) * SAMPLE_INTERVAL : 0L);
+    }
+  }
+
+  @Override
+  public void transformValues(List<? extends MutableRowValue> rowValues) throws Exception {
+    int size = rowValues.size();
+    while (countingRows.size() < size) {
+      countingRows.add(new CountingRowValue().countNullsOf(columns));
+    }
+    Iterator<? extends MutableRowValue> iterator = rowValues.iterator();
+    for (int i = 0; i < size; i++) {
+      countingRows.get(i).wrap(iterator.next());
+    }
+    // a batch is always timed, which amortizes over its rows
+    long start = System.nanoTime();
+    try {
+      BatchTransformation.transformValues(delegate, countingRows.subList(0, size));
+    } catch (Exception e) {
+      metrics.addError();
+      throw e;
+    } finally {
+      long nanos = System.nanoTime() - start;
+      long nullReads = 0L;
+      long writes = 0L;
+      for (int i = 0; i < size; i++) {
+        CountingRowValue row = countingRows.get(i);
+        nullReads += row.takeNullReads();
+        writes += row.takeWrites();
+        // do not hold on to the rows of the batch
+        row.wrap(null);
+      }
+      eventCount += size;
+      record(size, nullReads, writes, nanos);
+    }
+  }
+
+  private void record(int events, long nullReads, long writes, long nanos) {
+    metrics.addEvents(events);
+    if (nullReads > 0) {
+      metrics.addNullsSkipped(nullReads);
+    }
+    if (writes > 0) {
+      metrics.addValuesRewritten(writes);
+    }
+    if (nanos > 0) {
+      metrics.addValueTime(nanos);
+    }
+    if (eventCount % FLUSH_INTERVAL < events) {
+      flush();
+    }
+  }
+
+  @Override
+  public void transformSchema(MutableRowSchema rowSchema) throws Exception {
+    long start = System.nanoTime();
+    try {
+      delegate.transformSchema(rowSchema);
+    } catch (Exception e) {
+      metrics.addError();
+      throw e;
+    } finally {
+      metrics.addSchemaEvent(System.nanoTime() - start);
+      flush();
+    }
+  }
+
+  /**
+   * Reports the metrics recorded since the previous flush to the sink.
+   */
+  public void flush() {
+    metrics.flush(sink);
+  }
+}
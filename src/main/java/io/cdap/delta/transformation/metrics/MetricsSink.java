@@ -0,0 +1,33 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.metrics;
+
+/**
+ * Destination of the transformation metrics. Metrics are reported as increments of named counters per
+ * directive, so a sink can forward them directly to counter based metrics systems such as CDAP metrics.
+ */
+public interface MetricsSink {
+
+  /**
+   * Adds the given delta to a counter of a directive.
+   *
+   * @param directive the directive command line
+   * @param metric the metric name, one of the names defined in {@link TransformationMetrics}
+   * @param delta the increment, always positive
+   */
+  void count(String directive, String metric, long delta);
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.metrics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a single directive. Counters are striped, so they can be updated on the event thread and read
+ * from any other thread at a low cost.
+ */
+public final class TransformationMetrics {
+
+  public static final String EVENTS = "events";
+  public static final String NULLS_SKIPPED = "nulls.skipped";
+  public static final String VALUES_REWRITTEN = "values.rewritten";
+  public static final String ERRORS = "errors";
+  public static final String VALUE_TIME_NANOS = "transform.value.time.ns";
+  public static final String SCHEMA_EVENTS = "schema.events";
+  public static final String SCHEMA_TIME_NANOS = "transform.schema.time.ns";
+
+  private final String directive;
+  private final LongAdder events = new LongAdder();
+  private final LongAdder nullsSkipped = new LongAdder();
+  private final LongAdder valuesRewritten = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder valueTimeNanos = new LongAdder();
+  private final LongAdder schemaEvents = new LongAdder();
+  private final LongAdder schemaTimeNanos = new LongAdder();
+  private final Map<String, Long> flushed = new HashMap<>();
+
+  public TransformationMetrics(String directive) {
+    this.directive = directive;
+  }
+
+  public String getDirective() {
+    return directive;
+  }
+
+  void addEvents(long count) {
+    events.add(count);
+  }
+
+  void addNullsSkipped(long count) {
+    nullsSkipped.add(count);
+  }
+
+  void addValuesRewritten(long count) {
+    valuesRewritten.add(count);
+  }
+
+  void addError() {
+    errors.increment();
+  }
+
+  void addValueTime(long nanos) {
+    valueTimeNanos.add(nanos);
+  }
+
+  void addSchemaEvent(long nanos) {
+    schemaEvents.increment();
+    schemaTimeNanos.add(nanos);
+  }
+
+  public long getEvents() {
+    return events.sum();
+  }
+
+  public long getNullsSkipped() {
+    return nullsSkipped.sum();
+  }
+
+  public long getValuesRewritten() {
+    return valuesRewritten.sum();
+  }
+
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  /**
+   * Returns the time spent in transformValue, estimated from a sample of the events.
+   */
+  public long getValueTimeNanos() {
+    return valueTimeNanos.sum();
+  }
+
+  public long getSchemaEvents() {
+    return schemaEvents.sum();
+  }
+
+  public long getSchemaTimeNanos() {
+    return schemaTimeNanos.sum();
+  }
+
+  /**
+   * Returns the current value of every counter by metric name.
+   */
+  public Map<String, Long> snapshot() {
+    Map<String, Long> snapshot = new LinkedHashMap<>();
+    snapshot.put(EVENTS, getEvents());
+    snapshot.put(NULLS_SKIPPED, getNullsSkipped());
+    snapshot.put(VALUES_REWRITTEN, getValuesRewritten());
+    snapshot.put(ERRORS, getErrors());
+    snapshot.put(VALUE_TIME_NANOS, getValueTimeNanos());
+    snapshot.put(SCHEMA_EVENTS, getSchemaEvents());
+    snapshot.put(SCHEMA_TIME_NANOS, getSchemaTimeNanos());
+    return snapshot;
+  }
+
+  /**
+   * Reports the increments since the previous flush to the given sink.
+   */
+  public synchronized void flush(MetricsSink sink) {
+    for (Map.Entry<String, Long> metric : snapshot().entrySet()) {
+      long delta = metric.getValue() - flushed.getOrDefault(metric.getKey(), 0L);
+      if (delta > 0) {
+        sink.count(directive, metric.getKey(), delta);
+        flushed.put(metric.getKey(), metric.getValue());
+      }
+    }
+  }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.delta.transformation.BatchTransformation;
+import io.cdap.delta.transformation.ColumnRemap;
+import io.cdap.delta.transformation.ColumnValueTransformation;
+import io.cdap.delta.transformation.ConditionalTransformation;
+import io.cdap.delta.transformation.DirectiveContext;
+import io.cdap.delta.transformation.DirectiveParser;
+import io.cdap.delta.transformation.compiler.CompiledPipeline;
+import io.cdap.delta.transformation.compiler.PipelineCompiler;
+import io.cdap.delta.transformation.sample.plugins.ToStringTransformation;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.Transformation;
+import io.cdap.transformation.api.TransformationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Chain transformation
+ *
+ * Applies an ordered list of directives in a single pass over the row.
+ * <p>
+ *  “directive” : “chain directive ; directive ; ...”
+ *  e.g. chain to-string id ; mask id right * 4 ; rename id masked_id
+ *  The value changes of all directives on the same column are fused, so each column is read and written
+ *  once per row, and all renames are collapsed into a single remap applied after the value changes.
+ *  The schema is transformed by each directive in turn, as if they were configured separately.
+ *  Directives with a when clause cannot be chained.
+ * </p>
+ */
+@Plugin(type = Transformation.PLUGIN_TYPE)
+@Name(ChainTransformation.NAME)
+public class ChainTransformation implements BatchTransformation {
+
+  public static final String NAME = "chain";
+  public static final String SEPARATOR = ";";
+  private static final Map<String, Supplier<Transformation>> TRANSFORMATIONS = new HashMap<>();
+
+  static {
+    TRANSFORMATIONS.put(FpeTransformation.NAME, FpeTransformation::new);
+    TRANSFORMATIONS.put(GeneralizeTransformation.NAME, GeneralizeTransformation::new);
+    TRANSFORMATIONS.put(HashTransformation.NAME, HashTransformation::new);
+    TRANSFORMATIONS.put(MaskTransformation.NAME, MaskTransformation::new);
+    TRANSFORMATIONS.put(RegexMaskTransformation.NAME, RegexMaskTransformation::new);
+    TRANSFORMATIONS.put(RenameTransformation.NAME, RenameTransformation::new);
+    TRANSFORMATIONS.put(ToStringTransformation.NAME, ToStringTransformation::new);
+  }
+
+  private final String name;
+  private final boolean compiled;
+  private List<Transformation> transformations;
+  private CompiledPipeline pipeline;
+  private String[] columns;
+  private ColumnValueTransformation[][] steps;
+  private ColumnRemap remap;
+
+  public ChainTransformation() {
+    this(NAME, false);
+  }
+
+  /**
+   * @param name the name of the directive
+   * @param compiled {@code true} to apply the value changes through a {@link PipelineCompiler generated class}
+   */
+  protected ChainTransformation(String name, boolean compiled) {
+    this.name = name;
+    this.compiled = compiled;
+  }
+
+  @Override
+  public void initialize(TransformationContext context) throws Exception {
+    String commandLine = context.getDirective().getWholeCommandLine();
+    if (commandLine == null) {
+      throw new IllegalArgumentException("Directive command line is null.");
+    }
+    List<String> tokens = DirectiveParser.tokenize(commandLine);
+    if (tokens.isEmpty() || !name.equals(tokens.get(0))) {
+      throw new IllegalArgumentException(String.format("Directive is not a %s transformation. Usage: %s directive " +
+                                                         "; directive ; ...", name, name));
+    }
+
+    transformations = new ArrayList<>();
+    // each directive is cut out of the command line rather than rejoined from its tokens, so it keeps its text
+    int position = commandLine.indexOf(name) + name.length();
+    int start = position;
+    for (String token : tokens.subList(1, tokens.size())) {
+      // tokens contain no whitespace, so the next occurrence is the token itself
+      position = commandLine.indexOf(token, position);
+      if (SEPARATOR.equals(token)) {
+        transformations.add(createTransformation(commandLine.substring(start, position).trim()));
+        start = position + SEPARATOR.length();
+      }
+      position += token.length();
+    }
+    transformations.add(createTransformation(commandLine.substring(start).trim()));
+    // the columns of every directive are named in it, so the chain is compiled once, whatever the schema
+    compile();
+  }
+
+  private static Transformation createTransformation(String commandLine) throws Exception {
+    if (commandLine.isEmpty()) {
+      throw new IllegalArgumentException("Chain contains an empty directive.");
+    }
+    String directiveName = DirectiveParser.tokenize(commandLine).get(0);
+    Supplier<Transformation> supplier = TRANSFORMATIONS.get(directiveName);
+    if (supplier == null) {
+      throw new IllegalArgumentException(String.format("Directive %s is not supported in a chain, supported " +
+                                                         "directives are %s.", directiveName,
+                                                       TRANSFORMATIONS.keySet()));
+    }
+    Transformation transformation = supplier.get();
+    transformation.initialize(new DirectiveContext(commandLine));
+    if (transformation instanceof ConditionalTransformation &&
+      ((ConditionalTransformation) transformation).getCondition() != null) {
+      // fused value changes are applied column by column, without the row a condition is evaluated on
+      throw new IllegalArgumentException(String.format("Directive %s has a when clause, which is not supported in " +
+                                                         "a chain.", directiveName));
+    }
+    if (transformation instanceof MaskTransformation && ((MaskTransformation) transformation).hasFieldPaths() ||
+      transformation instanceof RenameTransformation && ((RenameTransformation) transformation).isFieldPath()) {
+      // fused steps change whole column values and fused renames whole columns
+      throw new IllegalArgumentException(String.format("Directive %s names a nested field, which is not supported " +
+                                                         "in a chain.", directiveName));
+    }
+    return transformation;
+  }
+
+  /**
+   * Groups the value changes by the column they apply to, named as in the input row, and collects the renames.
+   */
+  private void compile() {
+    // current column name -> input column name, for renamed columns
+    Map<String, String> inputNames = new LinkedHashMap<>();
+    Set<String> renamedAway = new HashSet<>();
+    Map<String, List<ColumnValueTransformation>> pipelines = new LinkedHashMap<>();
+    for (Transformation transformation : transformations) {
+      if (transformation instanceof RenameTransformation) {
+        RenameTransformation rename = (RenameTransformation) transformation;
+        String inputName = inputNames.containsKey(rename.getFromColumn()) ?
+          inputNames.remove(rename.getFromColumn()) : rename.getFromColumn();
+        renamedAway.add(rename.getFromColumn());
+        renamedAway.remove(rename.getToColumn());
+        inputNames.put(rename.getToColumn(), inputName);
+      } else {
+        ColumnValueTransformation valueTransformation = (ColumnValueTransformation) transformation;
+        for (String column : valueTransformation.getColumns()) {
+          if (renamedAway.contains(column)) {
+            // the column no longer exists at this point of the chain
+            continue;
+          }
+          pipelines.computeIfAbsent(inputNames.getOrDefault(column, column), name -> new ArrayList<>())
+            .add(valueTransformation);
+        }
+      }
+    }
+
+    columns = new String[pipelines.size()];
+    steps = new ColumnValueTransformation[pipelines.size()][];
+    int i = 0;
+    for (Map.Entry<String, List<ColumnValueTransformation>> pipeline : pipelines.entrySet()) {
+      columns[i] = pipeline.getKey();
+      steps[i] = pipeline.getValue().toArray(new ColumnValueTransformation[0]);
+      i++;
+    }
+
+    Map<String, String> renames = new LinkedHashMap<>();
+    for (Map.Entry<String, String> inputName : inputNames.entrySet()) {
+      renames.put(inputName.getValue(), inputName.getKey());
+    }
+    remap = new ColumnRemap(renames);
+    // null if there are too many steps for a generated method, they are interpreted instead
+    pipeline = compiled ? PipelineCompiler.compile(columns, steps, remap) : null;
+  }
+
+  /**
+   * Returns whether the value changes are applied by a generated class.
+   */
+  boolean isCompiled() {
+    return pipeline != null;
+  }
+
+  @Override
+  public void transformValue(MutableRowValue rowValue) throws Exception {
+    transformRow(rowValue);
+  }
+
+  @Override
+  public void transformValues(List<? extends MutableRowValue> rowValues) throws Exception {
+    for (MutableRowValue rowValue : rowValues) {
+      transformRow(rowValue);
+    }
+  }
+
+  private void transformRow(MutableRowValue rowValue) {
+    if (pipeline != null) {
+      pipeline.transformValue(rowValue);
+      return;
+    }
+    for (int i = 0; i < columns.length; i++) {
+      Object value = rowValue.getColumnValue(columns[i]);
+      if (value == null) {
+        continue;
+      }
+      Object newValue = value;
+      for (ColumnValueTransformation step : steps[i]) {
+        newValue = step.transformColumnValue(newValue);
+      }
+      if (newValue != value) {
+        rowValue.setColumnValue(columns[i], newValue);
+      }
+    }
+    remap.apply(rowValue);
+  }
+
+  @Override
+  public void transformSchema(MutableRowSchema rowSchema) throws Exception {
+    for (Transformation transformation : transformations) {
+      transformation.transformSchema(rowSchema);
+    }
+  }
+}
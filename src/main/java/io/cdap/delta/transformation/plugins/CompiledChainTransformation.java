@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.delta.transformation.compiler.PipelineCompiler;
+import io.cdap.transformation.api.Transformation;
+
+/**
+ * Compiled chain transformation
+ *
+ * Applies an ordered list of directives like {@link ChainTransformation}, through a class generated for the list.
+ * <p>
+ *  “directive” : “compiled-chain directive ; directive ; ...”
+ *  The fused value changes of each column are compiled by {@link PipelineCompiler} into straight line code, with
+ *  the arguments of mask directives inlined. The results are the same as with chain. The class is generated once,
+ *  when the directive is initialized, since the columns of every directive are named in it and schema changes
+ *  do not change the steps. Lists too long for a generated method are interpreted as by chain.
+ * </p>
+ */
+@Plugin(type = Transformation.PLUGIN_TYPE)
+@Name(CompiledChainTransformation.NAME)
+public class CompiledChainTransformation extends ChainTransformation {
+
+  public static final String NAME = "compiled-chain";
+
+  public CompiledChainTransformation() {
+    super(NAME, true);
+  }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import com.google.common.io.BaseEncoding;
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.BatchTransformation;
+import io.cdap.delta.transformation.ColumnValueTransformation;
+import io.cdap.delta.transformation.ConditionalTransformation;
+import io.cdap.delta.transformation.DirectiveGrammar;
+import io.cdap.delta.transformation.DirectiveParser;
+import io.cdap.delta.transformation.FF1Cipher;
+import io.cdap.delta.transformation.ParsedDirective;
+import io.cdap.delta.transformation.ReplayableSchemaTransformation;
+import io.cdap.delta.transformation.SecretReference;
+import io.cdap.delta.transformation.condition.RowCondition;
+import io.cdap.delta.transformation.schema.SchemaTransformationCache;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.Transformation;
+import io.cdap.transformation.api.TransformationContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Format-preserving encryption Transformation
+ *
+ * Reversible masking with FF1
+ * <p>
+ *  Encrypts the characters of a string column that belong to an alphabet with FF1 (NIST SP 800-38G),
+ *  so the result has the same length and format, e.g. an encrypted SSN is still 9 digits, and consumers
+ *  holding the key can decrypt it with the same directive in decrypt mode.
+ *  “directive” : “fpe col_name mode alphabet key_reference [tweak]”
+ *  Mode can be encrypt or decrypt. Alphabet can be digits, hex, lower-alphanumeric or alphanumeric.
+ *  The key is a hex encoded AES key of 16, 24 or 32 bytes, given by {@link SecretReference} so it is never
+ *  part of the directive, and tweak is optional hex encoded public data.
+ *  Characters outside of the alphabet are kept in place, such as the dashes of 123-45-6789. The hex alphabet
+ *  is case insensitive: it also takes uppercase letters, and always outputs lowercase ones, so decrypting an
+ *  encrypted uppercase value gives back its lowercase form.
+ *  Values with too few characters of the alphabet to be encrypted securely, such as empty values, N/A or
+ *  numbers of less than 6 digits, are left as they are, so such values are not protected and should be
+ *  handled by another directive if they are sensitive.
+ *  A when clause limits encryption to the rows matching a condition, e.g.
+ *  fpe ssn encrypt digits env:SSN_FPE_KEY when ssn is not null and country = 'US'.
+ * </p>
+ */
+@Plugin(type = Transformation.PLUGIN_TYPE)
+@Name(FpeTransformation.NAME)
+public class FpeTransformation implements BatchTransformation, ColumnValueTransformation,
+  ConditionalTransformation, ReplayableSchemaTransformation {
+
+  public static final String NAME = "fpe";
+  public static final String ENCRYPT = "encrypt";
+  public static final String DECRYPT = "decrypt";
+  public static final String DIGITS = "digits";
+  public static final String HEX = "hex";
+  public static final String LOWER_ALPHANUMERIC = "lower-alphanumeric";
+  public static final String ALPHANUMERIC = "alphanumeric";
+  private static final DirectiveParser PARSER = new DirectiveParser(
+    DirectiveGrammar.builder(NAME)
+      .string("column_name")
+      .choice("mode", ENCRYPT, DECRYPT)
+      .choice("alphabet", DIGITS, HEX, LOWER_ALPHANUMERIC, ALPHANUMERIC)
+      .string("key_reference")
+      .string("tweak").optional("")
+      .conditional()
+      .build());
+  private static final BaseEncoding HEX_ENCODING = BaseEncoding.base16().lowerCase();
+
+  private String srcColumn;
+  private RowCondition condition;
+  private boolean encrypt;
+  private char[] alphabet;
+  private int[] numeralOf;
+  private FF1Cipher cipher;
+  private char[] chars = new char[0];
+  private int[] positions = new int[0];
+  private int[] numerals = new int[0];
+  private String commandLine;
+
+  @Override
+  public void initialize(TransformationContext context) throws Exception {
+    parseDirective(context);
+  }
+
+  private void parseDirective(TransformationContext context) {
+    ParsedDirective directive = PARSER.parse(context);
+    commandLine = directive.getCommandLine();
+    condition = directive.compileCondition();
+    srcColumn = directive.getString("column_name");
+    encrypt = directive.getString("mode").equals(ENCRYPT);
+    alphabet = alphabet(directive.getString("alphabet")).toCharArray();
+    numeralOf = new int[alphabet[alphabet.length - 1] + 1];
+    Arrays.fill(numeralOf, -1);
+    for (int i = 0; i < alphabet.length; i++) {
+      numeralOf[alphabet[i]] = i;
+    }
+    // only hex is case insensitive, the other alphabets either have a single case or both
+    if (directive.getString("alphabet").equals(HEX)) {
+      char[] upperAlphabet = new String(alphabet).toUpperCase(Locale.ROOT).toCharArray();
+      for (int i = 0; i < upperAlphabet.length; i++) {
+        numeralOf[upperAlphabet[i]] = i;
+      }
+    }
+    String key = SecretReference.resolve("key_reference", directive.getString("key_reference"));
+    cipher = new FF1Cipher(decodeHex("key", key), alphabet.length,
+                           decodeHex("tweak", directive.getString("tweak")));
+  }
+
+  private static String alphabet(String name) {
+    switch (name) {
+      case HEX:
+        return "0123456789abcdef";
+      case LOWER_ALPHANUMERIC:
+        return "0123456789abcdefghijklmnopqrstuvwxyz";
+      case ALPHANUMERIC:
+        return "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+      default:
+        return "0123456789";
+    }
+  }
+
+  private static byte[] decodeHex(String argumentName, String hex) {
+    try {
+      return HEX_ENCODING.decode(hex.toLowerCase());
+    } catch (IllegalArgumentException e) {
+      // the cause quotes the offending character, which would leak part of the key
+      throw new IllegalArgumentException(String.format("%s is not hex encoded.", argumentName));
+    }
+  }
+
+  @Override
+  public void transformValue(MutableRowValue rowValue) throws Exception {
+    cipherValue(rowValue);
+  }
+
+  @Override
+  public void transformValues(List<? extends MutableRowValue> rowValues) throws Exception {
+    for (MutableRowValue rowValue : rowValues) {
+      cipherValue(rowValue);
+    }
+  }
+
+  private void cipherValue(MutableRowValue rowValue) {
+    Object value = rowValue.getColumnValue(srcColumn);
+    if (skipsValue(value) || condition != null && !condition.test(rowValue)) {
+      return;
+    }
+    Object transformed = transformColumnValue(value);
+    if (transformed != value) {
+      rowValue.setColumnValue(srcColumn, transformed);
+    }
+  }
+
+  @Override
+  public List<String> getColumns() {
+    return Collections.singletonList(srcColumn);
+  }
+
+  /**
+   * Returns the value itself if it has too few characters of the alphabet to be encrypted securely.
+   */
+  @Override
+  public Object transformColumnValue(Object value) {
+    if (!(value instanceof String)) {
+      throw new IllegalArgumentException(String.format("Column %s is supposed to have string value.", srcColumn));
+    }
+    String string = (String) value;
+    int length = string.length();
+    if (chars.length < length) {
+      chars = new char[length];
+      positions = new int[length];
+      numerals = new int[length];
+    }
+    string.getChars(0, length, chars, 0);
+    int count = 0;
+    for (int i = 0; i < length; i++) {
+      char c = chars[i];
+      int numeral = c < numeralOf.length ? numeralOf[c] : -1;
+      if (numeral >= 0) {
+        positions[count] = i;
+        numerals[count++] = numeral;
+      }
+    }
+    if (count < cipher.getMinLength()) {
+      return value;
+    }
+    if (encrypt) {
+      cipher.encrypt(numerals, count);
+    } else {
+      cipher.decrypt(numerals, count);
+    }
+    for (int i = 0; i < count; i++) {
+      chars[positions[i]] = alphabet[numerals[i]];
+    }
+    return new String(chars, 0, length);
+  }
+
+  /**
+   * Empty values have no characters of the alphabet.
+   */
+  @Override
+  public boolean skipsEmptyValues() {
+    return true;
+  }
+
+  @Override
+  public void transformSchema(MutableRowSchema rowSchema) throws Exception {
+    SchemaTransformationCache.shared().transformSchema(this, commandLine, rowSchema);
+  }
+
+  @Override
+  public void applySchema(MutableRowSchema rowSchema) throws Exception {
+    resolveCondition(rowSchema);
+    //verify whether the field is string
+    Schema.Field field = rowSchema.getField(srcColumn);
+    Schema requiredSchema = Schema.of(Schema.Type.STRING);
+    if (field != null && !(requiredSchema.equals(field.getSchema()) ||
+      (field.getSchema().isNullable() && (requiredSchema.equals(field.getSchema().getNonNullable()))))) {
+      throw new IllegalArgumentException(String.format("Field %s is supposed to be string.", srcColumn));
+    }
+    //no schema changes
+  }
+
+  private void resolveCondition(MutableRowSchema rowSchema) {
+    if (condition != null) {
+      condition.resolve(rowSchema);
+    }
+  }
+
+  @Override
+  public RowCondition getCondition() {
+    return condition;
+  }
+
+  @Override
+  public Object getSchemaState() {
+    return null;
+  }
+
+  @Override
+  public void restoreSchemaState(Object state, MutableRowSchema rowSchema) {
+    resolveCondition(rowSchema);
+  }
+}
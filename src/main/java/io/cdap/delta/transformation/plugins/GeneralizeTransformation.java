@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.BatchTransformation;
+import io.cdap.delta.transformation.ColumnValueTransformation;
+import io.cdap.delta.transformation.ConditionalTransformation;
+import io.cdap.delta.transformation.DirectiveGrammar;
+import io.cdap.delta.transformation.DirectiveParser;
+import io.cdap.delta.transformation.Generalizer;
+import io.cdap.delta.transformation.ParsedDirective;
+import io.cdap.delta.transformation.ReplayableSchemaTransformation;
+import io.cdap.delta.transformation.condition.RowCondition;
+import io.cdap.delta.transformation.schema.SchemaTransformationCache;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.Transformation;
+import io.cdap.transformation.api.TransformationContext;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Generalize Transformation
+ *
+ * Generalizes values to a coarser granularity, keeping the column type.
+ * <p>
+ *  “directive” : “generalize col_name mode granularity”
+ *  floor or round numbers to a multiple of the granularity, e.g. generalize salary round 10000,
+ *  floor or round timestamps, dates and times to a unit of time, e.g. generalize created_at floor day,
+ *  or keep a prefix of strings or of the digits of numbers, e.g. generalize zip prefix 3.
+ *  See {@link Generalizer} for the supported types and units.
+ *  A when clause limits the generalization to the rows matching a condition.
+ * </p>
+ */
+@Plugin(type = Transformation.PLUGIN_TYPE)
+@Name(GeneralizeTransformation.NAME)
+public class GeneralizeTransformation implements BatchTransformation, ColumnValueTransformation,
+  ConditionalTransformation, ReplayableSchemaTransformation {
+
+  public static final String NAME = "generalize";
+  private static final DirectiveParser PARSER = new DirectiveParser(
+    DirectiveGrammar.builder(NAME)
+      .string("column_name")
+      .choice("mode", "floor", "round", "prefix")
+      .string("granularity")
+      .conditional()
+      .build());
+
+  private String srcColumn;
+  private RowCondition condition;
+  private Generalizer.Spec spec;
+  private Schema srcSchema;
+  private Generalizer generalizer;
+  private String commandLine;
+
+  @Override
+  public void initialize(TransformationContext context) throws Exception {
+    parseDirective(context);
+  }
+
+  private void parseDirective(TransformationContext context) {
+    ParsedDirective directive = PARSER.parse(context);
+    commandLine = directive.getCommandLine();
+    condition = directive.compileCondition();
+    srcColumn = directive.getString("column_name");
+    spec = Generalizer.Spec.parse(directive.getString("mode"), directive.getString("granularity"));
+    srcSchema = null;
+    generalizer = null;
+  }
+
+  @Override
+  public void transformValue(MutableRowValue rowValue) throws Exception {
+    generalizeValue(rowValue);
+  }
+
+  @Override
+  public void transformValues(List<? extends MutableRowValue> rowValues) throws Exception {
+    for (MutableRowValue rowValue : rowValues) {
+      generalizeValue(rowValue);
+    }
+  }
+
+  private void generalizeValue(MutableRowValue rowValue) {
+    Object value = rowValue.getColumnValue(srcColumn);
+    if (skipsValue(value) || condition != null && !condition.test(rowValue)) {
+      return;
+    }
+    Object newValue = transformColumnValue(value);
+    if (newValue != value) {
+      rowValue.setColumnValue(srcColumn, newValue);
+    }
+  }
+
+  @Override
+  public List<String> getColumns() {
+    return Collections.singletonList(srcColumn);
+  }
+
+  @Override
+  public Object transformColumnValue(Object value) {
+    if (generalizer == null) {
+      throw new IllegalStateException(String.format("Column %s has not been resolved against a schema.", srcColumn));
+    }
+    return generalizer.generalize(value);
+  }
+
+  /**
+   * Empty strings have no prefix to cut, and no other generalized type has empty values.
+   */
+  @Override
+  public boolean skipsEmptyValues() {
+    return true;
+  }
+
+  @Override
+  public void transformSchema(MutableRowSchema rowSchema) throws Exception {
+    SchemaTransformationCache.shared().transformSchema(this, commandLine, rowSchema);
+  }
+
+  @Override
+  public void applySchema(MutableRowSchema rowSchema) throws Exception {
+    resolveCondition(rowSchema);
+    Schema.Field field = rowSchema.getField(srcColumn);
+    if (field == null) {
+      throw new IllegalArgumentException(String.format("Field %s does not exist.", srcColumn));
+    }
+    //no schema changes, the type of the column is kept
+    setSourceSchema(field.getSchema());
+  }
+
+  private void setSourceSchema(Schema schema) {
+    try {
+      generalizer = Generalizer.forSchema(schema, spec);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(String.format("Field %s cannot be generalized: %s", srcColumn,
+                                                       e.getMessage()), e);
+    }
+    srcSchema = schema;
+  }
+
+  private void resolveCondition(MutableRowSchema rowSchema) {
+    if (condition != null) {
+      condition.resolve(rowSchema);
+    }
+  }
+
+  @Override
+  public RowCondition getCondition() {
+    return condition;
+  }
+
+  @Override
+  public Object getSchemaState() {
+    return srcSchema;
+  }
+
+  @Override
+  public void restoreSchemaState(Object state, MutableRowSchema rowSchema) {
+    resolveCondition(rowSchema);
+    setSourceSchema((Schema) state);
+  }
+}
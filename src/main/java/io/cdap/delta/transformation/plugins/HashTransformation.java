@@ -0,0 +1,209 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.BatchTransformation;
+import io.cdap.delta.transformation.ColumnValueTransformation;
+import io.cdap.delta.transformation.DirectiveGrammar;
+import io.cdap.delta.transformation.DirectiveParser;
+import io.cdap.delta.transformation.ParsedDirective;
+import io.cdap.delta.transformation.ReplayableSchemaTransformation;
+import io.cdap.delta.transformation.SecretReference;
+import io.cdap.delta.transformation.StringConverter;
+import io.cdap.delta.transformation.schema.SchemaTransformationCache;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.Transformation;
+import io.cdap.transformation.api.TransformationContext;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Hash Transformation
+ *
+ * Replaces a column with a keyed, deterministic token
+ * <p>
+ *  Unlike masking, the same value always gets the same token, so hashed columns can still be joined on.
+ *  “directive” : “hash col_name algorithm key_reference [cache_size]”
+ *  Replaces the value of the given column with the lower case hex digest of its string form, keyed with
+ *  the key the {@link SecretReference} points to, e.g. hash ssn hmac-sha256 env:SSN_HASH_KEY, so the key
+ *  itself is never part of the directive. The algorithm can be hmac-sha256, or siphash for a faster,
+ *  64 bit keyed hash whose key is derived from the given key. The string form of non-string columns is the
+ *  one of the to-string transformation, and the column becomes a string column.
+ *  Change streams repeat the same keys, so the last cache_size tokens are memoized, 10000 by default.
+ *  A cache size of 0 disables the memo.
+ * </p>
+ */
+@Plugin(type = Transformation.PLUGIN_TYPE)
+@Name(HashTransformation.NAME)
+public class HashTransformation implements BatchTransformation, ColumnValueTransformation,
+  ReplayableSchemaTransformation {
+
+  public static final String NAME = "hash";
+  public static final String HMAC_SHA256 = "hmac-sha256";
+  public static final String SIPHASH = "siphash";
+  private static final String HMAC_SHA256_ALGORITHM = "HmacSHA256";
+  private static final BaseEncoding HEX = BaseEncoding.base16().lowerCase();
+  private static final DirectiveParser PARSER = new DirectiveParser(
+    DirectiveGrammar.builder(NAME)
+      .string("column_name")
+      .choice("algorithm", HMAC_SHA256, SIPHASH)
+      .string("key_reference")
+      .nonNegativeInt("cache_size").optional("10000")
+      .build());
+
+  private String srcColumn;
+  private Mac mac;
+  private HashFunction sipHash;
+  private Cache<String, String> cache;
+  private Schema srcSchema;
+  private StringConverter converter = StringConverter.forSchema(null);
+  private String commandLine;
+
+  @Override
+  public void initialize(TransformationContext context) throws Exception {
+    parseDirective(context);
+  }
+
+  private void parseDirective(TransformationContext context) throws GeneralSecurityException {
+    ParsedDirective directive = PARSER.parse(context);
+    commandLine = directive.getCommandLine();
+    srcColumn = directive.getString("column_name");
+    byte[] key = SecretReference.resolve("key_reference", directive.getString("key_reference"))
+      .getBytes(StandardCharsets.UTF_8);
+    if (directive.getString("algorithm").equals(HMAC_SHA256)) {
+      mac = Mac.getInstance(HMAC_SHA256_ALGORITHM);
+      mac.init(new SecretKeySpec(key, HMAC_SHA256_ALGORITHM));
+      sipHash = null;
+    } else {
+      ByteBuffer derived = ByteBuffer.wrap(Hashing.sha256().hashBytes(key).asBytes()).order(ByteOrder.LITTLE_ENDIAN);
+      sipHash = Hashing.sipHash24(derived.getLong(), derived.getLong());
+      mac = null;
+    }
+    int cacheSize = directive.getInt("cache_size");
+    cache = cacheSize == 0 ? null :
+      CacheBuilder.newBuilder().maximumSize(cacheSize).concurrencyLevel(1).recordStats().build();
+  }
+
+  @Override
+  public void transformValue(MutableRowValue rowValue) throws Exception {
+    hashValue(rowValue);
+  }
+
+  @Override
+  public void transformValues(List<? extends MutableRowValue> rowValues) throws Exception {
+    for (MutableRowValue rowValue : rowValues) {
+      hashValue(rowValue);
+    }
+  }
+
+  private void hashValue(MutableRowValue rowValue) {
+    Object value = rowValue.getColumnValue(srcColumn);
+    if (value == null) {
+      return;
+    }
+    rowValue.setColumnValue(srcColumn, transformColumnValue(value));
+  }
+
+  @Override
+  public List<String> getColumns() {
+    return Collections.singletonList(srcColumn);
+  }
+
+  @Override
+  public Object transformColumnValue(Object value) {
+    String input = converter.convert(value);
+    if (cache == null) {
+      return hash(input);
+    }
+    String token = cache.getIfPresent(input);
+    if (token == null) {
+      token = hash(input);
+      cache.put(input, token);
+    }
+    return token;
+  }
+
+  private String hash(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    if (mac != null) {
+      return HEX.encode(mac.doFinal(bytes));
+    }
+    return sipHash.hashBytes(bytes).toString();
+  }
+
+  /**
+   * Returns the statistics of the token memo, which are all zero if the memo is disabled.
+   */
+  public CacheStats getCacheStats() {
+    return cache == null ? new CacheStats(0, 0, 0, 0, 0, 0) : cache.stats();
+  }
+
+  /**
+   * Returns the share of values whose token was found in the memo.
+   */
+  public double getCacheHitRate() {
+    return getCacheStats().hitRate();
+  }
+
+  @Override
+  public void transformSchema(MutableRowSchema rowSchema) throws Exception {
+    SchemaTransformationCache.shared().transformSchema(this, commandLine, rowSchema);
+  }
+
+  @Override
+  public void applySchema(MutableRowSchema rowSchema) throws Exception {
+    Schema.Field field = rowSchema.getField(srcColumn);
+    setSourceSchema(field == null ? null : field.getSchema());
+    Schema tokenSchema = Schema.of(Schema.Type.STRING);
+    if (srcSchema != null && srcSchema.isNullable()) {
+      tokenSchema = Schema.nullableOf(tokenSchema);
+    }
+    rowSchema.setField(Schema.Field.of(srcColumn, tokenSchema));
+  }
+
+  private void setSourceSchema(Schema schema) {
+    srcSchema = schema;
+    converter = StringConverter.forSchema(schema);
+  }
+
+  @Override
+  public Object getSchemaState() {
+    return srcSchema;
+  }
+
+  @Override
+  public void restoreSchemaState(Object state, MutableRowSchema rowSchema) {
+    setSourceSchema((Schema) state);
+  }
+}
@@ -16,15 +16,33 @@
 
 package io.cdap.delta.transformation.plugins;
 
-import com.google.common.base.Strings;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.BatchTransformation;
+import io.cdap.delta.transformation.ColumnSelector;
+import io.cdap.delta.transformation.ColumnValueTransformation;
+import io.cdap.delta.transformation.ConditionalTransformation;
+import io.cdap.delta.transformation.DirectiveGrammar;
+import io.cdap.delta.transformation.DirectiveParser;
+import io.cdap.delta.transformation.FieldPath;
+import io.cdap.delta.transformation.Masker;
+import io.cdap.delta.transformation.ParsedDirective;
+import io.cdap.delta.transformation.ReplayableSchemaTransformation;
+import io.cdap.delta.transformation.condition.RowCondition;
+import io.cdap.delta.transformation.schema.SchemaTransformationCache;
 import io.cdap.transformation.api.MutableRowSchema;
 import io.cdap.transformation.api.MutableRowValue;
 import io.cdap.transformation.api.Transformation;
 import io.cdap.transformation.api.TransformationContext;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
 /**
  * Mask Transformation
  *
@@ -37,19 +55,54 @@ import io.cdap.transformation.api.TransformationContext;
  *  Masks everything by substituting masking character except
  *  first n characters in the given direction of the given column.
  *  Masking directions can be right or left.
+ *  An optional last argument sets what n counts in string values: char (the
+ *  default) for UTF-16 chars, code-point for Unicode code points, or grapheme
+ *  for user-perceived characters, e.g. mask name right * 2 grapheme.
+ *  Bytes columns are masked byte by byte with the ASCII code of the masking character.
+ *  Several columns can be masked at once by giving a comma separated list of
+ *  names instead of col_name, e.g. mask ssn,card_number right * 4.
+ *  A when clause limits masking to the rows matching a condition, e.g.
+ *  mask ssn right * 4 when country = 'DE'.
+ *  A dotted name masks a nested field of a record column, or a member of the JSON documents held by a string
+ *  column, e.g. mask customer.card.number right * 4. JSON documents are not parsed: only the masked member is
+ *  rewritten, see {@link FieldPath}, and masked numbers become JSON strings.
  * </p>
  */
 @Plugin(type = Transformation.PLUGIN_TYPE)
 @Name(MaskTransformation.NAME)
-public class MaskTransformation implements Transformation {
+public class MaskTransformation implements BatchTransformation, ColumnValueTransformation,
+  ConditionalTransformation, ReplayableSchemaTransformation {
 
   public static final String NAME = "mask";
   public static final String RIGHT_DIRECTION = "right";
   public static final String LEFT_DIRECTION = "left";
+  public static final String CHAR_UNIT = "char";
+  public static final String CODE_POINT_UNIT = "code-point";
+  public static final String GRAPHEME_UNIT = "grapheme";
+  private static final DirectiveParser PARSER = new DirectiveParser(
+    DirectiveGrammar.builder(NAME)
+      .string("column_name")
+      .choice("direction", RIGHT_DIRECTION, LEFT_DIRECTION)
+      .character("mask_char")
+      .nonNegativeInt("n")
+      .choice("unit", CHAR_UNIT, CODE_POINT_UNIT, GRAPHEME_UNIT).optional(CHAR_UNIT)
+      .conditional()
+      .build());
+
   private String srcColumn;
-  private String maskCharacter;
+  private RowCondition condition;
+  private char maskCharacter;
   private int countN;
   private String direction;
+  private Masker masker;
+  private List<String> selected;
+  private List<String> columns;
+  private String[] selectedColumns;
+  private FieldPath[] paths;
+  private UnaryOperator<Object>[] fieldMasks;
+  // the column named in the errors of whole column values, which may be any of the columns
+  private String valueColumn;
+  private String commandLine;
 
   @Override
   public void initialize(TransformationContext context) throws Exception {
@@ -57,78 +110,223 @@ public class MaskTransformation implements Transformation {
   }
 
   private void parseDirective(TransformationContext context) {
-    String commandLine = context.getDirective().getWholeCommandLine();
-    if (commandLine == null) {
-      throw new IllegalArgumentException("Directive command line is null.");
-    }
-    String[] splits = commandLine.split("\\s+");
-    if (splits.length != 5) {
-      throw new IllegalArgumentException("Directive is missing some parts or containing more parts," +
-                                           "Expected: mask column_name direction mask_char n, " +
-                                           "given directive: " + commandLine);
-    }
-    if (!NAME.equals(splits[0])) {
-      throw new IllegalArgumentException("Directive is not a mask transformation. Usage: mask column_name " +
-                                           "direction mask_char n.");
-    }
+    ParsedDirective directive = PARSER.parse(context);
+    commandLine = directive.getCommandLine();
+    condition = directive.compileCondition();
+    srcColumn = directive.getString("column_name");
+    direction = directive.getString("direction");
+    maskCharacter = directive.getChar("mask_char");
+    countN = directive.getInt("n");
+    masker = new Masker(maskCharacter, countN, direction.equals(RIGHT_DIRECTION),
+                        toUnit(directive.getString("unit")));
+    setColumns(ColumnSelector.parse(srcColumn).getNames());
+  }
 
-    srcColumn = splits[1];
-    direction = splits[2];
-    if (!(direction.equals(RIGHT_DIRECTION) || direction.equals(LEFT_DIRECTION))) {
-      throw new IllegalArgumentException(String.format("masking direction should be %s or %s",
-                                                       RIGHT_DIRECTION, LEFT_DIRECTION));
-    }
-    
-    maskCharacter = splits[3];
-    if (maskCharacter.length() != 1) {
-      throw new IllegalArgumentException(String.format("masking_character: %s is not a character", maskCharacter));
+  private static Masker.Unit toUnit(String unit) {
+    switch (unit) {
+      case CODE_POINT_UNIT:
+        return Masker.Unit.CODE_POINT;
+      case GRAPHEME_UNIT:
+        return Masker.Unit.GRAPHEME;
+      default:
+        return Masker.Unit.CHAR;
     }
+  }
 
-    try {
-      countN = Integer.parseInt(splits[4]);
-      if (countN < 0) {
-        throw new IllegalArgumentException(String.format("n is not a whole number, given: %s", countN));
+  @SuppressWarnings("unchecked")
+  private void setColumns(List<String> names) {
+    selected = Collections.unmodifiableList(names);
+    selectedColumns = new String[names.size()];
+    paths = null;
+    fieldMasks = null;
+    LinkedHashSet<String> columnNames = new LinkedHashSet<>();
+    for (int i = 0; i < selectedColumns.length; i++) {
+      String name = names.get(i);
+      if (FieldPath.isPath(name)) {
+        if (paths == null) {
+          paths = new FieldPath[selectedColumns.length];
+          fieldMasks = new UnaryOperator[selectedColumns.length];
+        }
+        paths[i] = FieldPath.parse(name);
+        String column = paths[i].getColumn();
+        fieldMasks[i] = value -> mask(column, value);
+        name = column;
       }
-    } catch (NumberFormatException e) {
-      throw new IllegalArgumentException("n is not an integer.", e);
+      selectedColumns[i] = name;
+      columnNames.add(name);
     }
+    columns = Collections.unmodifiableList(new ArrayList<>(columnNames));
+    valueColumn = String.join(" or ", columns);
   }
 
   @Override
   public void transformValue(MutableRowValue rowValue) throws Exception {
-    String value;
-    try {
-      value = (String) rowValue.getColumnValue(srcColumn);
-    } catch (ClassCastException e) {
-      throw new IllegalArgumentException(String.format("Column %s is supposed to have string value.", srcColumn), e);
+    maskValue(rowValue);
+  }
+
+  @Override
+  public void transformValues(List<? extends MutableRowValue> rowValues) throws Exception {
+    for (MutableRowValue rowValue : rowValues) {
+      maskValue(rowValue);
     }
-    if (value == null) {
-      return;
+  }
+
+  private void maskValue(MutableRowValue rowValue) {
+    // the condition is only evaluated once a column has a value to mask
+    boolean matched = condition == null;
+    for (int i = 0; i < selectedColumns.length; i++) {
+      String name = selectedColumns[i];
+      Object value = rowValue.getColumnValue(name);
+      if (skipsValue(value)) {
+        continue;
+      }
+      if (!matched) {
+        if (!condition.test(rowValue)) {
+          return;
+        }
+        matched = true;
+      }
+      if (paths != null && paths[i] != null) {
+        Object updated = paths[i].update(value, fieldMasks[i]);
+        if (updated != value) {
+          rowValue.setColumnValue(name, updated);
+        }
+        continue;
+      }
+      Object maskedValue = mask(name, value);
+      if (maskedValue != value) {
+        rowValue.setColumnValue(name, maskedValue);
+      }
     }
+  }
 
-    if (value.length() <= countN) {
-      return;
+  @Override
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  /**
+   * @throws IllegalStateException if the directive masks nested fields, whose column values cannot be masked
+   *   as a whole
+   */
+  @Override
+  public Object transformColumnValue(Object value) {
+    if (paths != null) {
+      throw new IllegalStateException(String.format("Directive %s masks nested fields, not whole column values.",
+                                                    commandLine));
     }
-    StringBuilder maskedValue = new StringBuilder(value);
-    if (direction.equals(RIGHT_DIRECTION)) {
-      maskedValue.replace(0, value.length() - countN, Strings.repeat(maskCharacter, value.length() - countN));
-    } else {
-      maskedValue.replace(countN, value.length(), Strings.repeat(maskCharacter, value.length() - countN));
+    return mask(valueColumn, value);
+  }
+
+  /**
+   * Returns {@code true} if the directive masks fields nested in columns rather than whole columns.
+   */
+  public boolean hasFieldPaths() {
+    return paths != null;
+  }
+
+  public Masker getMasker() {
+    return masker;
+  }
+
+  private Object mask(String columnName, Object value) {
+    if (value instanceof String) {
+      return masker.mask((String) value);
+    }
+    if (value instanceof byte[]) {
+      return masker.mask((byte[]) value);
     }
+    if (value instanceof ByteBuffer) {
+      return masker.mask((ByteBuffer) value);
+    }
+    throw new IllegalArgumentException(
+      String.format("Column %s is supposed to have string or bytes value.", columnName));
+  }
 
-    rowValue.setColumnValue(srcColumn, maskedValue.toString());
+  /**
+   * Empty values are never longer than the unmasked count.
+   */
+  @Override
+  public boolean skipsEmptyValues() {
+    return true;
   }
 
   @Override
   public void transformSchema(MutableRowSchema rowSchema) throws Exception {
-    //verify whether the filed is string
-    Schema.Field field = rowSchema.getField(srcColumn);
-    Schema requiredSchema = Schema.of(Schema.Type.STRING);
-    if (requiredSchema.equals(field.getSchema()) ||
-      (field.getSchema().isNullable() && (requiredSchema.equals(field.getSchema().getNonNullable())))) {
+    SchemaTransformationCache.shared().transformSchema(this, commandLine, rowSchema);
+  }
+
+  @Override
+  public void applySchema(MutableRowSchema rowSchema) throws Exception {
+    resolveCondition(rowSchema);
+    //no schema changes
+    resolvePaths(rowSchema);
+    //verify whether the fields are string or bytes
+    Schema stringSchema = Schema.of(Schema.Type.STRING);
+    Schema bytesSchema = Schema.of(Schema.Type.BYTES);
+    for (int i = 0; i < selectedColumns.length; i++) {
+      String columnName = selected.get(i);
+      Schema schema;
+      if (paths != null && paths[i] != null) {
+        Schema.Field field = rowSchema.getField(paths[i].getColumn());
+        if (field == null) {
+          throw new IllegalArgumentException(String.format("Column %s of field path %s does not exist.",
+                                                           paths[i].getColumn(), columnName));
+        }
+        schema = paths[i].getFieldSchema();
+        if (schema == null) {
+          // JSON documents
+          continue;
+        }
+      } else {
+        Schema.Field field = rowSchema.getField(columnName);
+        if (field == null) {
+          throw new IllegalArgumentException(String.format("Column %s does not exist.", columnName));
+        }
+        schema = field.getSchema();
+      }
+      if (schema.isNullable()) {
+        schema = schema.getNonNullable();
+      }
+      if (!stringSchema.equals(schema) && !bytesSchema.equals(schema)) {
+        throw new IllegalArgumentException(String.format("Field %s is supposed to be string or bytes.", columnName));
+      }
+    }
+  }
+
+  private void resolvePaths(MutableRowSchema rowSchema) {
+    if (paths == null) {
       return;
-      //no schema changes
     }
-    throw new IllegalArgumentException(String.format("Field %s is supposed to be string.", srcColumn));
+    for (FieldPath path : paths) {
+      if (path != null) {
+        Schema.Field field = rowSchema.getField(path.getColumn());
+        if (field != null) {
+          path.resolve(field.getSchema());
+        }
+      }
+    }
+  }
+
+  private void resolveCondition(MutableRowSchema rowSchema) {
+    if (condition != null) {
+      condition.resolve(rowSchema);
+    }
+  }
+
+  @Override
+  public RowCondition getCondition() {
+    return condition;
+  }
+
+  @Override
+  public Object getSchemaState() {
+    return null;
+  }
+
+  @Override
+  public void restoreSchemaState(Object state, MutableRowSchema rowSchema) {
+    resolveCondition(rowSchema);
+    resolvePaths(rowSchema);
   }
 }
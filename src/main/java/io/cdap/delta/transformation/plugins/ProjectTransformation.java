@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.BatchTransformation;
+import io.cdap.delta.transformation.ColumnNameRules;
+import io.cdap.delta.transformation.ColumnRemap;
+import io.cdap.delta.transformation.ColumnSelector;
+import io.cdap.delta.transformation.DirectiveGrammar;
+import io.cdap.delta.transformation.DirectiveParser;
+import io.cdap.delta.transformation.ParsedDirective;
+import io.cdap.delta.transformation.ReplayableSchemaTransformation;
+import io.cdap.delta.transformation.schema.SchemaTransformationCache;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.Transformation;
+import io.cdap.transformation.api.TransformationContext;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Project transformation
+ *
+ * Renames many columns at once and drops the columns that are not needed
+ * <p>
+ *  “directive” : “project rules [drop columns]”
+ *  Rules are a comma separated list of single column renames, naming rules and the columns the naming rules
+ *  apply to, e.g. project strip-prefix:src_,case:snake,src_orderId,customerName,id=key drop note_internal
+ *  See {@link ColumnNameRules}. The schema given to transformations cannot list its fields, so every renamed or
+ *  dropped column is named in the directive, and there is no keep list. Columns to drop are given as for the
+ *  mask directive, as a comma separated list of names, and are matched against the names before renaming.
+ *  The renames are computed once and applied to each row as a single remap.
+ * </p>
+ * <p>
+ *  Transformations cannot remove columns from a row, so dropped columns stay in the schema: their values are set
+ *  to null, which spares serializing them downstream, and a column that is not nullable is made nullable, which
+ *  consumers see as a schema change of that column.
+ * </p>
+ */
+@Plugin(type = Transformation.PLUGIN_TYPE)
+@Name(ProjectTransformation.NAME)
+public class ProjectTransformation implements BatchTransformation, ReplayableSchemaTransformation {
+
+  public static final String NAME = "project";
+  public static final String KEEP = "keep";
+  public static final String DROP = "drop";
+  private static final DirectiveParser PARSER = new DirectiveParser(
+    DirectiveGrammar.builder(NAME)
+      .string("rules")
+      .choice("filter", KEEP, DROP).optional(DROP)
+      .string("columns").optional("")
+      .build());
+
+  private Map<String, String> renames;
+  private String[] dropped;
+  private ColumnRemap remap;
+  private String commandLine;
+
+  @Override
+  public void initialize(TransformationContext context) throws Exception {
+    parseDirective(context);
+  }
+
+  private void parseDirective(TransformationContext context) {
+    ParsedDirective directive = PARSER.parse(context);
+    commandLine = directive.getCommandLine();
+    ColumnNameRules rules = ColumnNameRules.parse(directive.getString("rules"));
+    String columns = directive.getString("columns");
+    if (directive.getString("filter").equals(KEEP) && !columns.isEmpty()) {
+      throw new IllegalArgumentException(
+        String.format("Directive %s cannot keep columns, since the schema cannot list the other fields. " +
+                        "List the columns to drop instead.", NAME));
+    }
+    renames = rules.getRenames();
+    Map<String, String> renamedFrom = new HashMap<>();
+    for (Map.Entry<String, String> rename : renames.entrySet()) {
+      String other = renamedFrom.put(rename.getValue(), rename.getKey());
+      if (other != null) {
+        throw new IllegalArgumentException(String.format("Columns %s and %s would both be renamed to %s.", other,
+                                                         rename.getKey(), rename.getValue()));
+      }
+    }
+    List<String> droppedNames = columns.isEmpty() ? Collections.emptyList()
+      : ColumnSelector.parse(columns).getNames();
+    dropped = droppedNames.toArray(new String[0]);
+    remap = new ColumnRemap(renames);
+  }
+
+  @Override
+  public void transformValue(MutableRowValue rowValue) throws Exception {
+    projectValue(rowValue);
+  }
+
+  @Override
+  public void transformValues(List<? extends MutableRowValue> rowValues) throws Exception {
+    for (MutableRowValue rowValue : rowValues) {
+      projectValue(rowValue);
+    }
+  }
+
+  private void projectValue(MutableRowValue rowValue) {
+    for (String column : dropped) {
+      rowValue.setColumnValue(column, null);
+    }
+    remap.apply(rowValue);
+  }
+
+  @Override
+  public void transformSchema(MutableRowSchema rowSchema) throws Exception {
+    SchemaTransformationCache.shared().transformSchema(this, commandLine, rowSchema);
+  }
+
+  @Override
+  public void applySchema(MutableRowSchema rowSchema) throws Exception {
+    for (Map.Entry<String, String> rename : renames.entrySet()) {
+      String newName = rename.getValue();
+      if (!newName.equals(rename.getKey()) && !renames.containsKey(newName) && rowSchema.getField(newName) != null) {
+        throw new IllegalArgumentException(
+          String.format("Column %s would be renamed to %s, which is an existing column.", rename.getKey(), newName));
+      }
+    }
+    for (String column : dropped) {
+      Schema.Field field = rowSchema.getField(column);
+      if (field == null) {
+        throw new IllegalArgumentException(String.format("Column %s to drop does not exist.", column));
+      }
+      if (!field.getSchema().isNullable()) {
+        rowSchema.setField(Schema.Field.of(column, Schema.nullableOf(field.getSchema())));
+      }
+    }
+    for (Map.Entry<String, String> rename : remap.getRenames()) {
+      rowSchema.renameField(rename.getKey(), rename.getValue());
+    }
+  }
+
+  @Override
+  public Object getSchemaState() {
+    return null;
+  }
+
+  @Override
+  public void restoreSchemaState(Object state, MutableRowSchema rowSchema) {
+    // the renames and dropped columns do not depend on the schema
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.BatchTransformation;
+import io.cdap.delta.transformation.ColumnValueTransformation;
+import io.cdap.delta.transformation.ConditionalTransformation;
+import io.cdap.delta.transformation.DirectiveGrammar;
+import io.cdap.delta.transformation.DirectiveParser;
+import io.cdap.delta.transformation.ParsedDirective;
+import io.cdap.delta.transformation.RegexPrefilter;
+import io.cdap.delta.transformation.ReplayableSchemaTransformation;
+import io.cdap.delta.transformation.condition.RowCondition;
+import io.cdap.delta.transformation.schema.SchemaTransformationCache;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.Transformation;
+import io.cdap.transformation.api.TransformationContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Regex Mask Transformation
+ *
+ * Mask the parts of a value matched by a regex
+ * <p>
+ *  Used where fixed left or right masking does not fit, such as the local part of emails, phone numbers with
+ *  separators, or card numbers embedded in free text.
+ *  “directive” : “mask-regex col_name regex masking_character”
+ *  Every character of every match of the regex is substituted by the masking character. If the regex has
+ *  capturing groups, only the characters of the groups are substituted, e.g.
+ *  mask-regex email ([^@\s]+)@ * masks the local part of emails and keeps the domain.
+ *  The regex is compiled once, and values that cannot match, because they lack a literal every match contains
+ *  or are too short, skip the regex engine.
+ *  A when clause limits masking to the rows matching a condition, e.g.
+ *  mask-regex notes \d{9} # when country = 'US'.
+ * </p>
+ */
+@Plugin(type = Transformation.PLUGIN_TYPE)
+@Name(RegexMaskTransformation.NAME)
+public class RegexMaskTransformation implements BatchTransformation, ColumnValueTransformation,
+  ConditionalTransformation, ReplayableSchemaTransformation {
+
+  public static final String NAME = "mask-regex";
+  private static final DirectiveParser PARSER = new DirectiveParser(
+    DirectiveGrammar.builder(NAME)
+      .string("column_name")
+      .string("regex")
+      .character("mask_char")
+      .conditional()
+      .build());
+
+  private String srcColumn;
+  private RowCondition condition;
+  private char maskCharacter;
+  private RegexPrefilter prefilter;
+  private Matcher matcher;
+  private int groupCount;
+  private char[] buffer = new char[0];
+  private String commandLine;
+
+  @Override
+  public void initialize(TransformationContext context) throws Exception {
+    parseDirective(context);
+  }
+
+  private void parseDirective(TransformationContext context) {
+    ParsedDirective directive = PARSER.parse(context);
+    commandLine = directive.getCommandLine();
+    condition = directive.compileCondition();
+    srcColumn = directive.getString("column_name");
+    maskCharacter = directive.getChar("mask_char");
+    String regex = directive.getString("regex");
+    Pattern pattern;
+    try {
+      pattern = Pattern.compile(regex);
+    } catch (PatternSyntaxException e) {
+      throw new IllegalArgumentException(String.format("regex is not valid: %s", e.getMessage()), e);
+    }
+    prefilter = RegexPrefilter.of(regex);
+    matcher = pattern.matcher("");
+    groupCount = matcher.groupCount();
+  }
+
+  @Override
+  public void transformValue(MutableRowValue rowValue) throws Exception {
+    maskValue(rowValue);
+  }
+
+  @Override
+  public void transformValues(List<? extends MutableRowValue> rowValues) throws Exception {
+    for (MutableRowValue rowValue : rowValues) {
+      maskValue(rowValue);
+    }
+  }
+
+  private void maskValue(MutableRowValue rowValue) {
+    Object value = rowValue.getColumnValue(srcColumn);
+    if (skipsValue(value) || condition != null && !condition.test(rowValue)) {
+      return;
+    }
+    Object maskedValue = transformColumnValue(value);
+    if (maskedValue != value) {
+      rowValue.setColumnValue(srcColumn, maskedValue);
+    }
+  }
+
+  @Override
+  public List<String> getColumns() {
+    return Collections.singletonList(srcColumn);
+  }
+
+  /**
+   * Returns the masked value, or the given value itself if the regex does not match it.
+   */
+  @Override
+  public Object transformColumnValue(Object value) {
+    if (!(value instanceof String)) {
+      throw new IllegalArgumentException(String.format("Column %s is supposed to have string value.", srcColumn));
+    }
+    String string = (String) value;
+    if (!prefilter.mayMatch(string)) {
+      return value;
+    }
+    matcher.reset(string);
+    if (!matcher.find()) {
+      return value;
+    }
+    int length = string.length();
+    if (buffer.length < length) {
+      buffer = new char[length];
+    }
+    string.getChars(0, length, buffer, 0);
+    do {
+      if (groupCount == 0) {
+        Arrays.fill(buffer, matcher.start(), matcher.end(), maskCharacter);
+      } else {
+        for (int group = 1; group <= groupCount; group++) {
+          if (matcher.start(group) >= 0) {
+            Arrays.fill(buffer, matcher.start(group), matcher.end(group), maskCharacter);
+          }
+        }
+      }
+    } while (matcher.find());
+    return new String(buffer, 0, length);
+  }
+
+  /**
+   * Empty values are left untouched unless the regex can match an empty string.
+   */
+  @Override
+  public boolean skipsEmptyValues() {
+    return prefilter.getMinLength() > 0;
+  }
+
+  @Override
+  public void transformSchema(MutableRowSchema rowSchema) throws Exception {
+    SchemaTransformationCache.shared().transformSchema(this, commandLine, rowSchema);
+  }
+
+  @Override
+  public void applySchema(MutableRowSchema rowSchema) throws Exception {
+    resolveCondition(rowSchema);
+    //verify whether the field is string
+    Schema.Field field = rowSchema.getField(srcColumn);
+    Schema requiredSchema = Schema.of(Schema.Type.STRING);
+    if (field != null && !(requiredSchema.equals(field.getSchema()) ||
+      (field.getSchema().isNullable() && (requiredSchema.equals(field.getSchema().getNonNullable()))))) {
+      throw new IllegalArgumentException(String.format("Field %s is supposed to be string.", srcColumn));
+    }
+    //no schema changes
+  }
+
+  private void resolveCondition(MutableRowSchema rowSchema) {
+    if (condition != null) {
+      condition.resolve(rowSchema);
+    }
+  }
+
+  @Override
+  public RowCondition getCondition() {
+    return condition;
+  }
+
+  @Override
+  public Object getSchemaState() {
+    return null;
+  }
+
+  @Override
+  public void restoreSchemaState(Object state, MutableRowSchema rowSchema) {
+    resolveCondition(rowSchema);
+  }
+}
@@ -18,20 +18,40 @@ package io.cdap.delta.transformation.plugins;
 
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.BatchTransformation;
+import io.cdap.delta.transformation.DirectiveGrammar;
+import io.cdap.delta.transformation.DirectiveParser;
+import io.cdap.delta.transformation.FieldPath;
+import io.cdap.delta.transformation.ParsedDirective;
+import io.cdap.delta.transformation.ReplayableSchemaTransformation;
+import io.cdap.delta.transformation.schema.SchemaTransformationCache;
 import io.cdap.transformation.api.MutableRowSchema;
 import io.cdap.transformation.api.MutableRowValue;
 import io.cdap.transformation.api.Transformation;
 import io.cdap.transformation.api.TransformationContext;
 
+import java.util.List;
+
 /**
  * Rename transformation
+ * <p>
+ * A dotted old name renames a nested field of a record column, or a member of the JSON documents held by a string
+ * column, e.g. rename customer.address.zip postal_code. The new name is the new name of the field, or the path of
+ * the field under its new name, e.g. rename customer.address.zip customer.address.postal_code.
+ * </p>
  */
 @Plugin(type = Transformation.PLUGIN_TYPE)
 @Name(RenameTransformation.NAME)
-public class RenameTransformation implements Transformation {
+public class RenameTransformation implements BatchTransformation, ReplayableSchemaTransformation {
   public static final String NAME = "rename";
+  private static final DirectiveParser PARSER = new DirectiveParser(
+    DirectiveGrammar.builder(NAME).string("old_column_name").string("new_column_name").build());
+
   private String fromColumn;
   private String toColumn;
+  private FieldPath path;
+  private String commandLine;
 
   @Override
   public void initialize(TransformationContext context) throws Exception {
@@ -39,31 +59,104 @@ public class RenameTransformation implements Transformation {
   }
 
   private void parseDirective(TransformationContext context) {
-    String commandLine = context.getDirective().getWholeCommandLine();
-    if (commandLine == null) {
-      throw new IllegalArgumentException("Directive command line is null.");
+    ParsedDirective directive = PARSER.parse(context);
+    commandLine = directive.getCommandLine();
+    fromColumn = directive.getString("old_column_name");
+    toColumn = directive.getString("new_column_name");
+    if (FieldPath.isPath(fromColumn)) {
+      path = FieldPath.parse(fromColumn).withNewName(toFieldName(fromColumn, toColumn));
+    } else {
+      path = null;
     }
-    String[] splits = commandLine.split("\\s+");
-    if (splits.length != 3) {
-      throw new IllegalArgumentException("Directive should have two arguments. Usage: rename old_column_name " +
-                                            "new_column_name");
+  }
+
+  private static String toFieldName(String fromPath, String to) {
+    if (!FieldPath.isPath(to)) {
+      return to;
     }
-    if (!NAME.equals(splits[0])) {
-      throw new IllegalArgumentException("Directive is not a rename transformation. Usage: rename old_column_name " +
-                                           "new_column_name");
+    int parentEnd = to.lastIndexOf('.');
+    if (parentEnd != fromPath.lastIndexOf('.') || !to.regionMatches(0, fromPath, 0, parentEnd)) {
+      throw new IllegalArgumentException(String.format("Field %s can only be renamed within its parent, not to %s.",
+                                                       fromPath, to));
     }
+    return to.substring(parentEnd + 1);
+  }
+
+  public String getFromColumn() {
+    return fromColumn;
+  }
 
-    fromColumn = splits[1];
-    toColumn = splits[2];
+  public String getToColumn() {
+    return toColumn;
+  }
+
+  /**
+   * Returns {@code true} if the directive renames a field nested in a column rather than a column.
+   */
+  public boolean isFieldPath() {
+    return path != null;
   }
 
   @Override
   public void transformValue(MutableRowValue rowValue) throws Exception {
-    rowValue.renameColumn(fromColumn, toColumn);
+    rename(rowValue);
+  }
+
+  @Override
+  public void transformValues(List<? extends MutableRowValue> rowValues) throws Exception {
+    for (MutableRowValue rowValue : rowValues) {
+      rename(rowValue);
+    }
+  }
+
+  private void rename(MutableRowValue rowValue) {
+    if (path == null) {
+      rowValue.renameColumn(fromColumn, toColumn);
+      return;
+    }
+    Object value = rowValue.getColumnValue(path.getColumn());
+    if (value != null) {
+      Object renamed = path.rename(value);
+      if (renamed != value) {
+        rowValue.setColumnValue(path.getColumn(), renamed);
+      }
+    }
   }
 
   @Override
   public void transformSchema(MutableRowSchema rowSchema) throws Exception {
-    rowSchema.renameField(fromColumn, toColumn);
+    SchemaTransformationCache.shared().transformSchema(this, commandLine, rowSchema);
+  }
+
+  @Override
+  public void applySchema(MutableRowSchema rowSchema) throws Exception {
+    if (path == null) {
+      rowSchema.renameField(fromColumn, toColumn);
+      return;
+    }
+    Schema.Field field = rowSchema.getField(path.getColumn());
+    if (field == null) {
+      throw new IllegalArgumentException(String.format("Column %s of field path %s does not exist.",
+                                                       path.getColumn(), fromColumn));
+    }
+    Schema schema = path.resolve(field.getSchema());
+    if (schema != field.getSchema()) {
+      rowSchema.setField(Schema.Field.of(path.getColumn(), schema));
+    }
+  }
+
+  @Override
+  public Object getSchemaState() {
+    return null;
+  }
+
+  @Override
+  public void restoreSchemaState(Object state, MutableRowSchema rowSchema) {
+    if (path != null) {
+      Schema.Field field = rowSchema.getField(path.getColumn());
+      if (field != null) {
+        path.resolve(field.getSchema());
+      }
+    }
   }
 }
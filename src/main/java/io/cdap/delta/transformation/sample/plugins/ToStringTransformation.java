@@ -19,20 +19,38 @@ package io.cdap.delta.transformation.sample.plugins;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.BatchTransformation;
+import io.cdap.delta.transformation.ColumnValueTransformation;
+import io.cdap.delta.transformation.DirectiveGrammar;
+import io.cdap.delta.transformation.DirectiveParser;
+import io.cdap.delta.transformation.ParsedDirective;
+import io.cdap.delta.transformation.ReplayableSchemaTransformation;
+import io.cdap.delta.transformation.StringConverter;
+import io.cdap.delta.transformation.schema.SchemaTransformationCache;
 import io.cdap.transformation.api.MutableRowSchema;
 import io.cdap.transformation.api.MutableRowValue;
 import io.cdap.transformation.api.Transformation;
 import io.cdap.transformation.api.TransformationContext;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Transformation that convert the value to stirng.
  */
 @Plugin(type = Transformation.PLUGIN_TYPE)
 @Name(ToStringTransformation.NAME)
-public class ToStringTransformation implements Transformation {
+public class ToStringTransformation implements BatchTransformation, ColumnValueTransformation,
+  ReplayableSchemaTransformation {
 
   public static final String NAME = "to-string";
+  private static final DirectiveParser PARSER = new DirectiveParser(
+    DirectiveGrammar.builder(NAME).string("column_name").build());
+
   private String srcColumn;
+  private Schema srcSchema;
+  private StringConverter converter = StringConverter.forSchema(null);
+  private String commandLine;
 
   @Override
   public void initialize(TransformationContext context) throws Exception {
@@ -40,34 +58,66 @@ public class ToStringTransformation implements Transformation {
   }
 
   private void parseDirective(TransformationContext context) {
-    String commandLine = context.getDirective().getWholeCommandLine();
-    if (commandLine == null) {
-      throw new IllegalArgumentException("Directive command line is null.");
-    }
-    String[] splits = commandLine.split("\\s+");
-    if (splits.length != 2) {
-      throw new IllegalArgumentException("Directive should have 2 arguments. Usage: to-string column_name.");
-    }
-    if (!NAME.equals(splits[0])) {
-      throw new IllegalArgumentException("Directive is not a to string transformation. Usage: to-string column_name.");
-    }
-
-    srcColumn = splits[1];
+    ParsedDirective directive = PARSER.parse(context);
+    commandLine = directive.getCommandLine();
+    srcColumn = directive.getString("column_name");
   }
 
   @Override
   public void transformValue(MutableRowValue rowValue) throws Exception {
+    convertValue(rowValue);
+  }
+
+  @Override
+  public void transformValues(List<? extends MutableRowValue> rowValues) throws Exception {
+    for (MutableRowValue rowValue : rowValues) {
+      convertValue(rowValue);
+    }
+  }
+
+  private void convertValue(MutableRowValue rowValue) {
     Object value = rowValue.getColumnValue(srcColumn);
     if (value == null) {
       return;
     }
-    rowValue.setColumnValue(srcColumn, value.toString());
-    return;
+    rowValue.setColumnValue(srcColumn, transformColumnValue(value));
+  }
+
+  @Override
+  public List<String> getColumns() {
+    return Collections.singletonList(srcColumn);
+  }
+
+  @Override
+  public Object transformColumnValue(Object value) {
+    return converter.convert(value);
   }
 
   @Override
   public void transformSchema(MutableRowSchema rowSchema) throws Exception {
+    SchemaTransformationCache.shared().transformSchema(this, commandLine, rowSchema);
+  }
+
+  @Override
+  public void applySchema(MutableRowSchema rowSchema) throws Exception {
+    Schema.Field field = rowSchema.getField(srcColumn);
+    setSourceSchema(field == null ? null : field.getSchema());
     rowSchema.setField(Schema.Field.of(srcColumn, Schema.of(Schema.Type.STRING)));
     return;
   }
+
+  private void setSourceSchema(Schema schema) {
+    srcSchema = schema;
+    converter = StringConverter.forSchema(schema);
+  }
+
+  @Override
+  public Object getSchemaState() {
+    return srcSchema;
+  }
+
+  @Override
+  public void restoreSchemaState(Object state, MutableRowSchema rowSchema) {
+    setSourceSchema((Schema) state);
+  }
 }
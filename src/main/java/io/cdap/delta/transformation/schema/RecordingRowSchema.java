@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.schema;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.transformation.api.MutableRowSchema;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Passes every call through to a schema, recording the input fields that were read and the mutations, so the
+ * mutations can be replayed on other schemas that have the same fields under the names that were read.
+ * <p>
+ * A read of a field the transformation set or renamed itself only depends on earlier calls, so it is not
+ * recorded. The source of a rename is recorded even if it was not read, since the renamed field carries it.
+ * </p>
+ */
+final class RecordingRowSchema implements MutableRowSchema {
+
+  private final MutableRowSchema delegate;
+  private final List<String> readNames = new ArrayList<>();
+  private final List<Schema.Field> readFields = new ArrayList<>();
+  private final Set<String> touchedNames = new HashSet<>();
+  private final List<Consumer<MutableRowSchema>> mutations = new ArrayList<>();
+
+  RecordingRowSchema(MutableRowSchema delegate) {
+    this.delegate = delegate;
+  }
+
+  List<String> getReadNames() {
+    return readNames;
+  }
+
+  List<Schema.Field> getReadFields() {
+    return readFields;
+  }
+
+  List<Consumer<MutableRowSchema>> getMutations() {
+    return mutations;
+  }
+
+  @Override
+  public Schema.Field getField(String columnName) {
+    Schema.Field field = delegate.getField(columnName);
+    recordRead(columnName, field);
+    return field;
+  }
+
+  private void recordRead(String columnName, Schema.Field field) {
+    if (touchedNames.add(columnName)) {
+      readNames.add(columnName);
+      readFields.add(field);
+    }
+  }
+
+  @Override
+  public void setField(Schema.Field field) {
+    delegate.setField(field);
+    touchedNames.add(field.getName());
+    mutations.add(rowSchema -> rowSchema.setField(field));
+  }
+
+  @Override
+  public void renameField(String originalName, String newName) {
+    if (!touchedNames.contains(originalName)) {
+      recordRead(originalName, delegate.getField(originalName));
+    }
+    if (!touchedNames.contains(newName)) {
+      recordRead(newName, delegate.getField(newName));
+    }
+    delegate.renameField(originalName, newName);
+    mutations.add(rowSchema -> rowSchema.renameField(originalName, newName));
+  }
+}
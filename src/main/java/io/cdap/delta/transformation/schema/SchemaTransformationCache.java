@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.schema;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.ReplayableSchemaTransformation;
+import io.cdap.transformation.api.MutableRowSchema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded cache of schema transformation results, keyed by the transformation, its directive and the input
+ * fields the transformation read. The plugins transform their schemas through the {@link #shared()} cache, since
+ * many tables are configured with the same directives and see the same schemas. The least recently used results
+ * are evicted once the cache is full. Thread safe.
+ * <p>
+ * On a miss the plugin transforms the schema while its mutations are recorded. On a hit the plugin restores the
+ * state it derived from the schema and the recorded mutations are replayed, so validation and schema construction
+ * are skipped.
+ * </p>
+ * <p>
+ * The schema given to transformations cannot list its fields, so the input schema is fingerprinted by the fields
+ * the transformation looked up on a previous miss: the same directive looks up the same few columns, and another
+ * schema with the same fields under those names gets the same result. The names looked up are kept per
+ * directive, and a lookup fetches those fields from the schema to build the key.
+ * </p>
+ */
+public final class SchemaTransformationCache {
+
+  private static final SchemaTransformationCache SHARED = new SchemaTransformationCache(1024);
+
+  private final Cache<Key, Result> cache;
+  private final ConcurrentMap<String, Set<List<String>>> readNames = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public SchemaTransformationCache(int maximumSize) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+  }
+
+  /**
+   * Returns the cache shared by the plugins of every table.
+   */
+  public static SchemaTransformationCache shared() {
+    return SHARED;
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long evictionCount() {
+    return cache.stats().evictionCount();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  /**
+   * Transforms the schema with the given transformation, or replays the result the transformation had on a schema
+   * with the same fields under the names it reads.
+   *
+   * @param commandLine the command line the transformation was initialized with
+   */
+  public void transformSchema(ReplayableSchemaTransformation transformation, String commandLine,
+                              MutableRowSchema rowSchema) throws Exception {
+    String directive = transformation.getClass().getName() + " " + commandLine;
+    Result result = get(directive, rowSchema);
+    if (result != null) {
+      transformation.restoreSchemaState(result.getState(), rowSchema);
+      result.replay(rowSchema);
+      return;
+    }
+    RecordingRowSchema recordingSchema = new RecordingRowSchema(rowSchema);
+    transformation.applySchema(recordingSchema);
+    put(directive, recordingSchema.getReadNames(), recordingSchema.getReadFields(),
+        new Result(transformation.getSchemaState(), recordingSchema.getMutations()));
+  }
+
+  /**
+   * Returns the result recorded for the directive on a schema with the same fields as the given one, under the
+   * names the directive read, or {@code null} if there is none.
+   */
+  private Result get(String directive, MutableRowSchema rowSchema) {
+    Set<List<String>> names = readNames.get(directive);
+    if (names != null) {
+      for (List<String> readNames : names) {
+        List<Schema.Field> fields = new ArrayList<>(readNames.size());
+        for (String name : readNames) {
+          fields.add(rowSchema.getField(name));
+        }
+        Result result = cache.getIfPresent(new Key(directive, readNames, fields));
+        if (result != null) {
+          hits.increment();
+          return result;
+        }
+      }
+    }
+    misses.increment();
+    return null;
+  }
+
+  private void put(String directive, List<String> names, List<Schema.Field> fields, Result result) {
+    List<String> readNames = Collections.unmodifiableList(new ArrayList<>(names));
+    this.readNames.computeIfAbsent(directive, key -> ConcurrentHashMap.newKeySet()).add(readNames);
+    cache.put(new Key(directive, readNames, fields), result);
+  }
+
+  /**
+   * Identifies a schema transformation: the transformation class and directive, and the input fields it read
+   * with their names. The fields themselves, rather than a hash of them, make up the key so distinct schemas
+   * never collide. Fields that were missing are {@code null}.
+   */
+  static final class Key {
+    private final String directive;
+    private final List<String> names;
+    private final List<Schema.Field> fields;
+    private final int hashCode;
+
+    Key(String directive, List<String> names, List<Schema.Field> fields) {
+      this.directive = directive;
+      this.names = names;
+      this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
+      this.hashCode = Objects.hash(directive, names, this.fields);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return hashCode == key.hashCode && directive.equals(key.directive) && names.equals(key.names) &&
+        fields.equals(key.fields);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /**
+   * Recorded result of a schema transformation: the state the transformation derived and the mutations it made.
+   */
+  static final class Result {
+    private final Object state;
+    private final List<Consumer<MutableRowSchema>> mutations;
+
+    Result(Object state, List<Consumer<MutableRowSchema>> mutations) {
+      this.state = state;
+      this.mutations = Collections.unmodifiableList(new ArrayList<>(mutations));
+    }
+
+    Object getState() {
+      return state;
+    }
+
+    void replay(MutableRowSchema rowSchema) {
+      for (Consumer<MutableRowSchema> mutation : mutations) {
+        mutation.accept(rowSchema);
+      }
+    }
+  }
+}
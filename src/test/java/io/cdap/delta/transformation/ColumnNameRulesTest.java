@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnNameRulesTest {
+
+  @Test
+  void testWords() {
+    assertEquals(Arrays.asList("order", "Id"), ColumnNameRules.words("orderId"));
+    assertEquals(Arrays.asList("HTTP", "Server", "id"), ColumnNameRules.words("HTTPServer_id"));
+    assertEquals(Arrays.asList("user", "ID"), ColumnNameRules.words("userID"));
+    assertEquals(Arrays.asList("a", "b"), ColumnNameRules.words("__a--b "));
+    assertEquals(Collections.singletonList("line2"), ColumnNameRules.words("line2"));
+  }
+
+  @Test
+  void testCaseConversions() {
+    ColumnNameRules snake = ColumnNameRules.parse("case:snake,orderId,HTTPServerId,already_snake");
+    assertEquals("order_id", snake.apply("orderId"));
+    assertEquals("http_server_id", snake.apply("HTTPServerId"));
+    assertEquals("already_snake", snake.apply("already_snake"));
+    ColumnNameRules camel = ColumnNameRules.parse("case:camel,order_id,HTTP_SERVER_ID,__");
+    assertEquals("orderId", camel.apply("order_id"));
+    assertEquals("httpServerId", camel.apply("HTTP_SERVER_ID"));
+    assertEquals("__", camel.apply("__"));
+    assertEquals("ID", ColumnNameRules.parse("case:upper,id").apply("id"));
+    assertEquals("id", ColumnNameRules.parse("case:lower,ID").apply("ID"));
+  }
+
+  @Test
+  void testRulesApplyInOrderToListedColumns() {
+    ColumnNameRules rules = ColumnNameRules.parse("strip-prefix:src_,case:camel,src_order_id,id=key");
+    assertEquals("orderId", rules.apply("src_order_id"));
+    assertEquals("key", rules.apply("id"));
+    // columns that are not listed keep their name
+    assertEquals("src_line_id", rules.apply("src_line_id"));
+    assertEquals(2, rules.getRenames().size());
+    // a prefix is only stripped when something is left
+    assertEquals("src_", ColumnNameRules.parse("strip-prefix:src_,src_").apply("src_"));
+    assertEquals("total", ColumnNameRules.parse("strip-suffix:_amt,total_amt").apply("total_amt"));
+  }
+
+  @Test
+  void testReplace() {
+    ColumnNameRules rules = ColumnNameRules.parse("replace:/^c(\\d{1,3})$/col_$1/,replace:/\\//_/,c12,x/y,c1234,a=b");
+    assertEquals("col_12", rules.apply("c12"));
+    assertEquals("x_y", rules.apply("x/y"));
+    assertEquals("b", rules.apply("a"));
+    assertEquals("c1234", rules.apply("c1234"));
+  }
+
+  @Test
+  void testRenamesOnly() {
+    ColumnNameRules rules = ColumnNameRules.parse("a=b,c=d");
+    assertEquals(2, rules.getRenames().size());
+    assertEquals("e", rules.apply("e"));
+    assertTrue(ColumnNameRules.parse(ColumnNameRules.NONE).getRenames().isEmpty());
+    assertEquals("e", ColumnNameRules.parse(ColumnNameRules.NONE).apply("e"));
+  }
+
+  @Test
+  void testInvalidRules() {
+    for (String rules : new String[] {"", "a", "a=", "=b", "a=b=c", "a=b,", "a=b,a=c", "case:kebab", "replace:x",
+      "replace:/a/", "replace://b/", "replace:/[/b/", "replace:/a/b/c", "strip-prefix:", "case:snake",
+      "case:snake,a=b", "a,b", "case:upper,a,a", "case:upper,a,a=b"}) {
+      assertThrows(IllegalArgumentException.class, () -> ColumnNameRules.parse(rules), rules);
+    }
+  }
+}
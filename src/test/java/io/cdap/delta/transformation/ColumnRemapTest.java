@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.transformation.api.MutableRowValue;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+class ColumnRemapTest {
+
+  @Test
+  void testIdentityIsIgnored() {
+    assertTrue(new ColumnRemap(Collections.singletonMap("a", "a")).isEmpty());
+  }
+
+  @Test
+  void testRenamesOrderedAroundDependencies() {
+    Map<String, String> renames = new LinkedHashMap<>();
+    renames.put("a", "b");
+    renames.put("b", "c");
+    ColumnRemap remap = new ColumnRemap(renames);
+    assertEquals(Arrays.asList(entry("b", "c"), entry("a", "b")), remap.getRenames());
+
+    MutableRowValue value = mock(MutableRowValue.class);
+    remap.apply(value);
+    InOrder order = inOrder(value);
+    order.verify(value).renameColumn("b", "c");
+    order.verify(value).renameColumn("a", "b");
+  }
+
+  @Test
+  void testSwapUsesTemporaryName() {
+    Map<String, String> renames = new LinkedHashMap<>();
+    renames.put("a", "b");
+    renames.put("b", "a");
+    assertEquals(Arrays.asList(entry("a", "_remap_0"), entry("b", "a"), entry("_remap_0", "b")),
+                 new ColumnRemap(renames).getRenames());
+  }
+
+  private static Map.Entry<String, String> entry(String from, String to) {
+    return new AbstractMap.SimpleImmutableEntry<>(from, to);
+  }
+}
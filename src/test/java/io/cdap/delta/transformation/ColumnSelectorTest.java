@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColumnSelectorTest {
+
+  @Test
+  void testNames() {
+    ColumnSelector selector = ColumnSelector.parse("ssn,card_number");
+    assertEquals(Arrays.asList("ssn", "card_number"), selector.getNames());
+    assertEquals(Collections.singletonList("ssn"), ColumnSelector.parse("ssn").getNames());
+    assertThrows(IllegalArgumentException.class, () -> ColumnSelector.parse("ssn,,card"));
+  }
+
+  @Test
+  void testPatternsAreRejected() {
+    assertThrows(IllegalArgumentException.class, () -> ColumnSelector.parse("/.*_ssn$/"));
+    assertThrows(IllegalArgumentException.class, () -> ColumnSelector.parse("*_ssn"));
+    assertThrows(IllegalArgumentException.class, () -> ColumnSelector.parse("ssn,?.ssn"));
+    assertEquals(Collections.singletonList("/"), ColumnSelector.parse("/").getNames());
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DirectiveParserTest {
+
+  private final DirectiveParser parser = new DirectiveParser(
+    DirectiveGrammar.builder("mask")
+      .string("column_name")
+      .choice("direction", "right", "left")
+      .character("mask_char")
+      .nonNegativeInt("n")
+      .build());
+
+  @Test
+  void testTokenize() {
+    assertEquals(Arrays.asList("mask", "col", "right", "*", "4"),
+                 DirectiveParser.tokenize("  mask col\tright  *\n4 "));
+    assertEquals(Collections.emptyList(), DirectiveParser.tokenize(" \t "));
+  }
+
+  @Test
+  void testParse() {
+    ParsedDirective directive = parser.parse("mask col left # 4");
+    assertEquals("mask", directive.getName());
+    assertEquals("col", directive.getString("column_name"));
+    assertEquals("left", directive.getString("direction"));
+    assertEquals('#', directive.getChar("mask_char"));
+    assertEquals(4, directive.getInt("n"));
+  }
+
+  @Test
+  void testParseIsCached() {
+    assertSame(parser.parse("mask col left # 4"), parser.parse("mask col left # 4"));
+  }
+
+  @Test
+  void testUsage() {
+    assertEquals("mask column_name direction mask_char n", parser.getGrammar().getUsage());
+  }
+
+  @Test
+  void testInvalidDirectives() {
+    assertThrows(IllegalArgumentException.class, () -> parser.parse((String) null));
+    assertThrows(IllegalArgumentException.class, () -> parser.parse(""));
+    assertThrows(IllegalArgumentException.class, () -> parser.parse("mask col left # 4 5"));
+    assertThrows(IllegalArgumentException.class, () -> parser.parse("masks col left # 4"));
+    assertThrows(IllegalArgumentException.class, () -> parser.parse("mask col up # 4"));
+    assertThrows(IllegalArgumentException.class, () -> parser.parse("mask col left ## 4"));
+    assertThrows(IllegalArgumentException.class, () -> parser.parse("mask col left # four"));
+    assertThrows(IllegalArgumentException.class, () -> parser.parse("mask col left # -4"));
+    assertThrows(IllegalArgumentException.class, () -> parser.parse("mask col left # 4").getString("other"));
+  }
+
+  @Test
+  void testOptionalArguments() {
+    DirectiveParser optional = new DirectiveParser(
+      DirectiveGrammar.builder("hash").string("column_name").nonNegativeInt("cache_size").optional("16").build());
+    assertEquals("hash column_name [cache_size]", optional.getGrammar().getUsage());
+    assertEquals(16, optional.parse("hash col").getInt("cache_size"));
+    assertEquals(0, optional.parse("hash col 0").getInt("cache_size"));
+    assertThrows(IllegalArgumentException.class, () -> optional.parse("hash"));
+    assertThrows(IllegalArgumentException.class, () -> optional.parse("hash col 1 2"));
+    assertThrows(IllegalStateException.class,
+                 () -> DirectiveGrammar.builder("hash").string("a").optional("x").string("b").build());
+  }
+
+  @Test
+  void testWhenClause() {
+    DirectiveParser conditional = new DirectiveParser(
+      DirectiveGrammar.builder("mask").string("column_name").nonNegativeInt("n").optional("4").conditional().build());
+    assertEquals("mask column_name [n] [when condition]", conditional.getGrammar().getUsage());
+    ParsedDirective directive = conditional.parse("mask col when  country = 'D E'  and when = 1 ");
+    assertEquals(4, directive.getInt("n"));
+    assertEquals("country = 'D E'  and when = 1", directive.getCondition());
+    assertEquals(2, conditional.parse("mask col 2 when a is null").getInt("n"));
+    assertEquals("a is null", conditional.parse("mask col 2 when a is null").getCondition());
+    // a column may be named when
+    assertEquals("when", conditional.parse("mask when").getString("column_name"));
+    assertNull(conditional.parse("mask when").getCondition());
+    assertThrows(IllegalArgumentException.class, () -> conditional.parse("mask col when "));
+    assertThrows(IllegalArgumentException.class, () -> conditional.parse("mask col 2 3 when a = 1"));
+    assertThrows(IllegalArgumentException.class, () -> parser.parse("mask col left # 4 when a = 1"));
+  }
+}
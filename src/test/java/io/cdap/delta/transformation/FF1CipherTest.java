@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import com.google.common.io.BaseEncoding;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FF1CipherTest {
+
+  private static final byte[] KEY = BaseEncoding.base16().decode("2B7E151628AED2A6ABF7158809CF4F3C");
+  private static final String RADIX_36 = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+  private static int[] numerals(String value) {
+    int[] numerals = new int[value.length()];
+    for (int i = 0; i < numerals.length; i++) {
+      numerals[i] = RADIX_36.indexOf(value.charAt(i));
+    }
+    return numerals;
+  }
+
+  private static String string(int[] numerals) {
+    StringBuilder builder = new StringBuilder();
+    for (int numeral : numerals) {
+      builder.append(RADIX_36.charAt(numeral));
+    }
+    return builder.toString();
+  }
+
+  private static void assertSample(int radix, String tweak, String plain, String cipher) {
+    for (boolean longArithmetic : new boolean[] {true, false}) {
+      FF1Cipher ff1 = new FF1Cipher(KEY, radix, BaseEncoding.base16().decode(tweak), longArithmetic);
+      int[] numerals = numerals(plain);
+      ff1.encrypt(numerals, numerals.length);
+      assertEquals(cipher, string(numerals));
+      ff1.decrypt(numerals, numerals.length);
+      assertEquals(plain, string(numerals));
+    }
+  }
+
+  @Test
+  void testNistSamples() {
+    // NIST SP 800-38G FF1 samples 1 to 3
+    assertSample(10, "", "0123456789", "2433477484");
+    assertSample(10, "39383736353433323130", "0123456789", "6124200773");
+    assertSample(36, "3737373770717273373737", "0123456789abcdefghi", "a9tv40mll9kdu509eum");
+  }
+
+  @Test
+  void testRoundTrip() {
+    Random random = new Random(42);
+    FF1Cipher fast = new FF1Cipher(KEY, 10, new byte[] {1, 2, 3});
+    FF1Cipher slow = new FF1Cipher(KEY, 10, new byte[] {1, 2, 3}, false);
+    for (int length = fast.getMinLength(); length < 60; length++) {
+      int[] plain = new int[length];
+      for (int i = 0; i < length; i++) {
+        plain[i] = random.nextInt(10);
+      }
+      int[] encrypted = plain.clone();
+      fast.encrypt(encrypted, length);
+      int[] expected = plain.clone();
+      slow.encrypt(expected, length);
+      assertArrayEquals(expected, encrypted);
+      fast.decrypt(encrypted, length);
+      assertArrayEquals(plain, encrypted);
+    }
+  }
+
+  @Test
+  void testInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new FF1Cipher(new byte[15], 10, new byte[0]));
+    assertThrows(IllegalArgumentException.class, () -> new FF1Cipher(KEY, 1, new byte[0]));
+    FF1Cipher ff1 = new FF1Cipher(KEY, 10, new byte[0]);
+    assertEquals(6, ff1.getMinLength());
+    assertThrows(IllegalArgumentException.class, () -> ff1.encrypt(new int[5], 5));
+    assertEquals(4, new FF1Cipher(KEY, 36, new byte[0]).getMinLength());
+  }
+}
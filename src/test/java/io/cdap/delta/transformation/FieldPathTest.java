@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FieldPathTest {
+
+  private static final UnaryOperator<Object> UPPER_CASE = value -> value.toString().toUpperCase();
+
+  private static final Schema ADDRESS = Schema.recordOf("address",
+                                                        Schema.Field.of("zip", Schema.of(Schema.Type.STRING)),
+                                                        Schema.Field.of("city", Schema.of(Schema.Type.STRING)));
+  private static final Schema CUSTOMER = Schema.recordOf("customer",
+                                                         Schema.Field.of("id", Schema.of(Schema.Type.INT)),
+                                                         Schema.Field.of("address", Schema.nullableOf(ADDRESS)));
+
+  @Test
+  void testParse() {
+    assertTrue(FieldPath.isPath("a.b"));
+    assertFalse(FieldPath.isPath("a"));
+    assertFalse(FieldPath.isPath(".a"));
+    FieldPath path = FieldPath.parse("customer.address.zip");
+    assertEquals("customer", path.getColumn());
+    assertEquals(Arrays.asList("address", "zip"), path.getFields());
+    assertNull(path.getNewName());
+    assertEquals("postal_code", path.withNewName("postal_code").getNewName());
+    assertThrows(IllegalArgumentException.class, () -> FieldPath.parse("a..b"));
+    assertThrows(IllegalArgumentException.class, () -> FieldPath.parse("a.b."));
+    assertThrows(IllegalArgumentException.class, () -> FieldPath.parse("a"));
+    assertThrows(IllegalArgumentException.class, () -> path.withNewName("x.y"));
+  }
+
+  @Test
+  void testUpdateRecord() {
+    FieldPath path = FieldPath.parse("customer.address.zip");
+    Schema nullableCustomer = Schema.nullableOf(CUSTOMER);
+    assertSame(nullableCustomer, path.resolve(nullableCustomer));
+    assertEquals(Schema.of(Schema.Type.STRING), path.getFieldSchema());
+
+    StructuredRecord address = StructuredRecord.builder(ADDRESS).set("zip", "12345").set("city", "Berlin").build();
+    StructuredRecord customer = StructuredRecord.builder(CUSTOMER).set("id", 1).set("address", address).build();
+    StructuredRecord updated = (StructuredRecord) path.update(customer, value -> "*" + value);
+    assertEquals(1, (int) updated.get("id"));
+    StructuredRecord updatedAddress = updated.get("address");
+    assertEquals("*12345", updatedAddress.get("zip"));
+    assertEquals("Berlin", updatedAddress.get("city"));
+    // the given record is not changed
+    assertEquals("12345", address.get("zip"));
+
+    StructuredRecord noAddress = StructuredRecord.builder(CUSTOMER).set("id", 2).build();
+    assertSame(noAddress, path.update(noAddress, value -> "*" + value));
+  }
+
+  @Test
+  void testRenameRecord() {
+    FieldPath path = FieldPath.parse("customer.address.zip").withNewName("postal_code");
+    Schema renamed = path.resolve(CUSTOMER);
+    Schema renamedAddress = renamed.getField("address").getSchema();
+    assertTrue(renamedAddress.isNullable());
+    assertEquals(Arrays.asList("postal_code", "city"), Arrays.asList(
+      renamedAddress.getNonNullable().getFields().get(0).getName(),
+      renamedAddress.getNonNullable().getFields().get(1).getName()));
+
+    StructuredRecord address = StructuredRecord.builder(ADDRESS).set("zip", "12345").set("city", "Berlin").build();
+    StructuredRecord customer = StructuredRecord.builder(CUSTOMER).set("id", 1).set("address", address).build();
+    StructuredRecord updated = (StructuredRecord) path.rename(customer);
+    assertEquals(renamed, updated.getSchema());
+    assertEquals("12345", ((StructuredRecord) updated.get("address")).get("postal_code"));
+
+    // records are resolved from their own schema when the path was not resolved
+    FieldPath unresolved = FieldPath.parse("customer.address.zip").withNewName("postal_code");
+    assertEquals(renamed, ((StructuredRecord) unresolved.rename(customer)).getSchema());
+    assertThrows(IllegalArgumentException.class,
+                 () -> FieldPath.parse("customer.address.zip").withNewName("city").resolve(CUSTOMER));
+  }
+
+  @Test
+  void testResolveInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> FieldPath.parse("customer.name").resolve(CUSTOMER));
+    assertThrows(IllegalArgumentException.class, () -> FieldPath.parse("customer.id.x").resolve(CUSTOMER));
+    assertThrows(IllegalArgumentException.class,
+                 () -> FieldPath.parse("customer.id").resolve(Schema.of(Schema.Type.INT)));
+    // strings hold JSON documents
+    Schema string = Schema.nullableOf(Schema.of(Schema.Type.STRING));
+    assertSame(string, FieldPath.parse("doc.a").resolve(string));
+    assertNull(FieldPath.parse("doc.a").getFieldSchema());
+  }
+
+  @Test
+  void testUpdateJson() {
+    FieldPath path = FieldPath.parse("doc.user.name");
+    String json = "{\"id\": 1, \"user\": {\"name\": \"caf\\u00e9 \\\"x\\\"\", \"age\": 42}, \"tail\": [1, 2]}";
+    assertEquals("{\"id\": 1, \"user\": {\"name\": \"CAF\u00c9 \\\"X\\\"\", \"age\": 42}, \"tail\": [1, 2]}",
+                 path.update(json, UPPER_CASE));
+    // numbers are passed as their text and come back as strings
+    assertEquals("{\"user\": {\"age\": \"42!\"}}",
+                 FieldPath.parse("doc.user.age").update("{\"user\": {\"age\": 42}}", value -> value + "!"));
+    // absent members, null members and unchanged values leave the document as it is
+    String absent = "{\"user\": {\"age\": 42}}";
+    assertSame(absent, path.update(absent, UPPER_CASE));
+    String nullName = "{\"user\": {\"name\": null}}";
+    assertSame(nullName, path.update(nullName, UPPER_CASE));
+    String upper = "{\"user\": {\"name\": \"X\"}}";
+    assertSame(upper, path.update(upper, value -> value));
+    assertThrows(IllegalArgumentException.class, () -> path.update("{\"user\": {\"name\": {}}}", UPPER_CASE));
+    assertThrows(IllegalArgumentException.class, () -> path.update("{\"user\": {\"name\": true}}", UPPER_CASE));
+    assertThrows(IllegalArgumentException.class, () -> path.update("{\"user\": {\"name\" 1}}", UPPER_CASE));
+    assertThrows(IllegalArgumentException.class, () -> path.update(42, UPPER_CASE));
+  }
+
+  @Test
+  void testRenameJson() {
+    FieldPath path = FieldPath.parse("doc.user.name").withNewName("full\"name");
+    assertEquals("{\"user\": {\"full\\\"name\" : \"x\"}, \"name\": 1}",
+                 path.rename("{\"user\": {\"name\" : \"x\"}, \"name\": 1}"));
+    String absent = "{\"name\": 1}";
+    assertSame(absent, path.rename(absent));
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GeneralizerTest {
+
+  private static Generalizer generalizer(Schema schema, String mode, String granularity) {
+    return Generalizer.forSchema(schema, Generalizer.Spec.parse(mode, granularity));
+  }
+
+  @Test
+  void testInvalidSpec() {
+    assertThrows(IllegalArgumentException.class, () -> Generalizer.Spec.parse("ceil", "10"));
+    assertThrows(IllegalArgumentException.class, () -> Generalizer.Spec.parse("floor", "0"));
+    assertThrows(IllegalArgumentException.class, () -> Generalizer.Spec.parse("floor", "fortnight"));
+    assertThrows(IllegalArgumentException.class, () -> Generalizer.Spec.parse("round", "month"));
+    assertThrows(IllegalArgumentException.class, () -> Generalizer.Spec.parse("prefix", "0"));
+    assertThrows(IllegalArgumentException.class, () -> Generalizer.Spec.parse("prefix", "day"));
+  }
+
+  @Test
+  void testUnsupportedSchema() {
+    assertThrows(IllegalArgumentException.class, () -> generalizer(Schema.of(Schema.Type.INT), "floor", "0.5"));
+    assertThrows(IllegalArgumentException.class, () -> generalizer(Schema.of(Schema.Type.LONG), "floor", "day"));
+    assertThrows(IllegalArgumentException.class, () -> generalizer(Schema.of(Schema.Type.STRING), "floor", "10"));
+    assertThrows(IllegalArgumentException.class, () -> generalizer(Schema.of(Schema.Type.DOUBLE), "prefix", "2"));
+    assertThrows(IllegalArgumentException.class, () -> generalizer(Schema.of(Schema.Type.BOOLEAN), "floor", "1"));
+    assertThrows(IllegalArgumentException.class, () -> generalizer(Schema.decimalOf(10, 2), "floor", "0.001"));
+    assertThrows(IllegalArgumentException.class, () -> generalizer(Schema.of(Schema.LogicalType.DATE), "floor",
+                                                                   "hour"));
+    assertThrows(IllegalArgumentException.class, () -> generalizer(Schema.of(Schema.LogicalType.TIME_MICROS),
+                                                                   "floor", "day"));
+    assertThrows(IllegalArgumentException.class, () -> generalizer(Schema.of(Schema.Type.INT), "floor", "10")
+      .generalize(10L));
+  }
+
+  @Test
+  void testIntegral() {
+    Generalizer floor = generalizer(Schema.nullableOf(Schema.of(Schema.Type.INT)), "floor", "10000");
+    assertEquals(120000, floor.generalize(123456));
+    assertEquals(-130000, floor.generalize(-123456));
+    assertEquals(Integer.MIN_VALUE + 3648, floor.generalize(Integer.MIN_VALUE));
+    Object unchanged = 20000;
+    assertSame(unchanged, floor.generalize(unchanged));
+
+    Generalizer round = generalizer(Schema.of(Schema.Type.LONG), "round", "10000");
+    assertEquals(120000L, round.generalize(124999L));
+    assertEquals(130000L, round.generalize(125000L));
+    assertEquals(-120000L, round.generalize(-125000L));
+    assertEquals(9223372036854770000L, round.generalize(Long.MAX_VALUE));
+    assertEquals(-9223372036854770000L, round.generalize(Long.MIN_VALUE));
+  }
+
+  @Test
+  void testIntegralPrefix() {
+    Generalizer zip = generalizer(Schema.of(Schema.Type.INT), "prefix", "3");
+    assertEquals(94100, zip.generalize(94105));
+    assertEquals(-94100, zip.generalize(-94105));
+    assertEquals(123, zip.generalize(123));
+    assertEquals(Integer.MIN_VALUE / 10000000 * 10000000, zip.generalize(Integer.MIN_VALUE));
+    Generalizer longs = generalizer(Schema.of(Schema.Type.LONG), "prefix", "1");
+    assertEquals(9000000000000000000L, longs.generalize(Long.MAX_VALUE));
+    assertEquals(-9000000000000000000L, longs.generalize(Long.MIN_VALUE));
+  }
+
+  @Test
+  void testFloating() {
+    Generalizer floor = generalizer(Schema.of(Schema.Type.DOUBLE), "floor", "0.5");
+    assertEquals(1.5d, floor.generalize(1.7d));
+    assertEquals(-2d, floor.generalize(-1.7d));
+    assertEquals(Double.NaN, floor.generalize(Double.NaN));
+    assertEquals(Double.NEGATIVE_INFINITY, floor.generalize(Double.NEGATIVE_INFINITY));
+    Generalizer round = generalizer(Schema.of(Schema.Type.FLOAT), "round", "100");
+    assertEquals(1300f, round.generalize(1250f));
+    assertEquals(1200f, round.generalize(1249.9f));
+  }
+
+  @Test
+  void testDecimal() {
+    Generalizer round = generalizer(Schema.decimalOf(10, 2), "round", "0.25");
+    assertEquals(new BigDecimal("1.25"), round.generalize(new BigDecimal("1.37")));
+    assertEquals(new BigDecimal("1.50"), round.generalize(new BigDecimal("1.38")));
+    assertEquals(new BigDecimal("-1.25"), round.generalize(new BigDecimal("-1.37")));
+    assertArrayEquals(BigInteger.valueOf(150).toByteArray(),
+                      (byte[]) round.generalize(BigInteger.valueOf(138).toByteArray()));
+    assertEquals(ByteBuffer.wrap(BigInteger.valueOf(-125).toByteArray()),
+                 round.generalize(ByteBuffer.wrap(BigInteger.valueOf(-137).toByteArray())));
+    byte[] large = new BigInteger("123456789012345678901237").toByteArray();
+    assertArrayEquals(new BigInteger("123456789012345678901225").toByteArray(), (byte[]) round.generalize(large));
+
+    Generalizer floor = generalizer(Schema.decimalOf(10, 2), "floor", "1000");
+    assertEquals(new BigDecimal("12000.00"), floor.generalize(new BigDecimal("12345.67")));
+  }
+
+  @Test
+  void testDecimalMatchesReference() {
+    Random random = new Random(42);
+    Generalizer floor = generalizer(Schema.decimalOf(38, 3), "floor", "12.5");
+    Generalizer round = generalizer(Schema.decimalOf(38, 3), "round", "12.5");
+    BigDecimal step = new BigDecimal("12.5");
+    for (int i = 0; i < 1000; i++) {
+      BigInteger unscaled = new BigInteger(1 + random.nextInt(100), random);
+      if (random.nextBoolean()) {
+        unscaled = unscaled.negate();
+      }
+      BigDecimal value = new BigDecimal(unscaled, 3);
+      BigDecimal floored = value.divide(step, 0, RoundingMode.FLOOR).multiply(step).setScale(3);
+      BigDecimal rounded = value.add(step.divide(BigDecimal.valueOf(2))).divide(step, 0, RoundingMode.FLOOR)
+        .multiply(step).setScale(3);
+      assertEquals(floored, floor.generalize(value));
+      assertEquals(rounded, round.generalize(value));
+      assertArrayEquals(floored.unscaledValue().toByteArray(), (byte[]) floor.generalize(unscaled.toByteArray()));
+      assertArrayEquals(rounded.unscaledValue().toByteArray(), (byte[]) round.generalize(unscaled.toByteArray()));
+    }
+  }
+
+  @Test
+  void testTimestamp() {
+    long micros = Instant.parse("2021-06-30T10:45:30.123456Z").toEpochMilli() * 1000 + 456;
+    Generalizer hour = generalizer(Schema.of(Schema.LogicalType.TIMESTAMP_MICROS), "floor", "hour");
+    assertEquals(Instant.parse("2021-06-30T10:00:00Z").toEpochMilli() * 1000, hour.generalize(micros));
+    Generalizer roundHour = generalizer(Schema.of(Schema.LogicalType.TIMESTAMP_MICROS), "round", "hour");
+    assertEquals(Instant.parse("2021-06-30T11:00:00Z").toEpochMilli() * 1000, roundHour.generalize(micros));
+
+    long millis = Instant.parse("2021-06-30T10:45:30.123Z").toEpochMilli();
+    assertEquals(Instant.parse("2021-06-30T00:00:00Z").toEpochMilli(),
+                 generalizer(Schema.of(Schema.LogicalType.TIMESTAMP_MILLIS), "floor", "day").generalize(millis));
+    assertEquals(Instant.parse("2021-06-28T00:00:00Z").toEpochMilli(),
+                 generalizer(Schema.of(Schema.LogicalType.TIMESTAMP_MILLIS), "floor", "week").generalize(millis));
+    long friday = millis + 2 * 86400000L;
+    assertEquals(Instant.parse("2021-07-05T00:00:00Z").toEpochMilli(),
+                 generalizer(Schema.of(Schema.LogicalType.TIMESTAMP_MILLIS), "round", "week").generalize(friday));
+    Generalizer month = generalizer(Schema.of(Schema.LogicalType.TIMESTAMP_MILLIS), "floor", "month");
+    assertEquals(Instant.parse("2021-06-01T00:00:00Z").toEpochMilli(), month.generalize(millis));
+    assertEquals(Instant.parse("2021-06-01T00:00:00Z").toEpochMilli(), month.generalize(millis + 1));
+    assertEquals(Instant.parse("1969-12-01T00:00:00Z").toEpochMilli(), month.generalize(-1L));
+    assertEquals(Instant.parse("2021-01-01T00:00:00Z").toEpochMilli(),
+                 generalizer(Schema.of(Schema.LogicalType.TIMESTAMP_MILLIS), "floor", "year").generalize(millis));
+  }
+
+  @Test
+  void testDateAndTime() {
+    int day = (int) LocalDate.of(2021, 6, 30).toEpochDay();
+    assertEquals((int) LocalDate.of(2021, 6, 28).toEpochDay(),
+                 generalizer(Schema.of(Schema.LogicalType.DATE), "floor", "week").generalize(day));
+    assertEquals((int) LocalDate.of(2021, 7, 5).toEpochDay(),
+                 generalizer(Schema.of(Schema.LogicalType.DATE), "round", "week").generalize(day + 2));
+    assertEquals((int) LocalDate.of(2021, 1, 1).toEpochDay(),
+                 generalizer(Schema.of(Schema.LogicalType.DATE), "floor", "year").generalize(day));
+    assertEquals((int) LocalDate.of(1969, 12, 1).toEpochDay(),
+                 generalizer(Schema.of(Schema.LogicalType.DATE), "floor", "month").generalize(-1));
+
+    assertEquals(36000000, generalizer(Schema.of(Schema.LogicalType.TIME_MILLIS), "floor", "hour")
+      .generalize(38730123));
+    assertEquals(39600000, generalizer(Schema.of(Schema.LogicalType.TIME_MILLIS), "round", "hour")
+      .generalize(38730123));
+    long lastSecond = 86399999999L;
+    assertEquals(86340000000L, generalizer(Schema.of(Schema.LogicalType.TIME_MICROS), "round", "minute")
+      .generalize(lastSecond));
+  }
+
+  @Test
+  void testTimestampMatchesCalendar() {
+    Random random = new Random(7);
+    Generalizer month = generalizer(Schema.of(Schema.LogicalType.TIMESTAMP_MICROS), "floor", "month");
+    Generalizer week = generalizer(Schema.of(Schema.LogicalType.TIMESTAMP_MICROS), "floor", "week");
+    for (int i = 0; i < 1000; i++) {
+      long micros = (random.nextLong() % 4_000_000_000L) * 1_000_000L + random.nextInt(1_000_000);
+      LocalDate date = Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L)).atZone(ZoneOffset.UTC).toLocalDate();
+      assertEquals(date.withDayOfMonth(1).toEpochDay() * 86_400_000_000L, month.generalize(micros));
+      assertEquals(date.minusDays(date.getDayOfWeek().getValue() - 1).toEpochDay() * 86_400_000_000L,
+                   week.generalize(micros));
+    }
+  }
+
+  @Test
+  void testStringPrefix() {
+    Generalizer zip = generalizer(Schema.nullableOf(Schema.of(Schema.Type.STRING)), "prefix", "3");
+    assertEquals("941", zip.generalize("94105"));
+    assertSame("94", zip.generalize("94"));
+  }
+}
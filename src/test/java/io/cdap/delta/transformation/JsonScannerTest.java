@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonScannerTest {
+
+  private final JsonScanner scanner = new JsonScanner();
+
+  @Test
+  void testFindNested() {
+    String json = "{\"id\": 7, \"tags\": [\"a\", {\"b\": \"}\"}], \"user\" : {\"name\": \"x\\\"y\", " +
+      "\"address\": {\"zip\": \"12345\", \"city\": null}}, \"zip\": 1}";
+    assertTrue(scanner.find(json, new String[] {"user", "address", "zip"}));
+    assertEquals("\"zip\"", json.substring(scanner.getKeyStart(), scanner.getKeyEnd()));
+    assertEquals("\"12345\"", json.substring(scanner.getValueStart(), scanner.getValueEnd()));
+    assertTrue(scanner.find(json, new String[] {"user", "address"}));
+    assertEquals("{\"zip\": \"12345\", \"city\": null}", json.substring(scanner.getValueStart(),
+                                                                         scanner.getValueEnd()));
+    assertTrue(scanner.find(json, new String[] {"id"}));
+    assertEquals("7", json.substring(scanner.getValueStart(), scanner.getValueEnd()));
+    assertTrue(scanner.find(json, new String[] {"zip"}));
+    assertEquals("1", json.substring(scanner.getValueStart(), scanner.getValueEnd()));
+  }
+
+  @Test
+  void testFindEscapedKey() {
+    String json = "{\"a\\\"b\": 1, \"c\\u0064\": 2}";
+    assertTrue(scanner.find(json, new String[] {"a\"b"}));
+    assertEquals("1", json.substring(scanner.getValueStart(), scanner.getValueEnd()));
+    assertTrue(scanner.find(json, new String[] {"cd"}));
+    assertEquals("2", json.substring(scanner.getValueStart(), scanner.getValueEnd()));
+  }
+
+  @Test
+  void testAbsent() {
+    String json = "{\"a\": {\"b\": 1}, \"c\": [1], \"d\": {}}";
+    assertFalse(scanner.find(json, new String[] {"x"}));
+    assertFalse(scanner.find(json, new String[] {"a", "x"}));
+    assertFalse(scanner.find(json, new String[] {"a", "b", "c"}));
+    assertFalse(scanner.find(json, new String[] {"c", "x"}));
+    assertFalse(scanner.find(json, new String[] {"d", "x"}));
+    assertFalse(scanner.find("[1, 2]", new String[] {"a"}));
+  }
+
+  @Test
+  void testMalformed() {
+    assertThrows(IllegalArgumentException.class, () -> scanner.find("{\"a\" 1}", new String[] {"b"}));
+    assertThrows(IllegalArgumentException.class, () -> scanner.find("{\"a\": \"1}", new String[] {"b"}));
+    assertThrows(IllegalArgumentException.class, () -> scanner.find("{\"a\": [1, 2}", new String[] {"b"}));
+    assertThrows(IllegalArgumentException.class, () -> scanner.find("{\"a\": 1 \"b\": 2}", new String[] {"b"}));
+    assertThrows(IllegalArgumentException.class, () -> scanner.find("{a: 1}", new String[] {"a"}));
+    // only the document up to the member is read
+    assertTrue(scanner.find("{\"a\": 1, \"b\": ", new String[] {"a"}));
+  }
+
+  @Test
+  void testDecodeAndAppendString() {
+    String literal = "\"tab\\there \\\"quoted\\\" \\\\ \\/ \\u00e9\\n\"";
+    assertEquals("tab\there \"quoted\" \\ / \u00e9\n", JsonScanner.decodeString(literal, 0, literal.length()));
+    assertEquals("plain", JsonScanner.decodeString("x\"plain\"", 1, 8));
+    StringBuilder out = new StringBuilder();
+    JsonScanner.appendString(out, "a\"b\\c\nd\u0001\u00e9");
+    assertEquals("\"a\\\"b\\\\c\\nd\\u0001\u00e9\"", out.toString());
+    assertThrows(IllegalArgumentException.class, () -> JsonScanner.decodeString("\"\\x\"", 0, 4));
+  }
+}
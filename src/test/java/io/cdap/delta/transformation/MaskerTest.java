@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import com.google.common.base.Strings;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MaskerTest {
+
+  @Test
+  void testMaskKeepEnd() {
+    Masker masker = new Masker('*', 4, true);
+    assertEquals("************1234", masker.mask("4111111111111234"));
+    assertEquals("*2345", masker.mask("12345"));
+  }
+
+  @Test
+  void testMaskKeepStart() {
+    Masker masker = new Masker('#', 3, false);
+    assertEquals("123######", masker.mask("123456789"));
+    assertEquals("abc#", masker.mask("abcd"));
+  }
+
+  @Test
+  void testShortValueIsReturnedAsIs() {
+    Masker masker = new Masker('*', 4, true);
+    String value = "1234";
+    assertSame(value, masker.mask(value));
+    assertEquals("", masker.mask(""));
+  }
+
+  @Test
+  void testMaskEverything() {
+    assertEquals("*****", new Masker('*', 0, true).mask("abcde"));
+    assertEquals("*****", new Masker('*', 0, false).mask("abcde"));
+  }
+
+  @Test
+  void testMatchesSubstitutionForAllLengths() {
+    // the buffer is reused and grows across calls, including past the retained size
+    Masker right = new Masker('x', 5, true);
+    Masker left = new Masker('x', 5, false);
+    for (int length : new int[] {0, 3, 5, 6, 17, 1000, 70000, 12}) {
+      String value = Strings.repeat("a", length);
+      String expectedRight = length <= 5 ? value : Strings.repeat("x", length - 5) + "aaaaa";
+      String expectedLeft = length <= 5 ? value : "aaaaa" + Strings.repeat("x", length - 5);
+      assertEquals(expectedRight, right.mask(value));
+      assertEquals(expectedLeft, left.mask(value));
+    }
+  }
+
+  @Test
+  void testNegativeCount() {
+    assertThrows(IllegalArgumentException.class, () -> new Masker('*', -1, true));
+  }
+
+  @Test
+  void testMaskBytes() {
+    Masker masker = new Masker('*', 2, true);
+    assertArrayEquals(new byte[] {'*', '*', 3, 4}, masker.mask(new byte[] {1, 2, 3, 4}));
+    byte[] shortValue = {1, 2};
+    assertSame(shortValue, masker.mask(shortValue));
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(6);
+    buffer.put(new byte[] {9, 1, 2, 3, 4, 9});
+    buffer.position(1).limit(5);
+    ByteBuffer masked = new Masker('#', 1, false).mask(buffer);
+    assertEquals(ByteBuffer.wrap(new byte[] {1, '#', '#', '#'}), masked);
+    assertEquals(1, buffer.position());
+    assertThrows(IllegalArgumentException.class, () -> new Masker('\u00e9', 0, true).mask(new byte[] {1}));
+  }
+
+  @Test
+  void testMatchesScalarMasking() {
+    Random random = new Random(42);
+    for (int i = 0; i < 500; i++) {
+      int length = random.nextInt(i < 490 ? 100 : 200000);
+      int unmaskedCount = random.nextInt(length + 2);
+      boolean keepEnd = random.nextBoolean();
+      Masker masker = new Masker('*', unmaskedCount, keepEnd);
+      byte[] bytes = new byte[length];
+      random.nextBytes(bytes);
+      char[] chars = new char[length];
+      for (int j = 0; j < length; j++) {
+        chars[j] = (char) (random.nextBoolean() ? bytes[j] & 0xff : random.nextInt(0x10000));
+      }
+      // per element reference
+      byte[] expectedBytes = bytes.clone();
+      char[] expectedChars = chars.clone();
+      for (int j = 0; j < length; j++) {
+        boolean kept = keepEnd ? j >= length - unmaskedCount : j < unmaskedCount;
+        if (!kept) {
+          expectedBytes[j] = '*';
+          expectedChars[j] = '*';
+        }
+      }
+      assertArrayEquals(expectedBytes, masker.mask(bytes));
+      assertEquals(new String(expectedChars), masker.mask(new String(chars)));
+    }
+  }
+
+  @Test
+  void testMaskCodePoints() {
+    // two emoji outside the Basic Multilingual Plane, each a surrogate pair
+    String value = "\ud83d\ude00\ud83d\ude01ab";
+    assertEquals("****ab", new Masker('*', 2, true).mask(value));
+    assertEquals("**ab", new Masker('*', 2, true, Masker.Unit.CODE_POINT).mask(value));
+    assertEquals("\ud83d\ude00***", new Masker('*', 1, false, Masker.Unit.CODE_POINT).mask(value));
+    assertSame(value, new Masker('*', 4, true, Masker.Unit.CODE_POINT).mask(value));
+    assertEquals("***\u90ce", new Masker('*', 1, true, Masker.Unit.CODE_POINT).mask("\u5c71\u7530\u592a\u90ce"));
+  }
+
+  @Test
+  void testMaskGraphemes() {
+    // e followed by a combining acute accent
+    String eclair = "e\u0301clair";
+    assertEquals("e******", new Masker('*', 1, false, Masker.Unit.CODE_POINT).mask(eclair));
+    assertEquals("e\u0301*****", new Masker('*', 1, false, Masker.Unit.GRAPHEME).mask(eclair));
+    assertEquals("*****r", new Masker('*', 1, true, Masker.Unit.GRAPHEME).mask(eclair));
+    assertSame(eclair, new Masker('*', 6, true, Masker.Unit.GRAPHEME).mask(eclair));
+    // a Hangul syllable spelled with conjoining jamo, then a precomposed one
+    String hangul = "\u1112\u1161\u11ab\uad6d";
+    assertEquals("*\uad6d", new Masker('*', 1, true, Masker.Unit.GRAPHEME).mask(hangul));
+    assertEquals("\ud83d\ude00*", new Masker('*', 1, false, Masker.Unit.GRAPHEME).mask("\ud83d\ude00a"));
+    assertEquals("**\r\n", new Masker('*', 1, true, Masker.Unit.GRAPHEME).mask("ab\r\n"));
+    assertEquals("***", new Masker('*', 0, true, Masker.Unit.GRAPHEME).mask("a\u0301bc"));
+  }
+
+  @Test
+  void testMatchesUnitReference() {
+    // mixes Latin-1, which takes the fast path, with combining marks, CJK, surrogate pairs and CR LF
+    String[] pieces = {"a", "Z", "\u00e9", "\u00ff", "\r", "\n", "\u0301", "\u0308", "\u4e2d", "\ud83d\ude00",
+      "\ud840\udc00", "\u0928", "\u094d"};
+    Random random = new Random(42);
+    BreakIterator boundaries = BreakIterator.getCharacterInstance();
+    for (int i = 0; i < 2000; i++) {
+      StringBuilder builder = new StringBuilder();
+      int pieceCount = random.nextInt(12);
+      int pieceLimit = random.nextBoolean() ? 6 : pieces.length;
+      for (int j = 0; j < pieceCount; j++) {
+        builder.append(pieces[random.nextInt(pieceLimit)]);
+      }
+      String value = builder.toString();
+      int unmaskedCount = random.nextInt(6);
+      boolean keepEnd = random.nextBoolean();
+
+      List<String> codePoints = new ArrayList<>();
+      value.codePoints().forEach(c -> codePoints.add(new String(Character.toChars(c))));
+      assertEquals(expectedMask(value, codePoints, unmaskedCount, keepEnd),
+                   new Masker('*', unmaskedCount, keepEnd, Masker.Unit.CODE_POINT).mask(value));
+
+      List<String> graphemes = new ArrayList<>();
+      boundaries.setText(value);
+      for (int start = boundaries.first(), end = boundaries.next(); end != BreakIterator.DONE;
+           start = end, end = boundaries.next()) {
+        graphemes.add(value.substring(start, end));
+      }
+      assertEquals(expectedMask(value, graphemes, unmaskedCount, keepEnd),
+                   new Masker('*', unmaskedCount, keepEnd, Masker.Unit.GRAPHEME).mask(value));
+    }
+  }
+
+  private static String expectedMask(String value, List<String> units, int unmaskedCount, boolean keepEnd) {
+    if (units.size() <= unmaskedCount) {
+      return value;
+    }
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < units.size(); i++) {
+      boolean kept = keepEnd ? i >= units.size() - unmaskedCount : i < unmaskedCount;
+      expected.append(kept ? units.get(i) : "*");
+    }
+    return expected.toString();
+  }
+}
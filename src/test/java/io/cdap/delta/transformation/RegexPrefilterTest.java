@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegexPrefilterTest {
+
+  private static final List<String> REGEXES = Arrays.asList(
+    "([^@\\s]+)@", "\\d{3}-\\d{3}-(\\d{4})", "(\\d{4}[ -]?){3}\\d{4}", "ab+c", "x?yz*", "id=(\\w+);",
+    "a.b{2,3}c", "[\\]a]]?bc", "(?:ab)+cd", "\\bfoo\\b", "^ab$", "a|bc", "(?i)abc", "\\Qa.b\\E", "a\\1",
+    "\\p{Lu}x", "\\x41b", "\\u0041b", "a*?b", "a++b", "(?<name>a)\\k<name>c", "[a-c&&[^b]]d");
+
+  @Test
+  void testAnalysis() {
+    assertPrefilter("@", 2, "([^@\\s]+)@");
+    assertPrefilter("-", 12, "\\d{3}-\\d{3}-(\\d{4})");
+    assertPrefilter("", 16, "(\\d{4}[ -]?){3}\\d{4}");
+    assertPrefilter("ab", 3, "ab+c");
+    assertPrefilter("y", 1, "x?yz*");
+    assertPrefilter("id=", 5, "id=(\\w+);");
+    assertPrefilter("foo", 3, "\\bfoo\\b");
+    assertPrefilter("", 0, "a|bc");
+    assertPrefilter("", 0, "(?i)abc");
+    assertPrefilter("", 0, "\\Qa.b\\E");
+    assertPrefilter("", 0, "a\\1");
+    assertPrefilter("cd", 4, "(?:ab)+cd");
+    assertPrefilter("c", 2, "(?<name>a)\\k<name>c");
+    assertPrefilter("d", 1, "(?=a)d");
+  }
+
+  private static void assertPrefilter(String literal, int minLength, String regex) {
+    RegexPrefilter prefilter = RegexPrefilter.of(regex);
+    assertEquals(literal, prefilter.getRequiredLiteral(), regex);
+    assertEquals(minLength, prefilter.getMinLength(), regex);
+  }
+
+  @Test
+  void testMayMatch() {
+    RegexPrefilter email = RegexPrefilter.of("([^@\\s]+)@");
+    assertTrue(email.mayMatch("jane@example.com"));
+    assertFalse(email.mayMatch("jane at example.com"));
+    assertFalse(email.mayMatch("@"));
+  }
+
+  @Test
+  void testNeverRejectsMatches() {
+    Random random = new Random(42);
+    String alphabet = "abcdxyz@-=; ]1234AB\n";
+    for (String regex : REGEXES) {
+      Pattern pattern = Pattern.compile(regex);
+      RegexPrefilter prefilter = RegexPrefilter.of(regex);
+      for (int i = 0; i < 20000; i++) {
+        char[] chars = new char[random.nextInt(24)];
+        for (int j = 0; j < chars.length; j++) {
+          chars[j] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        String value = new String(chars);
+        if (pattern.matcher(value).find()) {
+          assertTrue(prefilter.mayMatch(value), regex + " matches " + value);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SecretReferenceTest {
+
+  @Test
+  void testProperty() {
+    System.setProperty("secret.reference.test", "s3cret");
+    assertEquals("s3cret", SecretReference.resolve("key", "property:secret.reference.test"));
+    assertThrows(IllegalArgumentException.class, () -> SecretReference.resolve("key", "property:secret.missing"));
+  }
+
+  @Test
+  void testFile() throws Exception {
+    File file = File.createTempFile("secret", ".txt");
+    file.deleteOnExit();
+    Files.write(file.toPath(), "s3cret\r\n".getBytes(StandardCharsets.UTF_8));
+    assertEquals("s3cret", SecretReference.resolve("key", "file:" + file.getPath()));
+    assertThrows(IllegalArgumentException.class,
+                 () -> SecretReference.resolve("key", "file:" + file.getPath() + ".missing"));
+  }
+
+  @Test
+  void testEnvironment() {
+    assertThrows(IllegalArgumentException.class,
+                 () -> SecretReference.resolve("key", "env:SECRET_REFERENCE_TEST_UNSET"));
+  }
+
+  @Test
+  void testPlainSecretIsRejectedWithoutQuotingIt() {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                                              () -> SecretReference.resolve("key", "s3cret"));
+    assertFalse(e.getMessage().contains("s3cret"));
+  }
+}
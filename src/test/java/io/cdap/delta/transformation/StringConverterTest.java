@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StringConverterTest {
+
+  @Test
+  void testGeneric() {
+    StringConverter converter = StringConverter.forSchema(null);
+    assertEquals("true", converter.convert(true));
+    assertEquals("1.5", converter.convert(1.5d));
+    assertEquals("00ff7f", converter.convert(new byte[] {0, -1, 127}));
+    assertEquals("abc", StringConverter.forSchema(Schema.of(Schema.Type.STRING)).convert("abc"));
+  }
+
+  @Test
+  void testIntegral() {
+    StringConverter converter = StringConverter.forSchema(Schema.nullableOf(Schema.of(Schema.Type.LONG)));
+    assertEquals("0", converter.convert(0L));
+    assertEquals("-128", converter.convert(-128));
+    assertEquals("1023", converter.convert(1023L));
+    assertEquals("1024", converter.convert(1024L));
+    assertEquals(Long.toString(Long.MIN_VALUE), converter.convert(Long.MIN_VALUE));
+    assertEquals("12", converter.convert("12"));
+  }
+
+  @Test
+  void testBytes() {
+    StringConverter converter = StringConverter.forSchema(Schema.of(Schema.Type.BYTES));
+    ByteBuffer buffer = ByteBuffer.wrap(new byte[] {1, 2, 3, 4});
+    buffer.position(1);
+    assertEquals("020304", converter.convert(buffer));
+    assertEquals(1, buffer.position());
+    ByteBuffer direct = ByteBuffer.allocateDirect(2);
+    direct.put((byte) 0xab).put((byte) 0xcd).flip();
+    assertEquals("abcd", converter.convert(direct));
+    assertEquals("", converter.convert(new byte[0]));
+  }
+
+  @Test
+  void testDecimal() {
+    StringConverter converter = StringConverter.forSchema(Schema.decimalOf(10, 2));
+    assertEquals("1234.50", converter.convert(BigInteger.valueOf(123450).toByteArray()));
+    assertEquals("-0.01", converter.convert(ByteBuffer.wrap(BigInteger.valueOf(-1).toByteArray())));
+    assertEquals("100", converter.convert(new BigDecimal("1E+2")));
+  }
+
+  @Test
+  void testDateAndTime() {
+    assertEquals("2021-06-30", StringConverter.forSchema(Schema.of(Schema.LogicalType.DATE)).convert(18808));
+    assertEquals("1969-12-31", StringConverter.forSchema(Schema.of(Schema.LogicalType.DATE)).convert(-1));
+    assertEquals("10:15:30.123",
+                 StringConverter.forSchema(Schema.of(Schema.LogicalType.TIME_MILLIS)).convert(36930123));
+    assertEquals("10:15:30.000123",
+                 StringConverter.forSchema(Schema.of(Schema.LogicalType.TIME_MICROS)).convert(36930000123L));
+  }
+
+  @Test
+  void testTimestamp() {
+    StringConverter millis = StringConverter.forSchema(Schema.of(Schema.LogicalType.TIMESTAMP_MILLIS));
+    assertEquals("2021-06-30T10:15:30.123Z", millis.convert(1625048130123L));
+    assertEquals("1969-12-31T23:59:59.999Z", millis.convert(-1L));
+    StringConverter micros = StringConverter.forSchema(Schema.of(Schema.LogicalType.TIMESTAMP_MICROS));
+    assertEquals("2021-06-30T10:15:30.000001Z", micros.convert(1625048130000001L));
+    assertEquals("1970-01-01T00:00:00Z", micros.convert(0L));
+  }
+
+  @Test
+  void testTimestampMatchesIsoInstant() {
+    Random random = new Random(7);
+    StringConverter millis = StringConverter.forSchema(Schema.of(Schema.LogicalType.TIMESTAMP_MILLIS));
+    StringConverter micros = StringConverter.forSchema(Schema.of(Schema.LogicalType.TIMESTAMP_MICROS));
+    for (int i = 0; i < 10000; i++) {
+      long value = random.nextLong() % 4000000000000000L;
+      if (i % 3 == 0) {
+        value -= value % 1000;
+      }
+      assertEquals(DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(value / 1000)),
+                   millis.convert(value / 1000));
+      assertEquals(DateTimeFormatter.ISO_INSTANT.format(Instant.EPOCH.plus(value, ChronoUnit.MICROS)),
+                   micros.convert(value));
+    }
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation;
+
+/**
+ * Makes secrets available to directives in tests and benchmarks through {@link SecretReference}s.
+ */
+public final class TestSecrets {
+
+  private TestSecrets() {
+  }
+
+  /**
+   * Stores the given secret in a system property and returns a reference to it.
+   */
+  public static String reference(String secret) {
+    String name = "test.secret." + secret;
+    System.setProperty(name, secret);
+    return SecretReference.PROPERTY + name;
+  }
+}
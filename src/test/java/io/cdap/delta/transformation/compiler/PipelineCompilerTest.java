@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.compiler;
+
+import io.cdap.delta.transformation.ColumnRemap;
+import io.cdap.delta.transformation.ColumnValueTransformation;
+import io.cdap.delta.transformation.DirectiveContext;
+import io.cdap.delta.transformation.plugins.MaskTransformation;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.TransformationContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PipelineCompilerTest {
+
+  /**
+   * A step of a class generated code cannot refer to, which is called through its interface.
+   */
+  private static final class Suffix implements ColumnValueTransformation {
+    @Override
+    public void initialize(TransformationContext context) {
+    }
+
+    @Override
+    public void transformValue(MutableRowValue rowValue) {
+    }
+
+    @Override
+    public void transformSchema(MutableRowSchema rowSchema) {
+    }
+
+    @Override
+    public List<String> getColumns() {
+      return Collections.singletonList("a");
+    }
+
+    @Override
+    public Object transformColumnValue(Object value) {
+      return value + "!";
+    }
+  }
+
+  @Test
+  void testCompile() throws Exception {
+    MaskTransformation keepStart = new MaskTransformation();
+    keepStart.initialize(new DirectiveContext("mask a left # 2"));
+    MaskTransformation keepEnd = new MaskTransformation();
+    keepEnd.initialize(new DirectiveContext("mask b right * 1"));
+    CompiledPipeline pipeline = PipelineCompiler.compile(
+      new String[] {"a", "b", "c"},
+      new ColumnValueTransformation[][] {{keepStart, new Suffix()}, {keepEnd}, {keepEnd}},
+      new ColumnRemap(Collections.singletonMap("a", "z")));
+
+    MutableRowValue row = mock(MutableRowValue.class);
+    when(row.getColumnValue("a")).thenReturn("abcd");
+    when(row.getColumnValue("b")).thenReturn("1");
+    pipeline.transformValue(row);
+    verify(row).setColumnValue("a", "ab##!");
+    verify(row, never()).setColumnValue(eq("b"), any());
+    verify(row, never()).setColumnValue(eq("c"), any());
+    verify(row).renameColumn("a", "z");
+
+    when(row.getColumnValue("b")).thenReturn(12);
+    assertThrows(IllegalArgumentException.class, () -> pipeline.transformValue(row));
+  }
+
+  @Test
+  void testTooLarge() {
+    String[] columns = new String[5000];
+    ColumnValueTransformation[][] steps = new ColumnValueTransformation[columns.length][];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = "c" + i;
+      steps[i] = new ColumnValueTransformation[] {new Suffix()};
+    }
+    assertNull(PipelineCompiler.compile(columns, steps, new ColumnRemap(Collections.emptyMap())));
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.condition;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConditionParserTest {
+
+  private static MutableRowValue row(Object... columnsAndValues) {
+    Map<String, Object> values = new HashMap<>();
+    for (int i = 0; i < columnsAndValues.length; i += 2) {
+      values.put((String) columnsAndValues[i], columnsAndValues[i + 1]);
+    }
+    MutableRowValue row = mock(MutableRowValue.class);
+    when(row.getColumnValue(anyString())).thenAnswer(invocation -> values.get(invocation.<String>getArgument(0)));
+    return row;
+  }
+
+  private static boolean test(String condition, Object... columnsAndValues) {
+    return ConditionParser.parse(condition).test(row(columnsAndValues));
+  }
+
+  @Test
+  void testStringComparisons() {
+    assertTrue(test("country = 'DE'", "country", "DE"));
+    assertFalse(test("country = 'DE'", "country", "FR"));
+    assertTrue(test("country != 'DE'", "country", "FR"));
+    assertTrue(test("country <> 'DE'", "country", "FR"));
+    assertTrue(test("name < 'b'", "name", "alice"));
+    assertTrue(test("name >= 'b'", "name", "bob"));
+    assertTrue(test("name = 'O''Brien'", "name", "O'Brien"));
+    assertTrue(test("`first name` = 'a b'", "first name", "a b"));
+    // values of another type and nulls never compare
+    assertFalse(test("id = '1'", "id", 1));
+    assertFalse(test("country != 'DE'", "country", null));
+  }
+
+  @Test
+  void testNumberComparisons() {
+    assertTrue(test("age >= 18", "age", 18));
+    assertFalse(test("age >= 18", "age", 17L));
+    assertTrue(test("amount > 10.5", "amount", 11));
+    assertTrue(test("amount > 10.5", "amount", 10.75d));
+    assertTrue(test("amount = 10.50", "amount", new BigDecimal("10.5")));
+    assertTrue(test("balance < -1e3", "balance", -1001.0f));
+    assertTrue(test("id = 100000000000000000000", "id", new BigDecimal("1E20")));
+    assertFalse(test("id = 100000000000000000000", "id", Long.MAX_VALUE));
+    assertFalse(test("ratio != 1", "ratio", Double.NaN));
+    assertFalse(test("age = 18", "age", "18"));
+  }
+
+  @Test
+  void testBooleansAndNulls() {
+    assertTrue(test("active = true", "active", true));
+    assertTrue(test("active != TRUE", "active", false));
+    assertTrue(test("email is null", "email", null));
+    assertTrue(test("email IS NOT NULL", "email", "a@b.c"));
+    assertThrows(IllegalArgumentException.class, () -> ConditionParser.parse("active < true"));
+  }
+
+  @Test
+  void testIn() {
+    assertTrue(test("op in ('insert', 'update')", "op", "update"));
+    assertFalse(test("op in ('insert', 'update')", "op", "delete"));
+    assertTrue(test("op not in ('insert', 'update')", "op", "delete"));
+    assertTrue(test("code in (1, 2, 'x')", "code", 2));
+    assertTrue(test("code in (1, 2, 'x')", "code", "x"));
+    assertFalse(test("code in (1, 2, 'x')", "code", 3));
+    assertTrue(test("code not in (1, 2, 'x')", "code", 3));
+    assertFalse(test("code not in (1, 2, 'x')", "code", "x"));
+  }
+
+  @Test
+  void testNullsAreUnknown() {
+    // a comparison with a null is unknown, and so is its negation
+    assertFalse(test("country = 'DE'", "country", null));
+    assertFalse(test("country != 'DE'", "country", null));
+    assertFalse(test("not (country = 'DE')", "country", null));
+    assertFalse(test("country not in ('DE')", "country", null));
+    assertFalse(test("code not in (1, 'x')", "code", null));
+    assertFalse(test("not not (country = 'DE')", "country", null));
+    assertFalse(test("not (country = 'DE' or age > 18)", "country", null, "age", 10));
+    // false and unknown is false, and true or unknown is true
+    assertTrue(test("not (country = 'DE' and age > 18)", "country", null, "age", 10));
+    assertTrue(test("country = 'DE' or not age > 18", "country", null, "age", 10));
+    assertTrue(test("not (email is null)", "email", "a@b.c"));
+    assertTrue(test("not (country = 'DE')", "country", "FR"));
+  }
+
+  @Test
+  void testDecimalBytes() {
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField("amount")).thenReturn(Schema.Field.of("amount", Schema.nullableOf(Schema.decimalOf(10, 2))));
+    RowCondition condition = ConditionParser.parse("amount >= 10.5");
+    condition.resolve(schema);
+    // decimal columns arrive as their unscaled bytes, 1050 and -1 at scale 2
+    assertTrue(condition.test(row("amount", BigInteger.valueOf(1050).toByteArray())));
+    assertTrue(condition.test(row("amount", ByteBuffer.wrap(BigInteger.valueOf(1051).toByteArray()))));
+    assertFalse(condition.test(row("amount", BigInteger.valueOf(-1).toByteArray())));
+    assertTrue(ConditionParser.parse("not amount < 0").test(row("amount", new BigDecimal("0.00"))));
+
+    // bytes are not numbers in other columns
+    when(schema.getField("amount")).thenReturn(Schema.Field.of("amount", Schema.of(Schema.Type.BYTES)));
+    RowCondition bytes = ConditionParser.parse("not amount >= 10.5");
+    bytes.resolve(schema);
+    assertFalse(bytes.test(row("amount", BigInteger.valueOf(1).toByteArray())));
+  }
+
+  @Test
+  void testPrecedence() {
+    // and binds tighter than or
+    assertTrue(test("a = 1 or b = 1 and c = 1", "a", 1, "b", 0, "c", 0));
+    assertFalse(test("(a = 1 or b = 1) and c = 1", "a", 1, "b", 0, "c", 0));
+    assertTrue(test("not a = 1 and b = 1", "a", 0, "b", 1));
+    assertFalse(test("not (a = 1 or b = 1)", "a", 0, "b", 1));
+    assertTrue(test("country = 'DE' AND op IN ('insert','update')", "country", "DE", "op", "insert"));
+  }
+
+  @Test
+  void testShortCircuit() {
+    MutableRowValue row = row("a", 0);
+    ConditionParser.parse("a = 1 and b = 1").test(row);
+    verify(row, never()).getColumnValue("b");
+  }
+
+  @Test
+  void testInvalidConditions() {
+    for (String condition : new String[] {"", "a", "a =", "a = b", "a == 1", "= 1", "a = 'x", "a = 1 b = 2",
+      "(a = 1", "a in 1", "a in ()", "a is 1", "a = 1 and", "a ! 1", "a = 1e"}) {
+      assertThrows(IllegalArgumentException.class, () -> ConditionParser.parse(condition), condition);
+    }
+  }
+
+  @Test
+  void testResolve() {
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField("a")).thenReturn(Schema.Field.of("a", Schema.of(Schema.Type.INT)));
+    ConditionParser.parse("a = 1").resolve(schema);
+    assertThrows(IllegalArgumentException.class, () -> ConditionParser.parse("a = 1 or b = 1").resolve(schema));
+  }
+}
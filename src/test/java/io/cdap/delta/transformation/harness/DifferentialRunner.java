@@ -0,0 +1,399 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.delta.transformation.harness;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.BatchTransformation;
+import io.cdap.delta.transformation.DirectiveContext;
+import io.cdap.delta.transformation.DirectiveGrammar;
+import io.cdap.delta.transformation.DirectiveParser;
+import io.cdap.delta.transformation.metrics.InMemoryMetricsSink;
+import io.cdap.delta.transformation.metrics.InstrumentedTransformation;
+import io.cdap.delta.transformation.plugins.ChainTransformation;
+import io.cdap.delta.transformation.plugins.CompiledChainTransformation;
+import io.cdap.delta.transformation.plugins.FpeTransformation;
+import io.cdap.delta.transformation.plugins.GeneralizeTransformation;
+import io.cdap.delta.transformation.plugins.HashTransformation;
+import io.cdap.delta.transformation.plugins.MaskTransformation;
+import io.cdap.delta.transformation.plugins.ProjectTransformation;
+import io.cdap.delta.transformation.plugins.RegexMaskTransformation;
+import io.cdap.delta.transformation.plugins.RenameTransformation;
+import io.cdap.delta.transformation.sample.plugins.ToStringTransformation;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.Transformation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs a list of directives through several variants of the same transformations, e.g. the separate plugins, a
+ * chain and a compiled chain, or a plugin before and after an optimization, and asserts that all of them transform
+ * the schema and every row exactly as the first variant does. The throughput of every variant is recorded with its
+ * result, so a rewrite can be checked for both behavior and speed in one run.
+ * <p>
+ * Rows a variant fails on are compared by exception type only, since the row is then partially transformed in a
+ * way that depends on the variant. Variants transforming rows in batches fail on whole batches, so they are only
+ * compared on rows the first variant transforms without error.
+ * </p>
+ */
+public final class DifferentialRunner {
+
+  private static final String[] CHAIN_DIRECTIVES = {FpeTransformation.NAME, GeneralizeTransformation.NAME,
+    HashTransformation.NAME, MaskTransformation.NAME, RegexMaskTransformation.NAME, RenameTransformation.NAME,
+    ToStringTransformation.NAME};
+
+  /**
+   * Creates the transformations of a variant for a list of directives.
+   */
+  public interface TransformationFactory {
+    List<Transformation> create(List<String> directives) throws Exception;
+  }
+
+  /**
+   * How a variant hands the schema and rows to its transformations.
+   */
+  public enum Mode {
+    /**
+     * Row by row, on the in-memory schema and rows.
+     */
+    ROWS,
+    /**
+     * In batches through {@link BatchTransformation#transformValues}.
+     */
+    BATCH,
+    /**
+     * Row by row, through wrappers that are nothing but a {@link MutableRowSchema} and {@link MutableRowValue}, as
+     * the schema and rows of the replicator are.
+     */
+    PLAIN
+  }
+
+  /**
+   * A named way to run directives, through the transformations of its factory, in one of the {@link Mode}s.
+   */
+  public static final class Variant {
+    private final String name;
+    private final TransformationFactory factory;
+    private final Mode mode;
+    private final boolean chained;
+
+    /**
+     * @param chained whether the factory puts the directives in a chain, which only takes the chain directives
+     *   without when clauses
+     */
+    public Variant(String name, TransformationFactory factory, Mode mode, boolean chained) {
+      this.name = name;
+      this.factory = factory;
+      this.mode = mode;
+      this.chained = chained;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+
+  /**
+   * The transformed schema and rows of every variant, and their throughputs.
+   */
+  public static final class Result {
+    private final Map<String, String> schemas = new LinkedHashMap<>();
+    private final Map<String, List<String>> rows = new LinkedHashMap<>();
+    private final Map<String, Double> rowsPerSecond = new LinkedHashMap<>();
+
+    public Map<String, String> getSchemas() {
+      return Collections.unmodifiableMap(schemas);
+    }
+
+    public Map<String, List<String>> getRows() {
+      return Collections.unmodifiableMap(rows);
+    }
+
+    /**
+     * Returns the number of rows every variant transformed per second, in the order the variants ran. Variants
+     * that do not take the directives are left out.
+     */
+    public Map<String, Double> getRowsPerSecond() {
+      return Collections.unmodifiableMap(rowsPerSecond);
+    }
+  }
+
+  private final List<Variant> variants;
+
+  public DifferentialRunner(List<Variant> variants) {
+    if (variants.isEmpty()) {
+      throw new IllegalArgumentException("No variant to run.");
+    }
+    this.variants = new ArrayList<>(variants);
+  }
+
+  /**
+   * Returns the variants every change to the transformations should keep in line: the separate plugins row by
+   * row, which is the reference, then in batches, on plain rows, wrapped in the metrics wrapper, and as a
+   * chain and a compiled chain.
+   */
+  public static List<Variant> standardVariants() {
+    List<Variant> variants = new ArrayList<>();
+    variants.add(new Variant("separate", DifferentialRunner::separate, Mode.ROWS, false));
+    variants.add(new Variant("batch", DifferentialRunner::separate, Mode.BATCH, false));
+    variants.add(new Variant("plain", DifferentialRunner::separate, Mode.PLAIN, false));
+    variants.add(new Variant("wrapped", DifferentialRunner::wrapped, Mode.BATCH, false));
+    variants.add(new Variant("chain", directives -> chain(new ChainTransformation(), ChainTransformation.NAME,
+                                                          directives), Mode.ROWS, true));
+    variants.add(new Variant("compiled-chain", directives -> chain(new CompiledChainTransformation(),
+                                                                   CompiledChainTransformation.NAME, directives),
+                             Mode.ROWS, true));
+    return variants;
+  }
+
+  /**
+   * Creates and initializes the plugin of the given directive.
+   *
+   * @throws IllegalArgumentException if there is no such plugin or the directive is not valid
+   */
+  public static Transformation create(String directive) throws Exception {
+    Transformation transformation = newPlugin(directive);
+    transformation.initialize(new DirectiveContext(directive));
+    return transformation;
+  }
+
+  private static Transformation newPlugin(String directive) {
+    String name = directive.trim().split("\\s+", 2)[0];
+    Transformation transformation;
+    switch (name) {
+      case FpeTransformation.NAME:
+        transformation = new FpeTransformation();
+        break;
+      case GeneralizeTransformation.NAME:
+        transformation = new GeneralizeTransformation();
+        break;
+      case HashTransformation.NAME:
+        transformation = new HashTransformation();
+        break;
+      case MaskTransformation.NAME:
+        transformation = new MaskTransformation();
+        break;
+      case ProjectTransformation.NAME:
+        transformation = new ProjectTransformation();
+        break;
+      case RegexMaskTransformation.NAME:
+        transformation = new RegexMaskTransformation();
+        break;
+      case RenameTransformation.NAME:
+        transformation = new RenameTransformation();
+        break;
+      case ToStringTransformation.NAME:
+        transformation = new ToStringTransformation();
+        break;
+      default:
+        throw new IllegalArgumentException(String.format("Unknown directive %s.", name));
+    }
+    return transformation;
+  }
+
+  private static List<Transformation> separate(List<String> directives) throws Exception {
+    List<Transformation> transformations = new ArrayList<>();
+    for (String directive : directives) {
+      transformations.add(create(directive));
+    }
+    return transformations;
+  }
+
+  private static List<Transformation> wrapped(List<String> directives) throws Exception {
+    InMemoryMetricsSink sink = new InMemoryMetricsSink();
+    List<Transformation> transformations = new ArrayList<>();
+    for (String directive : directives) {
+      Transformation transformation = new InstrumentedTransformation(newPlugin(directive), sink);
+      transformation.initialize(new DirectiveContext(directive));
+      transformations.add(transformation);
+    }
+    return transformations;
+  }
+
+  private static List<Transformation> chain(Transformation chain, String name, List<String> directives)
+    throws Exception {
+    chain.initialize(new DirectiveContext(name + " " + String.join(" ; ", directives)));
+    return Collections.singletonList(chain);
+  }
+
+  /**
+   * Runs the directives through every variant, on copies of the schema and rows, and asserts that all variants
+   * give the result of the first one.
+   *
+   * @param rows the rows to transform, which are copied for every variant
+   */
+  public Result run(InMemoryRowSchema schema, List<String> directives, List<InMemoryRowValue> rows)
+    throws Exception {
+    Result result = new Result();
+    List<String> reference = null;
+    for (Variant variant : variants) {
+      if (variant.chained && !isChainable(directives)) {
+        continue;
+      }
+      InMemoryRowSchema transformedSchema = schema.copy();
+      List<InMemoryRowValue> copies = new ArrayList<>();
+      for (InMemoryRowValue row : rows) {
+        copies.add(row.copy());
+      }
+      List<Transformation> transformations = variant.factory.create(directives);
+      boolean plain = variant.mode == Mode.PLAIN;
+      for (Transformation transformation : transformations) {
+        transformation.transformSchema(plain ? new PlainRowSchema(transformedSchema) : transformedSchema);
+      }
+      List<String> transformed;
+      long start = System.nanoTime();
+      if (variant.mode == Mode.BATCH) {
+        transformed = transformBatch(transformations, copies, reference);
+      } else {
+        transformed = new ArrayList<>();
+        for (InMemoryRowValue row : copies) {
+          transformed.add(transform(transformations, plain ? new PlainRowValue(row) : row, row));
+        }
+      }
+      long elapsed = Math.max(1, System.nanoTime() - start);
+
+      String message = String.format("Variant %s of %s", variant.name, directives);
+      if (reference == null) {
+        reference = transformed;
+      } else {
+        assertEquals(result.schemas.values().iterator().next(), transformedSchema.toString(), message);
+        for (int i = 0; i < rows.size(); i++) {
+          int index = i;
+          assertEquals(reference.get(i), transformed.get(i), () -> message + ", row " + index + " " + rows.get(index));
+        }
+      }
+      result.schemas.put(variant.name, transformedSchema.toString());
+      result.rows.put(variant.name, transformed);
+      result.rowsPerSecond.put(variant.name, rows.size() * 1e9 / elapsed);
+    }
+    return result;
+  }
+
+  private static boolean isChainable(List<String> directives) {
+    for (String directive : directives) {
+      List<String> tokens = DirectiveParser.tokenize(directive);
+      if (tokens.contains(DirectiveGrammar.WHEN)) {
+        return false;
+      }
+      String name = tokens.get(0);
+      boolean chainable = false;
+      for (String chainDirective : CHAIN_DIRECTIVES) {
+        chainable |= chainDirective.equals(name);
+      }
+      if (!chainable) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String transform(List<Transformation> transformations, MutableRowValue rowValue,
+                                  InMemoryRowValue row) {
+    try {
+      for (Transformation transformation : transformations) {
+        transformation.transformValue(rowValue);
+      }
+    } catch (Exception e) {
+      return "!" + e.getClass().getSimpleName();
+    }
+    return row.describe();
+  }
+
+  /**
+   * Transforms the rows the reference did not fail on in one batch, and gives the failures of the reference for
+   * the others.
+   */
+  private static List<String> transformBatch(List<Transformation> transformations, List<InMemoryRowValue> rows,
+                                             List<String> reference) throws Exception {
+    List<InMemoryRowValue> batch = new ArrayList<>();
+    for (int i = 0; i < rows.size(); i++) {
+      if (reference == null || !reference.get(i).startsWith("!")) {
+        batch.add(rows.get(i));
+      }
+    }
+    for (Transformation transformation : transformations) {
+      BatchTransformation.transformValues(transformation, batch);
+    }
+    List<String> transformed = new ArrayList<>();
+    for (int i = 0; i < rows.size(); i++) {
+      transformed.add(reference != null && reference.get(i).startsWith("!") ? reference.get(i) :
+                        rows.get(i).describe());
+    }
+    return transformed;
+  }
+
+  /**
+   * Schema that is nothing but a {@link MutableRowSchema}, so transformations cannot use anything else of the
+   * in-memory schema.
+   */
+  private static final class PlainRowSchema implements MutableRowSchema {
+    private final MutableRowSchema delegate;
+
+    PlainRowSchema(MutableRowSchema delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Schema.Field getField(String columnName) {
+      return delegate.getField(columnName);
+    }
+
+    @Override
+    public void setField(Schema.Field field) {
+      delegate.setField(field);
+    }
+
+    @Override
+    public void renameField(String originalName, String newName) {
+      delegate.renameField(originalName, newName);
+    }
+  }
+
+  /**
+   * Row that is nothing but a {@link MutableRowValue}, so transformations cannot use anything else of the
+   * in-memory row.
+   */
+  private static final class PlainRowValue implements MutableRowValue {
+    private final MutableRowValue delegate;
+
+    PlainRowValue(MutableRowValue delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Object getColumnValue(String columnName) {
+      return delegate.getColumnValue(columnName);
+    }
+
+    @Override
+    public void setColumnValue(String columnName, Object value) {
+      delegate.setColumnValue(columnName, value);
+    }
+
+    @Override
+    public void renameColumn(String originalName, String newName) {
+      delegate.renameColumn(originalName, newName);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.delta.transformation.harness;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DifferentialRunnerTest {
+
+  @Test
+  void testSchemaAndRowsShareLayouts() {
+    InMemoryRowSchema schema = new InMemoryRowSchema(Arrays.asList(
+      Schema.Field.of("id", Schema.of(Schema.Type.LONG)), Schema.Field.of("name", Schema.of(Schema.Type.STRING))));
+    InMemoryRowValue row = schema.newRow(1L, "abc");
+    InMemoryRowSchema transformed = schema.copy();
+    transformed.renameField("name", "full_name");
+    transformed.setField(Schema.Field.of("extra", Schema.of(Schema.Type.INT)));
+    row.renameColumn("name", "full_name");
+    row.setColumnValue("extra", 7);
+    assertSame(transformed.getLayout(), row.getLayout());
+    assertEquals(Arrays.asList("id", "full_name", "extra"), transformed.getFieldNames());
+    assertEquals("[id=Long:1, full_name=String:abc, extra=Integer:7]", row.describe());
+    assertEquals(Arrays.asList("id", "name"), schema.getFieldNames());
+    assertNull(row.getColumnValue("name"));
+    assertEquals("abc", row.getColumnValue("full_name"));
+    assertThrows(IllegalArgumentException.class, () -> transformed.renameField("id", "extra"));
+  }
+
+  @Test
+  void testGeneratorsAreReproducible() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      InMemoryRowSchema schema = new RowGenerator(7).schema(8);
+      assertEquals(new RowGenerator(7).schema(8).toString(), schema.toString());
+      assertEquals(new DirectiveGenerator(7).directives(schema, 6, true),
+                   new DirectiveGenerator(7).directives(schema, 6, true));
+      RowGenerator first = new RowGenerator(7);
+      RowGenerator second = new RowGenerator(7);
+      first.schema(8);
+      second.schema(8);
+      assertEquals(first.updates(schema, 3, 20).toString(), second.updates(schema, 3, 20).toString());
+    }
+  }
+
+  @Test
+  void testStandardVariantsAgree() throws Exception {
+    DifferentialRunner runner = new DifferentialRunner(DifferentialRunner.standardVariants());
+    Random seeds = new Random(42);
+    int chained = 0;
+    for (int i = 0; i < 200; i++) {
+      long seed = seeds.nextLong();
+      RowGenerator rows = new RowGenerator(seed);
+      InMemoryRowSchema schema = rows.schema(4 + (int) Math.floorMod(seed, 6L));
+      List<String> directives = new DirectiveGenerator(seed).directives(schema, 1 + i % 6, i % 4 == 0);
+      DifferentialRunner.Result result = runner.run(schema, directives, rows.updates(schema, 4, 40));
+      Map<String, Double> rowsPerSecond = result.getRowsPerSecond();
+      assertTrue(rowsPerSecond.keySet().containsAll(Arrays.asList("separate", "batch", "plain", "wrapped")));
+      if (rowsPerSecond.containsKey("compiled-chain")) {
+        chained++;
+      }
+    }
+    assertTrue(chained > 100, "chains ran " + chained + " times");
+  }
+
+  @Test
+  void testDetectsDrift() throws Exception {
+    InMemoryRowSchema schema = new InMemoryRowSchema(Collections.singletonList(
+      Schema.Field.of("ssn", Schema.of(Schema.Type.STRING))));
+    List<InMemoryRowValue> rows = Collections.singletonList(schema.newRow("123456789"));
+    DifferentialRunner runner = new DifferentialRunner(Arrays.asList(
+      new DifferentialRunner.Variant("reference", directives -> Collections.singletonList(
+        DifferentialRunner.create("mask ssn right * 4")), DifferentialRunner.Mode.ROWS, false),
+      new DifferentialRunner.Variant("drifted", directives -> Collections.singletonList(
+        DifferentialRunner.create("mask ssn right * 3")), DifferentialRunner.Mode.ROWS, false)));
+    assertThrows(AssertionFailedError.class, () -> runner.run(schema, Collections.emptyList(), rows));
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.delta.transformation.harness;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.TestSecrets;
+import io.cdap.transformation.api.Transformation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates random lists of directives of all the transformation plugins for a schema. Every directive is checked
+ * against the schema as transformed by the directives before it, and replaced by another one if its plugin rejects
+ * it, so lists only hold directives that apply, with or without a when clause. The same seed always gives the same
+ * directives.
+ */
+public final class DirectiveGenerator {
+
+  private static final int ATTEMPTS = 50;
+  private static final String FPE_KEY = TestSecrets.reference("000102030405060708090a0b0c0d0e0f");
+  private static final String[] FPE_ALPHABETS = {"digits", "hex", "lower-alphanumeric", "alphanumeric"};
+  private static final String[] REGEXES = {"[0-9]", "[aeiou]", "\\d{2}", ".", "[A-Z]+"};
+  private static final String[] GRANULARITIES = {"10", "0.5", "3", "second", "hour", "day", "week", "month"};
+  private static final String[] NAME_RULES = {"case:snake", "case:camel", "strip-prefix:src_", "case:upper"};
+
+  private final Random random;
+  private int renameCount;
+
+  public DirectiveGenerator(long seed) {
+    this.random = new Random(seed);
+  }
+
+  /**
+   * Returns up to the given number of directives that apply to the schema, which is left as it is.
+   *
+   * @param projects whether to include project directives, which chains do not take
+   */
+  public List<String> directives(InMemoryRowSchema schema, int count, boolean projects) throws Exception {
+    InMemoryRowSchema transformed = schema.copy();
+    List<String> directives = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+        String directive = propose(transformed, projects);
+        InMemoryRowSchema candidate = transformed.copy();
+        try {
+          Transformation transformation = DifferentialRunner.create(directive);
+          transformation.transformSchema(candidate);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+          continue;
+        }
+        directives.add(directive);
+        transformed = candidate;
+        break;
+      }
+    }
+    return directives;
+  }
+
+  private String propose(InMemoryRowSchema schema, boolean projects) {
+    List<String> names = schema.getFieldNames();
+    String column = names.get(random.nextInt(names.size()));
+    switch (random.nextInt(projects ? 9 : 8)) {
+      case 0:
+        return "to-string " + column;
+      case 1:
+        return "rename " + column + " r" + renameCount++;
+      case 2:
+        return "hash " + column + (random.nextBoolean() ? " siphash " : " hmac-sha256 ")
+          + TestSecrets.reference("key" + random.nextInt(2));
+      case 3:
+        return "fpe " + column + (random.nextInt(4) == 0 ? " decrypt " : " encrypt ")
+          + pick(FPE_ALPHABETS) + " " + FPE_KEY + (random.nextBoolean() ? " 0a0b" : "") + when(schema);
+      case 4:
+        return "mask-regex " + column + " " + pick(REGEXES) + " #" + when(schema);
+      case 5:
+        return "generalize " + column + (random.nextInt(3) == 0 ? " prefix " : random.nextBoolean() ? " floor " :
+          " round ") + pick(GRANULARITIES) + when(schema);
+      case 8:
+        return "project " + (random.nextBoolean() ? pick(NAME_RULES) + "," + column : column + "=p" + renameCount++)
+          + (random.nextBoolean() ? " drop " + names.get(random.nextInt(names.size())) : "");
+      default:
+        String unit = random.nextInt(4) == 0 ? (random.nextBoolean() ? " code-point" : " grapheme") : "";
+        return "mask " + column + (random.nextBoolean() ? " left " : " right ")
+          + "*#x".charAt(random.nextInt(3)) + " " + random.nextInt(6) + unit + when(schema);
+    }
+  }
+
+  /**
+   * Returns a when clause on a random field, or nothing, most of the time.
+   */
+  private String when(InMemoryRowSchema schema) {
+    if (random.nextInt(4) != 0) {
+      return "";
+    }
+    Schema.Field field = schema.getFields().get(random.nextInt(schema.getFields().size()));
+    Schema fieldSchema = field.getSchema().isNullable() ? field.getSchema().getNonNullable() : field.getSchema();
+    String predicate;
+    switch (fieldSchema.getType()) {
+      case STRING:
+        predicate = random.nextBoolean() ? " != ''" : " in ('0000', 'a')";
+        break;
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+        predicate = random.nextBoolean() ? " > 0" : " <= 10";
+        break;
+      case BOOLEAN:
+        predicate = " = true";
+        break;
+      default:
+        predicate = " is not null";
+    }
+    return " when " + (random.nextInt(4) == 0 ? "not " : "") + field.getName() + predicate;
+  }
+
+  private String pick(String[] choices) {
+    return choices[random.nextInt(choices.length)];
+  }
+}
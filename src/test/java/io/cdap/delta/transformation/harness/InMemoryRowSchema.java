@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.delta.transformation.harness;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.transformation.api.MutableRowSchema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * List backed {@link MutableRowSchema} for tests, which creates the rows of its fields. New fields are added at the
+ * end and renamed fields keep their position. Copies and rows share the layout of the schema they come from.
+ */
+public final class InMemoryRowSchema implements MutableRowSchema {
+
+  private final List<Schema.Field> fields;
+  private Layout layout;
+
+  public InMemoryRowSchema(List<Schema.Field> fields) {
+    this(new ArrayList<>(fields),
+         new Layout(fields.stream().map(Schema.Field::getName).collect(Collectors.toList())));
+  }
+
+  private InMemoryRowSchema(List<Schema.Field> fields, Layout layout) {
+    this.fields = fields;
+    this.layout = layout;
+  }
+
+  /**
+   * Returns a copy of this schema, which can be transformed on its own.
+   */
+  public InMemoryRowSchema copy() {
+    return new InMemoryRowSchema(new ArrayList<>(fields), layout);
+  }
+
+  /**
+   * Creates a row of this schema with the given values, in field order.
+   */
+  public InMemoryRowValue newRow(Object... values) {
+    if (values.length != fields.size()) {
+      throw new IllegalArgumentException(
+        String.format("Schema has %d fields, given %d values.", fields.size(), values.length));
+    }
+    return new InMemoryRowValue(layout, values.clone());
+  }
+
+  public List<Schema.Field> getFields() {
+    return Collections.unmodifiableList(fields);
+  }
+
+  @Override
+  public Schema.Field getField(String columnName) {
+    int index = layout.indexOf(columnName);
+    return index < 0 ? null : fields.get(index);
+  }
+
+  @Override
+  public void setField(Schema.Field field) {
+    int index = layout.indexOf(field.getName());
+    if (index < 0) {
+      fields.add(field);
+      layout = layout.append(field.getName());
+    } else {
+      fields.set(index, field);
+    }
+  }
+
+  @Override
+  public void renameField(String originalName, String newName) {
+    int index = layout.indexOf(originalName);
+    if (index < 0) {
+      throw new IllegalArgumentException(String.format("Field %s does not exist.", originalName));
+    }
+    layout = layout.rename(index, newName);
+    fields.set(index, Schema.Field.of(newName, fields.get(index).getSchema()));
+  }
+
+  Layout getLayout() {
+    return layout;
+  }
+
+  public List<String> getFieldNames() {
+    return layout.getNames();
+  }
+
+  @Override
+  public String toString() {
+    return fields.stream().map(field -> field.getName() + ":" + field.getSchema())
+      .collect(Collectors.joining(", ", "[", "]"));
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.delta.transformation.harness;
+
+import com.google.common.io.BaseEncoding;
+import io.cdap.transformation.api.MutableRowValue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Array backed {@link MutableRowValue} for tests, created by {@link InMemoryRowSchema#newRow}. Setting a column the
+ * row does not have adds it at the end and renaming it does nothing.
+ */
+public class InMemoryRowValue implements MutableRowValue {
+
+  private static final BaseEncoding HEX = BaseEncoding.base16().lowerCase();
+
+  private Layout layout;
+  private Object[] values;
+
+  InMemoryRowValue(Layout layout, Object[] values) {
+    this.layout = layout;
+    this.values = values;
+  }
+
+  /**
+   * Returns a copy of this row, which can be transformed on its own. Values are shared.
+   */
+  public InMemoryRowValue copy() {
+    return new InMemoryRowValue(layout, values.clone());
+  }
+
+  Layout getLayout() {
+    return layout;
+  }
+
+  @Override
+  public Object getColumnValue(String columnName) {
+    int index = layout.indexOf(columnName);
+    return index < 0 ? null : values[index];
+  }
+
+  @Override
+  public void setColumnValue(String columnName, Object value) {
+    int index = layout.indexOf(columnName);
+    if (index < 0) {
+      layout = layout.append(columnName);
+      values = Arrays.copyOf(values, values.length + 1);
+      index = values.length - 1;
+    }
+    values[index] = value;
+  }
+
+  @Override
+  public void renameColumn(String originalName, String newName) {
+    int index = layout.indexOf(originalName);
+    if (index >= 0) {
+      layout = layout.rename(index, newName);
+    }
+  }
+
+  /**
+   * Describes the columns of the row in order, with the type of every value, so rows compare equal only if their
+   * values are of the same types. Strings and other char sequences are described alike.
+   */
+  public String describe() {
+    StringBuilder description = new StringBuilder("[");
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        description.append(", ");
+      }
+      description.append(layout.getNames().get(i)).append('=').append(describe(values[i]));
+    }
+    return description.append(']').toString();
+  }
+
+  private static String describe(Object value) {
+    if (value == null) {
+      return "null";
+    }
+    if (value instanceof String) {
+      return "String:" + value;
+    }
+    if (value instanceof byte[]) {
+      return "byte[]:" + HEX.encode((byte[]) value);
+    }
+    if (value instanceof ByteBuffer) {
+      ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      return "ByteBuffer:" + HEX.encode(bytes);
+    }
+    return value.getClass().getSimpleName() + ":" + value;
+  }
+
+  @Override
+  public String toString() {
+    return describe();
+  }
+}
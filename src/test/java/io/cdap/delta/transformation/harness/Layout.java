@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.delta.transformation.harness;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column names and positions shared by a schema, its copies and the rows created for it. The layout a rename or a
+ * new column leads to is remembered, so a schema and its rows going through the same changes end up with the same
+ * layout.
+ */
+final class Layout {
+
+  private final List<String> names;
+  private final Map<String, Integer> indexes = new HashMap<>();
+  private final Map<String, Layout> derived = new HashMap<>();
+
+  Layout(List<String> names) {
+    this.names = Collections.unmodifiableList(new ArrayList<>(names));
+    for (int i = 0; i < names.size(); i++) {
+      indexes.put(names.get(i), i);
+    }
+  }
+
+  List<String> getNames() {
+    return names;
+  }
+
+  int size() {
+    return names.size();
+  }
+
+  int indexOf(String name) {
+    Integer index = indexes.get(name);
+    return index == null ? -1 : index;
+  }
+
+  Layout rename(int index, String newName) {
+    if (indexes.containsKey(newName)) {
+      throw new IllegalArgumentException(String.format("Column %s already exists.", newName));
+    }
+    // the index ends at the first slash, so keys are unique whatever the name
+    return derived.computeIfAbsent(index + "/" + newName, key -> {
+      List<String> renamed = new ArrayList<>(names);
+      renamed.set(index, newName);
+      return new Layout(renamed);
+    });
+  }
+
+  Layout append(String name) {
+    return derived.computeIfAbsent("+" + name, key -> {
+      List<String> appended = new ArrayList<>(names);
+      appended.add(name);
+      return new Layout(appended);
+    });
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package io.cdap.delta.transformation.harness;
+
+import io.cdap.cdap.api.data.schema.Schema;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates random schemas and rows, with the values change events carry: nulls, empty and long strings, strings
+ * outside the Basic Multilingual Plane or with combining marks, bytes as arrays and buffers, boundary numbers and
+ * logical types. The same seed always gives the same schemas and rows.
+ */
+public final class RowGenerator {
+
+  private static final String[] NAME_PREFIXES = {"c", "src_col", "Amount"};
+  private static final String[] ODD_STRINGS = {"", " ", "\ud83d\ude00", "Jose\u0301", "a\r\nb", "\u00e9t\u00e9",
+    "0000", "-12.5"};
+  private static final Schema[] TYPES = {
+    Schema.of(Schema.Type.STRING),
+    Schema.of(Schema.Type.STRING),
+    Schema.of(Schema.Type.BYTES),
+    Schema.of(Schema.Type.INT),
+    Schema.of(Schema.Type.LONG),
+    Schema.of(Schema.Type.FLOAT),
+    Schema.of(Schema.Type.DOUBLE),
+    Schema.of(Schema.Type.BOOLEAN),
+    Schema.of(Schema.LogicalType.DATE),
+    Schema.of(Schema.LogicalType.TIME_MILLIS),
+    Schema.of(Schema.LogicalType.TIMESTAMP_MICROS),
+    Schema.decimalOf(10, 2)
+  };
+
+  private final Random random;
+
+  public RowGenerator(long seed) {
+    this.random = new Random(seed);
+  }
+
+  /**
+   * Returns a schema of the given number of fields of random types, about a third of them nullable.
+   */
+  public InMemoryRowSchema schema(int fieldCount) {
+    List<Schema.Field> fields = new ArrayList<>();
+    for (int i = 0; i < fieldCount; i++) {
+      Schema schema = TYPES[random.nextInt(TYPES.length)];
+      fields.add(Schema.Field.of(NAME_PREFIXES[random.nextInt(NAME_PREFIXES.length)] + i,
+                                 random.nextInt(3) == 0 ? Schema.nullableOf(schema) : schema));
+    }
+    return new InMemoryRowSchema(fields);
+  }
+
+  /**
+   * Returns the given number of random rows of the schema.
+   */
+  public List<InMemoryRowValue> rows(InMemoryRowSchema schema, int count) {
+    List<InMemoryRowValue> rows = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      rows.add(schema.newRow(values(schema)));
+    }
+    return rows;
+  }
+
+  /**
+   * Returns the given number of UPDATE events of a few keys, each changing one or two columns of the last image of
+   * its key. Values are copied into every event, as deserialized events do.
+   */
+  public List<InMemoryRowValue> updates(InMemoryRowSchema schema, int keyCount, int count) {
+    List<Schema.Field> fields = schema.getFields();
+    Object[][] keys = new Object[keyCount][];
+    for (int k = 0; k < keyCount; k++) {
+      keys[k] = values(schema);
+    }
+    List<InMemoryRowValue> updates = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Object[] key = keys[random.nextInt(keyCount)];
+      for (int j = 1 + random.nextInt(2); j > 0; j--) {
+        int index = random.nextInt(fields.size());
+        key[index] = value(fields.get(index).getSchema());
+      }
+      Object[] values = new Object[key.length];
+      for (int j = 0; j < key.length; j++) {
+        values[j] = copy(key[j]);
+      }
+      updates.add(schema.newRow(values));
+    }
+    return updates;
+  }
+
+  private Object[] values(InMemoryRowSchema schema) {
+    List<Schema.Field> fields = schema.getFields();
+    Object[] values = new Object[fields.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = value(fields.get(i).getSchema());
+    }
+    return values;
+  }
+
+  /**
+   * Returns a random value of the given schema, null for one in five values of nullable schemas.
+   */
+  public Object value(Schema schema) {
+    if (schema.isNullable()) {
+      if (random.nextInt(5) == 0) {
+        return null;
+      }
+      schema = schema.getNonNullable();
+    }
+    Schema.LogicalType logicalType = schema.getLogicalType();
+    if (logicalType != null) {
+      switch (logicalType) {
+        case DATE:
+          return random.nextInt(40000) - 10000;
+        case TIME_MILLIS:
+          return random.nextInt(86400000);
+        case TIMESTAMP_MICROS:
+          return (random.nextLong() % 4000000000L) * 1000000L + random.nextInt(1000000);
+        case DECIMAL:
+          return new BigDecimal(BigInteger.valueOf(random.nextInt(2000000000) - 1000000000), schema.getScale());
+        default:
+          throw new IllegalArgumentException("Unsupported logical type " + logicalType);
+      }
+    }
+    switch (schema.getType()) {
+      case STRING:
+        return string();
+      case BYTES:
+        byte[] bytes = new byte[random.nextInt(16)];
+        random.nextBytes(bytes);
+        return random.nextBoolean() ? bytes : ByteBuffer.wrap(bytes);
+      case INT:
+        return random.nextInt(4) == 0 ? random.nextInt() : random.nextInt(2000) - 1000;
+      case LONG:
+        return random.nextInt(8) == 0 ? (random.nextBoolean() ? Long.MIN_VALUE : Long.MAX_VALUE)
+          : random.nextLong() >> random.nextInt(64);
+      case FLOAT:
+        return (random.nextFloat() - 0.5f) * 1000;
+      case DOUBLE:
+        return random.nextInt(8) == 0 ? Double.NaN : (random.nextDouble() - 0.5) * 1e6;
+      case BOOLEAN:
+        return random.nextBoolean();
+      default:
+        throw new IllegalArgumentException("Unsupported type " + schema.getType());
+    }
+  }
+
+  private String string() {
+    switch (random.nextInt(6)) {
+      case 0:
+        return ODD_STRINGS[random.nextInt(ODD_STRINGS.length)];
+      case 1:
+        return digits(random.nextInt(20));
+      case 2:
+        return letters(100 + random.nextInt(1000));
+      default:
+        return letters(random.nextInt(16));
+    }
+  }
+
+  private String digits(int length) {
+    StringBuilder digits = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      digits.append((char) ('0' + random.nextInt(10)));
+    }
+    return digits.toString();
+  }
+
+  private String letters(int length) {
+    StringBuilder letters = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      int next = random.nextInt(64);
+      if (next == 0) {
+        letters.append("\ud83d\ude00");
+      } else if (next < 10) {
+        letters.append((char) ('0' + next));
+      } else if (next < 36) {
+        letters.append((char) ('a' + next - 10));
+      } else {
+        letters.append((char) ('A' + (next - 36) % 26));
+      }
+    }
+    return letters.toString();
+  }
+
+  private static Object copy(Object value) {
+    if (value instanceof String) {
+      return new String((String) value);
+    }
+    if (value instanceof byte[]) {
+      return ((byte[]) value).clone();
+    }
+    if (value instanceof ByteBuffer) {
+      return ByteBuffer.wrap(((ByteBuffer) value).array().clone());
+    }
+    return value;
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.metrics;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.BatchTransformation;
+import io.cdap.delta.transformation.plugins.MaskTransformation;
+import io.cdap.transformation.api.Directive;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.TransformationContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InstrumentedTransformationTest {
+
+  private static final String DIRECTIVE = "mask column right * 2";
+
+  private final InMemoryMetricsSink sink = new InMemoryMetricsSink();
+  private final InstrumentedTransformation instrumented =
+    new InstrumentedTransformation(new MaskTransformation(), sink);
+
+  private void initialize(String commandLine) throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn(commandLine);
+    when(context.getDirective()).thenReturn(directive);
+    instrumented.initialize(context);
+  }
+
+  private static MutableRowValue row(Object value) {
+    MutableRowValue row = mock(MutableRowValue.class);
+    when(row.getColumnValue("column")).thenReturn(value);
+    return row;
+  }
+
+  @Test
+  void testCountsEvents() throws Exception {
+    initialize(DIRECTIVE);
+    MutableRowValue masked = row("abcdef");
+    instrumented.transformValue(masked);
+    instrumented.transformValue(row(null));
+    instrumented.transformValues(Arrays.asList(row("ab"), row(null), row("abc")));
+    verify(masked).setColumnValue("column", "****ef");
+
+    TransformationMetrics metrics = instrumented.getMetrics();
+    assertEquals(DIRECTIVE, metrics.getDirective());
+    assertEquals(5, metrics.getEvents());
+    assertEquals(2, metrics.getNullsSkipped());
+    assertEquals(2, metrics.getValuesRewritten());
+    assertEquals(0, metrics.getErrors());
+    assertTrue(metrics.getValueTimeNanos() > 0);
+
+    assertEquals(0, sink.get(DIRECTIVE, TransformationMetrics.EVENTS));
+    instrumented.flush();
+    assertEquals(5, sink.get(DIRECTIVE, TransformationMetrics.EVENTS));
+    assertEquals(2, sink.get(DIRECTIVE, TransformationMetrics.VALUES_REWRITTEN));
+    instrumented.transformValue(row("abcdef"));
+    instrumented.flush();
+    assertEquals(6, sink.get(DIRECTIVE, TransformationMetrics.EVENTS));
+    assertEquals(3, sink.get(DIRECTIVE, TransformationMetrics.VALUES_REWRITTEN));
+  }
+
+  @Test
+  void testPassesBatchesOn() throws Exception {
+    BatchTransformation delegate = mock(BatchTransformation.class);
+    doAnswer(invocation -> {
+      for (MutableRowValue row : invocation.<List<MutableRowValue>>getArgument(0)) {
+        row.setColumnValue("column", row.getColumnValue("column"));
+      }
+      return null;
+    }).when(delegate).transformValues(anyList());
+    InstrumentedTransformation batching = new InstrumentedTransformation(delegate, sink);
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn(DIRECTIVE);
+    when(context.getDirective()).thenReturn(directive);
+    batching.initialize(context);
+
+    MutableRowValue first = row("a");
+    batching.transformValues(Arrays.asList(first, row(null), row("c")));
+    verify(delegate).transformValues(anyList());
+    verify(delegate, never()).transformValue(any());
+    verify(first).setColumnValue("column", "a");
+    TransformationMetrics metrics = batching.getMetrics();
+    assertEquals(3, metrics.getEvents());
+    // the delegate does not name its columns
+    assertEquals(0, metrics.getNullsSkipped());
+    assertEquals(3, metrics.getValuesRewritten());
+  }
+
+  @Test
+  void testCountsNullsOfOwnColumnsOnly() throws Exception {
+    initialize("mask column right * 2 when country = 'DE'");
+    MutableRowValue noCountry = row("abcdef");
+    MutableRowValue neither = row(null);
+    when(neither.getColumnValue("country")).thenReturn("DE");
+    instrumented.transformValue(noCountry);
+    instrumented.transformValues(Arrays.asList(row("abc"), neither));
+    verify(noCountry).getColumnValue("country");
+    verify(noCountry, never()).setColumnValue(any(), any());
+    assertEquals(1, instrumented.getMetrics().getNullsSkipped());
+  }
+
+  @Test
+  void testCountsErrors() throws Exception {
+    initialize(DIRECTIVE);
+    assertThrows(IllegalArgumentException.class, () -> instrumented.transformValue(row(12)));
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField("column")).thenReturn(Schema.Field.of("column", Schema.of(Schema.Type.INT)));
+    assertThrows(IllegalArgumentException.class, () -> instrumented.transformSchema(schema));
+
+    // schema changes flush the metrics
+    assertEquals(2, sink.get(DIRECTIVE, TransformationMetrics.ERRORS));
+    assertEquals(1, sink.get(DIRECTIVE, TransformationMetrics.SCHEMA_EVENTS));
+    assertEquals(1, sink.get(DIRECTIVE, TransformationMetrics.EVENTS));
+  }
+
+  @Test
+  void testCountsInitializationErrors() {
+    assertThrows(IllegalArgumentException.class, () -> initialize("mask column up * 2"));
+    assertEquals(1, sink.get("mask column up * 2", TransformationMetrics.ERRORS));
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.transformation.api.Directive;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.TransformationContext;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChainTransformationTest {
+
+  private ChainTransformation chain = new ChainTransformation();
+
+  private static TransformationContext context(String commandLine) {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn(commandLine);
+    when(context.getDirective()).thenReturn(directive);
+    return context;
+  }
+
+  @Test
+  void testInitializeWithNullCommandLine() {
+    assertThrows(IllegalArgumentException.class, () -> chain.initialize(context(null)));
+  }
+
+  @Test
+  void testInitializeWithInvalidDirectives() {
+    assertThrows(IllegalArgumentException.class, () -> chain.initialize(context("chains mask a right * 4")));
+    assertThrows(IllegalArgumentException.class, () -> chain.initialize(context("chain")));
+    assertThrows(IllegalArgumentException.class, () -> chain.initialize(context("chain mask a right * 4 ;")));
+    assertThrows(IllegalArgumentException.class, () -> chain.initialize(context("chain drop a")));
+    assertThrows(IllegalArgumentException.class, () -> chain.initialize(context("chain mask a right * x")));
+  }
+
+  @Test
+  void testDirectivesKeepTheirText() {
+    // the error of the second directive quotes it as written
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> chain.initialize(
+      context("chain rename a b ;  mask  c   right\t*")));
+    assertTrue(e.getMessage().endsWith("given directive: mask  c   right\t*"), e.getMessage());
+  }
+
+  @Test
+  void testFusesValueChangesOnSameColumn() throws Exception {
+    chain.initialize(context("chain to-string id ; rename id masked_id ; mask masked_id right * 2 ; " +
+                               "mask card left # 1"));
+    MutableRowValue value = mock(MutableRowValue.class);
+    when(value.getColumnValue("id")).thenReturn(123456L);
+    when(value.getColumnValue("card")).thenReturn("4111");
+    chain.transformValue(value);
+
+    InOrder order = inOrder(value);
+    order.verify(value).getColumnValue("id");
+    order.verify(value).setColumnValue("id", "****56");
+    order.verify(value).getColumnValue("card");
+    order.verify(value).setColumnValue("card", "4###");
+    order.verify(value).renameColumn("id", "masked_id");
+    verify(value, times(2)).setColumnValue(any(), any());
+    verify(value, times(1)).renameColumn(any(), any());
+  }
+
+  @Test
+  void testCollapsesRenames() throws Exception {
+    chain.initialize(context("chain rename a b ; rename b c ; rename x y ; rename y x"));
+    MutableRowValue value = mock(MutableRowValue.class);
+    chain.transformValue(value);
+    verify(value, times(1)).renameColumn("a", "c");
+    verify(value, times(1)).renameColumn(any(), any());
+    verify(value, never()).getColumnValue(any());
+  }
+
+  @Test
+  void testSkipsNullValues() throws Exception {
+    chain.initialize(context("chain to-string id ; mask id right * 2"));
+    MutableRowValue value = mock(MutableRowValue.class);
+    chain.transformValue(value);
+    verify(value, never()).setColumnValue(any(), any());
+  }
+
+  @Test
+  void testTransformSchemaAppliesEachDirective() throws Exception {
+    chain.initialize(context("chain to-string id ; mask id right * 2 ; rename id masked_id"));
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField("id")).thenReturn(Schema.Field.of("id", Schema.of(Schema.Type.STRING)));
+    chain.transformSchema(schema);
+    InOrder order = inOrder(schema);
+    order.verify(schema).setField(Schema.Field.of("id", Schema.of(Schema.Type.STRING)));
+    // the schema cache reads the source of the rename as well
+    order.verify(schema, atLeastOnce()).getField("id");
+    order.verify(schema).renameField("id", "masked_id");
+  }
+
+  @Test
+  void testColumnPatternIsRejected() {
+    assertThrows(IllegalArgumentException.class,
+                 () -> chain.initialize(context("chain rename ssn user_ssn ; mask *_ssn right * 2")));
+  }
+
+  @Test
+  void testConditionalDirectiveIsRejected() {
+    assertThrows(IllegalArgumentException.class,
+                 () -> chain.initialize(context("chain mask a right * 4 when b = 1 ; rename a c")));
+  }
+
+  @Test
+  void testFieldPathDirectiveIsRejected() {
+    assertThrows(IllegalArgumentException.class,
+                 () -> chain.initialize(context("chain mask doc.ssn right * 4 ; rename a c")));
+    assertThrows(IllegalArgumentException.class,
+                 () -> chain.initialize(context("chain mask a right * 4 ; rename doc.a b")));
+  }
+}
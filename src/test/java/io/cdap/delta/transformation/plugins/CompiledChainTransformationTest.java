@@ -0,0 +1,215 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import io.cdap.delta.transformation.DirectiveContext;
+import io.cdap.delta.transformation.TestSecrets;
+import io.cdap.delta.transformation.sample.plugins.ToStringTransformation;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.Transformation;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledChainTransformationTest {
+
+  private static final int COLUMN_COUNT = 6;
+
+  /**
+   * Map backed row.
+   */
+  private static final class Row implements MutableRowValue {
+    private final Map<String, Object> values;
+
+    Row(Map<String, Object> values) {
+      this.values = new HashMap<>(values);
+    }
+
+    @Override
+    public Object getColumnValue(String columnName) {
+      return values.get(columnName);
+    }
+
+    @Override
+    public void setColumnValue(String columnName, Object value) {
+      values.put(columnName, value);
+    }
+
+    @Override
+    public void renameColumn(String oldName, String newName) {
+      if (values.containsKey(oldName)) {
+        values.put(newName, values.remove(oldName));
+      }
+    }
+  }
+
+  @Test
+  void testInitialize() throws Exception {
+    CompiledChainTransformation chain = new CompiledChainTransformation();
+    assertThrows(IllegalArgumentException.class,
+                 () -> chain.initialize(new DirectiveContext("chain mask a right * 4")));
+    chain.initialize(new DirectiveContext("compiled-chain to-string id ; mask id right * 2 ; rename id masked_id"));
+    assertTrue(chain.isCompiled());
+    Map<String, Object> values = new HashMap<>();
+    values.put("id", 123456L);
+    Row row = new Row(values);
+    chain.transformValue(row);
+    assertEquals("****56", row.getColumnValue("masked_id"));
+  }
+
+  @Test
+  void testMatchesSeparateDirectives() throws Exception {
+    Random random = new Random(42);
+    for (int i = 0; i < 300; i++) {
+      List<String> directives = randomDirectives(random);
+      ChainTransformation chain = new ChainTransformation();
+      chain.initialize(new DirectiveContext(ChainTransformation.NAME + " " + String.join(" ; ", directives)));
+      CompiledChainTransformation compiled = new CompiledChainTransformation();
+      compiled.initialize(new DirectiveContext(CompiledChainTransformation.NAME + " " +
+                                                 String.join(" ; ", directives)));
+      assertTrue(compiled.isCompiled());
+      for (int j = 0; j < 10; j++) {
+        Map<String, Object> values = randomValues(random);
+        String expected = apply(separate(directives), values);
+        assertEquals(expected, apply(chain, values), directives::toString);
+        assertEquals(expected, apply(compiled, values), directives::toString);
+      }
+    }
+  }
+
+  private static List<String> randomDirectives(Random random) {
+    List<String> directives = new ArrayList<>();
+    // directives only refer to columns that exist at their point of the list
+    List<String> columns = new ArrayList<>();
+    for (int i = 0; i < COLUMN_COUNT; i++) {
+      columns.add("c" + i);
+    }
+    int count = 1 + random.nextInt(8);
+    for (int i = 0; i < count; i++) {
+      int index = random.nextInt(COLUMN_COUNT);
+      String column = columns.get(index);
+      switch (random.nextInt(5)) {
+        case 0:
+          directives.add("to-string " + column);
+          break;
+        case 1:
+          directives.add("rename " + column + " r" + i);
+          columns.set(index, "r" + i);
+          break;
+        case 2:
+          directives.add("hash " + column + " siphash " + TestSecrets.reference("key"));
+          break;
+        default:
+          String unit = random.nextInt(4) == 0 ? " code-point" : "";
+          directives.add("mask " + column + (random.nextBoolean() ? " left " : " right ") + "*#x".charAt(
+            random.nextInt(3)) + " " + random.nextInt(6) + unit);
+      }
+    }
+    return directives;
+  }
+
+  private static Map<String, Object> randomValues(Random random) {
+    Map<String, Object> values = new HashMap<>();
+    for (int i = 0; i < COLUMN_COUNT; i++) {
+      Object value;
+      switch (random.nextInt(5)) {
+        case 0:
+          value = null;
+          break;
+        case 1:
+          value = random.nextLong();
+          break;
+        case 2:
+          value = ("b" + random.nextInt(100000)).getBytes(StandardCharsets.US_ASCII);
+          break;
+        default:
+          StringBuilder string = new StringBuilder();
+          int length = random.nextInt(12);
+          for (int j = 0; j < length; j++) {
+            string.append(random.nextInt(10) == 0 ? "😀" : String.valueOf((char) ('a' + random.nextInt(26))));
+          }
+          value = string.toString();
+      }
+      values.put("c" + i, value);
+    }
+    return values;
+  }
+
+  private static List<Transformation> separate(List<String> directives) throws Exception {
+    List<Transformation> transformations = new ArrayList<>();
+    for (String directive : directives) {
+      Transformation transformation;
+      switch (directive.substring(0, directive.indexOf(' '))) {
+        case RenameTransformation.NAME:
+          transformation = new RenameTransformation();
+          break;
+        case ToStringTransformation.NAME:
+          transformation = new ToStringTransformation();
+          break;
+        case HashTransformation.NAME:
+          transformation = new HashTransformation();
+          break;
+        default:
+          transformation = new MaskTransformation();
+      }
+      transformation.initialize(new DirectiveContext(directive));
+      transformations.add(transformation);
+    }
+    return transformations;
+  }
+
+  private static String apply(List<Transformation> transformations, Map<String, Object> values) {
+    Row row = new Row(values);
+    try {
+      for (Transformation transformation : transformations) {
+        transformation.transformValue(row);
+      }
+    } catch (Exception e) {
+      return e.getClass().getSimpleName();
+    }
+    return describe(row);
+  }
+
+  private static String apply(Transformation transformation, Map<String, Object> values) {
+    Row row = new Row(values);
+    try {
+      transformation.transformValue(row);
+    } catch (Exception e) {
+      return e.getClass().getSimpleName();
+    }
+    return describe(row);
+  }
+
+  private static String describe(Row row) {
+    Map<String, Object> values = new TreeMap<>();
+    for (Map.Entry<String, Object> value : row.values.entrySet()) {
+      values.put(value.getKey(), value.getValue() instanceof byte[] ?
+        new String((byte[]) value.getValue(), StandardCharsets.ISO_8859_1) : value.getValue());
+    }
+    return values.toString();
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.TestSecrets;
+import io.cdap.transformation.api.Directive;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.TransformationContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FpeTransformationTest {
+
+  private static final String KEY = TestSecrets.reference("2B7E151628AED2A6ABF7158809CF4F3C");
+
+  private static FpeTransformation initialize(String commandLine) throws Exception {
+    FpeTransformation fpe = new FpeTransformation();
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn(commandLine);
+    when(context.getDirective()).thenReturn(directive);
+    fpe.initialize(context);
+    return fpe;
+  }
+
+  @Test
+  void testInitializeWithIncorrectDirectives() {
+    assertThrows(IllegalArgumentException.class, () -> initialize("fpe column encrypt digits"));
+    assertThrows(IllegalArgumentException.class, () -> initialize("fpe column hide digits " + KEY));
+    assertThrows(IllegalArgumentException.class, () -> initialize("fpe column encrypt octal " + KEY));
+    assertThrows(IllegalArgumentException.class,
+                 () -> initialize("fpe column encrypt digits " + TestSecrets.reference("xyz")));
+    assertThrows(IllegalArgumentException.class,
+                 () -> initialize("fpe column encrypt digits " + TestSecrets.reference("abcd")));
+    // keys are only taken by reference
+    assertThrows(IllegalArgumentException.class,
+                 () -> initialize("fpe column encrypt digits 2B7E151628AED2A6ABF7158809CF4F3C"));
+    assertThrows(IllegalArgumentException.class, () -> initialize("fpe column encrypt digits " + KEY + " 0g"));
+  }
+
+  @Test
+  void testNistSamples() throws Exception {
+    assertEquals("2433477484", initialize("fpe column encrypt digits " + KEY).transformColumnValue("0123456789"));
+    assertEquals("6124200773", initialize("fpe column encrypt digits " + KEY + " 39383736353433323130")
+      .transformColumnValue("0123456789"));
+    assertEquals("a9tv40mll9kdu509eum", initialize("fpe column encrypt lower-alphanumeric " + KEY +
+                                                     " 3737373770717273373737")
+      .transformColumnValue("0123456789abcdefghi"));
+  }
+
+  @Test
+  void testFormatIsPreserved() throws Exception {
+    FpeTransformation encrypt = initialize("fpe ssn encrypt digits " + KEY);
+    FpeTransformation decrypt = initialize("fpe ssn decrypt digits " + KEY);
+    Object encrypted = encrypt.transformColumnValue("123-45-6789");
+    assertNotEquals("123-45-6789", encrypted);
+    assertEquals(11, encrypted.toString().length());
+    assertEquals('-', encrypted.toString().charAt(3));
+    assertEquals('-', encrypted.toString().charAt(6));
+    assertEquals(encrypted, encrypt.transformColumnValue("123-45-6789"));
+    assertEquals("123-45-6789", decrypt.transformColumnValue(encrypted));
+
+    FpeTransformation alphanumeric = initialize("fpe code encrypt alphanumeric " + KEY);
+    Object code = alphanumeric.transformColumnValue("Ab-Cd é 42");
+    assertEquals("Ab-Cd é 42".replaceAll("[0-9A-Za-z]", "x"), code.toString().replaceAll("[0-9A-Za-z]", "x"));
+    assertEquals("Ab-Cd é 42", initialize("fpe code decrypt alphanumeric " + KEY).transformColumnValue(code));
+  }
+
+  @Test
+  void testTooShortValue() throws Exception {
+    FpeTransformation fpe = initialize("fpe column encrypt digits " + KEY);
+    assertTrue(fpe.skipsEmptyValues());
+    for (String value : new String[] {"", "N/A", "12-345"}) {
+      assertSame(value, fpe.transformColumnValue(value));
+    }
+    assertThrows(IllegalArgumentException.class, () -> fpe.transformColumnValue(123456789L));
+
+    MutableRowValue row = mock(MutableRowValue.class);
+    when(row.getColumnValue("column")).thenReturn("N/A");
+    fpe.transformValue(row);
+    verify(row, never()).setColumnValue(any(), any());
+  }
+
+  @Test
+  void testHexIsCaseInsensitive() throws Exception {
+    FpeTransformation encrypt = initialize("fpe id encrypt hex " + KEY);
+    FpeTransformation decrypt = initialize("fpe id decrypt hex " + KEY);
+    Object lower = encrypt.transformColumnValue("deadbeef0123");
+    assertTrue(lower.toString().matches("[0-9a-f]{12}"));
+    assertEquals(lower, encrypt.transformColumnValue("DEADBEEF0123"));
+    assertEquals(lower, encrypt.transformColumnValue("DeadBeef0123"));
+    assertEquals("deadbeef0123", decrypt.transformColumnValue(lower));
+    // decrypting an uppercase value whose ciphertext has no letters gives back its lowercase form
+    String plaintext = null;
+    Object ciphertext = null;
+    for (int i = 0; ciphertext == null || !ciphertext.toString().matches("[0-9]+"); i++) {
+      plaintext = String.format("ABCDEF%06X", i);
+      ciphertext = encrypt.transformColumnValue(plaintext);
+    }
+    assertEquals(plaintext.toLowerCase(Locale.ROOT), decrypt.transformColumnValue(ciphertext));
+    assertEquals(ciphertext, encrypt.transformColumnValue(plaintext.toLowerCase(Locale.ROOT)));
+  }
+
+  @Test
+  void testTransformSchema() throws Exception {
+    FpeTransformation fpe = initialize("fpe column encrypt digits " + KEY);
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField("column"))
+      .thenReturn(Schema.Field.of("column", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    fpe.transformSchema(schema);
+    verify(schema, never()).setField(any());
+    verify(schema, never()).renameField(any(), any());
+    when(schema.getField("column")).thenReturn(Schema.Field.of("column", Schema.of(Schema.Type.LONG)));
+    assertThrows(IllegalArgumentException.class, () -> fpe.transformSchema(schema));
+  }
+
+  @Test
+  void testTransformValues() throws Exception {
+    FpeTransformation fpe = initialize("fpe column encrypt digits " + KEY);
+    MutableRowValue first = mock(MutableRowValue.class);
+    when(first.getColumnValue(matches("column"))).thenReturn("0123456789");
+    MutableRowValue second = mock(MutableRowValue.class);
+    when(second.getColumnValue(matches("column"))).thenReturn(null);
+    fpe.transformValues(Arrays.asList(first, second));
+    verify(first, times(1)).setColumnValue("column", "2433477484");
+    verify(second, never()).setColumnValue(any(), any());
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.transformation.api.Directive;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.TransformationContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GeneralizeTransformationTest {
+
+  private GeneralizeTransformation generalize = new GeneralizeTransformation();
+
+  private void initialize(String commandLine) throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn(commandLine);
+    when(context.getDirective()).thenReturn(directive);
+    generalize.initialize(context);
+  }
+
+  private static MutableRowSchema schema(Schema.Field... fields) {
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    for (Schema.Field field : fields) {
+      when(schema.getField(field.getName())).thenReturn(field);
+    }
+    return schema;
+  }
+
+  @Test
+  void testInitializeWithIncorrectDirectives() {
+    assertThrows(IllegalArgumentException.class, () -> initialize("generalize salary"));
+    assertThrows(IllegalArgumentException.class, () -> initialize("generalize salary ceil 10"));
+    assertThrows(IllegalArgumentException.class, () -> initialize("generalize salary round -10"));
+    assertThrows(IllegalArgumentException.class, () -> initialize("generalize zip prefix zero"));
+  }
+
+  @Test
+  void testTransformSchema() throws Exception {
+    initialize("generalize salary round 10000");
+    assertThrows(IllegalStateException.class, () -> generalize.transformColumnValue(123456L));
+    MutableRowSchema schema = schema(Schema.Field.of("salary", Schema.nullableOf(Schema.of(Schema.Type.LONG))),
+                                     Schema.Field.of("name", Schema.of(Schema.Type.STRING)));
+    generalize.transformSchema(schema);
+    verify(schema, never()).setField(any());
+    verify(schema, never()).renameField(any(), any());
+    assertEquals(120000L, generalize.transformColumnValue(123456L));
+
+    GeneralizeTransformation restored = new GeneralizeTransformation();
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("generalize salary round 10000");
+    when(context.getDirective()).thenReturn(directive);
+    restored.initialize(context);
+    restored.restoreSchemaState(generalize.getSchemaState(), schema);
+    assertEquals(130000L, restored.transformColumnValue(125000L));
+
+    initialize("generalize name round 10000");
+    assertThrows(IllegalArgumentException.class, () -> generalize.transformSchema(schema));
+    initialize("generalize missing round 10000");
+    assertThrows(IllegalArgumentException.class, () -> generalize.transformSchema(schema));
+  }
+
+  @Test
+  void testTransformValues() throws Exception {
+    initialize("generalize created floor day when country = 'DE'");
+    generalize.transformSchema(schema(Schema.Field.of("created", Schema.of(Schema.LogicalType.TIMESTAMP_MILLIS)),
+                                      Schema.Field.of("country", Schema.of(Schema.Type.STRING))));
+    MutableRowValue germany = mock(MutableRowValue.class);
+    when(germany.getColumnValue("country")).thenReturn("DE");
+    when(germany.getColumnValue("created")).thenReturn(1625049930123L);
+    MutableRowValue france = mock(MutableRowValue.class);
+    when(france.getColumnValue("country")).thenReturn("FR");
+    when(france.getColumnValue("created")).thenReturn(1625049930123L);
+    MutableRowValue missing = mock(MutableRowValue.class);
+    when(missing.getColumnValue("country")).thenReturn("DE");
+    generalize.transformValues(Arrays.asList(germany, france, missing));
+    verify(germany).setColumnValue("created", 1625011200000L);
+    verify(france, never()).setColumnValue(any(), any());
+    verify(missing, never()).setColumnValue(any(), any());
+  }
+}
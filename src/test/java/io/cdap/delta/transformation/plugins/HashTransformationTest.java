@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.TestSecrets;
+import io.cdap.transformation.api.Directive;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.TransformationContext;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HashTransformationTest {
+
+  private HashTransformation hash = new HashTransformation();
+
+  private void initialize(String commandLine) throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn(commandLine);
+    when(context.getDirective()).thenReturn(directive);
+    hash.initialize(context);
+  }
+
+  @Test
+  void testInitializeWithIncorrectDirectives() throws Exception {
+    assertThrows(IllegalArgumentException.class, () -> initialize(null));
+    assertThrows(IllegalArgumentException.class, () -> initialize("hash column hmac-sha256"));
+    assertThrows(IllegalArgumentException.class, () -> initialize("hash column md5 key"));
+    assertThrows(IllegalArgumentException.class,
+                 () -> initialize("hash column siphash " + TestSecrets.reference("key") + " -1"));
+    // keys are only taken by reference
+    assertThrows(IllegalArgumentException.class, () -> initialize("hash column siphash key"));
+    assertThrows(IllegalArgumentException.class, () -> initialize("hashing column siphash key"));
+  }
+
+  @Test
+  void testHmacSha256() throws Exception {
+    // RFC 4231 test case 2
+    initialize("hash column hmac-sha256 " + TestSecrets.reference("Jefe"));
+    assertEquals("5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843",
+                 hash.transformColumnValue("what do ya want for nothing?"));
+  }
+
+  @Test
+  void testSipHash() throws Exception {
+    initialize("hash column siphash " + TestSecrets.reference("secret") + " 0");
+    Object token = hash.transformColumnValue("customer-1");
+    assertEquals(16, token.toString().length());
+    assertEquals(token, hash.transformColumnValue("customer-1"));
+    assertNotEquals(token, hash.transformColumnValue("customer-2"));
+
+    HashTransformation otherKey = new HashTransformation();
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("hash column siphash " + TestSecrets.reference("other"));
+    when(context.getDirective()).thenReturn(directive);
+    otherKey.initialize(context);
+    assertNotEquals(token, otherKey.transformColumnValue("customer-1"));
+  }
+
+  @Test
+  void testCache() throws Exception {
+    initialize("hash column hmac-sha256 " + TestSecrets.reference("key") + " 2");
+    Object token = hash.transformColumnValue("a");
+    assertEquals(token, hash.transformColumnValue("a"));
+    hash.transformColumnValue("b");
+    assertEquals(1, hash.getCacheStats().hitCount());
+    assertEquals(2, hash.getCacheStats().missCount());
+    assertEquals(1d / 3, hash.getCacheHitRate(), 1e-9);
+
+    initialize("hash column hmac-sha256 " + TestSecrets.reference("key") + " 0");
+    assertEquals(token, hash.transformColumnValue("a"));
+    assertEquals(0, hash.getCacheStats().requestCount());
+  }
+
+  @Test
+  void testTransformSchema() throws Exception {
+    initialize("hash column siphash " + TestSecrets.reference("key"));
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField("column"))
+      .thenReturn(Schema.Field.of("column", Schema.nullableOf(Schema.of(Schema.Type.LONG))));
+    hash.transformSchema(schema);
+    verify(schema, never()).renameField(any(), any());
+    ArgumentCaptor<Schema.Field> columnField = ArgumentCaptor.forClass(Schema.Field.class);
+    verify(schema, times(1)).setField(columnField.capture());
+    assertEquals("column", columnField.getValue().getName());
+    assertEquals(Schema.nullableOf(Schema.of(Schema.Type.STRING)), columnField.getValue().getSchema());
+    assertEquals(hash.transformColumnValue("42"), hash.transformColumnValue(42L));
+  }
+
+  @Test
+  void testTransformValues() throws Exception {
+    initialize("hash column hmac-sha256 " + TestSecrets.reference("Jefe"));
+    MutableRowValue first = mock(MutableRowValue.class);
+    when(first.getColumnValue(matches("column"))).thenReturn("what do ya want for nothing?");
+    MutableRowValue second = mock(MutableRowValue.class);
+    when(second.getColumnValue(matches("column"))).thenReturn(null);
+    hash.transformValues(Arrays.asList(first, second));
+    verify(first, times(1))
+      .setColumnValue("column", "5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843");
+    verify(second, never()).setColumnValue(any(), any());
+  }
+}
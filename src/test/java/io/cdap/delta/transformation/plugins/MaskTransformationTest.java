@@ -16,6 +16,7 @@
 
 package io.cdap.delta.transformation.plugins;
 
+import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.transformation.api.Directive;
 import io.cdap.transformation.api.MutableRowSchema;
@@ -24,8 +25,14 @@ import io.cdap.transformation.api.TransformationContext;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.matches;
 import static org.mockito.Mockito.mock;
@@ -120,8 +127,8 @@ public class MaskTransformationTest {
     when(schema.getField(matches("column"))).thenReturn(
       Schema.Field.of("column", Schema.of(Schema.Type.STRING)),
       Schema.Field.of("column", Schema.unionOf(Schema.of(Schema.Type.STRING), Schema.of(Schema.Type.NULL))));
-    mask.transformSchema(schema);
-    mask.transformSchema(schema);
+    mask.applySchema(schema);
+    mask.applySchema(schema);
     verify(schema, never()).setField(any());
     verify(schema, times(2)).getField(matches("column"));
     verify(schema, never()).renameField(any(), any());
@@ -194,4 +201,208 @@ public class MaskTransformationTest {
     when(value.getColumnValue(matches("column"))).thenReturn(true);
     assertThrows(IllegalArgumentException.class, () -> mask.transformValue(value));
   }
+
+  @Test
+  void testTransformValues() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("mask column right * 2");
+    when(context.getDirective()).thenReturn(directive);
+    mask.initialize(context);
+    MutableRowValue first = mock(MutableRowValue.class);
+    when(first.getColumnValue(matches("column"))).thenReturn("abcdef");
+    MutableRowValue second = mock(MutableRowValue.class);
+    when(second.getColumnValue(matches("column"))).thenReturn(null);
+    MutableRowValue third = mock(MutableRowValue.class);
+    when(third.getColumnValue(matches("column"))).thenReturn("xyz");
+    mask.transformValues(Arrays.asList(first, second, third));
+    verify(first, times(1)).setColumnValue("column", "****ef");
+    verify(second, never()).setColumnValue(any(), any());
+    verify(third, times(1)).setColumnValue("column", "*yz");
+  }
+
+  @Test
+  void testTransformValueColumnList() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("mask ssn,card right * 2");
+    when(context.getDirective()).thenReturn(directive);
+    mask.initialize(context);
+    assertEquals(Arrays.asList("ssn", "card"), mask.getColumns());
+    MutableRowValue value = mock(MutableRowValue.class);
+    when(value.getColumnValue("ssn")).thenReturn("123456789");
+    when(value.getColumnValue("card")).thenReturn("4111");
+    mask.transformValue(value);
+    verify(value, times(1)).setColumnValue("ssn", "*******89");
+    verify(value, times(1)).setColumnValue("card", "**11");
+  }
+
+  @Test
+  void testColumnPatternIsRejected() {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("mask /.*_ssn$/ left * 3");
+    when(context.getDirective()).thenReturn(directive);
+    assertThrows(IllegalArgumentException.class, () -> mask.initialize(context));
+    when(directive.getWholeCommandLine()).thenReturn("mask *_ssn left * 3");
+    assertThrows(IllegalArgumentException.class, () -> mask.initialize(context));
+  }
+
+  @Test
+  void testTransformSchemaWithMissingColumn() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("mask ssn,card right * 2");
+    when(context.getDirective()).thenReturn(directive);
+    mask.initialize(context);
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField("ssn")).thenReturn(Schema.Field.of("ssn", Schema.of(Schema.Type.STRING)));
+    assertThrows(IllegalArgumentException.class, () -> mask.transformSchema(schema));
+  }
+
+  @Test
+  void testTransformBytes() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("mask payload right * 2");
+    when(context.getDirective()).thenReturn(directive);
+    mask.initialize(context);
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField(matches("payload"))).thenReturn(
+      Schema.Field.of("payload", Schema.nullableOf(Schema.of(Schema.Type.BYTES))),
+      Schema.Field.of("payload", Schema.decimalOf(10, 2)));
+    mask.transformSchema(schema);
+    assertThrows(IllegalArgumentException.class, () -> mask.transformSchema(schema));
+
+    MutableRowValue value = mock(MutableRowValue.class);
+    when(value.getColumnValue(matches("payload"))).thenReturn(new byte[] {1, 2, 3, 4},
+                                                              ByteBuffer.wrap(new byte[] {5, 6, 7}));
+    mask.transformValue(value);
+    mask.transformValue(value);
+    ArgumentCaptor<Object> columnValue = ArgumentCaptor.forClass(Object.class);
+    verify(value, times(2)).setColumnValue(matches("payload"), columnValue.capture());
+    assertArrayEquals(new byte[] {'*', '*', 3, 4}, (byte[]) columnValue.getAllValues().get(0));
+    assertEquals(ByteBuffer.wrap(new byte[] {'*', 6, 7}), columnValue.getAllValues().get(1));
+  }
+
+  @Test
+  void testTransformValueByUnit() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("mask name right * 1 code-point", "mask name right * 1 grapheme",
+                                                     "mask name right * 1 byte");
+    when(context.getDirective()).thenReturn(directive);
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField(matches("name"))).thenReturn(Schema.Field.of("name", Schema.of(Schema.Type.STRING)));
+    MutableRowValue value = mock(MutableRowValue.class);
+    when(value.getColumnValue(matches("name"))).thenReturn("\ud83d\ude00Jose\u0301");
+
+    mask.initialize(context);
+    mask.transformSchema(schema);
+    mask.transformValue(value);
+    mask.initialize(context);
+    mask.transformSchema(schema);
+    mask.transformValue(value);
+    ArgumentCaptor<Object> columnValue = ArgumentCaptor.forClass(Object.class);
+    verify(value, times(2)).setColumnValue(matches("name"), columnValue.capture());
+    assertEquals("*****\u0301", columnValue.getAllValues().get(0));
+    assertEquals("****e\u0301", columnValue.getAllValues().get(1));
+    assertThrows(IllegalArgumentException.class, () -> mask.initialize(context));
+  }
+
+  @Test
+  void testTransformValueWhen() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("mask ssn right * 4 when country = 'DE' and op != 'delete'");
+    when(context.getDirective()).thenReturn(directive);
+    mask.initialize(context);
+    assertNotNull(mask.getCondition());
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField(matches("ssn"))).thenReturn(Schema.Field.of("ssn", Schema.of(Schema.Type.STRING)));
+    when(schema.getField(matches("country"))).thenReturn(Schema.Field.of("country", Schema.of(Schema.Type.STRING)));
+    assertThrows(IllegalArgumentException.class, () -> mask.transformSchema(schema));
+    when(schema.getField(matches("op"))).thenReturn(Schema.Field.of("op", Schema.of(Schema.Type.STRING)));
+    mask.transformSchema(schema);
+
+    MutableRowValue german = mock(MutableRowValue.class);
+    when(german.getColumnValue(matches("ssn"))).thenReturn("123456789");
+    when(german.getColumnValue(matches("country"))).thenReturn("DE");
+    when(german.getColumnValue(matches("op"))).thenReturn("insert");
+    MutableRowValue french = mock(MutableRowValue.class);
+    when(french.getColumnValue(matches("ssn"))).thenReturn("987654321");
+    when(french.getColumnValue(matches("country"))).thenReturn("FR");
+    mask.transformValues(Arrays.asList(german, french));
+    verify(german).setColumnValue("ssn", "*****6789");
+    verify(french, never()).setColumnValue(any(), any());
+  }
+
+  @Test
+  void testNullAndEmptyValuesSkipCondition() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("mask ssn,phone right * 2 when country = 'DE'");
+    when(context.getDirective()).thenReturn(directive);
+    mask.initialize(context);
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField(any())).thenAnswer(
+      invocation -> Schema.Field.of(invocation.getArgument(0), Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    mask.transformSchema(schema);
+
+    MutableRowValue allNull = mock(MutableRowValue.class);
+    MutableRowValue empty = mock(MutableRowValue.class);
+    when(empty.getColumnValue("ssn")).thenReturn("");
+    MutableRowValue partial = mock(MutableRowValue.class);
+    when(partial.getColumnValue("phone")).thenReturn("5551234");
+    when(partial.getColumnValue("country")).thenReturn("DE");
+    mask.transformValue(allNull);
+    mask.transformValues(Arrays.asList(empty, partial));
+    verify(allNull, never()).getColumnValue("country");
+    verify(allNull, never()).setColumnValue(any(), any());
+    verify(empty, never()).getColumnValue("country");
+    verify(empty, never()).setColumnValue(any(), any());
+    verify(partial).setColumnValue("phone", "*****34");
+    verify(partial, never()).setColumnValue(matches("ssn"), any());
+  }
+
+  @Test
+  void testTransformFieldPaths() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("mask doc.card.number,customer.ssn right * 2");
+    when(context.getDirective()).thenReturn(directive);
+    mask.initialize(context);
+    assertTrue(mask.hasFieldPaths());
+    assertEquals(Arrays.asList("doc", "customer"), mask.getColumns());
+    assertThrows(IllegalStateException.class, () -> mask.transformColumnValue("1234"));
+
+    Schema customer = Schema.recordOf("customer", Schema.Field.of("ssn", Schema.of(Schema.Type.STRING)));
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField("doc")).thenReturn(Schema.Field.of("doc", Schema.of(Schema.Type.STRING)));
+    when(schema.getField("customer")).thenReturn(Schema.Field.of("customer", customer));
+    mask.transformSchema(schema);
+    verify(schema, never()).setField(any());
+
+    MutableRowValue value = mock(MutableRowValue.class);
+    when(value.getColumnValue(matches("doc"))).thenReturn("{\"card\": {\"number\": \"4111\"}, \"n\": 1}");
+    when(value.getColumnValue(matches("customer")))
+      .thenReturn(StructuredRecord.builder(customer).set("ssn", "123456").build());
+    mask.transformValue(value);
+    ArgumentCaptor<Object> doc = ArgumentCaptor.forClass(Object.class);
+    ArgumentCaptor<Object> record = ArgumentCaptor.forClass(Object.class);
+    verify(value).setColumnValue(matches("doc"), doc.capture());
+    verify(value).setColumnValue(matches("customer"), record.capture());
+    assertEquals("{\"card\": {\"number\": \"**11\"}, \"n\": 1}", doc.getValue());
+    assertEquals("****56", ((StructuredRecord) record.getValue()).get("ssn"));
+
+    Schema badCustomer = Schema.recordOf("customer", Schema.Field.of("ssn", Schema.of(Schema.Type.INT)));
+    when(schema.getField("customer")).thenReturn(Schema.Field.of("customer", badCustomer));
+    assertThrows(IllegalArgumentException.class, () -> mask.transformSchema(schema));
+    // errors name the column of the path being masked
+    MutableRowValue badValue = mock(MutableRowValue.class);
+    when(badValue.getColumnValue(matches("customer")))
+      .thenReturn(StructuredRecord.builder(badCustomer).set("ssn", 123456).build());
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> mask.transformValue(badValue));
+    assertEquals("Column customer is supposed to have string or bytes value.", e.getMessage());
+  }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.transformation.api.Directive;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.TransformationContext;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProjectTransformationTest {
+
+  private final ProjectTransformation project = new ProjectTransformation();
+
+  private static TransformationContext context(String commandLine) {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn(commandLine);
+    when(context.getDirective()).thenReturn(directive);
+    return context;
+  }
+
+  private static MutableRowSchema schema(Schema.Field... fields) {
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    for (Schema.Field field : fields) {
+      when(schema.getField(field.getName())).thenReturn(field);
+    }
+    return schema;
+  }
+
+  private static MutableRowSchema schema(String... fieldNames) {
+    return schema(Arrays.stream(fieldNames).map(name -> Schema.Field.of(name, Schema.of(Schema.Type.STRING)))
+                    .toArray(Schema.Field[]::new));
+  }
+
+  @Test
+  void testInitializeWithInvalidDirectives() {
+    assertThrows(IllegalArgumentException.class, () -> project.initialize(context("project")));
+    assertThrows(IllegalArgumentException.class, () -> project.initialize(context("project a=b hide c")));
+    assertThrows(IllegalArgumentException.class, () -> project.initialize(context("project case:kebab")));
+    assertThrows(IllegalArgumentException.class, () -> project.initialize(context("project a=b drop c d")));
+    // the schema cannot list its fields, so every column is named
+    assertThrows(IllegalArgumentException.class, () -> project.initialize(context("project case:snake")));
+    assertThrows(IllegalArgumentException.class, () -> project.initialize(context("project none keep id,name")));
+    assertThrows(IllegalArgumentException.class, () -> project.initialize(context("project none drop *_internal")));
+  }
+
+  @Test
+  void testRenamesWithRules() throws Exception {
+    project.initialize(context("project strip-prefix:src_,case:snake,src_orderId,customerName,id=key"));
+    MutableRowSchema schema = schema("src_orderId", "customerName", "id");
+    project.transformSchema(schema);
+    verify(schema).renameField("src_orderId", "order_id");
+    verify(schema).renameField("customerName", "customer_name");
+    verify(schema).renameField("id", "key");
+
+    MutableRowValue value = mock(MutableRowValue.class);
+    project.transformValues(Arrays.asList(value, value));
+    verify(value, times(2)).renameColumn("src_orderId", "order_id");
+    verify(value, times(2)).renameColumn("customerName", "customer_name");
+    verify(value, times(2)).renameColumn("id", "key");
+    verify(value, never()).setColumnValue(anyString(), any());
+  }
+
+  @Test
+  void testRenamesApplyBeforeSchema() throws Exception {
+    project.initialize(context("project a=b,b=a"));
+    MutableRowValue value = mock(MutableRowValue.class);
+    project.transformValue(value);
+    verify(value, times(3)).renameColumn(anyString(), anyString());
+
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    project.transformSchema(schema);
+    verify(schema, times(3)).renameField(anyString(), anyString());
+  }
+
+  @Test
+  void testDrop() throws Exception {
+    project.initialize(context("project case:upper,id,note_internal drop note_internal,audit"));
+    Schema.Field note = Schema.Field.of("note_internal", Schema.of(Schema.Type.STRING));
+    Schema.Field audit = Schema.Field.of("audit", Schema.nullableOf(Schema.of(Schema.Type.STRING)));
+    MutableRowSchema schema = schema(Schema.Field.of("id", Schema.of(Schema.Type.LONG)), note, audit);
+    project.transformSchema(schema);
+    // dropped columns stay in the schema, made nullable if they were not
+    InOrder schemaOrder = inOrder(schema);
+    schemaOrder.verify(schema).setField(
+      Schema.Field.of("note_internal", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    schemaOrder.verify(schema).renameField("note_internal", "NOTE_INTERNAL");
+    verify(schema, times(1)).setField(any());
+
+    MutableRowValue value = mock(MutableRowValue.class);
+    project.transformValue(value);
+    InOrder order = inOrder(value);
+    order.verify(value).setColumnValue("note_internal", null);
+    order.verify(value).renameColumn("note_internal", "NOTE_INTERNAL");
+    verify(value).setColumnValue("audit", null);
+    verify(value).renameColumn("id", "ID");
+    verify(value, times(2)).setColumnValue(anyString(), any());
+
+    assertThrows(IllegalArgumentException.class, () -> project.transformSchema(schema("id", "note_internal")));
+  }
+
+  @Test
+  void testNameClashes() throws Exception {
+    assertThrows(IllegalArgumentException.class, () -> project.initialize(context("project case:lower,Id,ID")));
+    assertThrows(IllegalArgumentException.class, () -> project.initialize(context("project a=c,b=c")));
+
+    project.initialize(context("project case:lower,Id"));
+    assertThrows(IllegalArgumentException.class, () -> project.transformSchema(schema("Id", "id")));
+    project.initialize(context("project a=b"));
+    assertThrows(IllegalArgumentException.class, () -> project.transformSchema(schema("a", "b")));
+    project.initialize(context("project a=b,b=c"));
+    project.transformSchema(schema("a", "b"));
+  }
+}
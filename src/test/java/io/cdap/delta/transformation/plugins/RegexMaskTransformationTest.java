@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.plugins;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.transformation.api.Directive;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import io.cdap.transformation.api.TransformationContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RegexMaskTransformationTest {
+
+  private static RegexMaskTransformation initialize(String commandLine) throws Exception {
+    RegexMaskTransformation mask = new RegexMaskTransformation();
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn(commandLine);
+    when(context.getDirective()).thenReturn(directive);
+    mask.initialize(context);
+    return mask;
+  }
+
+  @Test
+  void testInitializeWithIncorrectDirectives() {
+    assertThrows(IllegalArgumentException.class, () -> initialize("mask-regex column \\d"));
+    assertThrows(IllegalArgumentException.class, () -> initialize("mask-regex column ([a-z] *"));
+    assertThrows(IllegalArgumentException.class, () -> initialize("mask-regex column \\d **"));
+  }
+
+  @Test
+  void testMaskGroups() throws Exception {
+    RegexMaskTransformation email = initialize("mask-regex email ([^@\\s]+)@ *");
+    assertEquals("****@example.com", email.transformColumnValue("jane@example.com"));
+    assertEquals("to: ****@a.io, ***@b.io", email.transformColumnValue("to: jane@a.io, bob@b.io"));
+    String noEmail = "no email here";
+    assertSame(noEmail, email.transformColumnValue(noEmail));
+
+    RegexMaskTransformation card = initialize("mask-regex notes (\\d{4}[\\s-]?\\d{4}[\\s-]?\\d{4})[\\s-]?\\d{4} #");
+    assertEquals("card ##############-4444 on file",
+                 card.transformColumnValue("card 1111-2222-3333-4444 on file"));
+    assertEquals("call 555-0100", card.transformColumnValue("call 555-0100"));
+  }
+
+  @Test
+  void testMaskWholeMatch() throws Exception {
+    RegexMaskTransformation phone = initialize("mask-regex phone \\d X");
+    assertEquals("+X (XXX) XXX-XXXX", phone.transformColumnValue("+1 (555) 123-4567"));
+    assertThrows(IllegalArgumentException.class, () -> phone.transformColumnValue(5551234567L));
+  }
+
+  @Test
+  void testEmptyValues() throws Exception {
+    assertFalse(initialize("mask-regex ssn \\d* *").skipsEmptyValues());
+    RegexMaskTransformation mask = initialize("mask-regex ssn \\d{3} * when country = 'DE'");
+    assertTrue(mask.skipsEmptyValues());
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField(any())).thenAnswer(
+      invocation -> Schema.Field.of(invocation.getArgument(0), Schema.of(Schema.Type.STRING)));
+    mask.transformSchema(schema);
+    MutableRowValue empty = mock(MutableRowValue.class);
+    when(empty.getColumnValue("ssn")).thenReturn("");
+    mask.transformValue(empty);
+    verify(empty, never()).getColumnValue("country");
+    verify(empty, never()).setColumnValue(any(), any());
+  }
+
+  @Test
+  void testTransformSchema() throws Exception {
+    RegexMaskTransformation mask = initialize("mask-regex column \\d *");
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField("column"))
+      .thenReturn(Schema.Field.of("column", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    mask.transformSchema(schema);
+    verify(schema, never()).setField(any());
+    when(schema.getField("column")).thenReturn(Schema.Field.of("column", Schema.of(Schema.Type.INT)));
+    assertThrows(IllegalArgumentException.class, () -> mask.transformSchema(schema));
+  }
+
+  @Test
+  void testTransformValues() throws Exception {
+    RegexMaskTransformation mask = initialize("mask-regex column \\d *");
+    MutableRowValue first = mock(MutableRowValue.class);
+    when(first.getColumnValue(matches("column"))).thenReturn("a1b2");
+    MutableRowValue second = mock(MutableRowValue.class);
+    when(second.getColumnValue(matches("column"))).thenReturn("ab");
+    MutableRowValue third = mock(MutableRowValue.class);
+    when(third.getColumnValue(matches("column"))).thenReturn(null);
+    mask.transformValues(Arrays.asList(first, second, third));
+    verify(first, times(1)).setColumnValue("column", "a*b*");
+    verify(second, never()).setColumnValue(any(), any());
+    verify(third, never()).setColumnValue(any(), any());
+  }
+}
@@ -16,6 +16,8 @@
 
 package io.cdap.delta.transformation.plugins;
 
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.transformation.api.Directive;
 import io.cdap.transformation.api.MutableRowSchema;
 import io.cdap.transformation.api.MutableRowValue;
@@ -23,8 +25,11 @@ import io.cdap.transformation.api.TransformationContext;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.matches;
 import static org.mockito.Mockito.mock;
@@ -85,7 +90,7 @@ class RenameTransformationTest {
     when(context.getDirective()).thenReturn(directive);
     rename.initialize(context);
     MutableRowSchema schema = mock(MutableRowSchema.class);
-    rename.transformSchema(schema);
+    rename.applySchema(schema);
     verify(schema, never()).setField(any());
     verify(schema, never()).getField(any());
     ArgumentCaptor<String> from = ArgumentCaptor.forClass(String.class);
@@ -112,4 +117,77 @@ class RenameTransformationTest {
     assertEquals("from", from.getValue());
     assertEquals("to", to.getValue());
   }
+
+  @Test
+  void testTransformValues() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("rename from to");
+    when(context.getDirective()).thenReturn(directive);
+    rename.initialize(context);
+    MutableRowValue first = mock(MutableRowValue.class);
+    MutableRowValue second = mock(MutableRowValue.class);
+    rename.transformValues(Arrays.asList(first, second));
+    verify(first, times(1)).renameColumn("from", "to");
+    verify(second, times(1)).renameColumn("from", "to");
+  }
+
+  @Test
+  void testTransformFieldPath() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("rename customer.address.zip customer.address.postal_code");
+    when(context.getDirective()).thenReturn(directive);
+    rename.initialize(context);
+    assertTrue(rename.isFieldPath());
+
+    Schema address = Schema.recordOf("address", Schema.Field.of("zip", Schema.of(Schema.Type.STRING)));
+    Schema customer = Schema.recordOf("customer", Schema.Field.of("address", address));
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField("customer")).thenReturn(Schema.Field.of("customer", customer));
+    rename.transformSchema(schema);
+    ArgumentCaptor<Schema.Field> field = ArgumentCaptor.forClass(Schema.Field.class);
+    verify(schema).setField(field.capture());
+    verify(schema, never()).renameField(any(), any());
+    assertEquals("customer", field.getValue().getName());
+    Schema renamedAddress = field.getValue().getSchema().getField("address").getSchema();
+    assertEquals("postal_code", renamedAddress.getFields().get(0).getName());
+
+    MutableRowValue value = mock(MutableRowValue.class);
+    when(value.getColumnValue(matches("customer"))).thenReturn(
+      StructuredRecord.builder(customer).set("address", StructuredRecord.builder(address).set("zip", "1").build())
+        .build());
+    rename.transformValue(value);
+    ArgumentCaptor<Object> record = ArgumentCaptor.forClass(Object.class);
+    verify(value).setColumnValue(matches("customer"), record.capture());
+    verify(value, never()).renameColumn(any(), any());
+    assertEquals("1", ((StructuredRecord) ((StructuredRecord) record.getValue()).get("address")).get("postal_code"));
+  }
+
+  @Test
+  void testTransformJsonFieldPath() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("rename doc.user.name full_name");
+    when(context.getDirective()).thenReturn(directive);
+    rename.initialize(context);
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField("doc")).thenReturn(Schema.Field.of("doc", Schema.of(Schema.Type.STRING)));
+    rename.transformSchema(schema);
+    verify(schema, never()).setField(any());
+
+    MutableRowValue value = mock(MutableRowValue.class);
+    when(value.getColumnValue(matches("doc"))).thenReturn("{\"user\": {\"name\": \"x\"}}");
+    rename.transformValue(value);
+    verify(value).setColumnValue(matches("doc"), matches("\\{\"user\": \\{\"full_name\": \"x\"}}"));
+  }
+
+  @Test
+  void testInitializeFieldPathToOtherParent() {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("rename customer.address.zip customer.zip");
+    when(context.getDirective()).thenReturn(directive);
+    assertThrows(IllegalArgumentException.class, () -> rename.initialize(context));
+  }
 }
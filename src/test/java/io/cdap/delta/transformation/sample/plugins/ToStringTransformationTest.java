@@ -24,6 +24,8 @@ import io.cdap.transformation.api.TransformationContext;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -87,7 +89,7 @@ class ToStringTransformationTest {
     MutableRowSchema schema = mock(MutableRowSchema.class);
     toString.transformSchema(schema);
     verify(schema, never()).renameField(any(), any());
-    verify(schema, never()).getField(any());
+    verify(schema, times(1)).getField("column");
     ArgumentCaptor<Schema.Field> columnField = ArgumentCaptor.forClass(Schema.Field.class);
     verify(schema, times(1)).setField(columnField.capture());
     Schema.Field field = columnField.getValue();
@@ -113,4 +115,47 @@ class ToStringTransformationTest {
     assertEquals("column", columnName.getValue());
     assertEquals("true", columnValue.getValue());
   }
+
+  @Test
+  void testTransformValues() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("to-string column");
+    when(context.getDirective()).thenReturn(directive);
+    toString.initialize(context);
+    MutableRowValue first = mock(MutableRowValue.class);
+    when(first.getColumnValue(matches("column"))).thenReturn(12L);
+    MutableRowValue second = mock(MutableRowValue.class);
+    when(second.getColumnValue(matches("column"))).thenReturn(null);
+    toString.transformValues(Arrays.asList(first, second));
+    verify(first, times(1)).setColumnValue("column", "12");
+    verify(second, never()).setColumnValue(any(), any());
+  }
+
+  @Test
+  void testTransformValueWithTypedSchema() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    when(directive.getWholeCommandLine()).thenReturn("to-string column");
+    when(context.getDirective()).thenReturn(directive);
+    toString.initialize(context);
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    when(schema.getField("column"))
+      .thenReturn(Schema.Field.of("column", Schema.nullableOf(Schema.of(Schema.LogicalType.DATE))));
+    toString.transformSchema(schema);
+    MutableRowValue value = mock(MutableRowValue.class);
+    when(value.getColumnValue(matches("column"))).thenReturn(18808);
+    toString.transformValue(value);
+    verify(value, times(1)).setColumnValue("column", "2021-06-30");
+  }
+
+  @Test
+  void testInitializeWithWhenClause() throws Exception {
+    TransformationContext context = mock(TransformationContext.class);
+    Directive directive = mock(Directive.class);
+    // converting only some rows would leave values that do not match the string schema
+    when(directive.getWholeCommandLine()).thenReturn("to-string id when country = 'DE'");
+    when(context.getDirective()).thenReturn(directive);
+    assertThrows(IllegalArgumentException.class, () -> toString.initialize(context));
+  }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2023 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.delta.transformation.schema;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.delta.transformation.DirectiveContext;
+import io.cdap.delta.transformation.ReplayableSchemaTransformation;
+import io.cdap.delta.transformation.plugins.RenameTransformation;
+import io.cdap.delta.transformation.sample.plugins.ToStringTransformation;
+import io.cdap.transformation.api.MutableRowSchema;
+import io.cdap.transformation.api.MutableRowValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchemaTransformationCacheTest {
+
+  private final SchemaTransformationCache cache = new SchemaTransformationCache(16);
+
+  private void transformSchema(ReplayableSchemaTransformation transformation, String commandLine,
+                               MutableRowSchema schema) throws Exception {
+    transformation.initialize(new DirectiveContext(commandLine));
+    cache.transformSchema(transformation, commandLine, schema);
+  }
+
+  private static MutableRowSchema schema(Schema.Field... fields) {
+    MutableRowSchema schema = mock(MutableRowSchema.class);
+    for (Schema.Field field : fields) {
+      when(schema.getField(field.getName())).thenReturn(field);
+    }
+    return schema;
+  }
+
+  @Test
+  void testReplay() throws Exception {
+    Schema.Field date = Schema.Field.of("day", Schema.of(Schema.LogicalType.DATE));
+    Schema.Field id = Schema.Field.of("id", Schema.of(Schema.Type.LONG));
+    MutableRowSchema firstSchema = schema(date, id);
+    transformSchema(new ToStringTransformation(), "to-string day", firstSchema);
+    verify(firstSchema, times(1)).setField(Schema.Field.of("day", Schema.of(Schema.Type.STRING)));
+    assertEquals(1, cache.missCount());
+
+    // only the fields the directive read make up the key
+    ToStringTransformation toString = new ToStringTransformation();
+    MutableRowSchema secondSchema = schema(date, Schema.Field.of("id", Schema.of(Schema.Type.STRING)));
+    transformSchema(toString, "to-string day", secondSchema);
+    verify(secondSchema, times(1)).setField(Schema.Field.of("day", Schema.of(Schema.Type.STRING)));
+    verify(secondSchema, never()).getField("id");
+    assertEquals(1, cache.hitCount());
+    // the converter picked from the cached schema is restored
+    assertEquals("2021-06-30", toString.transformColumnValue(18808));
+    MutableRowValue row = mock(MutableRowValue.class);
+    when(row.getColumnValue("day")).thenReturn(18808);
+    toString.transformValue(row);
+    verify(row, times(1)).setColumnValue("day", "2021-06-30");
+
+    // a different input field or directive is a miss
+    transformSchema(new ToStringTransformation(), "to-string day",
+                    schema(Schema.Field.of("day", Schema.of(Schema.Type.INT)), id));
+    transformSchema(new ToStringTransformation(), "to-string id", schema(date, id));
+    assertEquals(3, cache.missCount());
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  void testReplayRename() throws Exception {
+    Schema.Field id = Schema.Field.of("id", Schema.of(Schema.Type.LONG));
+    transformSchema(new RenameTransformation(), "rename id customer_id", schema(id));
+    MutableRowSchema schema = schema(id);
+    transformSchema(new RenameTransformation(), "rename id customer_id", schema);
+    verify(schema, times(1)).renameField("id", "customer_id");
+    verify(schema, never()).setField(any());
+    assertEquals(1, cache.hitCount());
+
+    // the source and target of a rename are part of the key, since the rename carries the source field and the
+    // schema may reject an existing target
+    MutableRowSchema clash = schema(id, Schema.Field.of("customer_id", Schema.of(Schema.Type.STRING)));
+    transformSchema(new RenameTransformation(), "rename id customer_id", clash);
+    verify(clash, times(1)).renameField("id", "customer_id");
+    transformSchema(new RenameTransformation(), "rename id customer_id",
+                    schema(Schema.Field.of("id", Schema.of(Schema.Type.STRING))));
+    assertEquals(1, cache.hitCount());
+    assertEquals(3, cache.missCount());
+  }
+
+  @Test
+  void testDerivedReadsAreNotRecorded() {
+    MutableRowSchema delegate = schema(Schema.Field.of("a", Schema.of(Schema.Type.LONG)));
+    RecordingRowSchema recording = new RecordingRowSchema(delegate);
+    recording.setField(Schema.Field.of("b", Schema.of(Schema.Type.STRING)));
+    recording.getField("b");
+    recording.renameField("a", "c");
+    recording.getField("c");
+    recording.getField("a");
+    assertEquals(Arrays.asList("a", "c"), recording.getReadNames());
+    assertEquals(Arrays.asList(Schema.Field.of("a", Schema.of(Schema.Type.LONG)), null), recording.getReadFields());
+    assertEquals(2, recording.getMutations().size());
+  }
+
+  @Test
+  void testPluginsShareTheCache() throws Exception {
+    SchemaTransformationCache shared = SchemaTransformationCache.shared();
+    Schema.Field id = Schema.Field.of("shared_id", Schema.of(Schema.Type.LONG));
+    RenameTransformation first = new RenameTransformation();
+    first.initialize(new DirectiveContext("rename shared_id shared_key"));
+    RenameTransformation second = new RenameTransformation();
+    second.initialize(new DirectiveContext("rename shared_id shared_key"));
+    long hits = shared.hitCount();
+    first.transformSchema(schema(id));
+    MutableRowSchema schema = schema(id);
+    second.transformSchema(schema);
+    verify(schema, times(1)).renameField("shared_id", "shared_key");
+    assertEquals(hits + 1, shared.hitCount());
+  }
+}